@@ -1,4 +1,7 @@
 module simulator.cws {
+    requires simulator.cws.core;
+    requires simulator.cws.monitoring;
+
     requires javafx.controls;
     requires javafx.fxml;
     requires javafx.web;
@@ -14,8 +17,4 @@ module simulator.cws {
     exports simulator.cws;
     exports simulator.cws.ui;
     opens simulator.cws.ui to javafx.fxml;
-    exports simulator.cws.models;
-    opens simulator.cws.models to javafx.fxml;
-    exports simulator.cws.utlils;
-    opens simulator.cws.utlils to javafx.fxml;
-}
\ No newline at end of file
+}
@@ -0,0 +1,821 @@
+package simulator.cws;
+
+import javafx.animation.AnimationTimer;
+import javafx.application.Platform;
+import javafx.collections.transformation.FilteredList;
+import javafx.fxml.FXML;
+import javafx.scene.Node;
+import javafx.scene.control.*;
+import javafx.scene.layout.FlowPane;
+import javafx.stage.FileChooser;
+import simulator.cws.journal.JournalReader;
+import simulator.cws.journal.JournalReplayer;
+import simulator.cws.journal.JournalWriter;
+import simulator.cws.load.ArrivalProcess;
+import simulator.cws.load.LoadGenerator;
+import simulator.cws.metrics.Histogram;
+import simulator.cws.metrics.StationMetrics;
+import simulator.cws.models.CustomerClasses;
+import simulator.cws.models.DispatchPolicyType;
+import simulator.cws.models.ExecutionMode;
+import simulator.cws.models.ServiceStation;
+import simulator.cws.models.ServiceTime;
+import simulator.cws.monitoring.http.MetricsServer;
+import simulator.cws.scaling.Autoscaler;
+import simulator.cws.ui.CarCard;
+import simulator.cws.ui.LogBuffer;
+import simulator.cws.ui.LogEntry;
+import simulator.cws.ui.LogSpill;
+import simulator.cws.ui.PumpCanvas;
+import simulator.cws.ui.PumpCard;
+import simulator.cws.ui.QueueCanvas;
+import simulator.cws.ui.StationFrame;
+import simulator.cws.ui.UiEvent;
+import simulator.cws.utlils.CarObserver;
+import simulator.cws.utlils.PumpObserver;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+public class MainController implements CarObserver, PumpObserver {
+    private static final int PUMP_FREE = -1;
+    private static final String ALL_LEVELS = "ALL";
+
+    // how many log entries stay in memory, override with -Dcws.log.retention=N
+    private static final int LOG_RETENTION = Integer.getInteger("cws.log.retention", 50_000);
+    private static final int METRICS_PORT = Integer.getInteger("cws.metrics.port", MetricsServer.DEFAULT_PORT);
+    private static final long SPILL_FILE_BYTES = 16L * 1024 * 1024;
+    private static final int SPILL_FILES = 8;
+
+    private static final Path JOURNAL_DIR = Path.of("journals");
+    private static final DateTimeFormatter JOURNAL_STAMP = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+    private static final String FIXED_SERVICE = "Fixed";
+    private static final String EXPONENTIAL_SERVICE = "Exponential";
+    private static final String LOGNORMAL_SERVICE = "Lognormal";
+    private static final double LOGNORMAL_CV = 0.5;
+
+    private static final String ONE_CLASS = "One class";
+    private static final String STRICT_CLASSES = "Strict";
+    private static final String AGED_CLASSES = "Strict + aging";
+    private static final String WEIGHTED_CLASSES = "Weighted";
+    // a waiting car moves up a class every 20s under strict priority with aging
+    private static final long CLASS_AGING_NANOS = 20_000_000_000L;
+
+    private static final String POISSON = "Poisson";
+    private static final String DETERMINISTIC = "Deterministic";
+    private static final String BURSTY = "Bursty";
+    private static final String RUSH_HOUR = "Rush hour";
+    // bursty load: 5s at the entered rate, then 10s of silence
+    private static final long BURST_ON_NANOS = 5_000_000_000L;
+    private static final long BURST_OFF_NANOS = 10_000_000_000L;
+    // share of the entered (peak) rate for each hour of a day compressed to 24 minutes
+    private static final double[] RUSH_HOUR_PROFILE = {
+            0.05, 0.02, 0.02, 0.02, 0.05, 0.15, 0.45, 0.9, 1.0, 0.6, 0.4, 0.45,
+            0.55, 0.5, 0.4, 0.45, 0.7, 1.0, 0.85, 0.5, 0.3, 0.2, 0.1, 0.08};
+    private static final long RUSH_HOUR_SEGMENT_NANOS = 60_000_000_000L;
+
+    @FXML private TextField capacityField;
+    @FXML private TextField pumpsField;
+    @FXML private Button startBtn;
+    @FXML private Button stopBtn;
+    @FXML private Button resetBtn;
+    @FXML private Button addCarButton;
+    @FXML private Button loadBtn;
+    @FXML private ComboBox<String> loadProcessBox;
+    @FXML private TextField loadRateField;
+    @FXML private Button clearLogBtn;
+    @FXML private ListView<LogEntry> logList;
+    @FXML private ComboBox<String> levelFilter;
+    @FXML private TextField pumpFilter;
+    @FXML private TextField carFilter;
+    @FXML private CheckBox spillBox;
+    @FXML private CheckBox recordBox;
+    @FXML private ComboBox<String> replaySpeedBox;
+    @FXML private Button replayBtn;
+    @FXML private Spinner<Integer> speedSpinner;
+    @FXML private ComboBox<String> serviceDistBox;
+    @FXML private TextField cooldownField;
+    @FXML private ComboBox<ExecutionMode> modeBox;
+    @FXML private ComboBox<DispatchPolicyType> dispatchBox;
+    @FXML private ComboBox<String> classesBox;
+    @FXML private CheckBox autoscaleBox;
+    @FXML private CheckBox metricsBox;
+    @FXML private CheckBox canvasBox;
+    @FXML private Label arrivedLabel;
+    @FXML private Label servicedLabel;
+    @FXML private Label waitingLabel;
+    @FXML private Label completedLabel;
+    @FXML private Label waitStatsLabel;
+    @FXML private Label classWaitLabel;
+    @FXML private Label sojournStatsLabel;
+    @FXML private Label utilizationLabel;
+    @FXML private FlowPane queueContainer;
+    @FXML private FlowPane pumpsContainer;
+    @FXML private ScrollPane queueScroll;
+    @FXML private ScrollPane pumpsScroll;
+
+    private ServiceStation station;
+    private LoadGenerator loadGenerator;
+    private Autoscaler autoscaler;
+    private MetricsServer metricsServer;
+    private JournalWriter journal;
+    private Thread replayThread;
+    private final Map<Integer, PumpCard> pumpCards = new HashMap<>();
+    private final Map<Integer, CarCard> carCards = new HashMap<>();
+
+    // canvas view: the queue and pumps drawn from stationFrame once per frame instead
+    // of a card per car and pump; the frame is kept up to date in either view
+    private final StationFrame stationFrame = new StationFrame();
+    private final QueueCanvas queueCanvas = new QueueCanvas();
+    private final PumpCanvas pumpCanvas = new PumpCanvas();
+    private boolean canvasView = false;
+
+    private final LogBuffer logBuffer = new LogBuffer(LOG_RETENTION);
+    private final FilteredList<LogEntry> visibleLog = new FilteredList<>(logBuffer);
+    private LogSpill logSpill;
+
+    // observer callbacks from car and pump threads, drained once per frame
+    private final Queue<UiEvent> events = new ConcurrentLinkedQueue<>();
+    private final AnimationTimer frameTimer = new AnimationTimer() {
+        @Override
+        public void handle(long now) {
+            drainEvents();
+            if (canvasView) drawCanvases();
+        }
+    };
+    private boolean atCapacity = false;
+
+    // initialization
+    @FXML
+    public void initialize() {
+        startBtn.setOnAction(e -> startSimulation());
+        addCarButton.setOnAction(e -> addCar());
+        resetBtn.setOnAction(e -> resetSimulation());
+        stopBtn.setOnAction(e -> stopSimulation());
+        clearLogBtn.setOnAction(e -> clearLog());
+        loadBtn.setOnAction(e -> toggleLoad());
+        replayBtn.setOnAction(e -> replayJournal());
+        metricsBox.setOnAction(e -> toggleMetrics());
+        canvasBox.setOnAction(e -> toggleCanvasView());
+
+        speedSpinner.setValueFactory(new SpinnerValueFactory.IntegerSpinnerValueFactory(1, 10, 2));
+        serviceDistBox.getItems().setAll(FIXED_SERVICE, EXPONENTIAL_SERVICE, LOGNORMAL_SERVICE);
+        serviceDistBox.setValue(FIXED_SERVICE);
+        modeBox.getItems().setAll(ExecutionMode.values());
+        modeBox.setValue(ExecutionMode.PLATFORM);
+        dispatchBox.getItems().setAll(DispatchPolicyType.values());
+        dispatchBox.setValue(DispatchPolicyType.SHARED_FIFO);
+        classesBox.getItems().setAll(ONE_CLASS, STRICT_CLASSES, AGED_CLASSES, WEIGHTED_CLASSES);
+        classesBox.setValue(ONE_CLASS);
+        // customer classes replace the dispatch policy with a priority waiting area
+        classesBox.valueProperty().addListener((obs, old, value) -> dispatchBox.setDisable(!ONE_CLASS.equals(value)));
+        loadProcessBox.getItems().setAll(POISSON, DETERMINISTIC, BURSTY, RUSH_HOUR);
+        loadProcessBox.setValue(POISSON);
+        loadProcessBox.valueProperty().addListener((obs, old, value) -> updateLoad());
+        loadRateField.setOnAction(e -> updateLoad());
+
+        replaySpeedBox.getItems().setAll("1x", "10x", "100x", "1000x");
+        replaySpeedBox.setValue("10x");
+
+        setupLog();
+        frameTimer.start();
+    }
+
+    // simulation control methods
+    private void startSimulation() {
+        try {
+            int waitingAreaSize = Integer.parseInt(capacityField.getText());
+            int numPumps = Integer.parseInt(pumpsField.getText());
+            long cooldownNanos = Math.round(Double.parseDouble(cooldownField.getText().trim()) * 1_000_000);
+
+            if (station != null) {
+                // ends the pump workers of the previous run's station
+                station.shutdown();
+            }
+            station = new ServiceStation(waitingAreaSize, numPumps);
+            station.setExecutionMode(modeBox.getValue());
+            station.setDispatchPolicy(dispatchBox.getValue());
+            station.setCustomerClasses(createCustomerClasses());
+            station.setCooldownNanos(cooldownNanos);
+            if (metricsServer != null) {
+                metricsServer.setStation(station);
+            }
+            if (recordBox.isSelected()) {
+                startJournal(station, numPumps, waitingAreaSize);
+            }
+            station.startSimulation(createServiceTime(speedSpinner.getValue()), this);
+            if (autoscaleBox.isSelected()) {
+                startAutoscaler(speedSpinner.getValue());
+            }
+
+            log("Simulation started: Waiting area capacity " + waitingAreaSize + ", Pumps = " + numPumps +
+                    " and Service speed = " + speedSpinner.getValue() + "s (" + serviceDistBox.getValue() + ")");
+
+            setupPumpCards(numPumps);
+
+            startBtn.setDisable(true);
+            stopBtn.setDisable(false);
+            speedSpinner.setDisable(true);
+            modeBox.setDisable(true);
+            serviceDistBox.setDisable(true);
+            cooldownField.setDisable(true);
+            recordBox.setDisable(true);
+            replayBtn.setDisable(true);
+            dispatchBox.setDisable(true);
+            classesBox.setDisable(true);
+            autoscaleBox.setDisable(true);
+        } catch (IllegalArgumentException e) {
+            log("Please enter valid numbers for capacity, pumps and cooldown.");
+        }
+    }
+
+    private void stopSimulation() {
+        stopLoad();
+        stopAutoscaler();
+        station.stopSimulation();
+        log("Simulation stopped manually.");
+        stopBtn.setDisable(true);
+        addCarButton.setDisable(true);
+    }
+
+    private void resetSimulation() {
+        stopLoad();
+        stopAutoscaler();
+        stopReplay();
+        if (station != null) {
+            station.reset();
+        }
+        closeJournal();
+
+        events.clear();
+        atCapacity = false;
+        logBuffer.clear();
+        queueContainer.getChildren().clear();
+        carCards.clear();
+        pumpsContainer.getChildren().clear();
+        stationFrame.clear();
+        startBtn.setDisable(false);
+        addCarButton.setDisable(false);
+        stopBtn.setDisable(true);
+        speedSpinner.setDisable(false);
+        modeBox.setDisable(false);
+        serviceDistBox.setDisable(false);
+        cooldownField.setDisable(false);
+        recordBox.setDisable(false);
+        replayBtn.setDisable(false);
+        dispatchBox.setDisable(!ONE_CLASS.equals(classesBox.getValue()));
+        classesBox.setDisable(false);
+        autoscaleBox.setDisable(false);
+        log("Simulation reset.");
+    }
+
+    private void addCar() {
+        if (station == null || !station.isRunning()) {
+            log("Start the simulation first!");
+            return;
+        }
+        station.addCar(this);
+    }
+
+    // fleet, premium and regular cars, or null for a single class
+    private CustomerClasses createCustomerClasses() {
+        return switch (classesBox.getValue()) {
+            case STRICT_CLASSES -> CustomerClasses.standard(CustomerClasses.Selection.STRICT, 0);
+            case AGED_CLASSES -> CustomerClasses.standard(CustomerClasses.Selection.STRICT, CLASS_AGING_NANOS);
+            case WEIGHTED_CLASSES -> CustomerClasses.standard(CustomerClasses.Selection.WEIGHTED, 0);
+            default -> null;
+        };
+    }
+
+    // the spinner gives the mean in seconds
+    private ServiceTime createServiceTime(int seconds) {
+        long meanNanos = seconds * 1_000_000_000L;
+        return switch (serviceDistBox.getValue()) {
+            case EXPONENTIAL_SERVICE -> ServiceTime.exponential(meanNanos);
+            case LOGNORMAL_SERVICE -> ServiceTime.lognormal(meanNanos, LOGNORMAL_CV);
+            default -> ServiceTime.deterministic(meanNanos);
+        };
+    }
+
+    // journal methods
+    private void startJournal(ServiceStation station, int numPumps, int waitingAreaSize) {
+        try {
+            Files.createDirectories(JOURNAL_DIR);
+            Path path = JOURNAL_DIR.resolve("run-" + LocalDateTime.now().format(JOURNAL_STAMP) + ".cwsj");
+            journal = new JournalWriter(path, numPumps, waitingAreaSize, System::nanoTime);
+            station.addCarObserver(journal);
+            station.addPumpObserver(journal);
+            log("Recording journal to " + path.toAbsolutePath());
+        } catch (IOException e) {
+            log("Could not open journal: " + e.getMessage());
+        }
+    }
+
+    // closed on reset rather than stop, so the shutdown notices of the stopped threads are recorded too
+    private void closeJournal() {
+        if (journal == null) return;
+        try {
+            journal.close();
+            log("Journal saved: " + journal.getWritten() + " events" +
+                    (journal.getDropped() > 0 ? ", " + journal.getDropped() + " dropped" : ""));
+        } catch (IOException e) {
+            log("Could not close journal: " + e.getMessage());
+        }
+        journal = null;
+    }
+
+    private void replayJournal() {
+        if (station != null && station.isRunning()) {
+            log("Stop the simulation before replaying a journal.");
+            return;
+        }
+
+        FileChooser chooser = new FileChooser();
+        chooser.setTitle("Replay journal");
+        chooser.getExtensionFilters().add(new FileChooser.ExtensionFilter("Journals", "*.cwsj"));
+        if (Files.isDirectory(JOURNAL_DIR)) {
+            chooser.setInitialDirectory(JOURNAL_DIR.toFile());
+        }
+        File file = chooser.showOpenDialog(replayBtn.getScene().getWindow());
+        if (file == null) return;
+
+        int numPumps;
+        long events;
+        try (JournalReader reader = new JournalReader(file.toPath())) {
+            numPumps = reader.getNumPumps();
+            events = reader.getRecordCount();
+        } catch (IOException e) {
+            log("Could not open journal: " + e.getMessage());
+            return;
+        }
+
+        stopReplay();
+        queueContainer.getChildren().clear();
+        carCards.clear();
+        stationFrame.clear();
+        setupPumpCards(numPumps);
+
+        double speed = Double.parseDouble(replaySpeedBox.getValue().replace("x", ""));
+        log("Replaying " + file.getName() + " (" + events + " events) at " + replaySpeedBox.getValue());
+        startBtn.setDisable(true);
+
+        replayThread = new Thread(() -> {
+            try {
+                long replayed = JournalReplayer.replay(file.toPath(), speed, this, this);
+                log("Replay finished: " + replayed + " events.");
+            } catch (InterruptedException e) {
+                log("Replay stopped.");
+            } catch (IOException e) {
+                log("Replay failed: " + e.getMessage());
+            }
+            Platform.runLater(() -> startBtn.setDisable(false));
+        }, "journal-replay");
+        replayThread.setDaemon(true);
+        replayThread.start();
+    }
+
+    private void stopReplay() {
+        if (replayThread == null) return;
+        replayThread.interrupt();
+        try {
+            replayThread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        replayThread = null;
+    }
+
+    // load generator methods
+    private void toggleLoad() {
+        if (loadGenerator != null && loadGenerator.isRunning()) {
+            stopLoad();
+            return;
+        }
+        if (station == null || !station.isRunning()) {
+            log("Start the simulation first!");
+            return;
+        }
+
+        ArrivalProcess process = createArrivalProcess();
+        if (process == null) return;
+
+        loadGenerator = new LoadGenerator(station, this);
+        loadGenerator.start(process);
+        loadBtn.setText("Stop Load");
+        log("Load started: " + loadProcessBox.getValue() + String.format(" arrivals, %.1f cars/s on average",
+                process.getMeanRate()));
+    }
+
+    // serves /metrics of the current station on METRICS_PORT, scraped off the FX thread
+    private void toggleMetrics() {
+        if (metricsServer != null) {
+            metricsServer.stop();
+            metricsServer = null;
+            log("Metrics endpoint stopped.");
+            return;
+        }
+        try {
+            metricsServer = new MetricsServer(METRICS_PORT).start();
+            metricsServer.setStation(station);
+            log("Metrics endpoint at http://localhost:" + metricsServer.getPort() + "/metrics");
+        } catch (IOException e) {
+            metricsBox.setSelected(false);
+            log("Could not start the metrics endpoint: " + e.getMessage());
+        }
+    }
+
+    // starts with one pump and keeps the oldest wait under twice the mean service time
+    private void startAutoscaler(int serviceSeconds) {
+        station.setActivePumps(1);
+        autoscaler = new Autoscaler(station).setTargetWaitNanos(serviceSeconds * 2_000_000_000L);
+        autoscaler.start();
+    }
+
+    private void stopAutoscaler() {
+        if (autoscaler == null) return;
+
+        autoscaler.stop();
+        log(String.format("Autoscaler stopped: %d up, %d down, %.2f pumps on duty on average",
+                autoscaler.getScaleUps(), autoscaler.getScaleDowns(), autoscaler.getAveragePumps()));
+        autoscaler = null;
+    }
+
+    private void stopLoad() {
+        if (loadGenerator == null) return;
+
+        loadGenerator.stop();
+        log("Load stopped: " + loadGenerator.getGenerated() + " cars generated, " +
+                loadGenerator.getLateArrivals() + String.format(" late (max %.1f ms behind)",
+                loadGenerator.getMaxLagNanos() / 1e6));
+        loadGenerator = null;
+        loadBtn.setText("Start Load");
+    }
+
+    // a new process or rate applies from the next arrival
+    private void updateLoad() {
+        if (loadGenerator == null || !loadGenerator.isRunning()) return;
+
+        ArrivalProcess process = createArrivalProcess();
+        if (process == null) return;
+
+        loadGenerator.setProcess(process);
+        log("Load changed: " + loadProcessBox.getValue() + String.format(" arrivals, %.1f cars/s on average",
+                process.getMeanRate()));
+    }
+
+    private ArrivalProcess createArrivalProcess() {
+        double rate;
+        try {
+            rate = Double.parseDouble(loadRateField.getText().trim());
+        } catch (NumberFormatException e) {
+            rate = -1;
+        }
+        if (!(rate > 0)) {
+            log("Please enter a valid arrival rate (cars per second).");
+            return null;
+        }
+
+        return switch (loadProcessBox.getValue()) {
+            case DETERMINISTIC -> ArrivalProcess.deterministic(rate);
+            case BURSTY -> ArrivalProcess.bursty(rate, BURST_ON_NANOS, BURST_OFF_NANOS);
+            case RUSH_HOUR -> {
+                double[] rates = new double[RUSH_HOUR_PROFILE.length];
+                for (int i = 0; i < rates.length; i++) {
+                    rates[i] = rate * RUSH_HOUR_PROFILE[i];
+                }
+                yield ArrivalProcess.timeOfDay(rates, RUSH_HOUR_SEGMENT_NANOS);
+            }
+            default -> ArrivalProcess.poisson(rate);
+        };
+    }
+
+    // ui setup methods
+    void setupPumpCards(int numPumps) {
+        stationFrame.setPumps(numPumps);
+        pumpCanvas.setServiceSeconds(speedSpinner.getValue());
+        queueCanvas.setHotWaitNanos(speedSpinner.getValue() * 2_000_000_000L);
+        createPumpCards(numPumps);
+    }
+
+    // none in the canvas view
+    private void createPumpCards(int numPumps) {
+        pumpCards.values().forEach(PumpCard::resetCD); // a card dropped mid-service still has its countdown running
+        pumpsContainer.getChildren().clear();
+        pumpCards.clear();
+        if (canvasView) return;
+
+        for (int i = 1; i <= numPumps; i++) {
+            PumpCard pumpCard = new PumpCard(i, speedSpinner.getValue());
+            pumpCards.put(i, pumpCard);
+            pumpsContainer.getChildren().add(pumpCard);
+        }
+    }
+
+    private void setupLog() {
+        logList.setItems(visibleLog);
+        logList.setCellFactory(list -> new ListCell<>() {
+            @Override
+            protected void updateItem(LogEntry entry, boolean empty) {
+                super.updateItem(entry, empty);
+                getStyleClass().remove("warn");
+                if (empty || entry == null) {
+                    setText(null);
+                } else {
+                    setText(entry.format());
+                    if (entry.level() == LogEntry.Level.WARN) getStyleClass().add("warn");
+                }
+            }
+        });
+
+        levelFilter.getItems().add(ALL_LEVELS);
+        for (LogEntry.Level level : LogEntry.Level.values()) {
+            levelFilter.getItems().add(level.name());
+        }
+        levelFilter.setValue(ALL_LEVELS);
+        levelFilter.valueProperty().addListener((obs, old, value) -> updateLogFilter());
+        pumpFilter.textProperty().addListener((obs, old, value) -> updateLogFilter());
+        carFilter.textProperty().addListener((obs, old, value) -> updateLogFilter());
+
+        spillBox.selectedProperty().addListener((obs, old, selected) -> {
+            if (selected) {
+                logSpill = new LogSpill(Path.of("logs"), SPILL_FILE_BYTES, SPILL_FILES,
+                        message -> events.add(UiEvent.exception(message)));
+                logBuffer.setSpill(logSpill);
+                log("Older log entries are saved to " + logSpill.getCurrentFile().toAbsolutePath());
+            } else if (logSpill != null) {
+                logBuffer.setSpill(null);
+                logSpill.close();
+                logSpill = null;
+            }
+        });
+    }
+
+    private void updateLogFilter() {
+        String level = levelFilter.getValue();
+        int pumpId = parseFilterId(pumpFilter.getText());
+        int carId = parseFilterId(carFilter.getText());
+
+        visibleLog.setPredicate(entry ->
+                (level == null || level.equals(ALL_LEVELS) || entry.level().name().equals(level))
+                        && (pumpId == 0 || entry.pumpId() == pumpId)
+                        && (carId == 0 || entry.carId() == carId));
+    }
+
+    // accepts "3", "P3" or "C3", anything else means no filter
+    private static int parseFilterId(String text) {
+        String digits = text == null ? "" : text.trim().replaceFirst("^[PpCc]", "");
+        try {
+            return Math.max(0, Integer.parseInt(digits));
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    // visual update methods, FX thread only
+    public void startServiceVisual(int pumpId, int carId) {
+        PumpCard pumpCard = pumpCards.get(pumpId);
+        if (pumpCard == null) return;
+
+        pumpCard.setLightColor("red");
+        pumpCard.clearCarVisual();
+        pumpCard.startCD(speedSpinner.getValue());
+        pumpCard.setCarImage(carId);
+    }
+
+    public void finishServiceVisual(int pumpId) {
+        PumpCard pumpCard = pumpCards.get(pumpId);
+        if (pumpCard == null) return;
+
+        pumpCard.setLightColor("green");
+        pumpCard.clearCarVisual();
+        pumpCard.resetCD();
+    }
+
+    // ui update methods
+    public void updateLabels() {
+        if (station == null) return;
+        arrivedLabel.setText("Total cars arrived: " + station.getCarCounter());
+        servicedLabel.setText("Cars being serviced: " + station.getServicedCars() +
+                (autoscaler != null ? " (pumps on duty " + station.getActivePumps() + "/" + station.getNumPumps() + ")" : ""));
+        waitingLabel.setText("Cars waiting: " + station.getWaitingCars() + "/" + station.getWaitingAreaSize());
+
+        StationMetrics metrics = station.getMetrics();
+        completedLabel.setText("Completed: " + metrics.getCompletions());
+        waitStatsLabel.setText("Wait p50/p90/p99/max: " + percentiles(metrics.getWaitTimes()));
+        sojournStatsLabel.setText("Sojourn p50/p90/p99/max: " + percentiles(metrics.getSojournTimes()));
+        classWaitLabel.setText(classWaits(station.getCustomerClasses(), metrics));
+        utilizationLabel.setText(String.format("Pump utilization: %.0f%%", metrics.getAverageUtilization() * 100));
+    }
+
+    private static String percentiles(Histogram histogram) {
+        if (histogram.getCount() == 0) return "-";
+        return String.format("%.1f/%.1f/%.1f/%.1fs",
+                histogram.getPercentile(50) / 1e9, histogram.getPercentile(90) / 1e9,
+                histogram.getPercentile(99) / 1e9, histogram.getMax() / 1e9);
+    }
+
+    private static String classWaits(CustomerClasses classes, StationMetrics metrics) {
+        if (classes == null) return "";
+        StringBuilder names = new StringBuilder("Wait p99 ");
+        StringBuilder values = new StringBuilder();
+        for (int i = 0; i < classes.size(); i++) {
+            Histogram waits = metrics.getWaitTimes(i);
+            names.append(i == 0 ? "" : "/").append(classes.getName(i));
+            values.append(i == 0 ? "" : "/")
+                    .append(waits.getCount() == 0 ? "-" : String.format("%.1f", waits.getPercentile(99) / 1e9));
+        }
+        return names + ": " + values + "s";
+    }
+
+    public void log(String message) {
+        events.add(UiEvent.message(message));
+    }
+
+    private void clearLog() {
+        logBuffer.clear();
+    }
+
+    // Applies everything that happened since the last frame in one pass:
+    // one append to the log buffer, one change to the queue cards, the final state of
+    // every pump that changed and a single refresh of the labels. A car that
+    // enters and leaves the queue within the same frame never gets a card.
+    private void drainEvents() {
+        if (events.isEmpty()) return;
+
+        long now = System.currentTimeMillis();
+        List<LogEntry> lines = new ArrayList<>();
+        Map<Integer, Boolean> queueChanges = new LinkedHashMap<>(); // carId -> added
+        Map<Integer, Integer> pumpChanges = new LinkedHashMap<>(); // pumpId -> carId or PUMP_FREE
+
+        UiEvent event;
+        while ((event = events.poll()) != null) {
+            int pumpId = event.pumpId();
+            int carId = event.carId();
+
+            switch (event.type()) {
+                case CAR_ARRIVES -> lines.add(info(now, 0, carId, "C" + carId + " arrived"));
+                case CAR_ENTERS_QUEUE -> {
+                    lines.add(info(now, 0, carId, "C" + carId + " entered the queue"));
+                    queueChanges.put(carId, Boolean.TRUE);
+                }
+                case CAR_LOGINS -> {
+                    lines.add(info(now, pumpId, carId, "P" + pumpId + ": C" + carId + " login"));
+                    if (queueChanges.remove(carId) == null) {
+                        queueChanges.put(carId, Boolean.FALSE);
+                    }
+                    pumpChanges.put(pumpId, carId);
+                }
+                case CAR_BEGINS_SERVICE -> lines.add(info(now, pumpId, carId,
+                        "P" + pumpId + ": C" + carId + " begins service at Bay " + pumpId));
+                case CAR_FINISHES_SERVICE -> {
+                    lines.add(info(now, pumpId, carId, "P" + pumpId + ": C" + carId + " finishes service"));
+                    lines.add(info(now, pumpId, 0, "P" + pumpId + ": Bay " + pumpId + " is now free"));
+                    pumpChanges.put(pumpId, PUMP_FREE);
+                }
+                case MESSAGE -> lines.add(info(now, 0, 0, event.message()));
+                case EXCEPTION -> lines.add(new LogEntry(now, LogEntry.Level.WARN, 0, 0, event.message()));
+            }
+        }
+
+        long nanos = System.nanoTime();
+        applyQueueChanges(queueChanges, nanos);
+        pumpChanges.forEach((pumpId, carId) -> {
+            stationFrame.setServing(pumpId, carId == PUMP_FREE ? 0 : carId, nanos);
+            if (canvasView) return;
+            if (carId == PUMP_FREE) {
+                finishServiceVisual(pumpId);
+            } else {
+                startServiceVisual(pumpId, carId);
+            }
+        });
+
+        boolean full = station != null && station.isRunning()
+                && station.getWaitingCars() >= station.getWaitingAreaSize();
+        if (full && !atCapacity) {
+            lines.add(new LogEntry(now, LogEntry.Level.WARN, 0, 0, "Reached maximum capacity."));
+        }
+        if (full != atCapacity && (station == null || station.isRunning())) {
+            addCarButton.setDisable(full);
+        }
+        atCapacity = full;
+
+        logBuffer.append(lines);
+        if (!visibleLog.isEmpty()) {
+            logList.scrollTo(visibleLog.size() - 1);
+        }
+        updateLabels();
+    }
+
+    private void applyQueueChanges(Map<Integer, Boolean> queueChanges, long nanos) {
+        if (queueChanges.isEmpty()) return;
+
+        queueChanges.forEach((carId, add) -> {
+            if (add) {
+                stationFrame.enqueue(carId, nanos);
+            } else {
+                stationFrame.dequeue(carId);
+            }
+        });
+        if (canvasView) return;
+
+        Set<Node> removed = new HashSet<>();
+        List<Node> added = new ArrayList<>();
+        queueChanges.forEach((carId, add) -> {
+            if (add) {
+                CarCard carCard = new CarCard(carId);
+                carCards.put(carId, carCard);
+                added.add(carCard);
+            } else {
+                CarCard carCard = carCards.remove(carId);
+                if (carCard != null) removed.add(carCard);
+            }
+        });
+
+        if (!removed.isEmpty()) queueContainer.getChildren().removeAll(removed);
+        if (!added.isEmpty()) queueContainer.getChildren().addAll(added);
+    }
+
+    private void drawCanvases() {
+        if (station != null) stationFrame.setActivePumps(station.getActivePumps());
+        long now = System.nanoTime();
+        queueCanvas.draw(stationFrame, now);
+        pumpCanvas.draw(stationFrame, now);
+    }
+
+    // Swaps the cards for the canvases or back, also mid-run: the cards are
+    // rebuilt from the frame, which both views keep up to date.
+    private void toggleCanvasView() {
+        canvasView = canvasBox.isSelected();
+        queueContainer.getChildren().clear();
+        carCards.clear();
+        createPumpCards(stationFrame.getNumPumps());
+        queueScroll.setContent(canvasView ? queueCanvas : queueContainer);
+        pumpsScroll.setContent(canvasView ? pumpCanvas : pumpsContainer);
+        queueScroll.setFitToHeight(canvasView);
+        pumpsScroll.setFitToHeight(canvasView);
+        if (canvasView) return;
+
+        List<Node> cards = new ArrayList<>();
+        for (int slot = stationFrame.queueStart(); slot < stationFrame.queueEnd(); slot++) {
+            int carId = stationFrame.queuedCar(slot);
+            if (carId == 0) continue;
+            CarCard carCard = new CarCard(carId);
+            carCards.put(carId, carCard);
+            cards.add(carCard);
+        }
+        queueContainer.getChildren().setAll(cards);
+        for (int pumpId = 1; pumpId <= stationFrame.getNumPumps(); pumpId++) {
+            int carId = stationFrame.getServing(pumpId);
+            if (carId != 0) startServiceVisual(pumpId, carId);
+        }
+    }
+
+    private static LogEntry info(long now, int pumpId, int carId, String message) {
+        return new LogEntry(now, LogEntry.Level.INFO, pumpId, carId, message);
+    }
+
+    // interfaces methods, called from car and pump threads
+    @Override
+    public void onCarArrives(int carId) {
+        events.add(UiEvent.car(UiEvent.Type.CAR_ARRIVES, carId));
+    }
+
+    @Override
+    public void onCarEntersQueue(int carId) {
+        events.add(UiEvent.car(UiEvent.Type.CAR_ENTERS_QUEUE, carId));
+    }
+
+    @Override
+    public void onCarLogins(int pumpId, int carId) {
+        events.add(UiEvent.pump(UiEvent.Type.CAR_LOGINS, pumpId, carId));
+    }
+
+    @Override
+    public void onCarBeginsService(int pumpId, int carId) {
+        events.add(UiEvent.pump(UiEvent.Type.CAR_BEGINS_SERVICE, pumpId, carId));
+    }
+
+    @Override
+    public void onCarFinishesService(int pumpId, int carId) {
+        events.add(UiEvent.pump(UiEvent.Type.CAR_FINISHES_SERVICE, pumpId, carId));
+    }
+
+    @Override
+    public void onException(String message) {
+        events.add(UiEvent.exception(message));
+    }
+}
@@ -1,7 +1,6 @@
 package simulator.cws.ui;
 
 import javafx.geometry.Pos;
-import javafx.scene.image.Image;
 import javafx.scene.image.ImageView;
 import javafx.scene.layout.VBox;
 import javafx.scene.text.Text;
@@ -17,13 +16,10 @@ public class CarCard extends VBox {
         this.setAlignment(Pos.CENTER);
         this.setUserData(carId);
 
-        int imageNumber = (carId - 1) % 8 + 1;
-        String imagePath = "/simulator/cws/assets/" + imageNumber + ".png";
-
-        // Load the car image
-        carImage = new ImageView(new Image(getClass().getResourceAsStream(imagePath)));
-        carImage.setFitWidth(110);
-        carImage.setFitHeight(110);
+        // Shared, pre-scaled car image
+        carImage = new ImageView(ImageCache.get(Sprite.car(carId), Sprite.QUEUE_CAR_SIZE, Sprite.QUEUE_CAR_SIZE));
+        carImage.setFitWidth(Sprite.QUEUE_CAR_SIZE);
+        carImage.setFitHeight(Sprite.QUEUE_CAR_SIZE);
 
         // Label under the car image (C1, C2, ...)
         carLabel = new Text("C" + carId);
@@ -0,0 +1,9 @@
+package simulator.cws.ui;
+
+import javafx.scene.image.ImageView;
+
+public class Helper {
+    public ImageView getCarImageView(int carId) {
+        return new ImageView(ImageCache.get(Sprite.car(carId), Sprite.SERVICE_CAR_SIZE, Sprite.SERVICE_CAR_SIZE));
+    }
+}
@@ -0,0 +1,50 @@
+package simulator.cws.ui;
+
+import javafx.scene.image.Image;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Decoded sprites shared by every card. Each (sprite, size) pair is decoded
+// once, already scaled to the size it is shown at, and the same Image
+// instance is handed to every ImageView afterwards.
+public final class ImageCache {
+    private static final Map<String, Image> images = new ConcurrentHashMap<>();
+
+    private ImageCache() {
+    }
+
+    // decodes every sprite at the sizes the cards use, call once at startup
+    public static void preload() {
+        for (Sprite sprite : Sprite.values()) {
+            get(sprite);
+        }
+        for (int i = 1; i <= 8; i++) {
+            get(Sprite.car(i), Sprite.QUEUE_CAR_SIZE, Sprite.QUEUE_CAR_SIZE);
+            get(Sprite.car(i), Sprite.SERVICE_CAR_SIZE, Sprite.SERVICE_CAR_SIZE);
+            get(Sprite.car(i), Sprite.CANVAS_CAR_SIZE, Sprite.CANVAS_CAR_SIZE);
+        }
+        get(Sprite.PUMP, Sprite.PUMP_SIZE, Sprite.PUMP_SIZE);
+        get(Sprite.PUMP, Sprite.CANVAS_PUMP_SIZE, Sprite.CANVAS_PUMP_SIZE);
+        get(Sprite.RED_LIGHT, Sprite.LIGHT_WIDTH, Sprite.LIGHT_HEIGHT);
+        get(Sprite.GREEN_LIGHT, Sprite.LIGHT_WIDTH, Sprite.LIGHT_HEIGHT);
+        get(Sprite.RED_LIGHT, Sprite.CANVAS_LIGHT_WIDTH, Sprite.CANVAS_LIGHT_HEIGHT);
+        get(Sprite.GREEN_LIGHT, Sprite.CANVAS_LIGHT_WIDTH, Sprite.CANVAS_LIGHT_HEIGHT);
+    }
+
+    // the sprite at its original size
+    public static Image get(Sprite sprite) {
+        return get(sprite, 0, 0);
+    }
+
+    // the sprite pre-scaled to fit width x height
+    public static Image get(Sprite sprite, double width, double height) {
+        return images.computeIfAbsent(sprite.name() + "@" + width + "x" + height,
+                key -> new Image(ImageCache.class.getResource(sprite.getPath()).toExternalForm(),
+                        width, height, false, true));
+    }
+
+    public static int size() {
+        return images.size();
+    }
+}
@@ -0,0 +1,99 @@
+package simulator.cws.ui;
+
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.layout.Region;
+import javafx.scene.paint.Color;
+
+// A Canvas that fills its region and draws a StationFrame at the most
+// detailed level its items fit into: sprites, then dots, then a heatmap of
+// binned items. Each cell drawn costs at most a log-time lookup in the
+// frame, so work per draw follows the cells on screen rather than the number
+// of cars or pumps, and the frame rate holds at any scale. A draw is
+// skipped unless the frame or the size changed or REFRESH_NANOS passed,
+// which keeps wait colours and countdowns moving on an idle station.
+public abstract class LodCanvas extends Region {
+    public enum Detail {
+        SPRITES,
+        DOTS,
+        HEATMAP
+    }
+
+    protected static final double PADDING = 10;
+    protected static final double CAPTION_HEIGHT = 18;
+    private static final long REFRESH_NANOS = 250_000_000L;
+
+    // green (cold) to red (hot)
+    private static final Color[] HEAT = new Color[64];
+
+    static {
+        for (int i = 0; i < HEAT.length; i++) {
+            HEAT[i] = Color.hsb(120 * (1 - i / (double) (HEAT.length - 1)), 0.75, 0.9);
+        }
+    }
+
+    private final Canvas canvas = new Canvas();
+    private long drawnVersion = -1;
+    private long drawnAt;
+    private double drawnWidth, drawnHeight;
+    private Detail detail = Detail.SPRITES;
+
+    protected LodCanvas() {
+        // sized by the scroll pane it fills, never by the canvas it holds
+        setMinSize(0, 0);
+        getChildren().add(canvas);
+    }
+
+    @Override
+    protected void layoutChildren() {
+        canvas.setWidth(Math.floor(getWidth()));
+        canvas.setHeight(Math.floor(getHeight()));
+    }
+
+    // called once per frame on the FX thread
+    public void draw(StationFrame frame, long nowNanos) {
+        double width = canvas.getWidth();
+        double height = canvas.getHeight();
+        if (frame.getVersion() == drawnVersion && width == drawnWidth && height == drawnHeight
+                && nowNanos - drawnAt < REFRESH_NANOS) {
+            return;
+        }
+        drawnVersion = frame.getVersion();
+        drawnAt = nowNanos;
+        drawnWidth = width;
+        drawnHeight = height;
+
+        GraphicsContext gc = canvas.getGraphicsContext2D();
+        gc.clearRect(0, 0, width, height);
+        if (width > 2 * PADDING && height > 2 * PADDING) {
+            detail = render(gc, frame, nowNanos, width, height);
+        }
+    }
+
+    // draws the frame and returns the level it chose
+    protected abstract Detail render(GraphicsContext gc, StationFrame frame, long nowNanos, double width, double height);
+
+    public Detail getDetail() {
+        return detail;
+    }
+
+    // number of cellWidth x cellHeight cells that fit into width x height inside the padding
+    protected static int cellsThatFit(double width, double height, double cellWidth, double cellHeight) {
+        return columns(width, cellWidth) * Math.max(0, (int) ((height - 2 * PADDING) / cellHeight));
+    }
+
+    protected static int columns(double width, double cellWidth) {
+        return Math.max(0, (int) ((width - 2 * PADDING) / cellWidth));
+    }
+
+    // fraction 0..1 and beyond, clamped
+    protected static Color heat(double fraction) {
+        int i = (int) (Math.min(1, Math.max(0, fraction)) * (HEAT.length - 1));
+        return HEAT[i];
+    }
+
+    protected static void caption(GraphicsContext gc, String text) {
+        gc.setFill(Color.BLACK);
+        gc.fillText(text, PADDING, PADDING + 10);
+    }
+}
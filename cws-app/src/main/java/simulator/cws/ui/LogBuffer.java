@@ -0,0 +1,97 @@
+package simulator.cws.ui;
+
+import javafx.collections.ObservableListBase;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Consumer;
+
+// Observable ring buffer holding the newest `retention` log entries. A batch
+// append fires one change: the evicted head range and the appended tail
+// range. Evicted entries are handed to an optional spill consumer. FX thread only.
+public class LogBuffer extends ObservableListBase<LogEntry> {
+    private final LogEntry[] entries;
+    private int head;
+    private int size;
+    private Consumer<List<LogEntry>> spill;
+
+    public LogBuffer(int retention) {
+        if (retention <= 0) {
+            throw new IllegalArgumentException("retention must be > 0");
+        }
+        this.entries = new LogEntry[retention];
+    }
+
+    public void setSpill(Consumer<List<LogEntry>> spill) {
+        this.spill = spill;
+    }
+
+    public int getRetention() {
+        return entries.length;
+    }
+
+    public void append(List<LogEntry> batch) {
+        if (batch.isEmpty()) return;
+
+        int capacity = entries.length;
+        // entries of the batch that would be evicted right away are skipped
+        int skipped = Math.max(0, batch.size() - capacity);
+        int adding = batch.size() - skipped;
+        int evicting = Math.max(0, size + adding - capacity);
+
+        List<LogEntry> evicted = new ArrayList<>(evicting + skipped);
+        for (int i = 0; i < evicting; i++) {
+            evicted.add(get(i));
+            entries[(head + i) % capacity] = null;
+        }
+        head = (head + evicting) % capacity;
+        size -= evicting;
+        evicted.addAll(batch.subList(0, skipped));
+
+        for (int i = skipped; i < batch.size(); i++) {
+            entries[(head + size) % capacity] = batch.get(i);
+            size++;
+        }
+
+        beginChange();
+        if (evicting > 0) {
+            nextRemove(0, evicted.subList(0, evicting));
+        }
+        nextAdd(size - adding, size);
+        endChange();
+
+        if (spill != null && !evicted.isEmpty()) {
+            spill.accept(evicted);
+        }
+    }
+
+    @Override
+    public void clear() {
+        if (size == 0) return;
+
+        List<LogEntry> removed = new ArrayList<>(this);
+        for (int i = 0; i < entries.length; i++) {
+            entries[i] = null;
+        }
+        head = 0;
+        size = 0;
+
+        beginChange();
+        nextRemove(0, Collections.unmodifiableList(removed));
+        endChange();
+    }
+
+    @Override
+    public LogEntry get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException(index);
+        }
+        return entries[(head + index) % entries.length];
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+}
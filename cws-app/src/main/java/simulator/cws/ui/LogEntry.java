@@ -0,0 +1,21 @@
+package simulator.cws.ui;
+
+import java.time.Instant;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+
+// One line of the activity log. pumpId and carId are 0 when the line is not about a pump or car.
+public record LogEntry(long timeMillis, Level level, int pumpId, int carId, String message) {
+    private static final DateTimeFormatter TIME_FORMAT = DateTimeFormatter.ofPattern("hh:mm:ss a");
+
+    public enum Level {
+        INFO,
+        WARN
+    }
+
+    public String format() {
+        LocalTime time = LocalTime.ofInstant(Instant.ofEpochMilli(timeMillis), ZoneId.systemDefault());
+        return "[" + time.format(TIME_FORMAT) + "] " + message;
+    }
+}
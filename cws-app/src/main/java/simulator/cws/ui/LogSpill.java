@@ -0,0 +1,98 @@
+package simulator.cws.ui;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+
+// Writes log entries evicted from the LogBuffer to a set of rolling files
+// (cws.log, cws.1.log, ... cws.N.log) on a background thread, so the FX
+// thread never waits for the disk. A file rolls once its UTF-8 bytes would
+// pass maxFileBytes; write failures go to onError, not to the console.
+public class LogSpill implements Consumer<List<LogEntry>>, AutoCloseable {
+    private final Path directory;
+    private final long maxFileBytes;
+    private final int maxFiles;
+    private final Consumer<String> onError;
+    private final ExecutorService writer;
+
+    private OutputStream out;
+    private long written; // bytes in the current file
+
+    public LogSpill(Path directory, long maxFileBytes, int maxFiles, Consumer<String> onError) {
+        if (maxFileBytes <= 0) {
+            throw new IllegalArgumentException("maxFileBytes must be > 0");
+        }
+        if (maxFiles <= 0) {
+            throw new IllegalArgumentException("maxFiles must be > 0");
+        }
+        this.directory = directory;
+        this.maxFileBytes = maxFileBytes;
+        this.maxFiles = maxFiles;
+        this.onError = onError;
+        this.writer = Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, "log-spill");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public Path getCurrentFile() {
+        return directory.resolve("cws.log");
+    }
+
+    @Override
+    public void accept(List<LogEntry> evicted) {
+        writer.execute(() -> {
+            try {
+                for (LogEntry entry : evicted) {
+                    byte[] line = (entry.level() + " " + entry.format() + System.lineSeparator())
+                            .getBytes(StandardCharsets.UTF_8);
+                    if (out == null || written + line.length > maxFileBytes) {
+                        roll();
+                    }
+                    out.write(line);
+                    written += line.length;
+                }
+                out.flush();
+            } catch (IOException e) {
+                onError.accept("Log spill failed: " + e.getMessage());
+            }
+        });
+    }
+
+    // cws.log -> cws.1.log -> ... -> cws.(maxFiles - 1).log, the oldest is dropped
+    private void roll() throws IOException {
+        if (out != null) {
+            out.close();
+        }
+        Files.createDirectories(directory);
+        for (int i = maxFiles - 1; i >= 1; i--) {
+            Path from = i == 1 ? getCurrentFile() : directory.resolve("cws." + (i - 1) + ".log");
+            if (Files.exists(from)) {
+                Files.move(from, directory.resolve("cws." + i + ".log"), StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+        out = new BufferedOutputStream(Files.newOutputStream(getCurrentFile()));
+        written = 0;
+    }
+
+    @Override
+    public void close() {
+        writer.execute(() -> {
+            try {
+                if (out != null) out.close();
+            } catch (IOException ignored) {
+            }
+            out = null;
+        });
+        writer.shutdown();
+    }
+}
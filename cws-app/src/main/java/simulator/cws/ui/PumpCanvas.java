@@ -0,0 +1,116 @@
+package simulator.cws.ui;
+
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.paint.Color;
+
+import java.util.Locale;
+
+// The pump grid: a card per pump with its light, countdown and the car it
+// serves while they fit, then one dot per pump (red busy, green free, grey
+// off duty), then a heatmap where each cell is the busy fraction of a run of
+// pumps on duty.
+public class PumpCanvas extends LodCanvas {
+    private static final double CARD_WIDTH = 150;
+    private static final double CARD_HEIGHT = 120;
+    private static final double SPRITE_CELL_WIDTH = CARD_WIDTH + 12;
+    private static final double SPRITE_CELL_HEIGHT = CARD_HEIGHT + 12;
+    private static final double DOT_CELL = 16;
+    private static final double HEAT_CELL = 8;
+
+    private static final Color BUSY = Color.web("#d90707");
+    private static final Color FREE = Color.web("#23ce6b");
+    private static final Color OFF_DUTY = Color.LIGHTGRAY;
+    private static final Color CARD = Color.rgb(254, 246, 239, 0.88);
+
+    private int serviceSeconds = 2;
+
+    // start of the countdown shown on busy cards
+    public void setServiceSeconds(int serviceSeconds) {
+        this.serviceSeconds = serviceSeconds;
+    }
+
+    @Override
+    protected Detail render(GraphicsContext gc, StationFrame frame, long nowNanos, double width, double height) {
+        int pumps = frame.getNumPumps();
+        if (pumps <= cellsThatFit(width, height, SPRITE_CELL_WIDTH, SPRITE_CELL_HEIGHT)) {
+            drawCards(gc, frame, nowNanos, width);
+            return Detail.SPRITES;
+        }
+        double body = height - CAPTION_HEIGHT;
+        if (pumps <= cellsThatFit(width, body, DOT_CELL, DOT_CELL)) {
+            caption(gc, summary(frame));
+            drawDots(gc, frame, width);
+            return Detail.DOTS;
+        }
+        drawHeatmap(gc, frame, width, body);
+        return Detail.HEATMAP;
+    }
+
+    private void drawCards(GraphicsContext gc, StationFrame frame, long nowNanos, double width) {
+        int columns = columns(width, SPRITE_CELL_WIDTH);
+        for (int pumpId = 1; pumpId <= frame.getNumPumps(); pumpId++) {
+            double x = PADDING + ((pumpId - 1) % columns) * SPRITE_CELL_WIDTH;
+            double y = PADDING + ((pumpId - 1) / columns) * SPRITE_CELL_HEIGHT;
+            int carId = frame.getServing(pumpId);
+            gc.setGlobalAlpha(pumpId > frame.getActivePumps() ? 0.4 : 1);
+
+            gc.setFill(CARD);
+            gc.fillRoundRect(x, y, CARD_WIDTH, CARD_HEIGHT, 8, 8);
+            gc.setStroke(carId != 0 ? BUSY : FREE);
+            gc.setLineWidth(2);
+            gc.strokeRoundRect(x, y, CARD_WIDTH, CARD_HEIGHT, 8, 8);
+
+            Sprite light = carId != 0 ? Sprite.RED_LIGHT : Sprite.GREEN_LIGHT;
+            gc.drawImage(ImageCache.get(light, Sprite.CANVAS_LIGHT_WIDTH, Sprite.CANVAS_LIGHT_HEIGHT), x + 8, y + 8);
+            gc.drawImage(ImageCache.get(Sprite.PUMP, Sprite.CANVAS_PUMP_SIZE, Sprite.CANVAS_PUMP_SIZE), x + 8, y + 30);
+
+            gc.setFill(Color.BLACK);
+            if (carId != 0) {
+                long left = Math.max(0, serviceSeconds - (nowNanos - frame.getServingSince(pumpId)) / 1_000_000_000L);
+                gc.setFill(left <= 2 ? Color.RED : Color.BLACK);
+                gc.fillText(left + "s", x + 16 + Sprite.CANVAS_LIGHT_WIDTH, y + 20);
+                gc.setFill(Color.BLACK);
+                gc.drawImage(ImageCache.get(Sprite.car(carId), Sprite.CANVAS_CAR_SIZE, Sprite.CANVAS_CAR_SIZE),
+                        x + 80, y + 30);
+                gc.fillText("C" + carId, x + 96, y + 98);
+            } else {
+                gc.fillText(serviceSeconds + "s", x + 16 + Sprite.CANVAS_LIGHT_WIDTH, y + 20);
+            }
+            gc.fillText("Pump " + pumpId, x + 8, y + CARD_HEIGHT - 8);
+        }
+        gc.setGlobalAlpha(1);
+    }
+
+    private void drawDots(GraphicsContext gc, StationFrame frame, double width) {
+        int columns = columns(width, DOT_CELL);
+        for (int pumpId = 1; pumpId <= frame.getNumPumps(); pumpId++) {
+            gc.setFill(pumpId > frame.getActivePumps() ? OFF_DUTY : frame.getServing(pumpId) != 0 ? BUSY : FREE);
+            gc.fillRect(PADDING + ((pumpId - 1) % columns) * DOT_CELL,
+                    CAPTION_HEIGHT + PADDING + ((pumpId - 1) / columns) * DOT_CELL, DOT_CELL - 3, DOT_CELL - 3);
+        }
+    }
+
+    private void drawHeatmap(GraphicsContext gc, StationFrame frame, double width, double body) {
+        int pumps = frame.getNumPumps();
+        int columns = columns(width, HEAT_CELL);
+        int bins = cellsThatFit(width, body, HEAT_CELL, HEAT_CELL);
+        if (bins == 0) return;
+        int perBin = (pumps + bins - 1) / bins;
+        caption(gc, summary(frame) + String.format(Locale.ROOT, ", %,d per cell", perBin));
+
+        // pumps above the active count are off duty, so a bin's on-duty pumps are a prefix of it
+        for (int first = 1, bin = 0; first <= pumps; first += perBin, bin++) {
+            int lastOnDuty = Math.min(Math.min(first + perBin - 1, pumps), frame.getActivePumps());
+            int onDuty = Math.max(0, lastOnDuty - first + 1);
+            int busy = onDuty == 0 ? 0 : frame.busyPumps(lastOnDuty) - frame.busyPumps(first - 1);
+            gc.setFill(onDuty == 0 ? OFF_DUTY : heat((double) busy / onDuty));
+            gc.fillRect(PADDING + (bin % columns) * HEAT_CELL, CAPTION_HEIGHT + PADDING + (bin / columns) * HEAT_CELL,
+                    HEAT_CELL, HEAT_CELL);
+        }
+    }
+
+    private static String summary(StationFrame frame) {
+        return String.format(Locale.ROOT, "%,d of %,d pumps busy, %,d on duty",
+                frame.busyPumps(frame.getNumPumps()), frame.getNumPumps(), frame.getActivePumps());
+    }
+}
@@ -3,13 +3,11 @@ package simulator.cws.ui;
 import javafx.animation.Timeline;
 import javafx.geometry.Insets;
 import javafx.scene.control.Label;
-import javafx.scene.image.Image;
 import javafx.scene.image.ImageView;
 import javafx.scene.layout.HBox;
 import javafx.scene.layout.VBox;
 import javafx.util.Duration;
 import javafx.animation.KeyFrame;
-import simulator.cws.utlils.Helper;
 
 public class PumpCard extends VBox {
     private int pumpId;
@@ -39,9 +37,9 @@ public class PumpCard extends VBox {
         topBar = new HBox(10);
         topBar.setStyle("-fx-alignment: center-left; -fx-end-margin: 10;");
 
-        lightImage = new ImageView(new Image(getClass().getResource("/simulator/cws/assets/green.png").toExternalForm()));
-        lightImage.setFitWidth(57);
-        lightImage.setFitHeight(24);
+        lightImage = new ImageView(ImageCache.get(Sprite.GREEN_LIGHT, Sprite.LIGHT_WIDTH, Sprite.LIGHT_HEIGHT));
+        lightImage.setFitWidth(Sprite.LIGHT_WIDTH);
+        lightImage.setFitHeight(Sprite.LIGHT_HEIGHT);
         HBox.setMargin(lightImage, new Insets(0, 0, 0, 7));
 
         // count down
@@ -72,9 +70,9 @@ public class PumpCard extends VBox {
         serviceRow.setStyle("-fx-alignment: center;");
 
         // Pump image
-        pumpImage = new ImageView(new Image(getClass().getResource("/simulator/cws/assets/pump.png").toExternalForm()));
-        pumpImage.setFitWidth(100);
-        pumpImage.setFitHeight(100);
+        pumpImage = new ImageView(ImageCache.get(Sprite.PUMP, Sprite.PUMP_SIZE, Sprite.PUMP_SIZE));
+        pumpImage.setFitWidth(Sprite.PUMP_SIZE);
+        pumpImage.setFitHeight(Sprite.PUMP_SIZE);
 
         carBox = new VBox(5);
         carBox.setStyle("-fx-alignment: center;");
@@ -92,13 +90,13 @@ public class PumpCard extends VBox {
     public void setLightColor(String color) {
         if (color.equals("red")) {
             // Top bar: set red light
-            lightImage.setImage(new Image(getClass().getResource("/simulator/cws/assets/red.png").toExternalForm()));
+            lightImage.setImage(ImageCache.get(Sprite.RED_LIGHT, Sprite.LIGHT_WIDTH, Sprite.LIGHT_HEIGHT));
             this.setStyle("-fx-border-color: #d90707; -fx-border-radius: 6; -fx-border-width: 2; " +
                     "-fx-padding: 10; -fx-alignment: center; -fx-background-color: rgba(254,246,239,0.88);");
 
         } else if (color.equals("green")) {
             // Turn light back to green
-            lightImage.setImage(new Image(getClass().getResource("/simulator/cws/assets/green.png").toExternalForm()));
+            lightImage.setImage(ImageCache.get(Sprite.GREEN_LIGHT, Sprite.LIGHT_WIDTH, Sprite.LIGHT_HEIGHT));
             this.setStyle("-fx-border-color: #23ce6b; -fx-border-radius: 6; -fx-border-width: 2; -fx-padding: 10; -fx-alignment: center; -fx-background-color: rgba(254,246,239,0.88);");
         }
     }
@@ -116,6 +114,7 @@ public class PumpCard extends VBox {
     }
 
     public void resetCD() {
+        timeline.stop();
         countDownlabel.setStyle(
                 "-fx-font-weight: bold; " + "-fx-text-fill: black;"
         );
@@ -125,8 +124,8 @@ public class PumpCard extends VBox {
     public void setCarImage(int carId) {
         ImageView carImageView = helper.getCarImageView(carId);
 
-        carImageView.setFitWidth(100);
-        carImageView.setFitHeight(100);
+        carImageView.setFitWidth(Sprite.SERVICE_CAR_SIZE);
+        carImageView.setFitHeight(Sprite.SERVICE_CAR_SIZE);
 
         Label carLabel = new Label("C" + carId);
         carLabel.setStyle("-fx-font-weight: bold; -fx-text-fill: black;");
@@ -0,0 +1,90 @@
+package simulator.cws.ui;
+
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.paint.Color;
+
+import java.util.Locale;
+
+// The waiting cars in queue order: car sprites with their labels while they
+// fit, then one dot per car coloured by how long it has waited, then a
+// heatmap where each cell is the mean wait of a run of consecutive cars.
+// Cars are looked up by their place in the queue and bins read the frame's
+// running sums, so holes left in the queue cost nothing.
+public class QueueCanvas extends LodCanvas {
+    private static final double SPRITE_CELL_WIDTH = Sprite.CANVAS_CAR_SIZE + 14;
+    private static final double SPRITE_CELL_HEIGHT = Sprite.CANVAS_CAR_SIZE + 20;
+    private static final double DOT_CELL = 10;
+    private static final double HEAT_CELL = 6;
+
+    private long hotWaitNanos = 10_000_000_000L;
+
+    // the wait shown in full red
+    public void setHotWaitNanos(long hotWaitNanos) {
+        this.hotWaitNanos = Math.max(1, hotWaitNanos);
+    }
+
+    @Override
+    protected Detail render(GraphicsContext gc, StationFrame frame, long nowNanos, double width, double height) {
+        int count = frame.getQueuedCount();
+        if (count <= cellsThatFit(width, height, SPRITE_CELL_WIDTH, SPRITE_CELL_HEIGHT)) {
+            drawSprites(gc, frame, width);
+            return Detail.SPRITES;
+        }
+        double body = height - CAPTION_HEIGHT;
+        if (count <= cellsThatFit(width, body, DOT_CELL, DOT_CELL)) {
+            caption(gc, String.format(Locale.ROOT, "%,d cars waiting", count));
+            drawDots(gc, frame, nowNanos, width);
+            return Detail.DOTS;
+        }
+        drawHeatmap(gc, frame, nowNanos, width, body);
+        return Detail.HEATMAP;
+    }
+
+    private void drawSprites(GraphicsContext gc, StationFrame frame, double width) {
+        int columns = columns(width, SPRITE_CELL_WIDTH);
+        gc.setFill(Color.BLACK);
+        int count = frame.getQueuedCount();
+        for (int i = 0; i < count; i++) {
+            int carId = frame.queuedCar(frame.queuedSlot(i));
+            double x = PADDING + (i % columns) * SPRITE_CELL_WIDTH;
+            double y = PADDING + (i / columns) * SPRITE_CELL_HEIGHT;
+            gc.drawImage(ImageCache.get(Sprite.car(carId), Sprite.CANVAS_CAR_SIZE, Sprite.CANVAS_CAR_SIZE), x, y);
+            gc.fillText("C" + carId, x + Sprite.CANVAS_CAR_SIZE / 2 - 10, y + Sprite.CANVAS_CAR_SIZE + 14);
+        }
+    }
+
+    private void drawDots(GraphicsContext gc, StationFrame frame, long nowNanos, double width) {
+        int columns = columns(width, DOT_CELL);
+        int count = frame.getQueuedCount();
+        for (int i = 0; i < count; i++) {
+            gc.setFill(heat((double) (nowNanos - frame.queuedSince(frame.queuedSlot(i))) / hotWaitNanos));
+            gc.fillRect(PADDING + (i % columns) * DOT_CELL, CAPTION_HEIGHT + PADDING + (i / columns) * DOT_CELL,
+                    DOT_CELL - 2, DOT_CELL - 2);
+        }
+    }
+
+    private void drawHeatmap(GraphicsContext gc, StationFrame frame, long nowNanos, double width, double body) {
+        int count = frame.getQueuedCount();
+        int columns = columns(width, HEAT_CELL);
+        int bins = cellsThatFit(width, body, HEAT_CELL, HEAT_CELL);
+        if (bins == 0) return;
+        int perBin = (count + bins - 1) / bins;
+        caption(gc, String.format(Locale.ROOT, "%,d cars waiting, %,d per cell", count, perBin));
+
+        // the wait sum of a bin is n * now minus the enqueue times of its cars, read off the running sums
+        long before = 0;
+        for (int bin = 0; bin * perBin < count; bin++) {
+            int to = Math.min(count, (bin + 1) * perBin);
+            int n = to - bin * perBin;
+            long upTo = frame.queuedSinceSum(to);
+            fillBin(gc, bin, columns, (double) (nowNanos * n - (upTo - before)) / n);
+            before = upTo;
+        }
+    }
+
+    private void fillBin(GraphicsContext gc, int bin, int columns, double meanWaitNanos) {
+        gc.setFill(heat(meanWaitNanos / hotWaitNanos));
+        gc.fillRect(PADDING + (bin % columns) * HEAT_CELL, CAPTION_HEIGHT + PADDING + (bin / columns) * HEAT_CELL,
+                HEAT_CELL, HEAT_CELL);
+    }
+}
@@ -0,0 +1,46 @@
+package simulator.cws.ui;
+
+// Every image the cards draw, and the size each card shows it at.
+public enum Sprite {
+    CAR_1("1.png"),
+    CAR_2("2.png"),
+    CAR_3("3.png"),
+    CAR_4("4.png"),
+    CAR_5("5.png"),
+    CAR_6("6.png"),
+    CAR_7("7.png"),
+    CAR_8("8.png"),
+    PUMP("pump.png"),
+    RED_LIGHT("red.png"),
+    GREEN_LIGHT("green.png");
+
+    // fit sizes used by CarCard and PumpCard
+    public static final double QUEUE_CAR_SIZE = 110;
+    public static final double SERVICE_CAR_SIZE = 100;
+    public static final double PUMP_SIZE = 100;
+    public static final double LIGHT_WIDTH = 57;
+    public static final double LIGHT_HEIGHT = 24;
+
+    // smaller sizes drawn by QueueCanvas and PumpCanvas
+    public static final double CANVAS_CAR_SIZE = 56;
+    public static final double CANVAS_PUMP_SIZE = 64;
+    public static final double CANVAS_LIGHT_WIDTH = 38;
+    public static final double CANVAS_LIGHT_HEIGHT = 16;
+
+    private static final Sprite[] CARS = {CAR_1, CAR_2, CAR_3, CAR_4, CAR_5, CAR_6, CAR_7, CAR_8};
+
+    private final String file;
+
+    Sprite(String file) {
+        this.file = file;
+    }
+
+    public String getPath() {
+        return "/simulator/cws/assets/" + file;
+    }
+
+    // cars cycle through the eight car images: C1 -> 1.png ... C9 -> 1.png
+    public static Sprite car(int carId) {
+        return CARS[Math.floorMod(carId - 1, CARS.length)];
+    }
+}
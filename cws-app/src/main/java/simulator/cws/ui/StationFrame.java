@@ -0,0 +1,221 @@
+package simulator.cws.ui;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+// Compact picture of the station for the canvas views: the waiting cars in
+// the order they entered the queue, when each entered, and the car each pump
+// is serving. Kept in flat arrays, updated on the FX thread from the drained
+// observer events and read once per frame, so drawing costs nothing per node.
+// Running sums over the slots (a Fenwick tree of live counts and enqueue
+// times) let a view find the n-th waiting car, or the mean wait of a run of
+// cars, in log time instead of walking the queue.
+public class StationFrame {
+    // live cars sit in [head, tail) in queue order; a car that leaves out of order leaves a 0 behind
+    private int[] queued = new int[256];
+    private long[] queuedSince = new long[256];
+    private int head, tail, queuedCount;
+    private final Map<Integer, Integer> slots = new HashMap<>();
+    // Fenwick trees over the slots, 1-based: live cars, and the sum of their enqueue times (wrapping)
+    private int[] countTree = new int[257];
+    private long[] sinceTree = new long[257];
+
+    // indexed by pump id - 1
+    private int[] serving = new int[0];
+    private long[] servingSince = new long[0];
+    private int[] busyTree = new int[1]; // Fenwick tree of busy pumps, by pump id
+    private int activePumps;
+
+    private long version; // bumped on every change, so views can skip identical frames
+
+    public void setPumps(int numPumps) {
+        serving = new int[numPumps];
+        servingSince = new long[numPumps];
+        busyTree = new int[numPumps + 1];
+        activePumps = numPumps;
+        version++;
+    }
+
+    public void setActivePumps(int activePumps) {
+        if (activePumps != this.activePumps) {
+            this.activePumps = activePumps;
+            version++;
+        }
+    }
+
+    public void enqueue(int carId, long nowNanos) {
+        if (slots.containsKey(carId)) return;
+        if (tail == queued.length) {
+            compact();
+        }
+        queued[tail] = carId;
+        queuedSince[tail] = nowNanos;
+        add(tail, 1, nowNanos);
+        slots.put(carId, tail++);
+        queuedCount++;
+        version++;
+    }
+
+    public void dequeue(int carId) {
+        Integer slot = slots.remove(carId);
+        if (slot == null) return;
+        queued[slot] = 0;
+        add(slot, -1, -queuedSince[slot]);
+        queuedCount--;
+        while (head < tail && queued[head] == 0) head++;
+        if (head == tail) head = tail = 0;
+        version++;
+    }
+
+    // carId 0 frees the pump
+    public void setServing(int pumpId, int carId, long nowNanos) {
+        if (pumpId < 1 || pumpId > serving.length) return;
+        int change = (carId != 0 ? 1 : 0) - (serving[pumpId - 1] != 0 ? 1 : 0);
+        for (int i = pumpId; change != 0 && i < busyTree.length; i += i & -i) {
+            busyTree[i] += change;
+        }
+        serving[pumpId - 1] = carId;
+        servingSince[pumpId - 1] = nowNanos;
+        version++;
+    }
+
+    public void clear() {
+        Arrays.fill(queued, 0, tail, 0);
+        Arrays.fill(countTree, 0);
+        Arrays.fill(sinceTree, 0);
+        head = tail = queuedCount = 0;
+        slots.clear();
+        Arrays.fill(serving, 0);
+        Arrays.fill(busyTree, 0);
+        version++;
+    }
+
+    // drops the holes left by cars that were dequeued out of order, growing when mostly live
+    private void compact() {
+        int[] cars = queuedCount * 2 > queued.length ? new int[queued.length * 2] : queued;
+        long[] since = cars == queued ? queuedSince : new long[cars.length];
+        int live = 0;
+        for (int i = head; i < tail; i++) {
+            if (queued[i] == 0) continue;
+            cars[live] = queued[i];
+            since[live] = queuedSince[i];
+            slots.put(queued[i], live++);
+        }
+        if (cars == queued) Arrays.fill(queued, live, tail, 0);
+        queued = cars;
+        queuedSince = since;
+        head = 0;
+        tail = live;
+        rebuildTrees();
+    }
+
+    private void add(int slot, int count, long since) {
+        for (int i = slot + 1; i < countTree.length; i += i & -i) {
+            countTree[i] += count;
+            sinceTree[i] += since;
+        }
+    }
+
+    // linear build: each node hands its sum on to its parent
+    private void rebuildTrees() {
+        if (countTree.length != queued.length + 1) {
+            countTree = new int[queued.length + 1];
+            sinceTree = new long[queued.length + 1];
+        } else {
+            Arrays.fill(countTree, 0);
+            Arrays.fill(sinceTree, 0);
+        }
+        for (int i = 1; i < countTree.length; i++) {
+            if (i <= tail) {
+                countTree[i] += 1;
+                sinceTree[i] += queuedSince[i - 1];
+            }
+            int parent = i + (i & -i);
+            if (parent < countTree.length) {
+                countTree[parent] += countTree[i];
+                sinceTree[parent] += sinceTree[i];
+            }
+        }
+    }
+
+    // number of slots before the one holding the given waiting car (0-based, < queuedCount)
+    private int descend(int index) {
+        int pos = 0, remaining = index + 1;
+        for (int step = Integer.highestOneBit(countTree.length - 1); step > 0; step >>= 1) {
+            int next = pos + step;
+            if (next < countTree.length && countTree[next] < remaining) {
+                pos = next;
+                remaining -= countTree[next];
+            }
+        }
+        return pos;
+    }
+
+    // waiting cars are read by walking slots [queueStart(), queueEnd()) and skipping 0s
+    public int queueStart() {
+        return head;
+    }
+
+    public int queueEnd() {
+        return tail;
+    }
+
+    public int queuedCar(int slot) {
+        return queued[slot];
+    }
+
+    public long queuedSince(int slot) {
+        return queuedSince[slot];
+    }
+
+    // slot of the index-th waiting car in queue order, 0-based
+    public int queuedSlot(int index) {
+        return descend(index);
+    }
+
+    // sum of the enqueue times of the first cars waiting cars; wraps, so only differences mean anything
+    public long queuedSinceSum(int cars) {
+        if (cars <= 0) return 0;
+        int slot = descend(cars - 1);
+        long sum = queuedSince[slot];
+        for (int i = slot; i > 0; i -= i & -i) {
+            sum += sinceTree[i];
+        }
+        return sum;
+    }
+
+    public int getQueuedCount() {
+        return queuedCount;
+    }
+
+    public int getNumPumps() {
+        return serving.length;
+    }
+
+    public int getActivePumps() {
+        return activePumps;
+    }
+
+    // 0 when the pump is free
+    public int getServing(int pumpId) {
+        return serving[pumpId - 1];
+    }
+
+    // busy pumps among pumps 1..pumpId
+    public int busyPumps(int pumpId) {
+        int busy = 0;
+        for (int i = Math.min(pumpId, serving.length); i > 0; i -= i & -i) {
+            busy += busyTree[i];
+        }
+        return busy;
+    }
+
+    public long getServingSince(int pumpId) {
+        return servingSince[pumpId - 1];
+    }
+
+    public long getVersion() {
+        return version;
+    }
+}
@@ -0,0 +1,30 @@
+package simulator.cws.ui;
+
+// An observer callback captured on a car or pump thread, applied later on the FX thread.
+public record UiEvent(Type type, int pumpId, int carId, String message) {
+    public enum Type {
+        CAR_ARRIVES,
+        CAR_ENTERS_QUEUE,
+        CAR_LOGINS,
+        CAR_BEGINS_SERVICE,
+        CAR_FINISHES_SERVICE,
+        MESSAGE,
+        EXCEPTION
+    }
+
+    public static UiEvent car(Type type, int carId) {
+        return new UiEvent(type, 0, carId, null);
+    }
+
+    public static UiEvent pump(Type type, int pumpId, int carId) {
+        return new UiEvent(type, pumpId, carId, null);
+    }
+
+    public static UiEvent message(String message) {
+        return new UiEvent(Type.MESSAGE, 0, 0, message);
+    }
+
+    public static UiEvent exception(String message) {
+        return new UiEvent(Type.EXCEPTION, 0, 0, message);
+    }
+}
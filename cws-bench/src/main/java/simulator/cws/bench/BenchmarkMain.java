@@ -0,0 +1,31 @@
+package simulator.cws.bench;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+// Runs the benchmarks headless and writes JMH's JSON results so runs can be
+// compared later. Accepts the usual JMH options, e.g. a benchmark regex or
+// -p pumps=4; -rff overrides the default result file.
+public class BenchmarkMain {
+    public static void main(String[] args) throws Exception {
+        CommandLineOptions commandLine = new CommandLineOptions(args);
+        String stamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss"));
+
+        OptionsBuilder builder = new OptionsBuilder();
+        builder.parent(commandLine)
+                .resultFormat(ResultFormatType.JSON)
+                .jvmArgsAppend("-Djava.awt.headless=true");
+        if (!commandLine.getResult().hasValue()) {
+            builder.result("jmh-result-" + stamp + ".json");
+        }
+        Options options = builder.build();
+
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,69 @@
+package simulator.cws.bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import simulator.cws.models.Semaphore;
+
+import java.util.concurrent.TimeUnit;
+
+// acquire/release round trips on the station's Semaphore
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SemaphoreBenchmark {
+
+    @State(Scope.Thread)
+    public static class Uncontended {
+        @Param({"false", "true"})
+        public boolean fair;
+
+        Semaphore semaphore;
+
+        @Setup
+        public void setup() {
+            semaphore = new Semaphore(1, fair);
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class Contended {
+        @Param({"false", "true"})
+        public boolean fair;
+
+        // 1 behaves like the station mutex, more like the pumps semaphore
+        @Param({"1", "4"})
+        public int permits;
+
+        Semaphore semaphore;
+
+        @Setup
+        public void setup() {
+            semaphore = new Semaphore(permits, fair);
+        }
+    }
+
+    @Benchmark
+    public void uncontended(Uncontended state) throws InterruptedException {
+        state.semaphore.acquire();
+        state.semaphore.release();
+    }
+
+    @Benchmark
+    @Threads(8)
+    public void contended(Contended state) throws InterruptedException {
+        state.semaphore.acquire();
+        state.semaphore.release();
+    }
+}
@@ -0,0 +1,180 @@
+package simulator.cws.bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import simulator.cws.engine.ArrivalSource;
+import simulator.cws.engine.VirtualStation;
+import simulator.cws.models.ExecutionMode;
+import simulator.cws.models.ServiceStation;
+import simulator.cws.models.WaitingAreaType;
+import simulator.cws.utlils.CarObserver;
+import simulator.cws.utlils.PumpObserver;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+// End-to-end cars per second with the service time set to zero. Every
+// invocation builds a fresh station, pushes CARS cars through it and waits
+// until the last one has finished service. Pump cooldown is zero in both
+// stations, so the numbers show the cost of the machinery alone. liveReused
+// does the same on one station that is reset between invocations, so its
+// pump threads are reused.
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(1)
+public class StationBenchmark {
+    static final int LIVE_CARS = 256;
+    static final int VIRTUAL_CARS = 1_000_000;
+
+    @State(Scope.Benchmark)
+    public static class Live {
+        @Param({"1", "4", "16"})
+        public int pumps;
+
+        @Param({"16"})
+        public int waitingAreaSize;
+
+        @Param({"PLATFORM", "VIRTUAL"})
+        public ExecutionMode executionMode;
+
+        @Param({"LINKED", "RING_BUFFER"})
+        public WaitingAreaType waitingAreaType;
+    }
+
+    @State(Scope.Benchmark)
+    public static class Reused {
+        @Param({"1", "4", "16"})
+        public int pumps;
+
+        @Param({"16"})
+        public int waitingAreaSize;
+
+        @Param({"PLATFORM", "VIRTUAL"})
+        public ExecutionMode executionMode;
+
+        ServiceStation station;
+
+        @Setup
+        public void setUp() {
+            station = new ServiceStation(waitingAreaSize, pumps);
+            station.setExecutionMode(executionMode);
+            station.setCooldownNanos(0);
+        }
+
+        @TearDown
+        public void tearDown() {
+            station.shutdown();
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class Virtual {
+        @Param({"1", "4", "16"})
+        public int pumps;
+
+        @Param({"16"})
+        public int waitingAreaSize;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LIVE_CARS)
+    public long live(Live state) throws InterruptedException {
+        ServiceStation station = new ServiceStation(state.waitingAreaSize, state.pumps);
+        station.setExecutionMode(state.executionMode);
+        station.setWaitingAreaType(state.waitingAreaType);
+        station.setCooldownNanos(0);
+
+        CountDownLatch finished = new CountDownLatch(LIVE_CARS);
+        station.startSimulation(0, new FinishCounter(finished));
+        CarObserver cars = new Quiet();
+        for (int i = 0; i < LIVE_CARS; i++) {
+            station.addCar(cars);
+        }
+        finished.await();
+        // a fresh station per invocation, so its workers must not outlive it
+        station.shutdown();
+        return finished.getCount();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LIVE_CARS)
+    public long liveReused(Reused state) throws InterruptedException {
+        ServiceStation station = state.station;
+        station.reset();
+
+        CountDownLatch finished = new CountDownLatch(LIVE_CARS);
+        station.startSimulation(0, new FinishCounter(finished));
+        CarObserver cars = new Quiet();
+        for (int i = 0; i < LIVE_CARS; i++) {
+            station.addCar(cars);
+        }
+        finished.await();
+        station.stopSimulation();
+        return finished.getCount();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(VIRTUAL_CARS)
+    public long virtual(Virtual state) {
+        VirtualStation station = new VirtualStation(state.waitingAreaSize, state.pumps);
+        station.setCooldownNanos(0);
+
+        long[] generated = {0};
+        station.setArrivalSource(previous -> ++generated[0] > VIRTUAL_CARS ? ArrivalSource.NO_MORE_ARRIVALS : previous);
+        station.startSimulation(0, null);
+        station.run();
+        return station.getFinishedCars();
+    }
+
+    static class FinishCounter implements PumpObserver {
+        private final CountDownLatch finished;
+
+        FinishCounter(CountDownLatch finished) {
+            this.finished = finished;
+        }
+
+        @Override
+        public void onCarLogins(int pumpId, int carId) {
+        }
+
+        @Override
+        public void onCarBeginsService(int pumpId, int carId) {
+        }
+
+        @Override
+        public void onCarFinishesService(int pumpId, int carId) {
+            finished.countDown();
+        }
+
+        @Override
+        public void onException(String message) {
+        }
+    }
+
+    static class Quiet implements CarObserver {
+        @Override
+        public void onCarArrives(int carId) {
+        }
+
+        @Override
+        public void onCarEntersQueue(int carId) {
+        }
+
+        @Override
+        public void onException(String message) {
+        }
+    }
+}
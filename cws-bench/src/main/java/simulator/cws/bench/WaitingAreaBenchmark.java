@@ -0,0 +1,104 @@
+package simulator.cws.bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import simulator.cws.models.Car;
+import simulator.cws.models.WaitingArea;
+import simulator.cws.models.WaitingAreaType;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+// Car -> pump handoff through the waiting area with no service time: each
+// invocation moves CARS cars from `producers` threads to `pumps` threads
+// using the same reserve/put and take/vacate steps as Car and Pump.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class WaitingAreaBenchmark {
+    static final int CARS = 64 * 1024;
+
+    @Param({"LINKED", "RING_BUFFER"})
+    public WaitingAreaType type;
+
+    @Param({"1", "4", "16", "64"})
+    public int producers;
+
+    @Param({"1", "4", "16", "64"})
+    public int pumps;
+
+    @Param({"16"})
+    public int capacity;
+
+    private WaitingArea waitingArea;
+    private Car[] cars;
+    private ExecutorService executor;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        waitingArea = type.create(capacity, false);
+        cars = new Car[CARS];
+        for (int i = 0; i < CARS; i++) {
+            cars[i] = new Car(i + 1, waitingArea);
+        }
+        executor = Executors.newFixedThreadPool(producers + pumps);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(CARS)
+    public long handoff() throws Exception {
+        List<Future<Long>> tasks = new ArrayList<>(producers + pumps);
+
+        for (int p = 0; p < producers; p++) {
+            int first = p;
+            tasks.add(executor.submit(() -> {
+                for (int i = first; i < CARS; i += producers) {
+                    waitingArea.reserve();
+                    waitingArea.put(cars[i]);
+                }
+                return 0L;
+            }));
+        }
+        for (int c = 0; c < pumps; c++) {
+            int first = c;
+            tasks.add(executor.submit(() -> {
+                long sum = 0;
+                for (int i = first; i < CARS; i += pumps) {
+                    sum += waitingArea.take().getCarId();
+                    waitingArea.vacate();
+                }
+                return sum;
+            }));
+        }
+
+        long sum = 0;
+        for (Future<Long> task : tasks) {
+            sum += task.get();
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,6 @@
+module simulator.cws.cli {
+    requires simulator.cws.core;
+    requires simulator.cws.monitoring;
+
+    exports simulator.cws.cli;
+}
@@ -0,0 +1,138 @@
+package simulator.cws.cli;
+
+import simulator.cws.engine.VirtualStation;
+import simulator.cws.load.LoadGenerator;
+import simulator.cws.metrics.Histogram;
+import simulator.cws.metrics.StationMetrics;
+import simulator.cws.models.ExecutionMode;
+import simulator.cws.models.ServiceStation;
+import simulator.cws.monitoring.http.MetricsServer;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.SplittableRandom;
+
+// Headless entry point; never loads JavaFX.
+//   cws run [--scenario file.properties] [--option value ...] [--out stats.json] [--cars cars.csv]
+//   cws sweep|replicate|plan ...
+// run simulates one Scenario and writes its statistics as JSON (stdout by
+// default) and, with --cars, every finished car as CSV. The other commands
+// hand their arguments to SweepMain, ReplicationMain and PlannerMain.
+public class CwsCli {
+    public static void main(String[] args) throws Exception {
+        if (args.length == 0) {
+            System.err.println("usage: cws run|sweep|replicate|plan [--option value ...]");
+            System.exit(2);
+        }
+        String[] rest = Arrays.copyOfRange(args, 1, args.length);
+        switch (args[0]) {
+            case "run" -> run(Options.parse(rest));
+            case "sweep" -> SweepMain.main(rest);
+            case "replicate" -> ReplicationMain.main(rest);
+            case "plan" -> PlannerMain.main(rest);
+            default -> throw new IllegalArgumentException("unknown command: " + args[0]);
+        }
+    }
+
+    private static void run(Options options) throws IOException, InterruptedException {
+        Scenario scenario = Scenario.of(options);
+        long start = System.nanoTime();
+        boolean recordCars = options.has("cars");
+        StationMetrics metrics = scenario.isLive() ? runLive(scenario, recordCars) : runVirtual(scenario, recordCars);
+        long elapsedNanos = System.nanoTime() - start;
+
+        String json = toJson(scenario, metrics, elapsedNanos);
+        String out = options.get("out");
+        if (out == null) {
+            System.out.println(json);
+        } else {
+            Files.writeString(Path.of(out), json + System.lineSeparator(), StandardCharsets.UTF_8);
+        }
+
+        String cars = options.get("cars");
+        if (cars != null) {
+            try (Writer writer = Files.newBufferedWriter(Path.of(cars), StandardCharsets.UTF_8)) {
+                metrics.getCompletedCars().writeCsv(writer, metrics.getStartNanos());
+            }
+        }
+    }
+
+    // simulated time, reproducible for a given seed
+    private static StationMetrics runVirtual(Scenario scenario, boolean recordCars) {
+        VirtualStation station = new VirtualStation(scenario.area(), scenario.pumps());
+        station.setCooldownNanos(scenario.cooldownNanos());
+        station.setBalking(scenario.balking());
+        station.getMetrics().setRecordSeries(false);
+        station.getMetrics().setRecordCompleted(recordCars);
+        station.setArrivalSource(scenario.arrivals().asSource(new SplittableRandom(scenario.seed()), Long.MAX_VALUE));
+        station.startSimulation(0, null);
+        station.setServiceTime(scenario.serviceTime());
+        station.setSeed(scenario.seed());
+        station.runUntil(scenario.durationNanos());
+        station.stopSimulation();
+        return station.getMetrics();
+    }
+
+    // the threaded station in real time, for duration wall-clock seconds
+    private static StationMetrics runLive(Scenario scenario, boolean recordCars)
+            throws IOException, InterruptedException {
+        ServiceStation station = new ServiceStation(scenario.area(), scenario.pumps());
+        station.setExecutionMode(ExecutionMode.valueOf(scenario.get("threads", "virtual").toUpperCase(Locale.ROOT)));
+        station.setCooldownNanos(scenario.cooldownNanos());
+        station.getMetrics().setRecordCompleted(recordCars);
+
+        MetricsServer server = metricsServer(scenario.get("metrics", null));
+        if (server != null) {
+            server.setStation(station);
+            System.err.println("serving metrics on port " + server.getPort());
+        }
+        try {
+            station.startSimulation(scenario.serviceTime(), null);
+            LoadGenerator generator = new LoadGenerator(station, null);
+            generator.setSeed(scenario.seed());
+            generator.start(scenario.arrivals());
+            Thread.sleep(scenario.durationNanos() / 1_000_000);
+            generator.stop();
+            station.stopSimulation();
+        } finally {
+            if (server != null) server.stop();
+        }
+        return station.getMetrics();
+    }
+
+    // port on the loopback interface, or host:port
+    private static MetricsServer metricsServer(String address) throws IOException {
+        if (address == null) return null;
+        int colon = address.lastIndexOf(':');
+        if (colon < 0) {
+            return new MetricsServer(Integer.parseInt(address)).start();
+        }
+        int port = Integer.parseInt(address.substring(colon + 1));
+        return new MetricsServer(new InetSocketAddress(address.substring(0, colon), port)).start();
+    }
+
+    private static String toJson(Scenario scenario, StationMetrics metrics, long elapsedNanos) {
+        double seconds = scenario.durationNanos() / 1e9;
+        return String.format(Locale.ROOT, "{\"engine\":\"%s\",\"pumps\":%d,\"area\":%d,\"seconds\":%.3f,"
+                        + "\"arrivals\":%d,\"completions\":%d,\"balks\":%d,\"throughput\":%.6f,\"utilization\":%.4f,"
+                        + "\"wait\":%s,\"service\":%s,\"sojourn\":%s,\"runMillis\":%d}",
+                scenario.isLive() ? "live" : "virtual", scenario.pumps(), scenario.area(), seconds,
+                metrics.getArrivals(), metrics.getCompletions(), metrics.getBalks(),
+                metrics.getCompletions() / seconds, metrics.getAverageUtilization(),
+                histogram(metrics.getWaitTimes()), histogram(metrics.getServiceTimes()),
+                histogram(metrics.getSojournTimes()), elapsedNanos / 1_000_000);
+    }
+
+    // seconds
+    private static String histogram(Histogram histogram) {
+        return String.format(Locale.ROOT, "{\"count\":%d,\"mean\":%.3f,\"p50\":%.3f,\"p90\":%.3f,\"p99\":%.3f,\"max\":%.3f}",
+                histogram.getCount(), histogram.getMean() / 1e9, histogram.getPercentile(50) / 1e9,
+                histogram.getPercentile(90) / 1e9, histogram.getPercentile(99) / 1e9, histogram.getMax() / 1e9);
+    }
+}
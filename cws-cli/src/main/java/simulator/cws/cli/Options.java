@@ -0,0 +1,81 @@
+package simulator.cws.cli;
+
+import simulator.cws.load.ArrivalProcess;
+import simulator.cws.models.ServiceTime;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.LongFunction;
+
+// --option value pairs from the command line, and the readings every
+// command shares: times in seconds, the arrival process (rate, process) and
+// the service distribution (distribution, cv).
+final class Options {
+    private final Map<String, String> values;
+
+    Options(Map<String, String> values) {
+        this.values = values;
+    }
+
+    static Options parse(String[] args) {
+        Map<String, String> values = new HashMap<>();
+        for (int i = 0; i < args.length; i++) {
+            if (!args[i].startsWith("--") || i + 1 >= args.length) {
+                throw new IllegalArgumentException("expected --option value, got: " + args[i]);
+            }
+            values.put(args[i].substring(2), args[++i]);
+        }
+        return new Options(values);
+    }
+
+    // null when not given
+    String get(String key) {
+        return values.get(key);
+    }
+
+    String get(String key, String fallback) {
+        return values.getOrDefault(key, fallback);
+    }
+
+    boolean has(String key) {
+        return values.containsKey(key);
+    }
+
+    Map<String, String> asMap() {
+        return values;
+    }
+
+    // seconds, as nanoseconds
+    long nanos(String key, String fallback) {
+        return seconds(get(key, fallback));
+    }
+
+    ArrivalProcess arrivals() {
+        double rate = Double.parseDouble(get("rate", String.valueOf(1 / 60.0)));
+        return switch (get("process", "poisson")) {
+            case "poisson" -> ArrivalProcess.poisson(rate);
+            case "deterministic" -> ArrivalProcess.deterministic(rate);
+            default -> throw new IllegalArgumentException("unknown process: " + get("process"));
+        };
+    }
+
+    // service time of a given mean, in the distribution named by --distribution
+    LongFunction<ServiceTime> distribution(String fallback) {
+        double cv = Double.parseDouble(get("cv", "0.5"));
+        return switch (get("distribution", fallback)) {
+            case "deterministic" -> ServiceTime::deterministic;
+            case "exponential" -> ServiceTime::exponential;
+            case "lognormal" -> mean -> ServiceTime.lognormal(mean, cv);
+            default -> throw new IllegalArgumentException("unknown distribution: " + get("distribution"));
+        };
+    }
+
+    // --service mean seconds in the --distribution
+    ServiceTime serviceTime(String meanFallback, String distributionFallback) {
+        return distribution(distributionFallback).apply(nanos("service", meanFallback));
+    }
+
+    private static long seconds(String value) {
+        return Math.round(Double.parseDouble(value) * 1e9);
+    }
+}
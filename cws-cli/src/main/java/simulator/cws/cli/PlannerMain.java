@@ -0,0 +1,69 @@
+package simulator.cws.cli;
+
+import simulator.cws.planning.Candidate;
+import simulator.cws.planning.CapacityPlanner;
+import simulator.cws.planning.Plan;
+import simulator.cws.planning.Sla;
+import simulator.cws.replication.Estimate;
+
+import java.util.Locale;
+
+// Command line entry point for capacity planning, e.g. the cheapest
+// station for "p95 wait < 3 min at 120 cars/hour" with 5 minute services:
+//   java -jar cws-cli/target/cws-cli.jar plan \
+//       --cars-per-hour 120 --percentile 95 --max-wait 180 --service 300
+// Prints every simulated configuration next to the closed form. With
+// --tolerance t, rows where the simulation drifts from theory by more than
+// its confidence interval plus t (relative) are marked DRIFT.
+// Times are seconds.
+public class PlannerMain {
+    public static void main(String[] args) throws Exception {
+        Options options = Options.parse(args);
+
+        Sla sla = Sla.perHour(Double.parseDouble(options.get("cars-per-hour", "120")),
+                        Double.parseDouble(options.get("percentile", "95")),
+                        Double.parseDouble(options.get("max-wait", "180")))
+                .withMaxBalkRate(Double.parseDouble(options.get("max-balk", "1")));
+        boolean balking = Boolean.parseBoolean(options.get("balking", "false"));
+
+        CapacityPlanner planner = new CapacityPlanner()
+                .setServiceTime(options.serviceTime("300", "exponential"))
+                .setCooldownNanos(options.nanos("cooldown", "0"))
+                .setBalking(balking)
+                .setBounds(Integer.parseInt(options.get("max-pumps", "50")),
+                        Integer.parseInt(options.get("max-area", "50")))
+                .setCosts(Double.parseDouble(options.get("pump-cost", "1")),
+                        Double.parseDouble(options.get("space-cost", "0.1")))
+                .setSlack(Double.parseDouble(options.get("slack", "0.25")))
+                .setSimulation(options.nanos("warmup", "3600"),
+                        options.nanos("duration", "86400"),
+                        Integer.parseInt(options.get("replications", "10")),
+                        Long.parseLong(options.get("seed", "42")));
+        double tolerance = Double.parseDouble(options.get("tolerance", "0.1"));
+
+        Plan plan = planner.plan(sla);
+        System.out.printf(Locale.ROOT, "%d configurations scored in %.2f ms, %d promising, %d simulated in %.2f s%n",
+                plan.analyticEvaluations(), plan.analyticNanos() / 1e6, plan.promising(), plan.simulated().size(),
+                plan.simulationNanos() / 1e9);
+        String percentile = String.format(Locale.ROOT, "p%s", trim(sla.percentile()));
+        System.out.printf("%6s %6s %8s %12s %24s %10s %10s  %s%n", "pumps", "area", "cost",
+                percentile + " model", percentile + " simulated", "balk model", "balk sim", "");
+        for (Candidate candidate : plan.simulated()) {
+            Estimate wait = candidate.simulatedWait();
+            String mark = candidate.confirmed() ? "meets SLA" : "misses SLA";
+            if (candidate.drifts(tolerance)) mark += ", DRIFT";
+            System.out.printf(Locale.ROOT, "%6d %6d %8.1f %12.1f %12.1f +- %-8.1f %10.4f %10.4f  %s%n",
+                    candidate.numPumps(), candidate.waitingAreaSize(), candidate.cost(), candidate.analyticWait(),
+                    wait.mean(), wait.halfWidth(), candidate.analyticBalkRate(), candidate.simulatedBalkRate().mean(), mark);
+        }
+        if (plan.isFeasible()) {
+            System.out.printf("cheapest: %d pumps, waiting area %d%n", plan.chosen().numPumps(), plan.chosen().waitingAreaSize());
+        } else {
+            System.out.println("no configuration within the bounds meets the SLA");
+        }
+    }
+
+    private static String trim(double value) {
+        return value == Math.rint(value) ? String.valueOf((long) value) : String.valueOf(value);
+    }
+}
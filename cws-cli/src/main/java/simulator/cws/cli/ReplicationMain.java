@@ -0,0 +1,79 @@
+package simulator.cws.cli;
+
+import simulator.cws.replication.Estimate;
+import simulator.cws.replication.ReplicationReport;
+import simulator.cws.replication.ReplicationResult;
+import simulator.cws.replication.ReplicationRunner;
+import simulator.cws.replication.ReplicationSpec;
+
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+
+// Command line entry point for replicated experiments, e.g.
+//   java -jar cws-cli/target/cws-cli.jar replicate \
+//       --pumps 3 --area 10 --rate 0.02 --service 120 --replications 30 --seed 42
+// Prints each output as a mean with its confidence interval; --out writes
+// one CSV row per replication. --replication i re-runs replication i alone
+// and prints its row, which reproduces the same fingerprint for the same seed.
+// Times are seconds, the arrival rate is cars per second.
+public class ReplicationMain {
+    public static void main(String[] args) throws Exception {
+        Options options = Options.parse(args);
+
+        ReplicationSpec spec = new ReplicationSpec()
+                .setWaitingAreaSize(Integer.parseInt(options.get("area", "10")))
+                .setNumPumps(Integer.parseInt(options.get("pumps", "3")))
+                .setServiceTime(options.serviceTime("120", "exponential"))
+                .setArrivals(options.arrivals())
+                .setCooldownNanos(options.nanos("cooldown", "0.1"))
+                .setBalking(Boolean.parseBoolean(options.get("balking", "false")))
+                .setWarmupNanos(options.nanos("warmup", "3600"))
+                .setDurationNanos(options.nanos("duration", "86400"))
+                .setReplications(Integer.parseInt(options.get("replications", "30")))
+                .setSeed(Long.parseLong(options.get("seed", "42")))
+                .setConfidence(Double.parseDouble(options.get("confidence", "0.95")))
+                .setWaitPercentile(Double.parseDouble(options.get("percentile", "95")));
+
+        if (options.has("replication")) {
+            System.out.println(ReplicationResult.csvHeader());
+            System.out.println(ReplicationRunner.runReplication(spec, Integer.parseInt(options.get("replication"))).toCsv());
+            return;
+        }
+
+        int threads = Integer.parseInt(options.get("threads",
+                String.valueOf(Runtime.getRuntime().availableProcessors())));
+        long start = System.nanoTime();
+        ReplicationReport report = new ReplicationRunner(spec, threads).run();
+        System.out.printf(Locale.ROOT, "%d replications of %.0f s after %.0f s warm-up, seed %d, %d threads, %.2f s%n",
+                spec.getReplications(), spec.getDurationNanos() / 1e9, spec.getWarmupNanos() / 1e9, spec.getSeed(),
+                threads, (System.nanoTime() - start) / 1e9);
+        print("throughput (cars/s)", report.getThroughput());
+        print("mean wait (s)", report.getMeanWait());
+        print(String.format(Locale.ROOT, "p%s wait (s)", trim(spec.getWaitPercentile())), report.getWaitPercentile());
+        print("utilization", report.getUtilization());
+        if (spec.isBalking()) print("balk rate", report.getBalkRate());
+        print("censored rate", report.getCensoredRate());
+
+        String out = options.get("out");
+        if (out != null) {
+            try (PrintWriter writer = new PrintWriter(Files.newBufferedWriter(Path.of(out), StandardCharsets.UTF_8))) {
+                writer.println(ReplicationResult.csvHeader());
+                for (ReplicationResult result : report.getResults()) {
+                    writer.println(result.toCsv());
+                }
+            }
+        }
+    }
+
+    private static void print(String name, Estimate estimate) {
+        System.out.printf(Locale.ROOT, "%-20s %12.4f +- %-10.4f [%.4f, %.4f] (%.1f%%)%n", name, estimate.mean(),
+                estimate.halfWidth(), estimate.lower(), estimate.upper(), estimate.relativeHalfWidth() * 100);
+    }
+
+    private static String trim(double value) {
+        return value == Math.rint(value) ? String.valueOf((long) value) : String.valueOf(value);
+    }
+}
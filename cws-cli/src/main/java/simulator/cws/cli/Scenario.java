@@ -0,0 +1,93 @@
+package simulator.cws.cli;
+
+import simulator.cws.load.ArrivalProcess;
+import simulator.cws.models.ServiceTime;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+
+// A station and the load to run it under, read from a properties file
+// (--scenario) and/or command line options, options winning:
+//   engine=virtual        virtual (event engine) or live (threads)
+//   pumps=3  area=10      pumps and waiting-area spaces
+//   rate=0.02             arrivals per second, process=poisson|deterministic
+//   service=120           mean service seconds, distribution=deterministic|exponential|lognormal, cv=0.5
+//   cooldown=0.1          pump pause between cars, seconds
+//   balking=false         virtual only: cars leave when the area is full
+//   threads=virtual       live only: virtual or platform threads
+//   metrics=9400          live only: serve /metrics on this port (or host:port) while running
+//   duration=86400        seconds to run: simulated (virtual) or wall clock (live)
+//   seed=42
+class Scenario {
+    private final Options options;
+
+    private Scenario(Options options) {
+        this.options = options;
+    }
+
+    static Scenario of(Options options) throws IOException {
+        Map<String, String> values = new HashMap<>();
+        String file = options.get("scenario");
+        if (file != null) {
+            Properties properties = new Properties();
+            try (Reader reader = Files.newBufferedReader(Path.of(file), StandardCharsets.UTF_8)) {
+                properties.load(reader);
+            }
+            for (String key : properties.stringPropertyNames()) {
+                values.put(key, properties.getProperty(key).trim());
+            }
+        }
+        values.putAll(options.asMap());
+        return new Scenario(new Options(values));
+    }
+
+    boolean isLive() {
+        return switch (get("engine", "virtual")) {
+            case "virtual" -> false;
+            case "live" -> true;
+            default -> throw new IllegalArgumentException("unknown engine: " + get("engine", ""));
+        };
+    }
+
+    int pumps() {
+        return Integer.parseInt(get("pumps", "3"));
+    }
+
+    int area() {
+        return Integer.parseInt(get("area", "10"));
+    }
+
+    ArrivalProcess arrivals() {
+        return options.arrivals();
+    }
+
+    ServiceTime serviceTime() {
+        return options.serviceTime("120", "exponential");
+    }
+
+    long cooldownNanos() {
+        return options.nanos("cooldown", "0.1");
+    }
+
+    boolean balking() {
+        return Boolean.parseBoolean(get("balking", "false"));
+    }
+
+    long durationNanos() {
+        return options.nanos("duration", isLive() ? "10" : "86400");
+    }
+
+    long seed() {
+        return Long.parseLong(get("seed", "42"));
+    }
+
+    String get(String key, String fallback) {
+        return options.get(key, fallback);
+    }
+}
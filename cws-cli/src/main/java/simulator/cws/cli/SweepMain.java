@@ -0,0 +1,64 @@
+package simulator.cws.cli;
+
+import simulator.cws.sweep.SweepResult;
+import simulator.cws.sweep.SweepRunner;
+import simulator.cws.sweep.SweepSpec;
+
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+// Command line entry point for parameter sweeps, e.g.
+//   java -jar cws-cli/target/cws-cli.jar sweep \
+//       --areas 1..20 --pumps 1..10 --service 60..300:60 --rate 0.05 --cars 100000 --out sweep.csv
+// Service times are mean seconds, drawn from --distribution deterministic, exponential or
+// lognormal (with --cv, default 0.5); the arrival rate is in cars per second.
+// Rows are written as soon as each configuration finishes; sort by index if needed.
+public class SweepMain {
+    public static void main(String[] args) throws Exception {
+        Options options = Options.parse(args);
+
+        double[] serviceSeconds = SweepSpec.parseDoubles(options.get("service", "120"));
+        long[] serviceNanos = new long[serviceSeconds.length];
+        for (int i = 0; i < serviceSeconds.length; i++) {
+            serviceNanos[i] = Math.round(serviceSeconds[i] * 1e9);
+        }
+
+        SweepSpec spec = new SweepSpec()
+                .setWaitingAreaSizes(SweepSpec.parseInts(options.get("areas", "10")))
+                .setPumpCounts(SweepSpec.parseInts(options.get("pumps", "3")))
+                .setServiceNanos(serviceNanos)
+                .setServiceDistribution(options.distribution("deterministic"))
+                .setArrivals(options.arrivals())
+                .setCarsPerRun(Long.parseLong(options.get("cars", "100000")))
+                .setSeed(Long.parseLong(options.get("seed", "42")))
+                .setCooldownNanos(options.nanos("cooldown", "0.1"))
+                .setBalking(Boolean.parseBoolean(options.get("balking", "true")));
+        int threads = Integer.parseInt(options.get("threads",
+                String.valueOf(Runtime.getRuntime().availableProcessors())));
+        boolean json = options.get("format", "csv").equals("json");
+
+        String out = options.get("out");
+        PrintWriter writer = out == null
+                ? new PrintWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8))
+                : new PrintWriter(Files.newBufferedWriter(Path.of(out), StandardCharsets.UTF_8));
+
+        int total = spec.size();
+        System.err.printf("sweeping %d configurations on %d threads%n", total, threads);
+        long start = System.nanoTime();
+        int[] done = {0};
+
+        try (writer) {
+            if (!json) writer.println(SweepResult.csvHeader());
+            new SweepRunner(spec, threads).run(result -> {
+                writer.println(json ? result.toJson() : result.toCsv());
+                writer.flush();
+                if (++done[0] % 50 == 0 || done[0] == total) {
+                    System.err.printf("%d/%d done, %.1fs%n", done[0], total, (System.nanoTime() - start) / 1e9);
+                }
+            });
+        }
+    }
+}
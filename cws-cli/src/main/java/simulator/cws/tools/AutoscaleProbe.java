@@ -0,0 +1,79 @@
+package simulator.cws.tools;
+
+import simulator.cws.load.ArrivalProcess;
+import simulator.cws.load.LoadGenerator;
+import simulator.cws.metrics.Histogram;
+import simulator.cws.models.ExecutionMode;
+import simulator.cws.models.ServiceStation;
+import simulator.cws.models.ServiceTime;
+import simulator.cws.scaling.Autoscaler;
+import simulator.cws.scaling.ScalingDecision;
+
+// Drives a live station through a compressed rush hour, once fully staffed
+// and once under the Autoscaler, and prints every scaling decision with the
+// pump-seconds and wait percentiles of both runs:
+//   java -cp cws-cli/target/cws-cli.jar simulator.cws.tools.AutoscaleProbe 8 20 50 2
+// (max pumps, mean service ms, target wait ms, seconds per load step)
+public class AutoscaleProbe {
+    // share of the peak rate per step
+    private static final double[] PROFILE = {0.1, 0.3, 0.6, 0.9, 0.9, 0.5, 0.2, 0.1};
+
+    public static void main(String[] args) throws Exception {
+        int maxPumps = args.length > 0 ? Integer.parseInt(args[0]) : 8;
+        long serviceNanos = (long) ((args.length > 1 ? Double.parseDouble(args[1]) : 20) * 1_000_000);
+        long targetNanos = (long) ((args.length > 2 ? Double.parseDouble(args[2]) : 50) * 1_000_000);
+        long stepNanos = (long) ((args.length > 3 ? Double.parseDouble(args[3]) : 2) * 1_000_000_000L);
+
+        double peakRate = maxPumps * 1e9 / serviceNanos;
+        double[] rates = new double[PROFILE.length];
+        for (int i = 0; i < rates.length; i++) rates[i] = PROFILE[i] * peakRate;
+        ArrivalProcess load = ArrivalProcess.timeOfDay(rates, stepNanos);
+
+        System.out.printf("up to %d pumps, mean service %.0f ms, peak %.0f cars/s, target wait %.0f ms%n",
+                maxPumps, serviceNanos / 1e6, peakRate, targetNanos / 1e6);
+        run("fixed", maxPumps, serviceNanos, targetNanos, load, stepNanos * PROFILE.length, false);
+        run("autoscaled", maxPumps, serviceNanos, targetNanos, load, stepNanos * PROFILE.length, true);
+    }
+
+    private static void run(String name, int maxPumps, long serviceNanos, long targetNanos,
+                            ArrivalProcess load, long durationNanos, boolean autoscale) throws InterruptedException {
+        ServiceStation station = new ServiceStation(maxPumps * 50, maxPumps);
+        station.setExecutionMode(ExecutionMode.VIRTUAL);
+        station.setCooldownNanos(0);
+        station.startSimulation(ServiceTime.exponential(serviceNanos), null);
+
+        Autoscaler scaler = new Autoscaler(station)
+                .setTargetWaitNanos(targetNanos)
+                .setIntervalNanos(Math.max(targetNanos / 2, 10_000_000L))
+                .setQueuePerPump(2);
+        if (autoscale) {
+            station.setActivePumps(1);
+            scaler.start();
+        }
+        LoadGenerator generator = new LoadGenerator(station, null);
+        generator.setSeed(7);
+        long start = System.nanoTime();
+        generator.start(load);
+        Thread.sleep(durationNanos / 1_000_000);
+        generator.stop();
+        scaler.stop();
+        double seconds = (System.nanoTime() - start) / 1e9;
+        station.stopSimulation();
+
+        Histogram waits = station.getMetrics().getWaitTimes();
+        double pumpSeconds = autoscale ? scaler.getPumpSeconds() : maxPumps * seconds;
+        System.out.printf("%n%s: %d cars, %.1f pump-seconds (%.2f pumps on average), wait p50/p99/max %.1f/%.1f/%.1f ms%n",
+                name, waits.getCount(), pumpSeconds, pumpSeconds / seconds,
+                waits.getPercentile(50) / 1e6, waits.getPercentile(99) / 1e6, waits.getMax() / 1e6);
+        if (!autoscale) return;
+
+        System.out.printf("%d up, %d down, oldest wait over target on %d of %d ticks%n",
+                scaler.getScaleUps(), scaler.getScaleDowns(), scaler.getTicksOverTarget(), scaler.getTicks());
+        for (ScalingDecision decision : scaler.getDecisions()) {
+            System.out.printf("  %6.2fs  %2d -> %2d  waiting %4d  oldest %6.1f ms  util %3.0f%%  %s%n",
+                    (decision.timeNanos() - start) / 1e9, decision.fromPumps(), decision.toPumps(),
+                    decision.carsWaiting(), decision.oldestWaitNanos() / 1e6, decision.utilization() * 100,
+                    decision.reason());
+        }
+    }
+}
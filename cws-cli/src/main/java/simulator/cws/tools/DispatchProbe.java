@@ -0,0 +1,88 @@
+package simulator.cws.tools;
+
+import simulator.cws.metrics.Histogram;
+import simulator.cws.models.Car;
+import simulator.cws.models.DispatchPolicyType;
+import simulator.cws.models.WaitingArea;
+import simulator.cws.models.WaitingAreaType;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.LockSupport;
+
+// Pushes cars from producer threads to pump threads through the waiting area
+// of each dispatch policy and reports throughput, time spent in the area
+// (put -> take) and lock contention. Service times are exponential with the
+// given mean, 0 for a pure handoff:
+//   java -cp cws-cli/target/cws-cli.jar simulator.cws.tools.DispatchProbe ALL 4 16 200000 50 64
+public class DispatchProbe {
+    public static void main(String[] args) throws Exception {
+        String which = args.length > 0 ? args[0] : "ALL";
+        int producers = args.length > 1 ? Integer.parseInt(args[1]) : 4;
+        int pumps = args.length > 2 ? Integer.parseInt(args[2]) : 16;
+        int cars = args.length > 3 ? Integer.parseInt(args[3]) : 200_000;
+        long serviceNanos = args.length > 4 ? Long.parseLong(args[4]) * 1000 : 0;
+        int capacity = args.length > 5 ? Integer.parseInt(args[5]) : 64;
+
+        System.out.printf("%d producers, %d pumps, %d cars, mean service %d us, capacity %d%n",
+                producers, pumps, cars, serviceNanos / 1000, capacity);
+        System.out.printf("%-22s %12s %10s %10s %10s %12s %12s%n",
+                "policy", "cars/s", "p50 us", "p99 us", "max us", "locks", "contended");
+
+        for (DispatchPolicyType policy : DispatchPolicyType.values()) {
+            if (!which.equals("ALL") && !which.equals(policy.name())) continue;
+            run(policy, producers, pumps, cars, serviceNanos, capacity);
+        }
+    }
+
+    private static void run(DispatchPolicyType policy, int producers, int pumps, int cars,
+                            long serviceNanos, int capacity) throws InterruptedException {
+        WaitingArea waitingArea = policy.create(capacity, pumps, false, WaitingAreaType.RING_BUFFER);
+        long[] putTimes = new long[cars + 1];
+        Histogram waits = new Histogram();
+        List<Thread> threads = new ArrayList<>();
+
+        long start = System.nanoTime();
+        for (int p = 0; p < producers; p++) {
+            int first = p + 1;
+            threads.add(Thread.ofPlatform().start(() -> {
+                try {
+                    for (int id = first; id <= cars; id += producers) {
+                        waitingArea.reserve();
+                        putTimes[id] = System.nanoTime();
+                        waitingArea.put(new Car(id, waitingArea));
+                    }
+                } catch (InterruptedException ignored) {
+                }
+            }));
+        }
+        for (int pump = 1; pump <= pumps; pump++) {
+            int pumpId = pump;
+            int share = cars / pumps + (pump <= cars % pumps ? 1 : 0);
+            threads.add(Thread.ofPlatform().start(() -> {
+                try {
+                    for (int i = 0; i < share; i++) {
+                        Car car = waitingArea.take(pumpId);
+                        waits.record(System.nanoTime() - putTimes[car.getCarId()]);
+                        waitingArea.vacate();
+                        if (serviceNanos > 0) {
+                            LockSupport.parkNanos((long) (ThreadLocalRandom.current().nextExponential() * serviceNanos));
+                        }
+                    }
+                } catch (InterruptedException ignored) {
+                }
+            }));
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        long locks = waitingArea.getLockAcquisitions();
+        long contended = waitingArea.getLockContentions();
+        System.out.printf("%-22s %12.0f %10.1f %10.1f %10.1f %12d %11.2f%%%n",
+                policy, cars / seconds, waits.getPercentile(50) / 1e3, waits.getPercentile(99) / 1e3,
+                waits.getMax() / 1e3, locks, locks == 0 ? 0 : 100.0 * contended / locks);
+    }
+}
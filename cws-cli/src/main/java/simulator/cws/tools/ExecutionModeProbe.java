@@ -0,0 +1,97 @@
+package simulator.cws.tools;
+
+import simulator.cws.models.ExecutionMode;
+import simulator.cws.models.ServiceStation;
+import simulator.cws.utlils.CarObserver;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+// Measures what it costs to park N cars in a full waiting area under each
+// execution mode. Run one configuration per JVM so the numbers do not mix:
+//   java -cp cws-cli/target/cws-cli.jar simulator.cws.tools.ExecutionModeProbe VIRTUAL 10000
+public class ExecutionModeProbe {
+    public static void main(String[] args) throws Exception {
+        ExecutionMode mode = ExecutionMode.valueOf(args.length > 0 ? args[0] : "VIRTUAL");
+        int cars = args.length > 1 ? Integer.parseInt(args[1]) : 10_000;
+
+        CountDownLatch arrived = new CountDownLatch(cars);
+        CountDownLatch left = new CountDownLatch(cars);
+        CarObserver observer = new CarObserver() {
+            @Override
+            public void onCarArrives(int carId) {
+                arrived.countDown();
+            }
+
+            @Override
+            public void onCarEntersQueue(int carId) {
+            }
+
+            @Override
+            public void onException(String message) {
+                left.countDown();
+            }
+        };
+
+        // a waiting area of size 0 keeps every car blocked in empty.acquire()
+        ServiceStation station = new ServiceStation(0, 1);
+        station.setExecutionMode(mode);
+
+        long heapBefore = usedHeap();
+        long rssBefore = residentSetSize();
+
+        long start = System.nanoTime();
+        try {
+            for (int i = 0; i < cars; i++) {
+                station.addCar(observer);
+            }
+        } catch (OutOfMemoryError e) {
+            System.out.printf("%s %d: failed after %d cars: %s%n", mode, cars, station.getCarCounter(), e.getMessage());
+            station.stopSimulation();
+            System.exit(1);
+        }
+        arrived.await();
+        // give the last cars time to reach acquire()
+        Thread.sleep(200);
+        long startupNanos = System.nanoTime() - start;
+
+        long heapAfter = usedHeap();
+        long rssAfter = residentSetSize();
+
+        long stopStart = System.nanoTime();
+        station.stopSimulation();
+        boolean drained = left.await(60, TimeUnit.SECONDS);
+        long stopNanos = System.nanoTime() - stopStart;
+
+        System.out.printf("%-8s cars=%-7d startup=%8.1f ms  heap=%+8.1f MB  rss=%+8.1f MB  stop=%8.1f ms%s%n",
+                mode, cars,
+                (startupNanos - 200_000_000L) / 1e6,
+                (heapAfter - heapBefore) / 1e6,
+                (rssAfter - rssBefore) / 1e6,
+                stopNanos / 1e6,
+                drained ? "" : " (not all cars stopped)");
+        System.exit(0);
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        System.gc();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    // resident set size from /proc, 0 where it is not available
+    private static long residentSetSize() {
+        try {
+            for (String line : Files.readAllLines(Path.of("/proc/self/status"))) {
+                if (line.startsWith("VmRSS:")) {
+                    return Long.parseLong(line.replaceAll("\\D+", "")) * 1024L;
+                }
+            }
+        } catch (IOException | NumberFormatException ignored) {
+        }
+        return 0;
+    }
+}
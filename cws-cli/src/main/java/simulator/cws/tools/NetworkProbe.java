@@ -0,0 +1,75 @@
+package simulator.cws.tools;
+
+import simulator.cws.engine.VirtualStation;
+import simulator.cws.load.ArrivalProcess;
+import simulator.cws.metrics.Histogram;
+import simulator.cws.models.ServiceTime;
+import simulator.cws.network.RoutingPolicy;
+import simulator.cws.network.StationNetwork;
+
+import java.util.SplittableRandom;
+
+// Builds a grid of stations, a quarter of them hot spots loaded past their
+// capacity, and simulates a day of the network under each routing policy
+// and with 1, 2, 4 ... shards up to the given count. Prints diverted cars,
+// the wait across all stations and cars simulated per wall-clock second:
+//   java -cp cws-cli/target/cws-cli.jar simulator.cws.tools.NetworkProbe 256 8 24
+// (stations, max shards, simulated hours)
+public class NetworkProbe {
+    private static final long MINUTE = 60_000_000_000L;
+
+    public static void main(String[] args) throws Exception {
+        int numStations = args.length > 0 ? Integer.parseInt(args[0]) : 256;
+        int maxShards = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+        long hours = args.length > 2 ? Long.parseLong(args[2]) : 24;
+
+        System.out.printf("%d stations, 4 pumps each, %d h simulated, %d cores%n",
+                numStations, hours, Runtime.getRuntime().availableProcessors());
+        System.out.printf("%-14s %6s %12s %10s %10s %10s %10s %14s%n",
+                "routing", "shards", "cars", "diverted", "p50 min", "p99 min", "wall ms", "cars/wall s");
+
+        // warms up the JIT, so the first row is not the slowest
+        run("warm-up", RoutingPolicy.nearest(), numStations, 1, hours * 60 * MINUTE, false);
+
+        String[] names = {"nearest", "least-loaded", "overflow 0.7"};
+        RoutingPolicy[] policies = {RoutingPolicy.nearest(), RoutingPolicy.leastLoaded(), RoutingPolicy.overflow(0.7)};
+        for (int p = 0; p < policies.length; p++) {
+            for (int shards = 1; shards <= maxShards; shards *= 2) {
+                run(names[p], policies[p], numStations, shards, hours * 60 * MINUTE, true);
+            }
+        }
+    }
+
+    private static void run(String name, RoutingPolicy routing, int numStations, int shards, long durationNanos,
+                            boolean print)
+            throws InterruptedException {
+        StationNetwork network = new StationNetwork(shards)
+                .setRouting(routing)
+                .setTravel(3 * MINUTE, 4 * MINUTE)
+                .setSeed(1);
+
+        // four pumps at 5 minutes a car serve 48 cars an hour
+        int side = (int) Math.ceil(Math.sqrt(numStations));
+        for (int i = 0; i < numStations; i++) {
+            double carsPerHour = i % 4 == 0 ? 60 : 30;
+            VirtualStation station = new VirtualStation(8, 4);
+            station.getMetrics().setRecordSeries(false);
+            station.setArrivalSource(ArrivalProcess.poisson(carsPerHour / 3600).asSource(new SplittableRandom(i), Long.MAX_VALUE));
+            station.startSimulation(0, null);
+            station.setServiceTime(ServiceTime.exponential(5 * MINUTE));
+            station.setSeed(i);
+            network.addStation(station, i % side, i / side);
+        }
+
+        long start = System.nanoTime();
+        network.run(durationNanos);
+        long wallNanos = System.nanoTime() - start;
+
+        if (!print) return;
+        Histogram waits = network.getWaitTimes();
+        System.out.printf("%-14s %6d %12d %10d %10.1f %10.1f %10.0f %14.0f%n", shards == 1 ? name : "",
+                network.getNumShards(), network.getFinishedCars(), network.getDivertedCars(),
+                waits.getPercentile(50) / 60e9, waits.getPercentile(99) / 60e9,
+                wallNanos / 1e6, network.getFinishedCars() / (wallNanos / 1e9));
+    }
+}
@@ -0,0 +1,61 @@
+package simulator.cws.tools;
+
+import simulator.cws.load.ArrivalProcess;
+import simulator.cws.load.LoadGenerator;
+import simulator.cws.metrics.Histogram;
+import simulator.cws.metrics.StationMetrics;
+import simulator.cws.models.CustomerClasses;
+import simulator.cws.models.ExecutionMode;
+import simulator.cws.models.ServiceStation;
+import simulator.cws.models.ServiceTime;
+
+// Runs a saturated live station with the standard fleet/premium/regular mix
+// under each class selection and reports wait percentiles per class, showing
+// what protecting the high classes costs the others. Load is the offered
+// load relative to the pumps' capacity. Cars waiting outside a full waiting
+// area are not ordered by class, so the area is large enough to hold the
+// backlog of a run:
+//   java -cp cws-cli/target/cws-cli.jar simulator.cws.tools.PriorityProbe 4 2 1.1 5 50 10000
+public class PriorityProbe {
+    public static void main(String[] args) throws Exception {
+        int pumps = args.length > 0 ? Integer.parseInt(args[0]) : 4;
+        long serviceNanos = (long) ((args.length > 1 ? Double.parseDouble(args[1]) : 2) * 1_000_000);
+        double load = args.length > 2 ? Double.parseDouble(args[2]) : 1.1;
+        long seconds = args.length > 3 ? Long.parseLong(args[3]) : 5;
+        long agingNanos = (long) ((args.length > 4 ? Double.parseDouble(args[4]) : 50) * 1_000_000);
+        int capacity = args.length > 5 ? Integer.parseInt(args[5]) : 10_000;
+
+        double rate = load * pumps * 1e9 / serviceNanos;
+        System.out.printf("%d pumps, mean service %.1f ms, load %.2f (%.0f cars/s), %d s per run, aging %.0f ms, capacity %d%n",
+                pumps, serviceNanos / 1e6, load, rate, seconds, agingNanos / 1e6, capacity);
+        System.out.printf("%-16s %-8s %10s %10s %10s %10s%n", "selection", "class", "cars", "p50 ms", "p99 ms", "max ms");
+
+        run("FIFO", CustomerClasses.standard(CustomerClasses.Selection.FIFO, 0), capacity, pumps, serviceNanos, rate, seconds);
+        run("STRICT", CustomerClasses.standard(CustomerClasses.Selection.STRICT, 0), capacity, pumps, serviceNanos, rate, seconds);
+        run("STRICT+AGING", CustomerClasses.standard(CustomerClasses.Selection.STRICT, agingNanos), capacity, pumps, serviceNanos, rate, seconds);
+        run("WEIGHTED", CustomerClasses.standard(CustomerClasses.Selection.WEIGHTED, 0), capacity, pumps, serviceNanos, rate, seconds);
+    }
+
+    private static void run(String name, CustomerClasses classes, int capacity, int pumps, long serviceNanos,
+                            double rate, long seconds) throws InterruptedException {
+        ServiceStation station = new ServiceStation(capacity, pumps);
+        station.setExecutionMode(ExecutionMode.VIRTUAL);
+        station.setCooldownNanos(0);
+        station.setCustomerClasses(classes);
+        station.startSimulation(ServiceTime.exponential(serviceNanos), null);
+
+        LoadGenerator generator = new LoadGenerator(station, null);
+        generator.setSeed(42);
+        generator.start(ArrivalProcess.poisson(rate));
+        Thread.sleep(seconds * 1000);
+        generator.stop();
+        station.stopSimulation();
+
+        StationMetrics metrics = station.getMetrics();
+        for (int i = 0; i < classes.size(); i++) {
+            Histogram waits = metrics.getWaitTimes(i);
+            System.out.printf("%-16s %-8s %10d %10.1f %10.1f %10.1f%n", i == 0 ? name : "", classes.getName(i),
+                    waits.getCount(), waits.getPercentile(50) / 1e6, waits.getPercentile(99) / 1e6, waits.getMax() / 1e6);
+        }
+    }
+}
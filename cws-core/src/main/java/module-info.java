@@ -0,0 +1,16 @@
+// The simulator without any UI: no dependencies beyond java.base, so it can
+// run headless and be linked into a small runtime image.
+module simulator.cws.core {
+    exports simulator.cws.models;
+    exports simulator.cws.engine;
+    exports simulator.cws.metrics;
+    exports simulator.cws.load;
+    exports simulator.cws.network;
+    exports simulator.cws.replication;
+    exports simulator.cws.planning;
+    exports simulator.cws.sweep;
+    exports simulator.cws.journal;
+    exports simulator.cws.scaling;
+    exports simulator.cws.monitoring;
+    exports simulator.cws.utlils;
+}
@@ -0,0 +1,9 @@
+package simulator.cws.engine;
+
+// Sees every car a VirtualStation's arrival source generates before it
+// arrives, so the car can be sent to another station instead. Cars added
+// with addCarAt() bypass the router.
+public interface ArrivalRouter {
+    // returns false when the car went elsewhere and does not arrive at station
+    boolean admit(VirtualStation station, long arrivalNanos);
+}
@@ -0,0 +1,11 @@
+package simulator.cws.engine;
+
+// Supplies arrival times to a VirtualStation one at a time, so a run of
+// millions of cars never holds more than one pending arrival event.
+public interface ArrivalSource {
+    long NO_MORE_ARRIVALS = -1L;
+
+    // returns the time of the next arrival in nanoseconds, given the time of
+    // the previous one, or NO_MORE_ARRIVALS when the source is exhausted
+    long nextArrival(long previousArrivalNanos);
+}
@@ -0,0 +1,128 @@
+package simulator.cws.engine;
+
+import java.util.Arrays;
+
+// Binary min-heap of timestamped events kept in primitive arrays so that
+// scheduling an event never allocates. Events with the same timestamp are
+// returned in the order they were scheduled.
+class EventQueue {
+    private long[] times;
+    private long[] seqs;
+    private long[] payloads;
+    private int size;
+    private long nextSeq;
+
+    // fields of the last event removed by poll()
+    private long time;
+    private int type;
+    private int pumpId;
+    private int carId;
+
+    EventQueue(int initialCapacity) {
+        int capacity = Math.max(16, initialCapacity);
+        times = new long[capacity];
+        seqs = new long[capacity];
+        payloads = new long[capacity];
+    }
+
+    void add(long eventTime, int eventType, int eventPumpId, int eventCarId) {
+        if (size == times.length) {
+            grow();
+        }
+
+        long seq = nextSeq++;
+        long payload = ((long) eventType << 56) | ((long) (eventPumpId & 0xFFFFFF) << 32) | (eventCarId & 0xFFFFFFFFL);
+
+        // sift up
+        int i = size++;
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (!less(eventTime, seq, times[parent], seqs[parent])) break;
+            times[i] = times[parent];
+            seqs[i] = seqs[parent];
+            payloads[i] = payloads[parent];
+            i = parent;
+        }
+        times[i] = eventTime;
+        seqs[i] = seq;
+        payloads[i] = payload;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    int size() {
+        return size;
+    }
+
+    long peekTime() {
+        return times[0];
+    }
+
+    void poll() {
+        long payload = payloads[0];
+        time = times[0];
+        type = (int) (payload >>> 56);
+        pumpId = (int) ((payload >>> 32) & 0xFFFFFF);
+        carId = (int) payload;
+
+        int last = --size;
+        if (last == 0) return;
+
+        long lastTime = times[last];
+        long lastSeq = seqs[last];
+        long lastPayload = payloads[last];
+
+        // sift down
+        int i = 0;
+        int half = last >>> 1;
+        while (i < half) {
+            int child = 2 * i + 1;
+            int right = child + 1;
+            if (right < last && less(times[right], seqs[right], times[child], seqs[child])) {
+                child = right;
+            }
+            if (!less(times[child], seqs[child], lastTime, lastSeq)) break;
+            times[i] = times[child];
+            seqs[i] = seqs[child];
+            payloads[i] = payloads[child];
+            i = child;
+        }
+        times[i] = lastTime;
+        seqs[i] = lastSeq;
+        payloads[i] = lastPayload;
+    }
+
+    void clear() {
+        size = 0;
+        nextSeq = 0;
+    }
+
+    long time() {
+        return time;
+    }
+
+    int type() {
+        return type;
+    }
+
+    int pumpId() {
+        return pumpId;
+    }
+
+    int carId() {
+        return carId;
+    }
+
+    private static boolean less(long t1, long s1, long t2, long s2) {
+        return t1 < t2 || (t1 == t2 && s1 < s2);
+    }
+
+    private void grow() {
+        int capacity = times.length * 2;
+        times = Arrays.copyOf(times, capacity);
+        seqs = Arrays.copyOf(seqs, capacity);
+        payloads = Arrays.copyOf(payloads, capacity);
+    }
+}
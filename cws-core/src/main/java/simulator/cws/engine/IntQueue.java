@@ -0,0 +1,58 @@
+package simulator.cws.engine;
+
+import java.util.NoSuchElementException;
+
+// Growable FIFO ring of primitive ints (car and pump ids).
+class IntQueue {
+    private int[] items;
+    private int head;
+    private int size;
+
+    IntQueue(int initialCapacity) {
+        items = new int[Integer.highestOneBit(Math.max(8, initialCapacity) - 1) << 1];
+    }
+
+    void add(int value) {
+        if (size == items.length) {
+            grow();
+        }
+        items[(head + size) & (items.length - 1)] = value;
+        size++;
+    }
+
+    int remove() {
+        if (size == 0) {
+            throw new NoSuchElementException();
+        }
+        int value = items[head];
+        head = (head + 1) & (items.length - 1);
+        size--;
+        return value;
+    }
+
+    int get(int index) {
+        return items[(head + index) & (items.length - 1)];
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    int size() {
+        return size;
+    }
+
+    void clear() {
+        head = 0;
+        size = 0;
+    }
+
+    private void grow() {
+        int[] bigger = new int[items.length * 2];
+        for (int i = 0; i < size; i++) {
+            bigger[i] = get(i);
+        }
+        items = bigger;
+        head = 0;
+    }
+}
@@ -0,0 +1,364 @@
+package simulator.cws.engine;
+
+import simulator.cws.metrics.StationMetrics;
+import simulator.cws.models.Pump;
+import simulator.cws.models.ServiceTime;
+import simulator.cws.utlils.CarObserver;
+import simulator.cws.utlils.PumpObserver;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+// Discrete-event counterpart of ServiceStation. Cars and pumps are plain ids,
+// time is a virtual nanosecond clock that jumps from event to event, and the
+// whole run executes on the calling thread. The observable behaviour follows
+// the threaded ("live") station: cars that find the waiting area full wait
+// outside until a pump logs a car in, pumps log in a car, begin and finish
+// its service, then cool down before taking the next one. With balking
+// enabled, cars that find the waiting area full leave instead.
+public class VirtualStation {
+    static final int ARRIVAL = 0;
+    static final int BEGIN_SERVICE = 1;
+    static final int FINISH_SERVICE = 2;
+    static final int PUMP_READY = 3;
+
+    private final EventQueue events;
+    private final IntQueue queue;
+    private final IntQueue outside;
+    private final IntQueue idlePumps;
+
+    private final List<CarObserver> carObservers;
+    private final List<PumpObserver> pumpObservers;
+    private final StationMetrics metrics;
+
+    private int waitingAreaSize;
+    private int numPumps;
+
+    private ServiceTime serviceTime = ServiceTime.deterministic(0);
+    private final ServiceTime[] serviceTimes; // per pump id, null means serviceTime
+    private SplittableRandom random = new SplittableRandom();
+    private long cooldownNanos = Pump.DEFAULT_COOLDOWN_NANOS;
+    private boolean balking = false;
+
+    private ArrivalSource arrivals;
+    private boolean arrivalPending = false;
+    private ArrivalRouter router;
+
+    private long now = 0;
+    private int carCounter = 0;
+    private int servicedCars = 0;
+    private long finishedCars = 0;
+    private long balkedCars = 0;
+
+    private boolean running = false;
+
+    public VirtualStation(int waitingAreaSize, int numPumps) {
+        if (waitingAreaSize < 0) {
+            throw new IllegalArgumentException("waitingAreaSize must be >= 0");
+        }
+        if (numPumps <= 0) {
+            throw new IllegalArgumentException("numPumps must be > 0");
+        }
+
+        this.events = new EventQueue(numPumps * 2 + 16);
+        this.queue = new IntQueue(waitingAreaSize);
+        this.outside = new IntQueue(16);
+        this.idlePumps = new IntQueue(numPumps);
+        this.serviceTimes = new ServiceTime[numPumps + 1];
+
+        this.carObservers = new ArrayList<>();
+        this.pumpObservers = new ArrayList<>();
+        this.metrics = new StationMetrics(numPumps, this::now);
+        carObservers.add(metrics);
+        pumpObservers.add(metrics);
+
+        this.waitingAreaSize = waitingAreaSize;
+        this.numPumps = numPumps;
+    }
+
+    // same entry point as ServiceStation, pumpSpeed in seconds
+    public void startSimulation(int pumpSpeed, PumpObserver pumpObserver) {
+        if (pumpSpeed < 0) {
+            throw new IllegalArgumentException("pumpSpeed must be >= 0");
+        }
+        serviceTime = ServiceTime.deterministic(pumpSpeed * 1_000_000_000L);
+        if (pumpObserver != null) {
+            addPumpObserver(pumpObserver);
+        }
+
+        running = true;
+        metrics.start();
+        for (int i = 1; i <= numPumps; i++) {
+            idlePumps.add(i);
+        }
+        scheduleNextArrival(now);
+    }
+
+    // arrival at the current virtual time, like clicking "Add Car"
+    public void addCar(CarObserver carObserver) {
+        if (carObserver != null) {
+            addCarObserver(carObserver);
+        }
+        addCarAt(now);
+    }
+
+    public void addCarAt(long arrivalNanos) {
+        if (arrivalNanos < now) {
+            throw new IllegalArgumentException("arrival time is in the past");
+        }
+        events.add(arrivalNanos, ARRIVAL, 0, ++carCounter);
+    }
+
+    public void setArrivalSource(ArrivalSource source) {
+        this.arrivals = source;
+        if (running && !arrivalPending) {
+            scheduleNextArrival(now);
+        }
+    }
+
+    // null admits every generated car
+    public void setArrivalRouter(ArrivalRouter router) {
+        this.router = router;
+    }
+
+    public void setServiceTimeNanos(long serviceNanos) {
+        if (serviceNanos < 0) {
+            throw new IllegalArgumentException("serviceNanos must be >= 0");
+        }
+        this.serviceTime = ServiceTime.deterministic(serviceNanos);
+    }
+
+    // service time of every pump without its own
+    public void setServiceTime(ServiceTime serviceTime) {
+        this.serviceTime = serviceTime;
+    }
+
+    public void setServiceTime(int pumpId, ServiceTime serviceTime) {
+        if (pumpId < 1 || pumpId > numPumps) {
+            throw new IllegalArgumentException("pumpId must be between 1 and " + numPumps);
+        }
+        serviceTimes[pumpId] = serviceTime;
+    }
+
+    // seeds the generator service times are drawn from
+    public void setSeed(long seed) {
+        this.random = new SplittableRandom(seed);
+    }
+
+    public void setCooldownNanos(long cooldownNanos) {
+        if (cooldownNanos < 0) {
+            throw new IllegalArgumentException("cooldownNanos must be >= 0");
+        }
+        this.cooldownNanos = cooldownNanos;
+    }
+
+    // cars that find the waiting area full leave instead of waiting outside
+    public void setBalking(boolean balking) {
+        this.balking = balking;
+    }
+
+    public void addCarObserver(CarObserver observer) {
+        if (!carObservers.contains(observer)) {
+            carObservers.add(observer);
+        }
+    }
+
+    public void addPumpObserver(PumpObserver observer) {
+        if (!pumpObservers.contains(observer)) {
+            pumpObservers.add(observer);
+        }
+    }
+
+    // runs until no events are left; never returns for an endless arrival source
+    public void run() {
+        runUntil(Long.MAX_VALUE);
+    }
+
+    // processes every event up to and including endNanos, then moves the clock there
+    public void runUntil(long endNanos) {
+        while (running && !events.isEmpty() && events.peekTime() <= endNanos) {
+            step();
+        }
+        if (running && endNanos != Long.MAX_VALUE && endNanos > now) {
+            now = endNanos;
+        }
+    }
+
+    // processes a single event, returns false when there is nothing to do
+    public boolean step() {
+        if (!running || events.isEmpty()) {
+            return false;
+        }
+
+        events.poll();
+        now = events.time();
+        int pumpId = events.pumpId();
+        int carId = events.carId();
+
+        switch (events.type()) {
+            case ARRIVAL -> arrive(carId);
+            case BEGIN_SERVICE -> beginService(pumpId, carId);
+            case FINISH_SERVICE -> finishService(pumpId, carId);
+            case PUMP_READY -> pumpReady(pumpId);
+            default -> throw new IllegalStateException("unknown event type " + events.type());
+        }
+        return true;
+    }
+
+    public void stopSimulation() {
+        if (!running) return;
+        running = false;
+
+        // the live station interrupts every thread still waiting
+        while (!outside.isEmpty()) {
+            int carId = outside.remove();
+            for (CarObserver o : carObservers) o.onException("C" + carId + " interrupted and leaving the station...");
+        }
+        for (int i = 1; i <= numPumps; i++) {
+            for (PumpObserver o : pumpObservers) o.onException("P" + i + " shutting down...");
+        }
+    }
+
+    public void reset() {
+        running = false;
+
+        events.clear();
+        queue.clear();
+        outside.clear();
+        idlePumps.clear();
+
+        arrivalPending = false;
+        now = 0;
+        carCounter = 0;
+        servicedCars = 0;
+        finishedCars = 0;
+        balkedCars = 0;
+        metrics.reset();
+    }
+
+    // event handlers
+    private void arrive(int carId) {
+        if (carId == 0) {
+            // generated by the arrival source, numbered on arrival
+            arrivalPending = false;
+            scheduleNextArrival(now);
+            if (router != null && !router.admit(this, now)) return;
+            carId = ++carCounter;
+        }
+
+        metrics.recordArrival(carId, now);
+        for (CarObserver o : carObservers) o.onCarArrives(carId);
+
+        if (queue.size() < waitingAreaSize) {
+            enterQueue(carId);
+            dispatch();
+        } else if (balking) {
+            balkedCars++;
+            for (CarObserver o : carObservers) o.onCarBalks(carId);
+        } else {
+            outside.add(carId);
+        }
+    }
+
+    private void beginService(int pumpId, int carId) {
+        servicedCars++;
+        for (PumpObserver o : pumpObservers) o.onCarBeginsService(pumpId, carId);
+        ServiceTime service = serviceTimes[pumpId] != null ? serviceTimes[pumpId] : serviceTime;
+        events.add(now + service.sample(random), FINISH_SERVICE, pumpId, carId);
+    }
+
+    private void finishService(int pumpId, int carId) {
+        for (PumpObserver o : pumpObservers) o.onCarFinishesService(pumpId, carId);
+        servicedCars--;
+        finishedCars++;
+
+        if (cooldownNanos == 0) {
+            pumpReady(pumpId);
+        } else {
+            events.add(now + cooldownNanos, PUMP_READY, pumpId, 0);
+        }
+    }
+
+    private void pumpReady(int pumpId) {
+        idlePumps.add(pumpId);
+        dispatch();
+    }
+
+    private void enterQueue(int carId) {
+        queue.add(carId);
+        for (CarObserver o : carObservers) o.onCarEntersQueue(carId);
+    }
+
+    // hand waiting cars to idle pumps, then let cars waiting outside take the freed spaces
+    private void dispatch() {
+        while (!idlePumps.isEmpty() && !queue.isEmpty()) {
+            int pumpId = idlePumps.remove();
+            int carId = queue.remove();
+
+            for (PumpObserver o : pumpObservers) o.onCarLogins(pumpId, carId);
+            events.add(now, BEGIN_SERVICE, pumpId, carId);
+
+            if (!outside.isEmpty()) {
+                enterQueue(outside.remove());
+            }
+        }
+    }
+
+    private void scheduleNextArrival(long previousArrivalNanos) {
+        if (arrivals == null || arrivalPending) return;
+
+        long next = arrivals.nextArrival(previousArrivalNanos);
+        if (next == ArrivalSource.NO_MORE_ARRIVALS) return;
+        events.add(Math.max(next, now), ARRIVAL, 0, 0);
+        arrivalPending = true;
+    }
+
+    public StationMetrics getMetrics() {
+        return metrics;
+    }
+
+    public boolean isRunning() {
+        return running;
+    }
+
+    public long now() {
+        return now;
+    }
+
+    public int getWaitingAreaSize() {
+        return waitingAreaSize;
+    }
+
+    public int getNumPumps() {
+        return numPumps;
+    }
+
+    public int getCarCounter() {
+        return carCounter;
+    }
+
+    public int getWaitingCars() {
+        return queue.size();
+    }
+
+    public int getCarsOutside() {
+        return outside.size();
+    }
+
+    public int getServicedCars() {
+        return servicedCars;
+    }
+
+    public long getFinishedCars() {
+        return finishedCars;
+    }
+
+    public long getBalkedCars() {
+        return balkedCars;
+    }
+
+    public boolean isBalking() {
+        return balking;
+    }
+}
@@ -0,0 +1,27 @@
+package simulator.cws.journal;
+
+// On-disk layout shared by JournalWriter and JournalReader. A journal is a
+// 24-byte header followed by 24-byte little-endian records:
+//   header: int magic, int version, int numPumps, int waitingAreaSize, long originNanos
+//   record: long timeNanos, int type, int pumpId, int carId, int reserved
+// Times are those of the station's clock (System.nanoTime() for the live
+// station, the virtual clock for the VirtualStation); originNanos is the
+// clock reading when the journal was opened.
+public final class Journal {
+    public static final int MAGIC = 0x4A535743; // "CWSJ" read little-endian
+    public static final int VERSION = 1;
+    public static final int HEADER_BYTES = 24;
+    public static final int RECORD_BYTES = 24;
+
+    public static final int CAR_ARRIVES = 0;
+    public static final int CAR_ENTERS_QUEUE = 1;
+    public static final int CAR_BALKS = 2;
+    public static final int CAR_LOGINS = 3;
+    public static final int CAR_BEGINS_SERVICE = 4;
+    public static final int CAR_FINISHES_SERVICE = 5;
+    // onException of a car (carId set) or a pump (pumpId set), the text is rebuilt on replay
+    public static final int EXCEPTION = 6;
+
+    private Journal() {
+    }
+}
@@ -0,0 +1,123 @@
+package simulator.cws.journal;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+// Sequential reader over a journal file. Records are read through a
+// read-only mapping one window at a time; like the engine's EventQueue it
+// is a cursor: next() advances, then time()/type()/pumpId()/carId() describe
+// the current record, so a scan allocates nothing per record.
+public class JournalReader implements AutoCloseable {
+    private static final long WINDOW_BYTES = 64L * 1024 * 1024 / Journal.RECORD_BYTES * Journal.RECORD_BYTES;
+
+    private final FileChannel channel;
+    private final long recordCount;
+    private final int numPumps;
+    private final int waitingAreaSize;
+    private final long originNanos;
+
+    private MappedByteBuffer window;
+    private long windowStart;
+    private long index = -1;
+
+    private long time;
+    private int type;
+    private int pumpId;
+    private int carId;
+
+    public JournalReader(Path path) throws IOException {
+        this.channel = FileChannel.open(path, StandardOpenOption.READ);
+        long size = channel.size();
+        if (size < Journal.HEADER_BYTES) {
+            channel.close();
+            throw new IOException("not a journal: " + path);
+        }
+
+        mapWindow(0, Journal.HEADER_BYTES);
+        if (window.getInt() != Journal.MAGIC) {
+            channel.close();
+            throw new IOException("not a journal: " + path);
+        }
+        int version = window.getInt();
+        if (version != Journal.VERSION) {
+            channel.close();
+            throw new IOException("unsupported journal version " + version);
+        }
+        this.numPumps = window.getInt();
+        this.waitingAreaSize = window.getInt();
+        this.originNanos = window.getLong();
+        // a journal that was not closed cleanly may end in a partial or zeroed tail
+        this.recordCount = (size - Journal.HEADER_BYTES) / Journal.RECORD_BYTES;
+        this.window = null;
+    }
+
+    // moves to the next record, false at the end of the journal
+    public boolean next() throws IOException {
+        if (index + 1 >= recordCount) return false;
+        index++;
+
+        long position = Journal.HEADER_BYTES + index * Journal.RECORD_BYTES;
+        if (window == null || position + Journal.RECORD_BYTES > windowStart + window.limit()) {
+            mapWindow(position, Math.min(WINDOW_BYTES, channel.size() - position));
+        }
+        time = window.getLong();
+        type = window.getInt();
+        pumpId = window.getInt();
+        carId = window.getInt();
+        window.getInt();
+
+        // car ids start at 1, an all-zero record is the unwritten tail of a journal that was not closed
+        if (time == 0 && type == Journal.CAR_ARRIVES && carId == 0) {
+            index = recordCount;
+            return false;
+        }
+        return true;
+    }
+
+    private void mapWindow(long position, long length) throws IOException {
+        window = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+        window.order(ByteOrder.LITTLE_ENDIAN);
+        windowStart = position;
+    }
+
+    public long time() {
+        return time;
+    }
+
+    public int type() {
+        return type;
+    }
+
+    public int pumpId() {
+        return pumpId;
+    }
+
+    public int carId() {
+        return carId;
+    }
+
+    public long getRecordCount() {
+        return recordCount;
+    }
+
+    public int getNumPumps() {
+        return numPumps;
+    }
+
+    public int getWaitingAreaSize() {
+        return waitingAreaSize;
+    }
+
+    public long getOriginNanos() {
+        return originNanos;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
@@ -0,0 +1,94 @@
+package simulator.cws.journal;
+
+import simulator.cws.metrics.StationMetrics;
+import simulator.cws.utlils.CarObserver;
+import simulator.cws.utlils.PumpObserver;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.locks.LockSupport;
+
+// Feeds a recorded journal back into observers, either paced like the
+// original run (scaled by `speed`) or as fast as possible, e.g. into the
+// MainController to watch a run again, or into a StationMetrics to analyze
+// it offline without re-simulating.
+public class JournalReplayer {
+    public static final double AS_FAST_AS_POSSIBLE = 0;
+
+    private JournalReplayer() {
+    }
+
+    // speed 1 replays in real time, 10 ten times faster, AS_FAST_AS_POSSIBLE without pauses;
+    // returns the number of events replayed
+    public static long replay(Path path, double speed, CarObserver carObserver, PumpObserver pumpObserver)
+            throws IOException, InterruptedException {
+        if (speed < 0) {
+            throw new IllegalArgumentException("speed must be >= 0");
+        }
+        try (JournalReader reader = new JournalReader(path)) {
+            long firstTime = 0;
+            long wallStart = System.nanoTime();
+            long events = 0;
+
+            while (reader.next()) {
+                if (events == 0) {
+                    firstTime = reader.time();
+                }
+                if (speed > 0) {
+                    long due = wallStart + (long) ((reader.time() - firstTime) / speed);
+                    long wait;
+                    while ((wait = due - System.nanoTime()) > 0) {
+                        LockSupport.parkNanos(wait);
+                        if (Thread.interrupted()) throw new InterruptedException();
+                    }
+                }
+                if (Thread.interrupted()) throw new InterruptedException();
+
+                dispatch(reader, carObserver, pumpObserver);
+                events++;
+            }
+            return events;
+        }
+    }
+
+    // rebuilds the latency histograms, utilization and series of a recorded run
+    public static StationMetrics toMetrics(Path path) throws IOException {
+        try (JournalReader reader = new JournalReader(path)) {
+            long[] now = {reader.getOriginNanos()};
+            StationMetrics metrics = new StationMetrics(reader.getNumPumps(), () -> now[0]);
+            metrics.start();
+
+            while (reader.next()) {
+                now[0] = reader.time();
+                if (reader.type() == Journal.CAR_ARRIVES) {
+                    metrics.recordArrival(reader.carId(), reader.time());
+                }
+                dispatch(reader, metrics, metrics);
+            }
+            return metrics;
+        }
+    }
+
+    private static void dispatch(JournalReader reader, CarObserver carObserver, PumpObserver pumpObserver) {
+        int pumpId = reader.pumpId();
+        int carId = reader.carId();
+
+        switch (reader.type()) {
+            case Journal.CAR_ARRIVES -> carObserver.onCarArrives(carId);
+            case Journal.CAR_ENTERS_QUEUE -> carObserver.onCarEntersQueue(carId);
+            case Journal.CAR_BALKS -> carObserver.onCarBalks(carId);
+            case Journal.CAR_LOGINS -> pumpObserver.onCarLogins(pumpId, carId);
+            case Journal.CAR_BEGINS_SERVICE -> pumpObserver.onCarBeginsService(pumpId, carId);
+            case Journal.CAR_FINISHES_SERVICE -> pumpObserver.onCarFinishesService(pumpId, carId);
+            case Journal.EXCEPTION -> {
+                // the only messages the station sends, see Car and Pump
+                if (pumpId != 0) {
+                    pumpObserver.onException("P" + pumpId + " shutting down...");
+                } else {
+                    carObserver.onException("C" + carId + " interrupted and leaving the station...");
+                }
+            }
+            default -> throw new IllegalStateException("unknown journal record type " + reader.type());
+        }
+    }
+}
@@ -0,0 +1,234 @@
+package simulator.cws.journal;
+
+import simulator.cws.utlils.CarObserver;
+import simulator.cws.utlils.PumpObserver;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.LongSupplier;
+
+// Observer that appends every car and pump event to a journal file. Car and
+// pump threads only claim a slot in a pre-allocated ring (one CAS, no lock,
+// no allocation) and never block: when the ring is full the event is counted
+// as dropped. A single flusher thread drains the ring in batches into a
+// memory-mapped window of the file that moves forward in MAP_BYTES steps.
+public class JournalWriter implements CarObserver, PumpObserver, AutoCloseable {
+    public static final int DEFAULT_RING_SIZE = 1 << 16;
+    private static final long MAP_BYTES = 64L * 1024 * 1024;
+    private static final long IDLE_PARK_NANOS = 1_000_000L;
+
+    private final LongSupplier clock;
+    private final Path path;
+    private final FileChannel channel;
+
+    // staging ring, one sequence per slot as in RingBufferWaitingArea
+    private final int mask;
+    private final long[] times;
+    private final long[] payloads;
+    private final AtomicLongArray sequences;
+    private final AtomicLong tail = new AtomicLong();
+    private long head = 0; // flusher only
+
+    private MappedByteBuffer window;
+    private long windowStart;
+    private long records = 0; // flusher only
+    private final AtomicLong dropped = new AtomicLong();
+    private volatile long written = 0;
+
+    private final Thread flusher;
+    private volatile boolean closing = false;
+    private volatile long closeAt = Long.MAX_VALUE; // events claimed before close() still get written
+
+    public JournalWriter(Path path, int numPumps, int waitingAreaSize, LongSupplier clock) throws IOException {
+        this(path, numPumps, waitingAreaSize, clock, DEFAULT_RING_SIZE);
+    }
+
+    public JournalWriter(Path path, int numPumps, int waitingAreaSize, LongSupplier clock, int ringSize)
+            throws IOException {
+        if (ringSize <= 0 || Integer.bitCount(ringSize) != 1) {
+            throw new IllegalArgumentException("ringSize must be a power of two");
+        }
+        this.clock = clock;
+        this.path = path;
+        this.mask = ringSize - 1;
+        this.times = new long[ringSize];
+        this.payloads = new long[ringSize];
+        this.sequences = new AtomicLongArray(ringSize);
+        for (int i = 0; i < ringSize; i++) {
+            sequences.set(i, i);
+        }
+
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        mapWindow(0);
+        window.putInt(Journal.MAGIC);
+        window.putInt(Journal.VERSION);
+        window.putInt(numPumps);
+        window.putInt(waitingAreaSize);
+        window.putLong(clock.getAsLong());
+
+        this.flusher = new Thread(this::flushLoop, "journal-flusher");
+        flusher.setDaemon(true);
+        flusher.start();
+    }
+
+    // car callbacks
+    @Override
+    public void onCarArrives(int carId) {
+        append(Journal.CAR_ARRIVES, 0, carId);
+    }
+
+    @Override
+    public void onCarEntersQueue(int carId) {
+        append(Journal.CAR_ENTERS_QUEUE, 0, carId);
+    }
+
+    @Override
+    public void onCarBalks(int carId) {
+        append(Journal.CAR_BALKS, 0, carId);
+    }
+
+    // pump callbacks
+    @Override
+    public void onCarLogins(int pumpId, int carId) {
+        append(Journal.CAR_LOGINS, pumpId, carId);
+    }
+
+    @Override
+    public void onCarBeginsService(int pumpId, int carId) {
+        append(Journal.CAR_BEGINS_SERVICE, pumpId, carId);
+    }
+
+    @Override
+    public void onCarFinishesService(int pumpId, int carId) {
+        append(Journal.CAR_FINISHES_SERVICE, pumpId, carId);
+    }
+
+    // messages are "C<id> ..." from cars and "P<id> ..." from pumps
+    @Override
+    public void onException(String message) {
+        int id = 0;
+        int i = 1;
+        while (i < message.length() && Character.isDigit(message.charAt(i))) {
+            id = id * 10 + (message.charAt(i++) - '0');
+        }
+        boolean pump = message.startsWith("P");
+        append(Journal.EXCEPTION, pump ? id : 0, pump ? 0 : id);
+    }
+
+    private void append(int type, int pumpId, int carId) {
+        long time = clock.getAsLong();
+        long payload = (long) type << 56 | (long) (pumpId & 0xFFFFFF) << 32 | (carId & 0xFFFFFFFFL);
+
+        while (true) {
+            long position = tail.get();
+            int slot = (int) position & mask;
+            long difference = sequences.get(slot) - position;
+            if (difference == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    times[slot] = time;
+                    payloads[slot] = payload;
+                    sequences.set(slot, position + 1);
+                    return;
+                }
+            } else if (difference < 0) {
+                // the flusher is a full ring behind, never make the caller wait
+                dropped.incrementAndGet();
+                return;
+            }
+        }
+    }
+
+    private void flushLoop() {
+        while (true) {
+            int drained = drain();
+            if (head >= closeAt) break;
+            if (drained == 0) {
+                LockSupport.parkNanos(IDLE_PARK_NANOS);
+            }
+        }
+    }
+
+    // copies every published event to the mapped file, returns how many
+    private int drain() {
+        int count = 0;
+        while (true) {
+            int slot = (int) head & mask;
+            if (sequences.get(slot) != head + 1) break;
+
+            long payload = payloads[slot];
+            writeRecord(times[slot], (int) (payload >>> 56), (int) (payload >>> 32) & 0xFFFFFF, (int) payload);
+            sequences.set(slot, head + mask + 1);
+            head++;
+            count++;
+        }
+        if (count > 0) {
+            written = records;
+        }
+        return count;
+    }
+
+    private void writeRecord(long time, int type, int pumpId, int carId) {
+        if (window.remaining() < Journal.RECORD_BYTES) {
+            mapWindow(windowStart + window.position());
+        }
+        window.putLong(time);
+        window.putInt(type);
+        window.putInt(pumpId);
+        window.putInt(carId);
+        window.putInt(0);
+        records++;
+    }
+
+    private void mapWindow(long position) {
+        try {
+            if (window != null) {
+                window.force();
+            }
+            window = channel.map(FileChannel.MapMode.READ_WRITE, position, MAP_BYTES);
+            window.order(ByteOrder.LITTLE_ENDIAN);
+            windowStart = position;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // records on disk so far
+    public long getWritten() {
+        return written;
+    }
+
+    // events lost because the flusher fell a whole ring behind
+    public long getDropped() {
+        return dropped.get();
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    // drains what is left, then cuts the file to the records actually written
+    @Override
+    public void close() throws IOException {
+        if (closing) return;
+        closing = true;
+        closeAt = tail.get();
+        LockSupport.unpark(flusher);
+        try {
+            flusher.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        window.force();
+        channel.truncate(Journal.HEADER_BYTES + written * Journal.RECORD_BYTES);
+        channel.close();
+    }
+}
@@ -0,0 +1,46 @@
+package simulator.cws.load;
+
+import simulator.cws.engine.ArrivalSource;
+
+import java.util.Arrays;
+import java.util.random.RandomGenerator;
+
+// A stochastic process of car arrivals. Given the time of the previous
+// arrival it draws the time of the next one; all times are in nanoseconds.
+public interface ArrivalProcess {
+    long nextArrival(long previousNanos, RandomGenerator random);
+
+    // long-run average arrivals per second, for display
+    double getMeanRate();
+
+    // arrivals at exponential gaps, rate cars per second
+    static ArrivalProcess poisson(double ratePerSecond) {
+        return new PoissonArrivals(ratePerSecond);
+    }
+
+    // one arrival every 1/rate seconds
+    static ArrivalProcess deterministic(double ratePerSecond) {
+        return new DeterministicArrivals(ratePerSecond);
+    }
+
+    // Poisson arrivals at `ratePerSecond` for onNanos, then nothing for offNanos, repeating
+    static ArrivalProcess bursty(double ratePerSecond, long onNanos, long offNanos) {
+        return new PiecewiseArrivals(new double[]{ratePerSecond, 0}, new long[]{onNanos, offNanos});
+    }
+
+    // Poisson arrivals whose rate follows `rates`, each held for segmentNanos, repeating
+    // (24 hourly rates with segmentNanos = 1h model a day)
+    static ArrivalProcess timeOfDay(double[] rates, long segmentNanos) {
+        long[] lengths = new long[rates.length];
+        Arrays.fill(lengths, segmentNanos);
+        return new PiecewiseArrivals(rates, lengths);
+    }
+
+    // feeds this process into a VirtualStation, stopping after maxCars arrivals
+    default ArrivalSource asSource(RandomGenerator random, long maxCars) {
+        long[] generated = {0};
+        return previous -> ++generated[0] > maxCars
+                ? ArrivalSource.NO_MORE_ARRIVALS
+                : nextArrival(previous, random);
+    }
+}
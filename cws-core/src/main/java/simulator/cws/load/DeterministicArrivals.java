@@ -0,0 +1,26 @@
+package simulator.cws.load;
+
+import java.util.random.RandomGenerator;
+
+public class DeterministicArrivals implements ArrivalProcess {
+    private final double ratePerSecond;
+    private final long gapNanos;
+
+    public DeterministicArrivals(double ratePerSecond) {
+        if (!(ratePerSecond > 0)) {
+            throw new IllegalArgumentException("ratePerSecond must be > 0");
+        }
+        this.ratePerSecond = ratePerSecond;
+        this.gapNanos = Math.max(1, (long) (1e9 / ratePerSecond));
+    }
+
+    @Override
+    public long nextArrival(long previousNanos, RandomGenerator random) {
+        return previousNanos + gapNanos;
+    }
+
+    @Override
+    public double getMeanRate() {
+        return ratePerSecond;
+    }
+}
@@ -0,0 +1,136 @@
+package simulator.cws.load;
+
+import simulator.cws.models.ServiceStation;
+import simulator.cws.utlils.CarObserver;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.locks.LockSupport;
+
+// Open-loop load for the live station: a scheduler thread draws arrival
+// times from an ArrivalProcess and adds each car at its intended time,
+// never waiting for the station to keep up. When the thread falls behind
+// (a GC pause, a slow addCar) it adds the late cars at once instead of
+// skipping them, and hands the station the intended time so the missed
+// schedule is charged to the cars' waiting time.
+public class LoadGenerator {
+    // park until this close to the target, then spin, for sub-millisecond gaps
+    private static final long SPIN_NANOS = 50_000L;
+
+    private final ServiceStation station;
+    private final CarObserver carObserver;
+
+    private volatile ArrivalProcess process;
+    private volatile boolean running = false;
+    private Thread thread;
+    private long seed = System.nanoTime();
+
+    private volatile long generated = 0;
+    private volatile long lateArrivals = 0;
+    private volatile long maxLagNanos = 0;
+
+    public LoadGenerator(ServiceStation station, CarObserver carObserver) {
+        this.station = station;
+        this.carObserver = carObserver;
+    }
+
+    public synchronized void start(ArrivalProcess process) {
+        if (running) {
+            throw new IllegalStateException("load generator is already running");
+        }
+        if (!station.isRunning()) {
+            throw new IllegalStateException("station is not running");
+        }
+        this.process = process;
+        generated = 0;
+        lateArrivals = 0;
+        maxLagNanos = 0;
+
+        running = true;
+        SplittableRandom random = new SplittableRandom(seed);
+        thread = new Thread(() -> generate(random), "load-generator");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    public synchronized void stop() {
+        running = false;
+        if (thread != null) {
+            thread.interrupt();
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            thread = null;
+        }
+    }
+
+    // takes effect from the next arrival, the schedule carries on from the last one
+    public void setProcess(ArrivalProcess process) {
+        this.process = process;
+    }
+
+    // must be set before start() to repeat a run's arrival times
+    public synchronized void setSeed(long seed) {
+        this.seed = seed;
+    }
+
+    private void generate(SplittableRandom random) {
+        long origin = System.nanoTime();
+        long intended = origin;
+
+        while (running && station.isRunning()) {
+            // processes are evaluated in time since start, so time-of-day profiles begin at 0
+            intended = origin + process.nextArrival(intended - origin, random);
+
+            long lag = waitUntil(intended);
+            if (lag < 0) break;
+            if (lag > 0) {
+                lateArrivals++;
+                if (lag > maxLagNanos) maxLagNanos = lag;
+            }
+
+            station.addCar(carObserver, intended);
+            generated++;
+        }
+        running = false;
+    }
+
+    // returns how late we are, 0 when on time, or -1 when stopped while waiting
+    private long waitUntil(long deadline) {
+        long remaining = deadline - System.nanoTime();
+        if (remaining <= 0) {
+            return -remaining;
+        }
+        while (remaining > SPIN_NANOS) {
+            LockSupport.parkNanos(remaining - SPIN_NANOS);
+            if (!running || Thread.currentThread().isInterrupted()) return -1;
+            remaining = deadline - System.nanoTime();
+        }
+        while (deadline - System.nanoTime() > 0) {
+            Thread.onSpinWait();
+        }
+        return 0;
+    }
+
+    public boolean isRunning() {
+        return running;
+    }
+
+    public ArrivalProcess getProcess() {
+        return process;
+    }
+
+    public long getGenerated() {
+        return generated;
+    }
+
+    // cars added after their intended time
+    public long getLateArrivals() {
+        return lateArrivals;
+    }
+
+    public long getMaxLagNanos() {
+        return maxLagNanos;
+    }
+}
@@ -0,0 +1,73 @@
+package simulator.cws.load;
+
+import java.util.random.RandomGenerator;
+
+// Non-homogeneous Poisson process with a piecewise-constant rate that
+// repeats every cycle. The next arrival is found by drawing one unit of
+// exponential "work" and spending it across segments at their own rates,
+// which is exact and needs no rejection sampling.
+public class PiecewiseArrivals implements ArrivalProcess {
+    private final double[] rates;
+    private final long[] lengths;
+    private final long cycleNanos;
+
+    public PiecewiseArrivals(double[] rates, long[] lengths) {
+        if (rates.length == 0 || rates.length != lengths.length) {
+            throw new IllegalArgumentException("rates and lengths must be non-empty and of equal length");
+        }
+        long cycle = 0;
+        boolean anyArrivals = false;
+        for (int i = 0; i < rates.length; i++) {
+            if (rates[i] < 0) {
+                throw new IllegalArgumentException("rates must be >= 0");
+            }
+            if (lengths[i] <= 0) {
+                throw new IllegalArgumentException("segment lengths must be > 0");
+            }
+            anyArrivals |= rates[i] > 0;
+            cycle += lengths[i];
+        }
+        if (!anyArrivals) {
+            throw new IllegalArgumentException("at least one segment must have a rate > 0");
+        }
+        this.rates = rates.clone();
+        this.lengths = lengths.clone();
+        this.cycleNanos = cycle;
+    }
+
+    @Override
+    public long nextArrival(long previousNanos, RandomGenerator random) {
+        double work = random.nextExponential();
+        long time = previousNanos;
+
+        while (true) {
+            long offset = Math.floorMod(time, cycleNanos);
+            int segment = 0;
+            long segmentEnd = lengths[0];
+            while (offset >= segmentEnd) {
+                segment++;
+                segmentEnd += lengths[segment];
+            }
+            long remaining = segmentEnd - offset;
+            double rate = rates[segment];
+
+            if (rate > 0) {
+                double needed = work / rate * 1e9;
+                if (needed < remaining) {
+                    return time + Math.max(1, (long) needed);
+                }
+                work -= rate * remaining / 1e9;
+            }
+            time += remaining;
+        }
+    }
+
+    @Override
+    public double getMeanRate() {
+        double arrivals = 0;
+        for (int i = 0; i < rates.length; i++) {
+            arrivals += rates[i] * lengths[i];
+        }
+        return arrivals / cycleNanos;
+    }
+}
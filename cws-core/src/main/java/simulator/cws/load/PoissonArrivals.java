@@ -0,0 +1,24 @@
+package simulator.cws.load;
+
+import java.util.random.RandomGenerator;
+
+public class PoissonArrivals implements ArrivalProcess {
+    private final double ratePerSecond;
+
+    public PoissonArrivals(double ratePerSecond) {
+        if (!(ratePerSecond > 0)) {
+            throw new IllegalArgumentException("ratePerSecond must be > 0");
+        }
+        this.ratePerSecond = ratePerSecond;
+    }
+
+    @Override
+    public long nextArrival(long previousNanos, RandomGenerator random) {
+        return previousNanos + Math.max(1, (long) (random.nextExponential() / ratePerSecond * 1e9));
+    }
+
+    @Override
+    public double getMeanRate() {
+        return ratePerSecond;
+    }
+}
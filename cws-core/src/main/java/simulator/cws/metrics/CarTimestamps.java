@@ -0,0 +1,139 @@
+package simulator.cws.metrics;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Lifecycle timestamps of cars still in the station, stored in primitive
+// columns indexed by car id. Ids are handed out sequentially from 1, so cars
+// are grouped in chunks of 4096; a chunk is dropped as soon as every car in
+// it has finished, which keeps memory proportional to the cars in flight.
+class CarTimestamps {
+    private static final int CHUNK_BITS = 12;
+    private static final int CHUNK_SIZE = 1 << CHUNK_BITS;
+    private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+
+    static final class Chunk {
+        final long[] arrival = new long[CHUNK_SIZE];
+        final long[] enqueue = new long[CHUNK_SIZE];
+        final long[] login = new long[CHUNK_SIZE];
+        final long[] begin = new long[CHUNK_SIZE];
+        final byte[] customerClass = new byte[CHUNK_SIZE];
+        final AtomicInteger done = new AtomicInteger();
+    }
+
+    private volatile Chunk[] chunks = new Chunk[16];
+    private int liveChunks = 0;
+
+    void arrival(int carId, long time) {
+        chunk(carId).arrival[(carId - 1) & CHUNK_MASK] = time;
+    }
+
+    void enqueue(int carId, long time) {
+        chunk(carId).enqueue[(carId - 1) & CHUNK_MASK] = time;
+    }
+
+    void login(int carId, long time) {
+        chunk(carId).login[(carId - 1) & CHUNK_MASK] = time;
+    }
+
+    void begin(int carId, long time) {
+        chunk(carId).begin[(carId - 1) & CHUNK_MASK] = time;
+    }
+
+    void customerClass(int carId, int customerClass) {
+        chunk(carId).customerClass[(carId - 1) & CHUNK_MASK] = (byte) customerClass;
+    }
+
+    int customerClass(int carId) {
+        return chunk(carId).customerClass[(carId - 1) & CHUNK_MASK];
+    }
+
+    long arrival(int carId) {
+        return chunk(carId).arrival[(carId - 1) & CHUNK_MASK];
+    }
+
+    long enqueue(int carId) {
+        return chunk(carId).enqueue[(carId - 1) & CHUNK_MASK];
+    }
+
+    long login(int carId) {
+        return chunk(carId).login[(carId - 1) & CHUNK_MASK];
+    }
+
+    long begin(int carId) {
+        return chunk(carId).begin[(carId - 1) & CHUNK_MASK];
+    }
+
+    // the car left the station, its chunk goes away once all of its cars have
+    void done(int carId) {
+        int index = (carId - 1) >>> CHUNK_BITS;
+        Chunk chunk = chunk(carId);
+        if (chunk.done.incrementAndGet() == CHUNK_SIZE) {
+            synchronized (this) {
+                chunks[index] = null;
+                liveChunks--;
+            }
+        }
+    }
+
+    // after restoring the timestamps of the cars still in flight: every other
+    // id up to carCounter is finished, so their chunks can still be released
+    void markFinishedExcept(int carCounter, int[] liveCars) {
+        int[] sorted = liveCars.clone();
+        Arrays.sort(sorted);
+        int i = 0;
+        while (i < sorted.length) {
+            int index = (sorted[i] - 1) >>> CHUNK_BITS;
+            int live = 0;
+            while (i < sorted.length && (sorted[i] - 1) >>> CHUNK_BITS == index) {
+                live++;
+                i++;
+            }
+            int issued = Math.min(CHUNK_SIZE, carCounter - index * CHUNK_SIZE);
+            chunk(index * CHUNK_SIZE + 1).done.set(issued - live);
+        }
+        // the chunk new ids will land in, even when none of its cars is left
+        int last = (carCounter - 1) >>> CHUNK_BITS;
+        int issuedInLast = carCounter - last * CHUNK_SIZE;
+        if (carCounter > 0 && issuedInLast < CHUNK_SIZE
+                && (sorted.length == 0 || (sorted[sorted.length - 1] - 1) >>> CHUNK_BITS != last)) {
+            chunk(carCounter).done.set(issuedInLast);
+        }
+    }
+
+    synchronized int getLiveChunks() {
+        return liveChunks;
+    }
+
+    synchronized void clear() {
+        chunks = new Chunk[16];
+        liveChunks = 0;
+    }
+
+    private Chunk chunk(int carId) {
+        int index = (carId - 1) >>> CHUNK_BITS;
+        Chunk[] current = chunks;
+        if (index < current.length) {
+            Chunk chunk = current[index];
+            if (chunk != null) return chunk;
+        }
+        return createChunk(index);
+    }
+
+    private synchronized Chunk createChunk(int index) {
+        Chunk[] current = chunks;
+        if (index >= current.length) {
+            current = Arrays.copyOf(current, Math.max(index + 1, current.length * 2));
+            chunks = current;
+        }
+        Chunk chunk = current[index];
+        if (chunk == null) {
+            chunk = new Chunk();
+            current[index] = chunk;
+            liveChunks++;
+            // publish the new slot through the volatile field
+            chunks = current;
+        }
+        return chunk;
+    }
+}
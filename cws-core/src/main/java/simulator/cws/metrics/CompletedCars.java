@@ -0,0 +1,129 @@
+package simulator.cws.metrics;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+// Append-only record of every car that finished service, one primitive column
+// per field and no object per car: 44 bytes a car, so 100 million cars take
+// about 4.4 GB. Rows are kept in chunks of 65536 so the store grows without
+// copying, and scans walk each column array in order.
+public class CompletedCars {
+    private static final int CHUNK_BITS = 16;
+    private static final int CHUNK_SIZE = 1 << CHUNK_BITS;
+    private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+
+    private static final class Chunk {
+        final int[] carId = new int[CHUNK_SIZE];
+        final long[] arrival = new long[CHUNK_SIZE];
+        final long[] enqueue = new long[CHUNK_SIZE];
+        final long[] login = new long[CHUNK_SIZE];
+        final long[] begin = new long[CHUNK_SIZE];
+        final long[] finish = new long[CHUNK_SIZE];
+    }
+
+    // receives one completed car per call, in completion order
+    public interface Visitor {
+        void visit(int carId, long arrival, long enqueue, long login, long begin, long finish);
+    }
+
+    // written under the lock, read without it: rows below size are complete
+    private volatile Chunk[] chunks = new Chunk[16];
+    private volatile long size = 0;
+
+    synchronized void add(int carId, long arrival, long enqueue, long login, long begin, long finish) {
+        long row = size;
+        int index = (int) (row >>> CHUNK_BITS);
+        if (index == chunks.length) {
+            chunks = Arrays.copyOf(chunks, chunks.length * 2);
+        }
+        Chunk chunk = chunks[index];
+        if (chunk == null) {
+            chunk = new Chunk();
+            chunks[index] = chunk;
+        }
+        int i = (int) (row & CHUNK_MASK);
+        chunk.carId[i] = carId;
+        chunk.arrival[i] = arrival;
+        chunk.enqueue[i] = enqueue;
+        chunk.login[i] = login;
+        chunk.begin[i] = begin;
+        chunk.finish[i] = finish;
+        size = row + 1;
+    }
+
+    public long size() {
+        return size;
+    }
+
+    // visits every car completed before the call, safe while cars keep finishing
+    public void forEach(Visitor visitor) {
+        long end = size;
+        Chunk[] current = chunks;
+        for (int index = 0; (long) index << CHUNK_BITS < end; index++) {
+            Chunk chunk = current[index];
+            int rows = (int) Math.min(CHUNK_SIZE, end - ((long) index << CHUNK_BITS));
+            for (int i = 0; i < rows; i++) {
+                visitor.visit(chunk.carId[i], chunk.arrival[i], chunk.enqueue[i],
+                        chunk.login[i], chunk.begin[i], chunk.finish[i]);
+            }
+        }
+    }
+
+    // one line per car, times in nanoseconds relative to originNanos
+    public void writeCsv(Appendable out, long originNanos) throws IOException {
+        out.append("car,arrival,enqueue,login,begin,finish\n");
+        long end = size;
+        Chunk[] current = chunks;
+        StringBuilder line = new StringBuilder(96);
+        for (int index = 0; (long) index << CHUNK_BITS < end; index++) {
+            Chunk chunk = current[index];
+            int rows = (int) Math.min(CHUNK_SIZE, end - ((long) index << CHUNK_BITS));
+            for (int i = 0; i < rows; i++) {
+                line.setLength(0);
+                line.append(chunk.carId[i]).append(',')
+                        .append(chunk.arrival[i] - originNanos).append(',')
+                        .append(chunk.enqueue[i] - originNanos).append(',')
+                        .append(chunk.login[i] - originNanos).append(',')
+                        .append(chunk.begin[i] - originNanos).append(',')
+                        .append(chunk.finish[i] - originNanos).append('\n');
+                out.append(line);
+            }
+        }
+    }
+
+    public int getCarId(long row) {
+        return chunk(row).carId[(int) (row & CHUNK_MASK)];
+    }
+
+    public long getArrival(long row) {
+        return chunk(row).arrival[(int) (row & CHUNK_MASK)];
+    }
+
+    public long getEnqueue(long row) {
+        return chunk(row).enqueue[(int) (row & CHUNK_MASK)];
+    }
+
+    public long getLogin(long row) {
+        return chunk(row).login[(int) (row & CHUNK_MASK)];
+    }
+
+    public long getBegin(long row) {
+        return chunk(row).begin[(int) (row & CHUNK_MASK)];
+    }
+
+    public long getFinish(long row) {
+        return chunk(row).finish[(int) (row & CHUNK_MASK)];
+    }
+
+    synchronized void clear() {
+        chunks = new Chunk[16];
+        size = 0;
+    }
+
+    private Chunk chunk(long row) {
+        if (row < 0 || row >= size) {
+            throw new IndexOutOfBoundsException("row " + row + " of " + size);
+        }
+        return chunks[(int) (row >>> CHUNK_BITS)];
+    }
+}
@@ -0,0 +1,164 @@
+package simulator.cws.metrics;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Log-linear histogram of non-negative long values (nanoseconds). Every
+// power-of-two range is split into 32 linear sub-buckets, so any recorded
+// value is reported within ~3% of its true value. Recording is a couple of
+// atomic increments into a fixed array: no locks and no allocation.
+public class Histogram {
+    private static final int SUB_BITS = 5;
+    private static final int SUB_COUNT = 1 << SUB_BITS;
+    private static final int BUCKETS = (64 - SUB_BITS) * SUB_COUNT;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final AtomicLong count = new AtomicLong();
+    private final AtomicLong sum = new AtomicLong();
+    private final AtomicLong max = new AtomicLong();
+
+    public void record(long value) {
+        if (value < 0) value = 0;
+        counts.incrementAndGet(bucketOf(value));
+        count.incrementAndGet();
+        sum.addAndGet(value);
+        if (value > max.get()) {
+            max.accumulateAndGet(value, Math::max);
+        }
+    }
+
+    // adds every value recorded in other, e.g. to combine stations
+    public void add(Histogram other) {
+        for (int i = 0; i < BUCKETS; i++) {
+            long n = other.counts.get(i);
+            if (n != 0) counts.addAndGet(i, n);
+        }
+        count.addAndGet(other.count.get());
+        sum.addAndGet(other.sum.get());
+        max.accumulateAndGet(other.max.get(), Math::max);
+    }
+
+    public long getCount() {
+        return count.get();
+    }
+
+    public long getSum() {
+        return sum.get();
+    }
+
+    public long getMax() {
+        return max.get();
+    }
+
+    public double getMean() {
+        long n = count.get();
+        return n == 0 ? 0 : (double) sum.get() / n;
+    }
+
+    // value at the given percentile (0-100), reported as the upper edge of its bucket
+    public long getPercentile(double percentile) {
+        long n = count.get();
+        if (n == 0) return 0;
+
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100.0 * n));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts.get(i);
+            if (seen >= rank) {
+                return Math.min(upperEdge(i), max.get());
+            }
+        }
+        return max.get();
+    }
+
+    // count of recorded values <= value, at bucket resolution
+    public long countAtOrBelow(long value) {
+        int last = bucketOf(Math.max(0, value));
+        long seen = 0;
+        for (int i = 0; i <= last; i++) {
+            seen += counts.get(i);
+        }
+        return seen;
+    }
+
+    // number of buckets, for exporters that walk them
+    public static int bucketCount() {
+        return BUCKETS;
+    }
+
+    public long bucketCountAt(int bucket) {
+        return counts.get(bucket);
+    }
+
+    public static long bucketUpperEdge(int bucket) {
+        return upperEdge(bucket);
+    }
+
+    // plain stores for the buckets, published by the volatile ones below
+    public void reset() {
+        for (int i = 0; i < BUCKETS; i++) {
+            counts.setPlain(i, 0);
+        }
+        count.set(0);
+        sum.set(0);
+        max.set(0);
+    }
+
+    // sparse: only the buckets that hold values
+    public void writeTo(DataOutput out) throws IOException {
+        out.writeLong(count.get());
+        out.writeLong(sum.get());
+        out.writeLong(max.get());
+        int used = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            if (counts.get(i) != 0) used++;
+        }
+        out.writeShort(used);
+        for (int i = 0; i < BUCKETS; i++) {
+            long c = counts.get(i);
+            if (c != 0) {
+                out.writeShort(i);
+                out.writeLong(c);
+            }
+        }
+    }
+
+    // replaces the contents with what writeTo() wrote
+    public void readFrom(DataInput in) throws IOException {
+        reset();
+        count.set(in.readLong());
+        sum.set(in.readLong());
+        max.set(in.readLong());
+        int used = in.readUnsignedShort();
+        for (int i = 0; i < used; i++) {
+            int bucket = in.readUnsignedShort();
+            if (bucket >= BUCKETS) {
+                throw new IOException("bad histogram bucket " + bucket);
+            }
+            counts.set(bucket, in.readLong());
+        }
+    }
+
+    static int bucketOf(long value) {
+        if (value < SUB_COUNT) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int shift = exponent - SUB_BITS;
+        int sub = (int) (value >>> shift) & (SUB_COUNT - 1);
+        return (shift + 1) * SUB_COUNT + sub;
+    }
+
+    static long upperEdge(int bucket) {
+        if (bucket < SUB_COUNT) {
+            return bucket;
+        }
+        int shift = bucket / SUB_COUNT - 1;
+        long sub = bucket % SUB_COUNT;
+        long lowest = (SUB_COUNT + sub) << shift;
+        return lowest + (1L << shift) - 1;
+    }
+}
@@ -0,0 +1,393 @@
+package simulator.cws.metrics;
+
+import simulator.cws.utlils.CarObserver;
+import simulator.cws.utlils.PumpObserver;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.LongSupplier;
+
+// Records the arrival, queue-entry, login, begin and finish time of every car
+// and aggregates them into wait (arrival -> begin), service (begin -> finish)
+// and sojourn (arrival -> finish) histograms, per-pump utilization and
+// queue-depth / pump-busy time series. The clock is System::nanoTime for the
+// live station and the virtual clock for the VirtualStation.
+public class StationMetrics implements CarObserver, PumpObserver {
+    public static final long SERIES_INTERVAL_NANOS = 1_000_000_000L;
+    public static final int SERIES_CAPACITY = 3600;
+
+    private final LongSupplier clock;
+    private final int numPumps;
+
+    private final CarTimestamps timestamps = new CarTimestamps();
+    private final CompletedCars completed = new CompletedCars();
+    private final Histogram waitTimes = new Histogram();
+    private final Histogram serviceTimes = new Histogram();
+    private final Histogram sojournTimes = new Histogram();
+    // wait times per customer class, empty without classes
+    private volatile Histogram[] classWaitTimes = new Histogram[0];
+
+    // indexed by pump id, slot 0 unused
+    private final AtomicLongArray busyNanos;
+    private final AtomicLongArray busySince;
+    private final AtomicLongArray served;
+    private final TimeSeries[] pumpBusy;
+
+    private final AtomicInteger queueDepth = new AtomicInteger();
+    private final TimeSeries queueDepthSeries;
+
+    private final AtomicLong arrivals = new AtomicLong();
+    private final AtomicLong completions = new AtomicLong();
+    private final AtomicLong balks = new AtomicLong();
+
+    private volatile long startNanos;
+    private volatile boolean recordSeries = true;
+    private volatile boolean recordCompleted = false;
+
+    public StationMetrics(int numPumps, LongSupplier clock) {
+        if (numPumps <= 0) {
+            throw new IllegalArgumentException("numPumps must be > 0");
+        }
+        this.numPumps = numPumps;
+        this.clock = clock;
+
+        this.busyNanos = new AtomicLongArray(numPumps + 1);
+        this.busySince = new AtomicLongArray(numPumps + 1);
+        this.served = new AtomicLongArray(numPumps + 1);
+        this.pumpBusy = new TimeSeries[numPumps + 1];
+        for (int i = 1; i <= numPumps; i++) {
+            pumpBusy[i] = new TimeSeries(SERIES_INTERVAL_NANOS, SERIES_CAPACITY);
+            busySince.set(i, -1);
+        }
+        this.queueDepthSeries = new TimeSeries(SERIES_INTERVAL_NANOS, SERIES_CAPACITY);
+        this.startNanos = clock.getAsLong();
+    }
+
+    // headless runs that only read the histograms can skip the per-interval series,
+    // which cost one update per interval a service spans
+    public void setRecordSeries(boolean recordSeries) {
+        this.recordSeries = recordSeries;
+    }
+
+    // keep the lifecycle of every finished car in getCompletedCars(), 44 bytes a car;
+    // off by default, as every pump appends under the store's one lock
+    public void setRecordCompleted(boolean recordCompleted) {
+        this.recordCompleted = recordCompleted;
+    }
+
+    // keeps a wait time histogram for each of count customer classes
+    public void setCustomerClasses(int count) {
+        Histogram[] histograms = new Histogram[count];
+        for (int i = 0; i < count; i++) {
+            histograms[i] = new Histogram();
+        }
+        classWaitTimes = histograms;
+    }
+
+    // the moment utilization is measured from
+    public void start() {
+        startNanos = clock.getAsLong();
+    }
+
+    public void reset() {
+        timestamps.clear();
+        completed.clear();
+        waitTimes.reset();
+        serviceTimes.reset();
+        sojournTimes.reset();
+        for (Histogram histogram : classWaitTimes) histogram.reset();
+        for (int i = 1; i <= numPumps; i++) {
+            busyNanos.set(i, 0);
+            busySince.set(i, -1);
+            served.set(i, 0);
+            pumpBusy[i].reset();
+        }
+        queueDepth.set(0);
+        queueDepthSeries.reset();
+        arrivals.set(0);
+        completions.set(0);
+        balks.set(0);
+        startNanos = clock.getAsLong();
+    }
+
+    // Called by the station when it admits a car, before the car can reach
+    // any other callback. A load generator passes the time the car was meant
+    // to arrive rather than when it was actually added, so a station that
+    // falls behind shows up as waiting time instead of silently lowering the
+    // offered load (coordinated omission).
+    public void recordArrival(int carId, long arrivalNanos) {
+        recordArrival(carId, 0, arrivalNanos);
+    }
+
+    public void recordArrival(int carId, int customerClass, long arrivalNanos) {
+        timestamps.arrival(carId, arrivalNanos);
+        timestamps.customerClass(carId, customerClass);
+        arrivals.incrementAndGet();
+    }
+
+    // car callbacks
+    @Override
+    public void onCarArrives(int carId) {
+        // already recorded by recordArrival()
+    }
+
+    @Override
+    public void onCarEntersQueue(int carId) {
+        long now = clock.getAsLong();
+        timestamps.enqueue(carId, now);
+        int depth = queueDepth.incrementAndGet();
+        if (recordSeries) queueDepthSeries.max(now, depth);
+    }
+
+    @Override
+    public void onCarBalks(int carId) {
+        timestamps.done(carId);
+        balks.incrementAndGet();
+    }
+
+    // pump callbacks
+    @Override
+    public void onCarLogins(int pumpId, int carId) {
+        long now = clock.getAsLong();
+        timestamps.login(carId, now);
+        int depth = queueDepth.decrementAndGet();
+        if (recordSeries) queueDepthSeries.max(now, depth);
+    }
+
+    @Override
+    public void onCarBeginsService(int pumpId, int carId) {
+        long now = clock.getAsLong();
+        timestamps.begin(carId, now);
+        busySince.set(pumpId, now);
+        long wait = now - timestamps.arrival(carId);
+        waitTimes.record(wait);
+        Histogram[] byClass = classWaitTimes;
+        int customerClass = timestamps.customerClass(carId);
+        if (customerClass < byClass.length) byClass[customerClass].record(wait);
+    }
+
+    @Override
+    public void onCarFinishesService(int pumpId, int carId) {
+        long now = clock.getAsLong();
+        long begin = timestamps.begin(carId);
+
+        serviceTimes.record(now - begin);
+        sojournTimes.record(now - timestamps.arrival(carId));
+        if (recordCompleted) {
+            completed.add(carId, timestamps.arrival(carId), timestamps.enqueue(carId),
+                    timestamps.login(carId), begin, now);
+        }
+        timestamps.done(carId);
+
+        busySince.set(pumpId, -1);
+        busyNanos.addAndGet(pumpId, now - begin);
+        served.incrementAndGet(pumpId);
+        if (recordSeries) pumpBusy[pumpId].addSpan(begin, now);
+        completions.incrementAndGet();
+    }
+
+    @Override
+    public void onException(String message) {
+    }
+
+    // Saves everything needed to continue these metrics elsewhere, with times
+    // relative to cutNanos: counters, histograms, pump busy time and the
+    // timestamps of the given cars still in the station. Per-interval series
+    // are not saved and start over on restore.
+    public void writeSnapshot(DataOutput out, long cutNanos, int carCounter, int[] liveCars) throws IOException {
+        out.writeInt(numPumps);
+        out.writeLong(startNanos - cutNanos);
+        out.writeLong(arrivals.get());
+        out.writeLong(completions.get());
+        out.writeLong(balks.get());
+        out.writeInt(queueDepth.get());
+        for (int i = 1; i <= numPumps; i++) {
+            long since = busySince.get(i);
+            out.writeLong(busyNanos.get(i));
+            out.writeLong(served.get(i));
+            out.writeBoolean(since >= 0);
+            out.writeLong(since >= 0 ? since - cutNanos : 0);
+        }
+        waitTimes.writeTo(out);
+        serviceTimes.writeTo(out);
+        sojournTimes.writeTo(out);
+        Histogram[] byClass = classWaitTimes;
+        out.writeInt(byClass.length);
+        for (Histogram histogram : byClass) histogram.writeTo(out);
+
+        out.writeInt(carCounter);
+        out.writeInt(liveCars.length);
+        for (int carId : liveCars) {
+            out.writeInt(carId);
+            out.writeLong(timestamps.arrival(carId) - cutNanos);
+            out.writeLong(timestamps.enqueue(carId) - cutNanos);
+            out.writeLong(timestamps.login(carId) - cutNanos);
+            out.writeLong(timestamps.begin(carId) - cutNanos);
+            out.writeByte(timestamps.customerClass(carId));
+        }
+    }
+
+    // replaces the contents with a snapshot, placing its cut at resumeNanos on this clock
+    public void readSnapshot(DataInput in, long resumeNanos) throws IOException {
+        reset();
+        int pumps = in.readInt();
+        if (pumps > numPumps) {
+            throw new IOException("snapshot has " + pumps + " pumps, metrics only " + numPumps);
+        }
+        startNanos = in.readLong() + resumeNanos;
+        arrivals.set(in.readLong());
+        completions.set(in.readLong());
+        balks.set(in.readLong());
+        queueDepth.set(in.readInt());
+        for (int i = 1; i <= pumps; i++) {
+            busyNanos.set(i, in.readLong());
+            served.set(i, in.readLong());
+            boolean busy = in.readBoolean();
+            long since = in.readLong() + resumeNanos;
+            busySince.set(i, busy ? since : -1);
+        }
+        waitTimes.readFrom(in);
+        serviceTimes.readFrom(in);
+        sojournTimes.readFrom(in);
+        int classes = in.readInt();
+        if (classes > classWaitTimes.length) {
+            setCustomerClasses(classes);
+        }
+        for (int i = 0; i < classes; i++) {
+            classWaitTimes[i].readFrom(in);
+        }
+
+        int carCounter = in.readInt();
+        int[] liveCars = new int[in.readInt()];
+        for (int i = 0; i < liveCars.length; i++) {
+            int carId = in.readInt();
+            liveCars[i] = carId;
+            timestamps.arrival(carId, in.readLong() + resumeNanos);
+            timestamps.enqueue(carId, in.readLong() + resumeNanos);
+            timestamps.login(carId, in.readLong() + resumeNanos);
+            timestamps.begin(carId, in.readLong() + resumeNanos);
+            timestamps.customerClass(carId, in.readByte());
+        }
+        timestamps.markFinishedExcept(carCounter, liveCars);
+    }
+
+    // queries
+    public CompletedCars getCompletedCars() {
+        return completed;
+    }
+
+    public Histogram getWaitTimes() {
+        return waitTimes;
+    }
+
+    public Histogram getWaitTimes(int customerClass) {
+        return classWaitTimes[customerClass];
+    }
+
+    public int getNumCustomerClasses() {
+        return classWaitTimes.length;
+    }
+
+    public Histogram getServiceTimes() {
+        return serviceTimes;
+    }
+
+    public Histogram getSojournTimes() {
+        return sojournTimes;
+    }
+
+    public long getArrivals() {
+        return arrivals.get();
+    }
+
+    public long getCompletions() {
+        return completions.get();
+    }
+
+    public long getBalks() {
+        return balks.get();
+    }
+
+    public int getQueueDepth() {
+        return queueDepth.get();
+    }
+
+    // maximum queue depth per SERIES_INTERVAL_NANOS interval
+    public TimeSeries getQueueDepthSeries() {
+        return queueDepthSeries;
+    }
+
+    // busy nanoseconds of the pump per SERIES_INTERVAL_NANOS interval
+    public TimeSeries getPumpBusySeries(int pumpId) {
+        return pumpBusy[pumpId];
+    }
+
+    public boolean isBusy(int pumpId) {
+        return busySince.get(pumpId) >= 0;
+    }
+
+    public long getServed(int pumpId) {
+        return served.get(pumpId);
+    }
+
+    // fraction of time since start() the pump spent serving cars, including a car in service now
+    public double getUtilization(int pumpId) {
+        long now = clock.getAsLong();
+        long elapsed = now - startNanos;
+        if (elapsed <= 0) return 0;
+        return Math.min(1.0, (double) busyNanos(pumpId, now) / elapsed);
+    }
+
+    // time the pumps have spent serving so far, including services in progress
+    public long getTotalBusyNanos() {
+        long now = clock.getAsLong();
+        long total = 0;
+        for (int i = 1; i <= numPumps; i++) {
+            total += busyNanos(i, now);
+        }
+        return total;
+    }
+
+    private long busyNanos(int pumpId, long now) {
+        long busy = busyNanos.get(pumpId);
+        long since = busySince.get(pumpId);
+        if (since >= 0) {
+            busy += now - since;
+        }
+        return busy;
+    }
+
+    // only valid for a car still in the station
+    public long getArrivalNanos(int carId) {
+        return timestamps.arrival(carId);
+    }
+
+    // when the car entered the waiting area, only valid while it waits there
+    public long getEnqueueNanos(int carId) {
+        return timestamps.enqueue(carId);
+    }
+
+    public double getAverageUtilization() {
+        double total = 0;
+        for (int i = 1; i <= numPumps; i++) {
+            total += getUtilization(i);
+        }
+        return total / numPumps;
+    }
+
+    public int getNumPumps() {
+        return numPumps;
+    }
+
+    public long getStartNanos() {
+        return startNanos;
+    }
+
+    public long now() {
+        return clock.getAsLong();
+    }
+}
@@ -0,0 +1,98 @@
+package simulator.cws.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+// Fixed-size ring of time buckets, each `intervalNanos` wide, keeping the
+// newest `capacity` intervals. A bucket holds either the maximum or the sum
+// of what was recorded in it, depending on how the caller uses it.
+// A slot holds a bucket that carries its own interval number, so a newer
+// interval takes a slot over by swapping in a fresh bucket in one CAS:
+// a concurrent recorder either lands in the old bucket, which is dropped
+// with its interval, or in the new one, never in a value that is then reset.
+public class TimeSeries {
+    private final long intervalNanos;
+    private final int capacity;
+    private final AtomicReferenceArray<Bucket> buckets; // null while a slot is unused
+
+    public TimeSeries(long intervalNanos, int capacity) {
+        if (intervalNanos <= 0) {
+            throw new IllegalArgumentException("intervalNanos must be > 0");
+        }
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be > 0");
+        }
+        this.intervalNanos = intervalNanos;
+        this.capacity = capacity;
+        this.buckets = new AtomicReferenceArray<>(capacity);
+    }
+
+    public void max(long timeNanos, long value) {
+        Bucket bucket = claim(timeNanos);
+        if (bucket != null) bucket.value.accumulateAndGet(value, Math::max);
+    }
+
+    public void add(long timeNanos, long value) {
+        Bucket bucket = claim(timeNanos);
+        if (bucket != null) bucket.value.addAndGet(value);
+    }
+
+    // spreads value-per-nanosecond over [fromNanos, toNanos), e.g. busy time across intervals
+    public void addSpan(long fromNanos, long toNanos) {
+        long from = fromNanos;
+        while (from < toNanos) {
+            long end = Math.min(toNanos, (Math.floorDiv(from, intervalNanos) + 1) * intervalNanos);
+            add(from, end - from);
+            from = end;
+        }
+    }
+
+    // value of the interval containing timeNanos, 0 if it is not held anymore
+    public long valueAt(long timeNanos) {
+        long interval = Math.floorDiv(timeNanos, intervalNanos);
+        Bucket bucket = buckets.get((int) Math.floorMod(interval, (long) capacity));
+        return bucket != null && bucket.interval == interval ? bucket.value.get() : 0;
+    }
+
+    public long getIntervalNanos() {
+        return intervalNanos;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    // plain stores: reset is not meant to race with recording, and the
+    // trailing volatile store publishes the cleared slots
+    public void reset() {
+        for (int i = 0; i < capacity; i++) {
+            buckets.setPlain(i, null);
+        }
+        buckets.set(0, null);
+    }
+
+    // the bucket of the interval containing timeNanos, null if a newer interval already holds its slot
+    private Bucket claim(long timeNanos) {
+        long interval = Math.floorDiv(timeNanos, intervalNanos);
+        int slot = (int) Math.floorMod(interval, (long) capacity);
+        Bucket bucket = buckets.get(slot);
+        // only a newer interval may take over a slot
+        while (bucket == null || bucket.interval < interval) {
+            Bucket fresh = new Bucket(interval);
+            if (buckets.compareAndSet(slot, bucket, fresh)) {
+                return fresh;
+            }
+            bucket = buckets.get(slot);
+        }
+        return bucket.interval == interval ? bucket : null;
+    }
+
+    private static final class Bucket {
+        final long interval;
+        final AtomicLong value = new AtomicLong();
+
+        Bucket(long interval) {
+            this.interval = interval;
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package simulator.cws.models;
+
+import simulator.cws.utlils.CarObserver;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class Car implements Runnable {
+    private int id;
+    private WaitingArea waitingArea;
+    private StationGate gate;
+    private boolean arrived; // restored from a snapshot, already announced
+    private int customerClass; // 0 unless the station has customer classes
+    static final long NOT_ENQUEUED = Long.MIN_VALUE;
+
+    private long enqueuedAt = NOT_ENQUEUED; // set by waiting areas that order by waiting time, or on resume
+
+    private List<CarObserver> observers;
+
+    public Car(int id, WaitingArea waitingArea) {
+        this(id, waitingArea, null, false, 0);
+    }
+
+    public Car(int id, WaitingArea waitingArea, int customerClass) {
+        this(id, waitingArea, null, false, customerClass);
+    }
+
+    Car(int id, WaitingArea waitingArea, StationGate gate, boolean arrived, int customerClass) {
+        this.id = id;
+        this.waitingArea = waitingArea;
+        this.gate = gate;
+        this.arrived = arrived;
+        this.customerClass = customerClass;
+        this.observers = new ArrayList<>();
+    }
+
+    public void addObserver(CarObserver observer) {
+        observers.add(observer);
+    }
+
+    private void notifyOnCarArrives(int carId) {
+        for (CarObserver o : observers) o.onCarArrives(carId);
+    }
+
+    private void notifyOnCarEntersQueue(int carId) {
+        for (CarObserver o : observers) o.onCarEntersQueue(carId);
+    }
+
+    private void notifyOnException(String message) {
+        for (CarObserver o : observers) o.onException(message);
+    }
+
+    @Override
+    public void run() {
+        try {
+            if (!arrived) {
+                enter();
+                try {
+                    notifyOnCarArrives(id);
+                } finally {
+                    exit();
+                }
+            }
+
+            waitingArea.reserve(); // wait for empty space
+
+            enter();
+            try {
+                // announce before a pump can see the car
+                notifyOnCarEntersQueue(id);
+                waitingArea.put(this); // signal that a car is available
+            } finally {
+                exit();
+            }
+
+        } catch (InterruptedException e) {
+            notifyOnException("C" + id + " interrupted and leaving the station...");
+            Thread.currentThread().interrupt(); // restore interrupt status
+        } catch (Exception e) {
+            notifyOnException("C" + id + " encountered an error: " + e.getMessage());
+        }
+    }
+
+    private void enter() throws InterruptedException {
+        if (gate != null) gate.enter();
+    }
+
+    private void exit() {
+        if (gate != null) gate.exit();
+    }
+
+    public int getCarId() {
+        return id;
+    }
+
+    public int getCustomerClass() {
+        return customerClass;
+    }
+
+    long getEnqueuedAt() {
+        return enqueuedAt;
+    }
+
+    void setEnqueuedAt(long enqueuedAt) {
+        this.enqueuedAt = enqueuedAt;
+    }
+
+    public String getTag() {
+        return "C" + id;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,103 @@
+package simulator.cws.models;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.random.RandomGenerator;
+
+// Customer classes of a ServiceStation, class 0 first. Each class has a
+// weight, used by WEIGHTED selection, and a share of the arriving cars.
+// STRICT selection serves the first non-empty class, WEIGHTED shares the
+// pumps by weight and FIFO ignores the classes, as a baseline. Under STRICT,
+// aging lifts a waiting car one class for every agingNanos it has waited,
+// so the low classes cannot starve.
+public class CustomerClasses {
+    public static final int MAX_CLASSES = 64;
+
+    public enum Selection {
+        STRICT,
+        WEIGHTED,
+        FIFO
+    }
+
+    private final List<String> names = new ArrayList<>();
+    private final List<Integer> weights = new ArrayList<>();
+    private final List<Double> shares = new ArrayList<>();
+    private Selection selection = Selection.STRICT;
+    private long agingNanos = 0;
+
+    // fleet, premium and regular cars arriving 10/20/70
+    public static CustomerClasses standard(Selection selection, long agingNanos) {
+        return new CustomerClasses()
+                .add("fleet", 6, 0.1)
+                .add("premium", 3, 0.2)
+                .add("regular", 1, 0.7)
+                .setSelection(selection)
+                .setAgingNanos(agingNanos);
+    }
+
+    public CustomerClasses add(String name, int weight, double share) {
+        if (names.size() == MAX_CLASSES) {
+            throw new IllegalArgumentException("at most " + MAX_CLASSES + " customer classes");
+        }
+        if (weight <= 0) {
+            throw new IllegalArgumentException("weight must be > 0");
+        }
+        if (share < 0) {
+            throw new IllegalArgumentException("share must be >= 0");
+        }
+        names.add(name);
+        weights.add(weight);
+        shares.add(share);
+        return this;
+    }
+
+    public CustomerClasses setSelection(Selection selection) {
+        this.selection = selection;
+        return this;
+    }
+
+    // 0 turns aging off
+    public CustomerClasses setAgingNanos(long agingNanos) {
+        if (agingNanos < 0) {
+            throw new IllegalArgumentException("agingNanos must be >= 0");
+        }
+        this.agingNanos = agingNanos;
+        return this;
+    }
+
+    // class of an arriving car, drawn by share
+    public int pick(RandomGenerator random) {
+        double total = 0;
+        for (double share : shares) total += share;
+        double u = random.nextDouble() * total;
+        for (int i = 0; i < shares.size() - 1; i++) {
+            u -= shares.get(i);
+            if (u < 0) return i;
+        }
+        return shares.size() - 1;
+    }
+
+    public int size() {
+        return names.size();
+    }
+
+    public String getName(int customerClass) {
+        return names.get(customerClass);
+    }
+
+    public int getWeight(int customerClass) {
+        return weights.get(customerClass);
+    }
+
+    public double getShare(int customerClass) {
+        return shares.get(customerClass);
+    }
+
+    public Selection getSelection() {
+        return selection;
+    }
+
+    public long getAgingNanos() {
+        return agingNanos;
+    }
+}
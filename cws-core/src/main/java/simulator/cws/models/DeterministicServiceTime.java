@@ -0,0 +1,24 @@
+package simulator.cws.models;
+
+import java.util.random.RandomGenerator;
+
+public class DeterministicServiceTime implements ServiceTime {
+    private final long nanos;
+
+    public DeterministicServiceTime(long nanos) {
+        if (nanos < 0) {
+            throw new IllegalArgumentException("nanos must be >= 0");
+        }
+        this.nanos = nanos;
+    }
+
+    @Override
+    public long sample(RandomGenerator random) {
+        return nanos;
+    }
+
+    @Override
+    public double getMeanNanos() {
+        return nanos;
+    }
+}
@@ -0,0 +1,18 @@
+package simulator.cws.models;
+
+// Decides which pump's lane an arriving car joins in a LanedWaitingArea.
+// Pumps serve their own lane first and steal from the others when it is
+// empty, so a pump never idles while a car waits anywhere; policies trade
+// lock locality against how evenly (and how fairly) cars are spread.
+public interface DispatchPolicy {
+    // lane index in [0, area.lanes()) for the next car
+    int chooseLane(LanedWaitingArea area);
+
+    // the pump owning this lane found it empty and is about to wait
+    default void onPumpIdle(int lane) {
+    }
+
+    // the pump owning this lane got a car, from its own lane or another
+    default void onPumpBusy(int lane) {
+    }
+}
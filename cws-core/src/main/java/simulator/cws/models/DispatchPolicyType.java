@@ -0,0 +1,25 @@
+package simulator.cws.models;
+
+// How a ServiceStation hands waiting cars to pumps.
+public enum DispatchPolicyType {
+    // one FIFO queue shared by every pump, the original behaviour
+    SHARED_FIFO,
+    // a lane per pump, cars spread round-robin, idle pumps steal
+    WORK_STEALING,
+    // a lane per pump, cars join the shortest lane
+    JOIN_SHORTEST_QUEUE,
+    // a lane per pump, cars join the shorter of two random lanes
+    POWER_OF_TWO_CHOICES,
+    // a lane per pump, cars join an idle pump's lane when there is one
+    JOIN_IDLE_QUEUE;
+
+    public WaitingArea create(int capacity, int numPumps, boolean fair, WaitingAreaType sharedType) {
+        return switch (this) {
+            case SHARED_FIFO -> sharedType.create(capacity, fair);
+            case WORK_STEALING -> new LanedWaitingArea(capacity, numPumps, fair, new RoundRobinPolicy());
+            case JOIN_SHORTEST_QUEUE -> new LanedWaitingArea(capacity, numPumps, fair, new ShortestQueuePolicy());
+            case POWER_OF_TWO_CHOICES -> new LanedWaitingArea(capacity, numPumps, fair, new PowerOfTwoChoicesPolicy());
+            case JOIN_IDLE_QUEUE -> new LanedWaitingArea(capacity, numPumps, fair, new IdleQueuePolicy(numPumps));
+        };
+    }
+}
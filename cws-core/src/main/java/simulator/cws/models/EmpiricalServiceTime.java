@@ -0,0 +1,48 @@
+package simulator.cws.models;
+
+import java.util.Arrays;
+import java.util.random.RandomGenerator;
+
+// Inverse CDF of measured service times, linear between neighbouring samples,
+// so draws cover the observed range without repeating only the exact values.
+public class EmpiricalServiceTime implements ServiceTime {
+    private final long[] sorted;
+    private final double meanNanos;
+
+    public EmpiricalServiceTime(long[] samplesNanos) {
+        if (samplesNanos.length == 0) {
+            throw new IllegalArgumentException("samplesNanos must not be empty");
+        }
+        this.sorted = samplesNanos.clone();
+        Arrays.sort(sorted);
+        if (sorted[0] < 0) {
+            throw new IllegalArgumentException("samples must be >= 0");
+        }
+
+        // mean of the interpolated distribution: trapezoids between neighbours
+        if (sorted.length == 1) {
+            this.meanNanos = sorted[0];
+        } else {
+            double sum = 0;
+            for (int i = 1; i < sorted.length; i++) {
+                sum += (sorted[i - 1] + (double) sorted[i]) / 2;
+            }
+            this.meanNanos = sum / (sorted.length - 1);
+        }
+    }
+
+    @Override
+    public long sample(RandomGenerator random) {
+        if (sorted.length == 1) return sorted[0];
+
+        double position = random.nextDouble() * (sorted.length - 1);
+        int index = (int) position;
+        double fraction = position - index;
+        return sorted[index] + (long) (fraction * (sorted[index + 1] - sorted[index]));
+    }
+
+    @Override
+    public double getMeanNanos() {
+        return meanNanos;
+    }
+}
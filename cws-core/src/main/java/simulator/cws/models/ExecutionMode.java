@@ -0,0 +1,16 @@
+package simulator.cws.models;
+
+// How ServiceStation runs its cars and pumps.
+public enum ExecutionMode {
+    // one platform (OS) thread per car and per pump
+    PLATFORM,
+    // one virtual thread per car and per pump, parked cars cost a few hundred bytes of heap
+    VIRTUAL;
+
+    Thread newThread(Runnable task, String name) {
+        return switch (this) {
+            case PLATFORM -> Thread.ofPlatform().name(name).unstarted(task);
+            case VIRTUAL -> Thread.ofVirtual().name(name).unstarted(task);
+        };
+    }
+}
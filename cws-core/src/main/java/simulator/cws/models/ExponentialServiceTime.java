@@ -0,0 +1,24 @@
+package simulator.cws.models;
+
+import java.util.random.RandomGenerator;
+
+public class ExponentialServiceTime implements ServiceTime {
+    private final long meanNanos;
+
+    public ExponentialServiceTime(long meanNanos) {
+        if (meanNanos <= 0) {
+            throw new IllegalArgumentException("meanNanos must be > 0");
+        }
+        this.meanNanos = meanNanos;
+    }
+
+    @Override
+    public long sample(RandomGenerator random) {
+        return (long) (random.nextExponential() * meanNanos);
+    }
+
+    @Override
+    public double getMeanNanos() {
+        return meanNanos;
+    }
+}
@@ -0,0 +1,45 @@
+package simulator.cws.models;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+// Join-idle-queue: pumps that run dry put their lane on an idle list, and
+// arriving cars go to the first idle pump, or to a random lane when none is
+// idle. A pump that steals a car instead leaves the list again. Arrivals
+// never read lane lengths; pumps report themselves.
+public class IdleQueuePolicy implements DispatchPolicy {
+    private final Queue<Integer> idle = new ConcurrentLinkedQueue<>();
+    private final AtomicIntegerArray listed;
+
+    public IdleQueuePolicy(int lanes) {
+        this.listed = new AtomicIntegerArray(lanes);
+    }
+
+    @Override
+    public int chooseLane(LanedWaitingArea area) {
+        Integer lane = idle.poll();
+        if (lane != null) {
+            listed.set(lane, 0);
+            return lane;
+        }
+        return ThreadLocalRandom.current().nextInt(area.lanes());
+    }
+
+    @Override
+    public void onPumpIdle(int lane) {
+        // listed at most once, however often the pump comes back empty-handed
+        if (listed.compareAndSet(lane, 0, 1)) {
+            idle.add(lane);
+        }
+    }
+
+    @Override
+    public void onPumpBusy(int lane) {
+        // a car sent to this lane would wait behind the pump's service, or be stolen
+        if (listed.get(lane) == 1 && listed.compareAndSet(lane, 1, 0)) {
+            idle.remove(lane);
+        }
+    }
+}
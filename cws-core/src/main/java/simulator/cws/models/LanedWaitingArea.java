@@ -0,0 +1,186 @@
+package simulator.cws.models;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Waiting area split into one lane per pump, each with its own lock, so
+// pumps and arriving cars only contend for a lane lock when they touch the
+// same lane. A DispatchPolicy picks the lane of every arriving car; a pump
+// takes from its own lane and steals from the next non-empty one when its
+// lane is dry. Capacity is still shared: `empty` counts free spaces across
+// all lanes and `full` counts waiting cars, so every permit taken from
+// `full` is backed by a car in some lane. Every reserve() and take() goes
+// through those two semaphores, so all pumps and cars still meet there.
+public class LanedWaitingArea implements WaitingArea {
+    private final Lane[] lanes;
+    private final AtomicIntegerArray laneSizes;
+    private final DispatchPolicy policy;
+    private final Semaphore empty, full;
+    private final int capacity;
+
+    private final LongAdder lockAcquisitions = new LongAdder();
+    private final LongAdder lockContentions = new LongAdder();
+    private final LongAdder steals = new LongAdder();
+
+    private static final class Lane {
+        final ArrayDeque<Car> cars = new ArrayDeque<>();
+        final ReentrantLock lock = new ReentrantLock();
+    }
+
+    public LanedWaitingArea(int capacity, int numPumps, boolean fair, DispatchPolicy policy) {
+        if (numPumps <= 0) {
+            throw new IllegalArgumentException("numPumps must be > 0");
+        }
+        this.lanes = new Lane[numPumps];
+        for (int i = 0; i < numPumps; i++) {
+            lanes[i] = new Lane();
+        }
+        this.laneSizes = new AtomicIntegerArray(numPumps);
+        this.policy = policy;
+        this.empty = new Semaphore(capacity, fair);
+        this.full = new Semaphore(0, fair);
+        this.capacity = capacity;
+    }
+
+    @Override
+    public void reserve() throws InterruptedException {
+        empty.acquire();
+    }
+
+    @Override
+    public void put(Car car) {
+        int index = policy.chooseLane(this);
+        Lane lane = lanes[index];
+
+        lock(lane);
+        try {
+            lane.cars.addLast(car);
+            laneSizes.incrementAndGet(index);
+        } finally {
+            lane.lock.unlock();
+        }
+        full.release();
+    }
+
+    // any pump, own lane is the first one
+    @Override
+    public Car take() throws InterruptedException {
+        return take(1);
+    }
+
+    @Override
+    public Car take(int pumpId) throws InterruptedException {
+        int own = Math.floorMod(pumpId - 1, lanes.length);
+        if (laneSizes.get(own) == 0) {
+            policy.onPumpIdle(own);
+        }
+        full.acquire();
+
+        // the permit guarantees a car we can have; another pump may take the one we saw first, so rescan
+        while (true) {
+            for (int i = 0; i < lanes.length; i++) {
+                int index = (own + i) % lanes.length;
+                if (laneSizes.get(index) == 0) continue;
+
+                Car car = poll(index);
+                if (car != null) {
+                    if (i > 0) steals.increment();
+                    policy.onPumpBusy(own);
+                    return car;
+                }
+            }
+            Thread.onSpinWait();
+        }
+    }
+
+    private Car poll(int index) {
+        Lane lane = lanes[index];
+        lock(lane);
+        try {
+            Car car = lane.cars.pollFirst();
+            if (car != null) {
+                laneSizes.decrementAndGet(index);
+            }
+            return car;
+        } finally {
+            lane.lock.unlock();
+        }
+    }
+
+    private void lock(Lane lane) {
+        lockAcquisitions.increment();
+        if (!lane.lock.tryLock()) {
+            lockContentions.increment();
+            lane.lock.lock();
+        }
+    }
+
+    @Override
+    public void vacate() {
+        empty.release();
+    }
+
+    public int lanes() {
+        return lanes.length;
+    }
+
+    public int laneSize(int lane) {
+        return laneSizes.get(lane);
+    }
+
+    public DispatchPolicy getPolicy() {
+        return policy;
+    }
+
+    // cars a pump took from another pump's lane
+    public long getSteals() {
+        return steals.sum();
+    }
+
+    @Override
+    public long getLockAcquisitions() {
+        return lockAcquisitions.sum();
+    }
+
+    @Override
+    public long getLockContentions() {
+        return lockContentions.sum();
+    }
+
+    @Override
+    public long getReserveContentions() {
+        return empty.getContentions();
+    }
+
+    @Override
+    public long getTakeContentions() {
+        return full.getContentions();
+    }
+
+    @Override
+    public int size() {
+        int size = 0;
+        for (int i = 0; i < lanes.length; i++) {
+            size += laneSizes.get(i);
+        }
+        return size;
+    }
+
+    @Override
+    public int capacity() {
+        return capacity;
+    }
+
+    // only safe while no car or pump is using the area
+    @Override
+    public void clear() {
+        for (int i = 0; i < lanes.length; i++) {
+            lanes[i].cars.clear();
+            laneSizes.set(i, 0);
+        }
+        empty.setPermits(capacity);
+        full.setPermits(0);
+    }
+}
@@ -0,0 +1,113 @@
+package simulator.cws.models;
+
+import java.util.LinkedList;
+import java.util.Queue;
+import java.util.concurrent.atomic.LongAdder;
+
+// Reference implementation: a LinkedList guarded by a mutex, with empty/full
+// semaphores counting free spaces and waiting cars.
+public class LinkedWaitingArea implements WaitingArea {
+    private final Queue<Car> queue;
+    private final Semaphore mutex, empty, full;
+    private final int capacity;
+
+    private final LongAdder lockAcquisitions = new LongAdder();
+    private final LongAdder lockContentions = new LongAdder();
+
+    public LinkedWaitingArea(int capacity, boolean fair) {
+        this.queue = new LinkedList<>();
+        this.mutex = new Semaphore(1, fair);
+        this.empty = new Semaphore(capacity, fair);
+        this.full = new Semaphore(0, fair);
+        this.capacity = capacity;
+    }
+
+    @Override
+    public void reserve() throws InterruptedException {
+        empty.acquire(); // wait for empty space
+    }
+
+    @Override
+    public void put(Car car) throws InterruptedException {
+        lock(); // lock access to queue
+        queue.add(car);
+        mutex.release(); // release access
+        full.release(); // signal that an item is available
+    }
+
+    @Override
+    public Car take() throws InterruptedException {
+        while (true) {
+            // wait for a car to be available
+            full.acquire();
+
+            // interrupted (e.g. drained) holding a car's permit: give it back
+            // so the car stays takeable by another pump
+            try {
+                lock();
+            } catch (InterruptedException e) {
+                full.release();
+                throw e;
+            }
+            if (queue.isEmpty()) {
+                mutex.release();
+                full.release();
+                continue;
+            }
+
+            Car car = queue.remove();
+            mutex.release();
+            return car;
+        }
+    }
+
+    private void lock() throws InterruptedException {
+        lockAcquisitions.increment();
+        if (!mutex.tryAcquire()) {
+            lockContentions.increment();
+            mutex.acquire();
+        }
+    }
+
+    @Override
+    public void vacate() {
+        empty.release();
+    }
+
+    @Override
+    public long getLockAcquisitions() {
+        return lockAcquisitions.sum();
+    }
+
+    @Override
+    public long getLockContentions() {
+        return lockContentions.sum();
+    }
+
+    @Override
+    public long getReserveContentions() {
+        return empty.getContentions();
+    }
+
+    @Override
+    public long getTakeContentions() {
+        return full.getContentions();
+    }
+
+    @Override
+    public int size() {
+        return queue.size();
+    }
+
+    @Override
+    public int capacity() {
+        return capacity;
+    }
+
+    @Override
+    public void clear() {
+        queue.clear();
+        empty.setPermits(capacity);
+        full.setPermits(0);
+    }
+}
@@ -0,0 +1,34 @@
+package simulator.cws.models;
+
+import java.util.random.RandomGenerator;
+
+// Right-skewed service times: most cars close to the median, a few much slower.
+// Parameterized by mean and coefficient of variation rather than mu/sigma.
+public class LognormalServiceTime implements ServiceTime {
+    private final long meanNanos;
+    private final double mu;
+    private final double sigma;
+
+    public LognormalServiceTime(long meanNanos, double cv) {
+        if (meanNanos <= 0) {
+            throw new IllegalArgumentException("meanNanos must be > 0");
+        }
+        if (!(cv > 0)) {
+            throw new IllegalArgumentException("cv must be > 0");
+        }
+        this.meanNanos = meanNanos;
+        double variance = Math.log(1 + cv * cv);
+        this.sigma = Math.sqrt(variance);
+        this.mu = Math.log(meanNanos) - variance / 2;
+    }
+
+    @Override
+    public long sample(RandomGenerator random) {
+        return (long) Math.exp(mu + sigma * random.nextGaussian());
+    }
+
+    @Override
+    public double getMeanNanos() {
+        return meanNanos;
+    }
+}
@@ -0,0 +1,18 @@
+package simulator.cws.models;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+// Samples two lanes at random and joins the shorter one. Nearly the balance
+// of join-shortest-queue for a constant two reads per car.
+public class PowerOfTwoChoicesPolicy implements DispatchPolicy {
+    @Override
+    public int chooseLane(LanedWaitingArea area) {
+        int lanes = area.lanes();
+        if (lanes == 1) return 0;
+
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int first = random.nextInt(lanes);
+        int second = (first + 1 + random.nextInt(lanes - 1)) % lanes;
+        return area.laneSize(second) < area.laneSize(first) ? second : first;
+    }
+}
@@ -0,0 +1,228 @@
+package simulator.cws.models;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Waiting area with a FIFO per customer class. A pump takes the head of the
+// class chosen by CustomerClasses: the first non-empty class (STRICT), or
+// smooth weighted round-robin over the non-empty classes (WEIGHTED), so each
+// class gets its weight's share of pumps while it has cars waiting, or the
+// oldest head (FIFO). Strict selection can starve the low classes, so with
+// aging a head moves up one class for every agingNanos it has waited. Choosing
+// looks only at the heads, so a take costs O(classes) whatever the queue length.
+public class PriorityWaitingArea implements WaitingArea {
+    private final ArrayDeque<Car>[] queues;
+    private final int[] weights;
+    private final long[] credits;
+    private final CustomerClasses.Selection selection;
+    private final long agingNanos;
+
+    private final ReentrantLock lock;
+    private final Semaphore empty, full;
+    private final int capacity;
+    private volatile int size = 0;
+
+    // cars taken per class, and how many of them only because aging lifted them
+    private final AtomicLongArray taken;
+    private final AtomicLongArray aged;
+
+    @SuppressWarnings("unchecked")
+    public PriorityWaitingArea(int capacity, boolean fair, CustomerClasses classes) {
+        if (classes.size() == 0) {
+            throw new IllegalArgumentException("at least one customer class is required");
+        }
+        int count = classes.size();
+        this.queues = (ArrayDeque<Car>[]) new ArrayDeque<?>[count];
+        this.weights = new int[count];
+        for (int i = 0; i < count; i++) {
+            queues[i] = new ArrayDeque<>();
+            weights[i] = classes.getWeight(i);
+        }
+        this.credits = new long[count];
+        this.selection = classes.getSelection();
+        this.agingNanos = classes.getAgingNanos();
+
+        this.lock = new ReentrantLock(fair);
+        this.empty = new Semaphore(capacity, fair);
+        this.full = new Semaphore(0, fair);
+        this.capacity = capacity;
+        this.taken = new AtomicLongArray(count);
+        this.aged = new AtomicLongArray(count);
+    }
+
+    @Override
+    public void reserve() throws InterruptedException {
+        empty.acquire();
+    }
+
+    @Override
+    public void put(Car car) throws InterruptedException {
+        int customerClass = Math.min(car.getCustomerClass(), queues.length - 1);
+        if (car.getEnqueuedAt() == Car.NOT_ENQUEUED) {
+            car.setEnqueuedAt(System.nanoTime());
+        }
+        // not interruptible: the space is already reserved and the car announced
+        lock.lock();
+        try {
+            queues[customerClass].add(car);
+            size++;
+        } finally {
+            lock.unlock();
+        }
+        full.release();
+    }
+
+    @Override
+    public Car take() throws InterruptedException {
+        while (true) {
+            full.acquire();
+
+            // not interruptible once a car is ours
+            lock.lock();
+            try {
+                if (size == 0) {
+                    // cleared while we waited
+                    full.release();
+                    continue;
+                }
+                int customerClass = select();
+                size--;
+                taken.incrementAndGet(customerClass);
+                return queues[customerClass].remove();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    // called with the lock held and at least one car waiting
+    private int select() {
+        switch (selection) {
+            case FIFO:
+                return oldestHead();
+            case STRICT:
+                return agingNanos > 0 ? highestAged() : highestNonEmpty();
+            default:
+                return weightedRoundRobin();
+        }
+    }
+
+    private int highestNonEmpty() {
+        for (int i = 0; i < queues.length; i++) {
+            if (!queues[i].isEmpty()) return i;
+        }
+        throw new IllegalStateException("no car waiting");
+    }
+
+    // every agingNanos a head waits lifts it one class; ties go to the older head
+    private int highestAged() {
+        long now = System.nanoTime();
+        int best = -1;
+        long bestLevel = 0;
+        long bestAt = 0;
+        for (int i = 0; i < queues.length; i++) {
+            Car head = queues[i].peek();
+            if (head == null) continue;
+            long at = head.getEnqueuedAt();
+            long level = Math.max(0, i - (now - at) / agingNanos);
+            if (best < 0 || level < bestLevel || (level == bestLevel && at - bestAt < 0)) {
+                best = i;
+                bestLevel = level;
+                bestAt = at;
+            }
+        }
+        if (bestLevel < best) aged.incrementAndGet(best);
+        return best;
+    }
+
+    private int oldestHead() {
+        int oldest = -1;
+        long oldestAt = 0;
+        for (int i = 0; i < queues.length; i++) {
+            Car head = queues[i].peek();
+            if (head == null) continue;
+            long at = head.getEnqueuedAt();
+            if (oldest < 0 || at - oldestAt < 0) {
+                oldest = i;
+                oldestAt = at;
+            }
+        }
+        return oldest;
+    }
+
+    // smooth weighted round-robin: the class furthest behind its share goes next
+    private int weightedRoundRobin() {
+        int best = -1;
+        long total = 0;
+        for (int i = 0; i < queues.length; i++) {
+            if (queues[i].isEmpty()) continue;
+            credits[i] += weights[i];
+            total += weights[i];
+            if (best < 0 || credits[i] > credits[best]) best = i;
+        }
+        credits[best] -= total;
+        return best;
+    }
+
+    @Override
+    public void vacate() {
+        empty.release();
+    }
+
+    @Override
+    public long getReserveContentions() {
+        return empty.getContentions();
+    }
+
+    @Override
+    public long getTakeContentions() {
+        return full.getContentions();
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    public int size(int customerClass) {
+        lock.lock();
+        try {
+            return queues[customerClass].size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long getTaken(int customerClass) {
+        return taken.get(customerClass);
+    }
+
+    public long getAged(int customerClass) {
+        return aged.get(customerClass);
+    }
+
+    public int getNumClasses() {
+        return queues.length;
+    }
+
+    @Override
+    public int capacity() {
+        return capacity;
+    }
+
+    @Override
+    public void clear() {
+        lock.lock();
+        try {
+            for (ArrayDeque<Car> queue : queues) queue.clear();
+            Arrays.fill(credits, 0);
+            size = 0;
+        } finally {
+            lock.unlock();
+        }
+        empty.setPermits(capacity);
+        full.setPermits(0);
+    }
+}
@@ -0,0 +1,282 @@
+package simulator.cws.models;
+
+import simulator.cws.utlils.PumpObserver;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+public class Pump implements Runnable {
+    public static final long DEFAULT_COOLDOWN_NANOS = 100_000_000L;
+
+    private int id;
+    private WaitingArea waitingArea;
+    private Semaphore pumps;
+    private ServiceTime serviceTime;
+    private long cooldownNanos; // pause between finishing a car and taking the next
+
+    private SplitMix64 random;
+    private List<PumpObserver> observers;
+
+    // set by the station for snapshots, null for a standalone pump
+    private StationGate gate;
+    // what the pump is doing, read by snapshots while the gate is paused
+    private volatile int servingCar = 0;
+    private volatile long serviceEndsAt;
+    private volatile long cooldownEndsAt;
+
+    // Drained pumps finish the car they have and then wait, off duty, until
+    // enabled again. A pump blocked in take() is interrupted out of it; the
+    // lock makes sure that interrupt cannot land once it holds a car.
+    private final Object dutyLock = new Object();
+    private volatile boolean draining = false;
+    private boolean taking = false;
+    private boolean drainInterrupted = false;
+    private volatile boolean stopped = false;
+    private volatile Thread thread;
+
+    // what to continue when restored from a snapshot
+    private int resumeCar = 0;
+    private boolean resumeCooldown = false;
+
+    // pumpSpeed in whole seconds, with the default cooldown
+    public Pump(int id, WaitingArea waitingArea, Semaphore pumps, int pumpSpeed) {
+        this(id, waitingArea, pumps, ServiceTime.deterministic(pumpSpeed * 1_000_000_000L), DEFAULT_COOLDOWN_NANOS);
+    }
+
+    public Pump(int id, WaitingArea waitingArea, Semaphore pumps, ServiceTime serviceTime, long cooldownNanos) {
+        if (cooldownNanos < 0) {
+            throw new IllegalArgumentException("cooldownNanos must be >= 0");
+        }
+        this.id = id;
+        this.waitingArea = waitingArea;
+        this.pumps = pumps;
+        this.serviceTime = serviceTime;
+        this.cooldownNanos = cooldownNanos;
+        this.random = new SplitMix64();
+        this.observers = new ArrayList<>();
+    }
+
+    public void addObserver(PumpObserver observer) {
+        observers.add(observer);
+    }
+
+    private void notifyOnCarLogins(int carId) {
+        for (PumpObserver observer : observers) {
+            observer.onCarLogins(id, carId);
+        }
+    }
+
+    private void notifyOnCarBeginsService(int carId) {
+        for (PumpObserver observer : observers) {
+            observer.onCarBeginsService(id, carId);
+        }
+    }
+
+    private void notifyOnCarFinishesService(int carId) {
+        for (PumpObserver observer : observers) {
+            observer.onCarFinishesService(id, carId);
+        }
+    }
+
+    private void notifyOnException(String message) {
+        for (PumpObserver observer : observers) {
+            observer.onException(message);
+        }
+    }
+
+    @Override
+    public void run() {
+        thread = Thread.currentThread();
+        try {
+            if (resumeCar != 0) {
+                // service began before the snapshot, only its remainder is left
+                enter();
+                try {
+                    pumps.acquire();
+                } finally {
+                    exit();
+                }
+                serve(resumeCar, Math.max(0, serviceEndsAt - System.nanoTime()));
+            } else if (resumeCooldown) {
+                sleepNanos(cooldownEndsAt - System.nanoTime());
+            }
+
+            while (!stopped && !Thread.currentThread().isInterrupted()) {
+                // wait for a car to be available
+                Car car = takeUnlessDrained();
+                if (car == null) {
+                    awaitDuty();
+                    continue;
+                }
+                long serviceNanos;
+
+                enter();
+                try {
+                    // announce before the freed space can be taken
+                    notifyOnCarLogins(car.getCarId());
+                    waitingArea.vacate();
+
+                    // acquire a pump bay
+                    pumps.acquire();
+
+                    serviceNanos = serviceTime.sample(random);
+                    servingCar = car.getCarId();
+                    serviceEndsAt = System.nanoTime() + serviceNanos;
+                    notifyOnCarBeginsService(car.getCarId());
+                } finally {
+                    exit();
+                }
+                serve(car.getCarId(), serviceNanos);
+            }
+        } catch (InterruptedException e) {
+            notifyOnException(getTag() + " shutting down...");
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // null when drained before or while waiting for a car
+    private Car takeUnlessDrained() throws InterruptedException {
+        synchronized (dutyLock) {
+            if (draining) return null;
+            taking = true;
+        }
+        try {
+            return waitingArea.take(id);
+        } catch (InterruptedException e) {
+            synchronized (dutyLock) {
+                if (stopped || !drainInterrupted) throw e;
+            }
+            return null;
+        } finally {
+            synchronized (dutyLock) {
+                taking = false;
+                // a drain that raced with the take must not cut the service short
+                if (drainInterrupted) Thread.interrupted();
+                drainInterrupted = false;
+            }
+        }
+    }
+
+    private void awaitDuty() throws InterruptedException {
+        while (draining && !stopped) {
+            LockSupport.park(this);
+            if (Thread.interrupted() && stopped) break;
+        }
+        if (stopped) throw new InterruptedException();
+    }
+
+    // take no further cars after the current one
+    void drain() {
+        synchronized (dutyLock) {
+            draining = true;
+            if (taking && !drainInterrupted) {
+                drainInterrupted = true;
+                thread.interrupt();
+            }
+        }
+    }
+
+    void enable() {
+        synchronized (dutyLock) {
+            draining = false;
+        }
+        Thread current = thread;
+        if (current != null) LockSupport.unpark(current);
+    }
+
+    // called by the station before it interrupts the pump's thread
+    void stop() {
+        stopped = true;
+        Thread current = thread;
+        if (current != null) LockSupport.unpark(current);
+    }
+
+    public boolean isDraining() {
+        return draining;
+    }
+
+    private void serve(int carId, long serviceNanos) throws InterruptedException {
+        sleepNanos(serviceNanos);
+
+        enter();
+        try {
+            notifyOnCarFinishesService(carId);
+            pumps.release();
+            servingCar = 0;
+            cooldownEndsAt = System.nanoTime() + cooldownNanos;
+        } finally {
+            exit();
+        }
+        sleepNanos(cooldownNanos);
+    }
+
+    private void enter() throws InterruptedException {
+        if (gate != null) gate.enter();
+    }
+
+    private void exit() {
+        if (gate != null) gate.exit();
+    }
+
+    void setGate(StationGate gate) {
+        this.gate = gate;
+    }
+
+    // Continue a car's service, or a cooldown, captured in a snapshot; call
+    // before the pump runs. Both are measured from resumedAt, the station's
+    // resume cut, so a snapshot taken before the pump thread gets going
+    // still sees the car being served.
+    void restore(int carId, long remainingServiceNanos, long remainingCooldownNanos, long randomState,
+                 long resumedAt) {
+        this.resumeCar = carId;
+        this.resumeCooldown = carId == 0 && remainingCooldownNanos > 0;
+        this.servingCar = carId;
+        this.serviceEndsAt = resumedAt + remainingServiceNanos;
+        this.cooldownEndsAt = resumedAt + remainingCooldownNanos;
+        this.random.setState(randomState);
+    }
+
+    // 0 while idle or cooling down
+    int getServingCar() {
+        return servingCar;
+    }
+
+    long getServiceEndsAt() {
+        return serviceEndsAt;
+    }
+
+    long getCooldownEndsAt() {
+        return cooldownEndsAt;
+    }
+
+    long getRandomState() {
+        return random.getState();
+    }
+
+    // a zero sleep would still yield the thread, skip it entirely
+    private static void sleepNanos(long nanos) throws InterruptedException {
+        if (nanos > 0) {
+            TimeUnit.NANOSECONDS.sleep(nanos);
+        } else if (Thread.interrupted()) {
+            throw new InterruptedException();
+        }
+    }
+
+    public ServiceTime getServiceTime() {
+        return serviceTime;
+    }
+
+    public long getCooldownNanos() {
+        return cooldownNanos;
+    }
+
+    public int getPumpId() {
+        return id;
+    }
+
+    public String getTag() {
+        return "P" + id;
+    }
+}
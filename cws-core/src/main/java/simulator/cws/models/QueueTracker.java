@@ -0,0 +1,113 @@
+package simulator.cws.models;
+
+import simulator.cws.utlils.CarObserver;
+import simulator.cws.utlils.PumpObserver;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Follows which cars are waiting outside and which are in the waiting area,
+// in order, for snapshots. The waiting areas themselves cannot be read
+// without taking cars out of them. Each entry carries an arrival sequence
+// number, so sorting entries sorts by sequence, along with the car's customer
+// class and arrival time.
+class QueueTracker implements CarObserver, PumpObserver {
+    private record Entry(long sequence, int customerClass, long arrivedAt) {
+    }
+
+    private static final Comparator<Entry> BY_SEQUENCE = Comparator.comparingLong(Entry::sequence);
+
+    private final Map<Integer, Entry> outside = new ConcurrentHashMap<>();
+    private final Map<Integer, Entry> queued = new ConcurrentHashMap<>();
+    private final AtomicLong sequence = new AtomicLong();
+
+    // called by the station when it admits a car, before the car can run
+    void arrived(int carId, int customerClass, long arrivalNanos) {
+        outside.put(carId, new Entry(sequence.incrementAndGet(), customerClass, arrivalNanos));
+    }
+
+    @Override
+    public void onCarArrives(int carId) {
+    }
+
+    @Override
+    public void onCarEntersQueue(int carId) {
+        Entry entry = outside.remove(carId);
+        if (entry == null) return; // not admitted through arrived(), e.g. cleared by a reset
+        queued.put(carId, new Entry(sequence.incrementAndGet(), entry.customerClass(), entry.arrivedAt()));
+    }
+
+    @Override
+    public void onCarLogins(int pumpId, int carId) {
+        queued.remove(carId);
+    }
+
+    @Override
+    public void onCarBeginsService(int pumpId, int carId) {
+    }
+
+    @Override
+    public void onCarFinishesService(int pumpId, int carId) {
+    }
+
+    @Override
+    public void onException(String message) {
+    }
+
+    // in the order they entered
+    int[] queued() {
+        return inOrder(queued);
+    }
+
+    // in the order they arrived
+    int[] outside() {
+        return inOrder(outside);
+    }
+
+    // customer class of each car in queued() or outside()
+    int[] classesOf(int[] cars) {
+        int[] classes = new int[cars.length];
+        for (int i = 0; i < cars.length; i++) {
+            Entry entry = queued.get(cars[i]);
+            if (entry == null) entry = outside.get(cars[i]);
+            classes[i] = entry == null ? 0 : entry.customerClass();
+        }
+        return classes;
+    }
+
+    // Arrival time of the car that has waited longest, or none when no car
+    // waits. Walks every waiting car, so it is meant for periodic readers
+    // such as an Autoscaler tick, not for each car.
+    long oldestArrival(long none) {
+        long oldest = none;
+        boolean found = false;
+        for (Map<Integer, Entry> cars : List.of(outside, queued)) {
+            for (Entry entry : cars.values()) {
+                if (!found || entry.arrivedAt() - oldest < 0) {
+                    oldest = entry.arrivedAt();
+                    found = true;
+                }
+            }
+        }
+        return oldest;
+    }
+
+    int outsideCount() {
+        return outside.size();
+    }
+
+    void clear() {
+        outside.clear();
+        queued.clear();
+    }
+
+    private static int[] inOrder(Map<Integer, Entry> cars) {
+        return cars.entrySet().stream()
+                .sorted(Map.Entry.comparingByValue(BY_SEQUENCE))
+                .mapToInt(Map.Entry::getKey)
+                .toArray();
+    }
+}
@@ -0,0 +1,147 @@
+package simulator.cws.models;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Pre-allocated multi-producer/multi-consumer ring buffer (sequence-per-slot
+// design). Cars and pumps claim slots with a single CAS on the tail or head
+// counter, so there is no queue lock and no node allocation per car. The
+// empty/full semaphores are only used to park threads when the area is full
+// or empty; uncontended, each is a single CAS.
+public class RingBufferWaitingArea implements WaitingArea {
+    private final Car[] slots;
+    private final AtomicLongArray sequences;
+    private final int mask;
+
+    private final AtomicLong tail = new AtomicLong();
+    private final AtomicLong head = new AtomicLong();
+
+    private final Semaphore empty, full;
+    private final int capacity;
+
+    public RingBufferWaitingArea(int capacity, boolean fair) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException("capacity must be >= 0");
+        }
+        int size = capacity <= 1 ? 1 : Integer.highestOneBit(capacity - 1) << 1;
+
+        this.slots = new Car[size];
+        this.sequences = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            sequences.set(i, i);
+        }
+        this.mask = size - 1;
+
+        this.empty = new Semaphore(capacity, fair);
+        this.full = new Semaphore(0, fair);
+        this.capacity = capacity;
+    }
+
+    @Override
+    public void reserve() throws InterruptedException {
+        empty.acquire();
+    }
+
+    @Override
+    public void put(Car car) {
+        // the reserved space guarantees a slot; a spin only happens while the
+        // pump that read this slot one lap ago is still publishing it as free
+        while (!offer(car)) {
+            Thread.onSpinWait();
+        }
+        full.release();
+    }
+
+    @Override
+    public Car take() throws InterruptedException {
+        full.acquire();
+
+        // a car is guaranteed; a spin only happens while its producer is
+        // still between claiming and publishing the slot
+        Car car;
+        while ((car = poll()) == null) {
+            Thread.onSpinWait();
+        }
+        return car;
+    }
+
+    @Override
+    public void vacate() {
+        empty.release();
+    }
+
+    private boolean offer(Car car) {
+        long position = tail.get();
+        while (true) {
+            int index = (int) position & mask;
+            long diff = sequences.getAcquire(index) - position;
+            if (diff == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    slots[index] = car;
+                    sequences.setRelease(index, position + 1);
+                    return true;
+                }
+                position = tail.get();
+            } else if (diff < 0) {
+                return false; // slot not yet freed
+            } else {
+                position = tail.get();
+            }
+        }
+    }
+
+    private Car poll() {
+        long position = head.get();
+        while (true) {
+            int index = (int) position & mask;
+            long diff = sequences.getAcquire(index) - (position + 1);
+            if (diff == 0) {
+                if (head.compareAndSet(position, position + 1)) {
+                    Car car = slots[index];
+                    slots[index] = null;
+                    sequences.setRelease(index, position + mask + 1);
+                    return car;
+                }
+                position = head.get();
+            } else if (diff < 0) {
+                return null; // slot not yet published
+            } else {
+                position = head.get();
+            }
+        }
+    }
+
+    @Override
+    public long getReserveContentions() {
+        return empty.getContentions();
+    }
+
+    @Override
+    public long getTakeContentions() {
+        return full.getContentions();
+    }
+
+    @Override
+    public int size() {
+        long size = tail.get() - head.get();
+        return (int) Math.max(0, Math.min(size, capacity));
+    }
+
+    @Override
+    public int capacity() {
+        return capacity;
+    }
+
+    // only safe while no car or pump is using the area
+    @Override
+    public void clear() {
+        for (int i = 0; i < slots.length; i++) {
+            slots[i] = null;
+            sequences.set(i, i);
+        }
+        tail.set(0);
+        head.set(0);
+        empty.setPermits(capacity);
+        full.setPermits(0);
+    }
+}
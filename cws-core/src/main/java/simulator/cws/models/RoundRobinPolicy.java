@@ -0,0 +1,14 @@
+package simulator.cws.models;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Spreads cars over the lanes in turn and leaves the balancing to work
+// stealing; the cheapest choice, it never looks at lane lengths.
+public class RoundRobinPolicy implements DispatchPolicy {
+    private final AtomicInteger next = new AtomicInteger();
+
+    @Override
+    public int chooseLane(LanedWaitingArea area) {
+        return Math.floorMod(next.getAndIncrement(), area.lanes());
+    }
+}
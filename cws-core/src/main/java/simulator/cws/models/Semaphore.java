@@ -0,0 +1,121 @@
+package simulator.cws.models;
+
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.AbstractQueuedSynchronizer;
+
+// Counting semaphore built on AQS. Waiters park in a FIFO queue and each
+// release() unparks a single waiter, which passes the wake-up on only while
+// permits remain, so no release wakes more threads than it can satisfy.
+// Fair semaphores hand permits out strictly in arrival order; non-fair ones
+// let a newly arriving thread take a free permit ahead of parked waiters.
+// Acquires that find no permit and have to park are counted as contentions.
+public class Semaphore {
+    private final Sync sync;
+    private final LongAdder contentions = new LongAdder();
+
+    public Semaphore(int permits) {
+        this(permits, false);
+    }
+
+    public Semaphore(int permits, boolean fair) {
+        if (permits < 0) throw new IllegalArgumentException("permits must be >= 0");
+        this.sync = new Sync(permits, fair);
+    }
+
+    public void acquire() throws InterruptedException {
+        if (Thread.interrupted()) {
+            throw new InterruptedException();
+        }
+        if (sync.tryAcquireShared(1) < 0) {
+            contentions.increment();
+            sync.acquireSharedInterruptibly(1);
+        }
+    }
+
+    public boolean tryAcquire() {
+        return sync.tryAcquireShared(1) >= 0;
+    }
+
+    public void release() {
+        sync.releaseShared(1);
+    }
+
+    // safe while threads are waiting: raising the count wakes as many as it can serve
+    public void setPermits(int newPermits) {
+        if (newPermits < 0) throw new IllegalArgumentException("newPermits must be >= 0");
+        sync.setPermits(newPermits);
+    }
+
+    public int availablePermits() {
+        return sync.permits();
+    }
+
+    public boolean isFair() {
+        return sync.fair;
+    }
+
+    public int getQueueLength() {
+        return sync.getQueueLength();
+    }
+
+    // acquire() calls that had to wait for a permit, since creation
+    public long getContentions() {
+        return contentions.sum();
+    }
+
+    private static final class Sync extends AbstractQueuedSynchronizer {
+        private static final long serialVersionUID = 1L;
+
+        private final boolean fair;
+
+        Sync(int permits, boolean fair) {
+            this.fair = fair;
+            setState(permits);
+        }
+
+        int permits() {
+            return getState();
+        }
+
+        @Override
+        protected int tryAcquireShared(int acquires) {
+            for (;;) {
+                if (fair && hasQueuedPredecessors()) {
+                    return -1;
+                }
+                int available = getState();
+                int remaining = available - acquires;
+                if (remaining < 0 || compareAndSetState(available, remaining)) {
+                    return remaining;
+                }
+            }
+        }
+
+        @Override
+        protected boolean tryReleaseShared(int releases) {
+            for (;;) {
+                int current = getState();
+                int next = current + releases;
+                if (next < current) {
+                    throw new Error("Maximum permit count exceeded");
+                }
+                if (compareAndSetState(current, next)) {
+                    return true;
+                }
+            }
+        }
+
+        // newPermits is checked by Semaphore.setPermits
+        void setPermits(int newPermits) {
+            int previous;
+            do {
+                previous = getState();
+            } while (!compareAndSetState(previous, newPermits));
+
+            // a zero release just wakes the head waiter, which propagates while permits last
+            if (newPermits > previous && newPermits > 0) {
+                releaseShared(0);
+            }
+        }
+    }
+}
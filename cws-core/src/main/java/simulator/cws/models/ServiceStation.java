@@ -0,0 +1,571 @@
+package simulator.cws.models;
+
+import simulator.cws.metrics.StationMetrics;
+import simulator.cws.utlils.CarObserver;
+import simulator.cws.utlils.PumpObserver;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.IntStream;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+public class ServiceStation {
+    // replaced by createSharedState() while a metrics scrape may be reading them
+    private volatile WaitingArea waitingArea;
+    private volatile Semaphore pumps;
+
+    private StationMetrics metrics;
+    // attached to every car and pump, after the metrics and before the caller's observer
+    private final List<CarObserver> carObservers = new CopyOnWriteArrayList<>();
+    private final List<PumpObserver> pumpObservers = new CopyOnWriteArrayList<>();
+
+    // cars and pumps make their state changes inside the gate, so snapshot() can stop them at a consistent cut
+    private final StationGate gate = new StationGate();
+    private final QueueTracker tracker = new QueueTracker();
+
+    private List<Pump> pumpsList;
+    // pumps run on long-lived workers that survive reset(), one per pump slot
+    private WorkerPool workers;
+    // only cars still trying to get into the waiting area, finished ones live on in the metrics
+    private final Set<Thread> carThreads = ConcurrentHashMap.newKeySet();
+    private ExecutionMode executionMode = ExecutionMode.PLATFORM;
+    private boolean fair = false;
+    private WaitingAreaType waitingAreaType = WaitingAreaType.RING_BUFFER;
+    private DispatchPolicyType dispatchPolicy = DispatchPolicyType.SHARED_FIFO;
+    private CustomerClasses customerClasses; // null: every car is alike
+    private final SplitMix64 classRandom = new SplitMix64();
+    private int waitingAreaSize;
+
+    private int numPumps;
+    private volatile int activePumps; // pumps 1..activePumps take cars, the rest are drained
+    private ServiceTime[] serviceTimes; // per pump id, null means the default below
+    private ServiceTime serviceTime; // every pump without its own; replaced by a non-null startSimulation() argument
+    private long cooldownNanos = Pump.DEFAULT_COOLDOWN_NANOS;
+    private volatile int carCounter = 0;
+
+    private volatile boolean running = false;
+
+    public ServiceStation(int waitingAreaSize, int numPumps) {
+        if (waitingAreaSize < 0) {
+            throw new IllegalArgumentException("waitingAreaSize must be >= 0");
+        }
+        if (numPumps <= 0) {
+            throw new IllegalArgumentException("numPumps must be > 0");
+        }
+
+        this.pumpsList = new ArrayList<>();
+
+        this.numPumps = numPumps;
+        this.activePumps = numPumps;
+        this.serviceTimes = new ServiceTime[numPumps + 1];
+        this.waitingAreaSize = waitingAreaSize;
+        this.metrics = new StationMetrics(numPumps, System::nanoTime);
+
+        createSharedState();
+    }
+
+    // Called from controller when user clicks "Start Simulation", pumpSpeed in seconds
+    // for every pump without its own service time
+    public void startSimulation(int pumpSpeed, PumpObserver pumpObserver) {
+        startSimulation(ServiceTime.deterministic(pumpSpeed * 1_000_000_000L), pumpObserver);
+    }
+
+    // a null defaultServiceTime keeps the one given to setServiceTime()
+    public synchronized void startSimulation(ServiceTime defaultServiceTime, PumpObserver pumpObserver) {
+        if (running) {
+            throw new IllegalStateException("station is already running");
+        }
+        useDefaultServiceTime(defaultServiceTime);
+        // pumps of a stopped run still hold their workers
+        quiesce();
+        running = true;
+        metrics.start();
+
+        // create and start pump threads
+        for (int i = 1; i <= numPumps; i++) {
+            startPump(newPump(i, pumpObserver));
+        }
+    }
+
+    private Pump newPump(int pumpId, PumpObserver pumpObserver) {
+        ServiceTime pumpServiceTime = serviceTimes[pumpId] != null ? serviceTimes[pumpId] : serviceTime;
+        Pump pump = new Pump(pumpId, waitingArea, pumps, pumpServiceTime, cooldownNanos);
+        pump.setGate(gate);
+        pump.addObserver(metrics);
+        pump.addObserver(tracker);
+        pumpObservers.forEach(pump::addObserver);
+        if (pumpObserver != null) pump.addObserver(pumpObserver);
+        return pump;
+    }
+
+    private void startPump(Pump pump) {
+        if (pump.getPumpId() > activePumps) pump.drain();
+        pumpsList.add(pump);
+        if (workers == null) {
+            workers = new WorkerPool(executionMode);
+        }
+        workers.execute(pump.getPumpId() - 1, pump, pump.getTag());
+    }
+
+    // Called from controller when user clicks "Add Car"
+    public int addCar(CarObserver carObserver) {
+        return addCar(carObserver, System.nanoTime());
+    }
+
+    // Adds a car whose arrival is measured from intendedArrivalNanos (System.nanoTime() based),
+    // so a load generator running behind schedule does not hide the delay from the metrics.
+    // Synchronized as the generator thread and the UI may add cars at the same time.
+    public synchronized int addCar(CarObserver carObserver, long intendedArrivalNanos) {
+        int customerClass = customerClasses == null ? 0 : customerClasses.pick(classRandom);
+        return addCar(carObserver, intendedArrivalNanos, customerClass);
+    }
+
+    // adds a car of the given customer class instead of drawing one by share
+    public synchronized int addCar(CarObserver carObserver, long intendedArrivalNanos, int customerClass) {
+        int numClasses = customerClasses == null ? 1 : customerClasses.size();
+        if (customerClass < 0 || customerClass >= numClasses) {
+            throw new IllegalArgumentException("customerClass must be between 0 and " + (numClasses - 1));
+        }
+        int carId = ++carCounter;
+        metrics.recordArrival(carId, customerClass, intendedArrivalNanos);
+        tracker.arrived(carId, customerClass, intendedArrivalNanos);
+        startCar(newCar(carId, customerClass, false, carObserver));
+        return carId;
+    }
+
+    private Car newCar(int carId, int customerClass, boolean arrived, CarObserver carObserver) {
+        Car car = new Car(carId, waitingArea, gate, arrived, customerClass);
+        car.addObserver(metrics);
+        car.addObserver(tracker);
+        carObservers.forEach(car::addObserver);
+        if (carObserver != null) car.addObserver(carObserver);
+        return car;
+    }
+
+    private void startCar(Car car) {
+        Thread thread = executionMode.newThread(() -> {
+            try {
+                car.run();
+            } finally {
+                carThreads.remove(Thread.currentThread());
+            }
+        }, car.getTag());
+        carThreads.add(thread);
+        thread.start();
+    }
+
+    // Captures the running station at a consistent cut. Cars and pumps are
+    // held at their next state change for as long as the capture takes, and
+    // the time they spend held is not counted against the remaining service
+    // and cooldown in the snapshot.
+    public synchronized StationSnapshot snapshot() throws InterruptedException {
+        if (!running) {
+            throw new IllegalStateException("cannot snapshot a station that is not running");
+        }
+        gate.pause();
+        try {
+            long cut = System.nanoTime();
+            int[] queued = tracker.queued();
+            int[] outside = tracker.outside();
+            int[] queuedClasses = tracker.classesOf(queued);
+            int[] outsideClasses = tracker.classesOf(outside);
+
+            int[] serving = new int[numPumps];
+            long[] remainingService = new long[numPumps];
+            long[] remainingCooldown = new long[numPumps];
+            long[] randomStates = new long[numPumps];
+            for (Pump pump : pumpsList) {
+                int i = pump.getPumpId() - 1;
+                serving[i] = pump.getServingCar();
+                if (serving[i] != 0) {
+                    remainingService[i] = Math.max(0, pump.getServiceEndsAt() - cut);
+                } else {
+                    remainingCooldown[i] = Math.max(0, pump.getCooldownEndsAt() - cut);
+                }
+                randomStates[i] = pump.getRandomState();
+            }
+
+            int[] live = IntStream.concat(IntStream.concat(Arrays.stream(queued), Arrays.stream(outside)),
+                    Arrays.stream(serving).filter(id -> id != 0)).toArray();
+            ByteArrayOutputStream metricsBytes = new ByteArrayOutputStream();
+            metrics.writeSnapshot(new DataOutputStream(metricsBytes), cut, carCounter, live);
+
+            return new StationSnapshot(waitingAreaSize, numPumps, carCounter, System.currentTimeMillis(),
+                    classRandom.getState(),
+                    queued, queuedClasses, outside, outsideClasses, serving, remainingService, remainingCooldown, randomStates,
+                    metricsBytes.toByteArray());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            gate.resume();
+        }
+    }
+
+    // Starts this station from a snapshot instead of empty: waiting cars go
+    // back into the waiting area in order, pumps finish the service or cooldown
+    // they were in and cars outside queue up again. The station must not be
+    // running and needs at least the snapshot's pumps and waiting space; its
+    // own settings and service times apply from here on, so a snapshot can be
+    // continued with different ones to compare what-ifs.
+    public synchronized void resumeSimulation(StationSnapshot snapshot, ServiceTime defaultServiceTime,
+                                              PumpObserver pumpObserver, CarObserver carObserver) {
+        if (running) {
+            throw new IllegalStateException("cannot resume a running station");
+        }
+        if (numPumps < snapshot.getNumPumps()) {
+            throw new IllegalArgumentException("numPumps must be >= " + snapshot.getNumPumps());
+        }
+        int[] queued = snapshot.getQueuedCars();
+        if (waitingAreaSize < queued.length) {
+            throw new IllegalArgumentException("waitingAreaSize must be >= " + queued.length);
+        }
+
+        useDefaultServiceTime(defaultServiceTime);
+        quiesce();
+        tracker.clear();
+        clearSharedState();
+
+        // every remaining time in the snapshot is measured from here
+        long resumedAt = System.nanoTime();
+        try {
+            metrics.readSnapshot(snapshot.metricsInput(), resumedAt);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("corrupt snapshot: " + e.getMessage(), e);
+        }
+        carCounter = snapshot.getCarCounter();
+        classRandom.setState(snapshot.getClassRandomState());
+        running = true;
+
+        // nothing takes from the waiting area yet, so these never block
+        int[] queuedClasses = snapshot.getQueuedClasses();
+        for (int i = 0; i < queued.length; i++) {
+            int carId = queued[i];
+            tracker.arrived(carId, queuedClasses[i], metrics.getArrivalNanos(carId));
+            tracker.onCarEntersQueue(carId);
+            Car car = newCar(carId, queuedClasses[i], true, carObserver);
+            // keeps the time already waited, which aged priorities count
+            car.setEnqueuedAt(metrics.getEnqueueNanos(carId));
+            try {
+                waitingArea.reserve();
+                waitingArea.put(car);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("interrupted while resuming", e);
+            }
+        }
+
+        for (int i = 1; i <= numPumps; i++) {
+            Pump pump = newPump(i, pumpObserver);
+            if (i <= snapshot.getNumPumps()) {
+                pump.restore(snapshot.getServingCar(i), snapshot.getRemainingServiceNanos(i),
+                        snapshot.getRemainingCooldownNanos(i), snapshot.getRandomState(i), resumedAt);
+            }
+            startPump(pump);
+        }
+
+        int[] outside = snapshot.getOutsideCars();
+        int[] outsideClasses = snapshot.getOutsideClasses();
+        for (int i = 0; i < outside.length; i++) {
+            tracker.arrived(outside[i], outsideClasses[i], metrics.getArrivalNanos(outside[i]));
+            startCar(newCar(outside[i], outsideClasses[i], true, carObserver));
+        }
+    }
+
+    // Stop simulation and try to stop threads cleanly
+    public synchronized void stopSimulation() {
+        running = false;
+
+        // attempt to stop cars
+        for (Thread car : carThreads) {
+            try {
+                car.interrupt();
+            } catch (Exception ignored) {}
+        }
+
+        // attempt to stop pumps; only reaches a worker still running this run's pump
+        for (Pump pump : pumpsList) {
+            pump.stop();
+            workers.interrupt(pump.getPumpId() - 1, pump);
+        }
+    }
+
+    // Stops the run and returns the station to its initial state once every
+    // car and pump has actually finished, so nothing from this run can touch
+    // the next one. Workers are kept for the next start; the shared state is
+    // cleared in place.
+    public synchronized void reset() {
+        stopSimulation();
+        quiesce();
+
+        carCounter = 0;
+        running = false;
+        metrics.reset();
+        tracker.clear();
+        clearSharedState();
+    }
+
+    // waits until the pumps of the last run are off their workers and its car threads have ended
+    private void quiesce() {
+        boolean interrupted = false;
+        for (Pump pump : pumpsList) {
+            pump.stop();
+            workers.interrupt(pump.getPumpId() - 1, pump);
+        }
+        while (true) {
+            try {
+                if (workers != null) workers.awaitIdle();
+                for (Thread car : carThreads) {
+                    car.interrupt();
+                    car.join();
+                }
+                break;
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        pumpsList.clear();
+        carThreads.clear();
+        if (interrupted) Thread.currentThread().interrupt();
+    }
+
+    // ends the pump workers, e.g. when the station is no longer needed
+    public synchronized void shutdown() {
+        reset();
+        if (workers != null) {
+            workers.shutdown();
+            workers = null;
+        }
+    }
+
+    private void clearSharedState() {
+        waitingArea.clear();
+        pumps.setPermits(numPumps);
+    }
+
+    private void createSharedState() {
+        waitingArea = customerClasses != null
+                ? new PriorityWaitingArea(waitingAreaSize, fair, customerClasses)
+                : dispatchPolicy.create(waitingAreaSize, numPumps, fair, waitingAreaType);
+        pumps = new Semaphore(numPumps, fair);
+    }
+
+    // observes every car added from now on, e.g. a JournalWriter
+    public void addCarObserver(CarObserver observer) {
+        carObservers.add(observer);
+    }
+
+    // observes every pump, must be added before startSimulation()
+    public void addPumpObserver(PumpObserver observer) {
+        pumpObservers.add(observer);
+    }
+
+    public void removeCarObserver(CarObserver observer) {
+        carObservers.remove(observer);
+    }
+
+    public void removePumpObserver(PumpObserver observer) {
+        pumpObservers.remove(observer);
+    }
+
+    // must be chosen before startSimulation()
+    public synchronized void setExecutionMode(ExecutionMode executionMode) {
+        if (running) {
+            throw new IllegalStateException("cannot change the execution mode of a running station");
+        }
+        this.executionMode = executionMode;
+        if (workers != null && workers.getExecutionMode() != executionMode) {
+            quiesce();
+            workers.shutdown();
+            workers = null;
+        }
+    }
+
+    public ExecutionMode getExecutionMode() {
+        return executionMode;
+    }
+
+    // fair semaphores serve waiting cars strictly in arrival order, must be chosen before startSimulation()
+    public void setFair(boolean fair) {
+        if (running) {
+            throw new IllegalStateException("cannot change the fairness of a running station");
+        }
+        this.fair = fair;
+        createSharedState();
+    }
+
+    public boolean isFair() {
+        return fair;
+    }
+
+    // must be chosen before startSimulation()
+    public void setWaitingAreaType(WaitingAreaType waitingAreaType) {
+        if (running) {
+            throw new IllegalStateException("cannot change the waiting area of a running station");
+        }
+        this.waitingAreaType = waitingAreaType;
+        createSharedState();
+    }
+
+    public WaitingAreaType getWaitingAreaType() {
+        return waitingAreaType;
+    }
+
+    // SHARED_FIFO uses the waiting area type, the other policies give each pump a lane; must be chosen before startSimulation()
+    public void setDispatchPolicy(DispatchPolicyType dispatchPolicy) {
+        if (running) {
+            throw new IllegalStateException("cannot change the dispatch policy of a running station");
+        }
+        this.dispatchPolicy = dispatchPolicy;
+        createSharedState();
+    }
+
+    // Serves cars by customer class through a PriorityWaitingArea, in place of the
+    // dispatch policy and waiting area type; null goes back to one class. Must be
+    // chosen before startSimulation()
+    public void setCustomerClasses(CustomerClasses customerClasses) {
+        if (running) {
+            throw new IllegalStateException("cannot change the customer classes of a running station");
+        }
+        this.customerClasses = customerClasses;
+        metrics.setCustomerClasses(customerClasses == null ? 0 : customerClasses.size());
+        createSharedState();
+    }
+
+    public CustomerClasses getCustomerClasses() {
+        return customerClasses;
+    }
+
+    // service time of every pump without its own, must be chosen before startSimulation()
+    public void setServiceTime(ServiceTime serviceTime) {
+        if (running) {
+            throw new IllegalStateException("cannot change the service time of a running station");
+        }
+        this.serviceTime = serviceTime;
+    }
+
+    private void useDefaultServiceTime(ServiceTime defaultServiceTime) {
+        if (defaultServiceTime != null) {
+            serviceTime = defaultServiceTime;
+        }
+        for (int i = 1; i <= numPumps && serviceTime == null; i++) {
+            if (serviceTimes[i] == null) {
+                throw new IllegalStateException("pump " + i + " has no service time: pass one to startSimulation() or setServiceTime()");
+            }
+        }
+    }
+
+    // gives one pump its own service time distribution, must be chosen before startSimulation()
+    public void setServiceTime(int pumpId, ServiceTime serviceTime) {
+        if (running) {
+            throw new IllegalStateException("cannot change the service time of a running station");
+        }
+        if (pumpId < 1 || pumpId > numPumps) {
+            throw new IllegalArgumentException("pumpId must be between 1 and " + numPumps);
+        }
+        serviceTimes[pumpId] = serviceTime;
+    }
+
+    // the pump's own service time, null when it uses the default
+    public ServiceTime getServiceTime(int pumpId) {
+        return serviceTimes[pumpId];
+    }
+
+    public ServiceTime getServiceTime() {
+        return serviceTime;
+    }
+
+    // pause after each car before a pump takes the next one, may be zero; must be chosen before startSimulation()
+    public void setCooldownNanos(long cooldownNanos) {
+        if (running) {
+            throw new IllegalStateException("cannot change the cooldown of a running station");
+        }
+        if (cooldownNanos < 0) {
+            throw new IllegalArgumentException("cooldownNanos must be >= 0");
+        }
+        this.cooldownNanos = cooldownNanos;
+    }
+
+    public long getCooldownNanos() {
+        return cooldownNanos;
+    }
+
+    // Puts pumps 1..count on duty and drains the others: a drained pump
+    // finishes the car it is serving and takes no more until put back on
+    // duty. Works while running; numPumps is the most that can be staffed.
+    public synchronized void setActivePumps(int count) {
+        if (count < 1 || count > numPumps) {
+            throw new IllegalArgumentException("count must be between 1 and " + numPumps);
+        }
+        activePumps = count;
+        for (Pump pump : pumpsList) {
+            if (pump.getPumpId() <= count) {
+                pump.enable();
+            } else {
+                pump.drain();
+            }
+        }
+    }
+
+    public int getActivePumps() {
+        return activePumps;
+    }
+
+    public int getNumPumps() {
+        return numPumps;
+    }
+
+    // how long the car that has waited longest for a pump has been waiting, 0 when none is
+    public long getOldestWaitNanos() {
+        long now = System.nanoTime();
+        return now - tracker.oldestArrival(now);
+    }
+
+    // cars waiting outside a full waiting area
+    public int getCarsOutside() {
+        return tracker.outsideCount();
+    }
+
+    public DispatchPolicyType getDispatchPolicy() {
+        return dispatchPolicy;
+    }
+
+    public WaitingArea getWaitingArea() {
+        return waitingArea;
+    }
+
+    public StationMetrics getMetrics() {
+        return metrics;
+    }
+
+    public boolean isRunning() {
+        return running;
+    }
+
+    public int getWaitingAreaSize() {
+        return waitingAreaSize;
+    }
+
+    public int getCarCounter() {
+        return carCounter;
+    }
+
+    public int getWaitingCars() {
+        return waitingArea.size();
+    }
+
+    public int getServicedCars() {
+        return numPumps - pumps.availablePermits();
+    }
+
+    // pumps that had to wait for a permit to start a car
+    public long getPumpContentions() {
+        return pumps.getContentions();
+    }
+}
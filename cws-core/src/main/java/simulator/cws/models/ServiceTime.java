@@ -0,0 +1,34 @@
+package simulator.cws.models;
+
+import java.util.random.RandomGenerator;
+
+// Distribution of the time a pump spends on one car, in nanoseconds.
+// Implementations are immutable and can be shared between pumps; each pump
+// draws from its own random generator.
+public interface ServiceTime {
+    long sample(RandomGenerator random);
+
+    double getMeanNanos();
+
+    static ServiceTime deterministic(long nanos) {
+        return new DeterministicServiceTime(nanos);
+    }
+
+    static ServiceTime seconds(double seconds) {
+        return new DeterministicServiceTime(Math.round(seconds * 1e9));
+    }
+
+    static ServiceTime exponential(long meanNanos) {
+        return new ExponentialServiceTime(meanNanos);
+    }
+
+    // cv is the standard deviation relative to the mean, e.g. 0.5
+    static ServiceTime lognormal(long meanNanos, double cv) {
+        return new LognormalServiceTime(meanNanos, cv);
+    }
+
+    // resamples measured service times, interpolating between them
+    static ServiceTime empirical(long[] samplesNanos) {
+        return new EmpiricalServiceTime(samplesNanos);
+    }
+}
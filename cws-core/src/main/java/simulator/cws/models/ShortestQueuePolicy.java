@@ -0,0 +1,25 @@
+package simulator.cws.models;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+// Join-shortest-queue: reads every lane length and joins the shortest,
+// breaking ties at random. The best balance, at O(pumps) per car.
+public class ShortestQueuePolicy implements DispatchPolicy {
+    @Override
+    public int chooseLane(LanedWaitingArea area) {
+        int lanes = area.lanes();
+        int start = ThreadLocalRandom.current().nextInt(lanes);
+        int best = start;
+        int bestSize = area.laneSize(start);
+
+        for (int i = 1; i < lanes && bestSize > 0; i++) {
+            int lane = (start + i) % lanes;
+            int size = area.laneSize(lane);
+            if (size < bestSize) {
+                best = lane;
+                bestSize = size;
+            }
+        }
+        return best;
+    }
+}
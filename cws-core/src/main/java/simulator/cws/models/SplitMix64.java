@@ -0,0 +1,39 @@
+package simulator.cws.models;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.random.RandomGenerator;
+
+// Small, fast generator whose whole state is one long, so it can be saved in
+// a snapshot and restored to continue the exact same sequence. Same
+// algorithm as SplittableRandom, which does not expose its state.
+public class SplitMix64 implements RandomGenerator {
+    private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+    // unseeded generators start from distinct, well-spread states
+    private static final AtomicLong SEEDER = new AtomicLong(System.nanoTime());
+
+    private long state;
+
+    public SplitMix64(long state) {
+        this.state = state;
+    }
+
+    public SplitMix64() {
+        this(new SplitMix64(SEEDER.getAndAdd(2 * GOLDEN_GAMMA)).nextLong());
+    }
+
+    @Override
+    public long nextLong() {
+        long z = (state += GOLDEN_GAMMA);
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+
+    public long getState() {
+        return state;
+    }
+
+    public void setState(long state) {
+        this.state = state;
+    }
+}
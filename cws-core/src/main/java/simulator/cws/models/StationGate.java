@@ -0,0 +1,84 @@
+package simulator.cws.models;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Lets a ServiceStation stop at a consistent cut. Cars and pumps wrap every
+// state change (and the observer calls announcing it) in enter()/exit();
+// blocking waits and sleeps stay outside. pause() closes the gate and waits
+// until no change is in flight, so everything announced so far is complete
+// and nothing new starts until resume(). While the gate is open enter() is
+// two atomic operations.
+public class StationGate {
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private volatile boolean paused = false;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition resumed = lock.newCondition();
+    private final Condition drained = lock.newCondition();
+
+    public void enter() throws InterruptedException {
+        while (true) {
+            if (paused) {
+                awaitResume();
+            }
+            inFlight.incrementAndGet();
+            if (!paused) return;
+            // paused between the check and the increment, back off
+            exit();
+        }
+    }
+
+    public void exit() {
+        if (inFlight.decrementAndGet() == 0 && paused) {
+            lock.lock();
+            try {
+                drained.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    // returns once every change that had started has finished
+    public void pause() throws InterruptedException {
+        lock.lock();
+        try {
+            paused = true;
+            while (inFlight.get() != 0) {
+                drained.await();
+            }
+        } catch (InterruptedException e) {
+            resume();
+            throw e;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void resume() {
+        lock.lock();
+        try {
+            paused = false;
+            resumed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public boolean isPaused() {
+        return paused;
+    }
+
+    private void awaitResume() throws InterruptedException {
+        lock.lock();
+        try {
+            while (paused) {
+                resumed.await();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+}
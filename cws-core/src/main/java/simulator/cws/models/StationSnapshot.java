@@ -0,0 +1,192 @@
+package simulator.cws.models;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+// The state of a ServiceStation at a consistent cut, taken with
+// ServiceStation.snapshot() and continued with resumeSimulation(): which cars
+// wait in the waiting area and outside it, with their customer classes, what
+// each pump is doing, the random state of every pump and of the customer
+// class picker, and the metrics so far.
+// Times are kept relative to the cut, so a snapshot can be resumed in another
+// process. Service times and the station's settings are not part of it and
+// are supplied on resume.
+public class StationSnapshot {
+    static final int MAGIC = 0x43575353; // "CWSS"
+    static final int VERSION = 1;
+
+    private final int waitingAreaSize;
+    private final int numPumps;
+    private final int carCounter;
+    private final long capturedAtMillis;
+    private final long classRandomState;
+    private final int[] queuedCars;
+    private final int[] queuedClasses;
+    private final int[] outsideCars;
+    private final int[] outsideClasses;
+    // indexed by pump id - 1
+    private final int[] servingCars;
+    private final long[] remainingServiceNanos;
+    private final long[] remainingCooldownNanos;
+    private final long[] randomStates;
+    private final byte[] metrics;
+
+    StationSnapshot(int waitingAreaSize, int numPumps, int carCounter, long capturedAtMillis, long classRandomState,
+                    int[] queuedCars, int[] queuedClasses, int[] outsideCars, int[] outsideClasses,
+                    int[] servingCars, long[] remainingServiceNanos, long[] remainingCooldownNanos,
+                    long[] randomStates, byte[] metrics) {
+        this.waitingAreaSize = waitingAreaSize;
+        this.numPumps = numPumps;
+        this.carCounter = carCounter;
+        this.capturedAtMillis = capturedAtMillis;
+        this.classRandomState = classRandomState;
+        this.queuedCars = queuedCars;
+        this.queuedClasses = queuedClasses;
+        this.outsideCars = outsideCars;
+        this.outsideClasses = outsideClasses;
+        this.servingCars = servingCars;
+        this.remainingServiceNanos = remainingServiceNanos;
+        this.remainingCooldownNanos = remainingCooldownNanos;
+        this.randomStates = randomStates;
+        this.metrics = metrics;
+    }
+
+    public void writeTo(OutputStream stream) throws IOException {
+        DataOutputStream out = new DataOutputStream(stream);
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        out.writeInt(waitingAreaSize);
+        out.writeInt(numPumps);
+        out.writeInt(carCounter);
+        out.writeLong(capturedAtMillis);
+        out.writeLong(classRandomState);
+        writeInts(out, queuedCars);
+        writeInts(out, queuedClasses);
+        writeInts(out, outsideCars);
+        writeInts(out, outsideClasses);
+        for (int i = 0; i < numPumps; i++) {
+            out.writeInt(servingCars[i]);
+            out.writeLong(remainingServiceNanos[i]);
+            out.writeLong(remainingCooldownNanos[i]);
+            out.writeLong(randomStates[i]);
+        }
+        out.writeInt(metrics.length);
+        out.write(metrics);
+        out.flush();
+    }
+
+    public static StationSnapshot readFrom(InputStream stream) throws IOException {
+        DataInputStream in = new DataInputStream(stream);
+        if (in.readInt() != MAGIC) {
+            throw new IOException("not a station snapshot");
+        }
+        int version = in.readInt();
+        if (version != VERSION) {
+            throw new IOException("unsupported snapshot version " + version);
+        }
+        int waitingAreaSize = in.readInt();
+        int numPumps = in.readInt();
+        int carCounter = in.readInt();
+        long capturedAtMillis = in.readLong();
+        long classRandomState = in.readLong();
+        int[] queuedCars = readInts(in);
+        int[] queuedClasses = readInts(in);
+        int[] outsideCars = readInts(in);
+        int[] outsideClasses = readInts(in);
+
+        int[] servingCars = new int[numPumps];
+        long[] remainingService = new long[numPumps];
+        long[] remainingCooldown = new long[numPumps];
+        long[] randomStates = new long[numPumps];
+        for (int i = 0; i < numPumps; i++) {
+            servingCars[i] = in.readInt();
+            remainingService[i] = in.readLong();
+            remainingCooldown[i] = in.readLong();
+            randomStates[i] = in.readLong();
+        }
+        byte[] metrics = new byte[in.readInt()];
+        in.readFully(metrics);
+
+        return new StationSnapshot(waitingAreaSize, numPumps, carCounter, capturedAtMillis, classRandomState,
+                queuedCars, queuedClasses, outsideCars, outsideClasses,
+                servingCars, remainingService, remainingCooldown, randomStates, metrics);
+    }
+
+    private static void writeInts(DataOutputStream out, int[] values) throws IOException {
+        out.writeInt(values.length);
+        for (int value : values) {
+            out.writeInt(value);
+        }
+    }
+
+    private static int[] readInts(DataInputStream in) throws IOException {
+        int[] values = new int[in.readInt()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = in.readInt();
+        }
+        return values;
+    }
+
+    // StationMetrics.writeSnapshot() output, read back with readSnapshot()
+    DataInputStream metricsInput() {
+        return new DataInputStream(new ByteArrayInputStream(metrics));
+    }
+
+    public int getWaitingAreaSize() {
+        return waitingAreaSize;
+    }
+
+    public int getNumPumps() {
+        return numPumps;
+    }
+
+    public int getCarCounter() {
+        return carCounter;
+    }
+
+    public long getCapturedAtMillis() {
+        return capturedAtMillis;
+    }
+
+    public int[] getQueuedCars() {
+        return queuedCars.clone();
+    }
+
+    public int[] getOutsideCars() {
+        return outsideCars.clone();
+    }
+
+    // customer class of each car in getQueuedCars()
+    public int[] getQueuedClasses() {
+        return queuedClasses.clone();
+    }
+
+    public int[] getOutsideClasses() {
+        return outsideClasses.clone();
+    }
+
+    // 0 when the pump was idle or cooling down
+    public int getServingCar(int pumpId) {
+        return servingCars[pumpId - 1];
+    }
+
+    public long getRemainingServiceNanos(int pumpId) {
+        return remainingServiceNanos[pumpId - 1];
+    }
+
+    public long getRemainingCooldownNanos(int pumpId) {
+        return remainingCooldownNanos[pumpId - 1];
+    }
+
+    long getRandomState(int pumpId) {
+        return randomStates[pumpId - 1];
+    }
+
+    long getClassRandomState() {
+        return classRandomState;
+    }
+}
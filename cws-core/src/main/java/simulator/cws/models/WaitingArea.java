@@ -0,0 +1,50 @@
+package simulator.cws.models;
+
+// Bounded waiting area between cars (producers) and pumps (consumers).
+// Both sides work in two steps so that observers can be told about a car
+// before any pump can see it, and about a login before the freed space
+// can be taken by another car:
+//   car:  reserve() -> notify "enters queue" -> put(car)
+//   pump: take()    -> notify "login"        -> vacate()
+public interface WaitingArea {
+    // blocks until there is a free space for one car
+    void reserve() throws InterruptedException;
+
+    // parks a car in the space taken by reserve() and wakes a pump
+    void put(Car car) throws InterruptedException;
+
+    // blocks until a car is waiting and removes it, its space stays taken
+    Car take() throws InterruptedException;
+
+    // take() on behalf of a pump, for areas that keep a lane per pump
+    default Car take(int pumpId) throws InterruptedException {
+        return take();
+    }
+
+    // frees the space left by the car returned from take()
+    void vacate();
+
+    int size();
+
+    int capacity();
+
+    void clear();
+
+    // lock statistics for comparing dispatch policies, 0 where no lock is taken
+    default long getLockAcquisitions() {
+        return 0;
+    }
+
+    default long getLockContentions() {
+        return 0;
+    }
+
+    // cars that found the area full in reserve(), and pumps that found it empty in take()
+    default long getReserveContentions() {
+        return 0;
+    }
+
+    default long getTakeContentions() {
+        return 0;
+    }
+}
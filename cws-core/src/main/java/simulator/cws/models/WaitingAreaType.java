@@ -0,0 +1,16 @@
+package simulator.cws.models;
+
+// Implementations of the waiting area a ServiceStation can use.
+public enum WaitingAreaType {
+    // LinkedList + mutex, the original implementation kept as the reference
+    LINKED,
+    // pre-allocated lock-free ring buffer
+    RING_BUFFER;
+
+    public WaitingArea create(int capacity, boolean fair) {
+        return switch (this) {
+            case LINKED -> new LinkedWaitingArea(capacity, fair);
+            case RING_BUFFER -> new RingBufferWaitingArea(capacity, fair);
+        };
+    }
+}
@@ -0,0 +1,183 @@
+package simulator.cws.models;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Long-lived threads that run a station's pumps, one worker per pump slot,
+// so back-to-back runs reuse their threads instead of starting new ones.
+// A worker runs one task at a time and parks between tasks. interrupt()
+// only reaches the worker while it is still running the given task, so a
+// stop aimed at one run can never land in the next. A worker left idle for
+// the keep-alive (KEEP_ALIVE_NANOS by default) ends on its own and its slot
+// starts a new one on demand, so a station dropped without shutdown() does
+// not keep its threads.
+class WorkerPool {
+    static final long KEEP_ALIVE_NANOS = TimeUnit.SECONDS.toNanos(5);
+
+    private final ExecutionMode executionMode;
+    private final long keepAliveNanos;
+    private final List<Worker> workers = new ArrayList<>();
+
+    WorkerPool(ExecutionMode executionMode) {
+        this(executionMode, KEEP_ALIVE_NANOS);
+    }
+
+    WorkerPool(ExecutionMode executionMode, long keepAliveNanos) {
+        if (keepAliveNanos <= 0) {
+            throw new IllegalArgumentException("keepAliveNanos must be > 0");
+        }
+        this.executionMode = executionMode;
+        this.keepAliveNanos = keepAliveNanos;
+    }
+
+    // runs task on the worker for slot, which must be idle
+    synchronized void execute(int slot, Runnable task, String name) {
+        while (workers.size() <= slot) {
+            workers.add(new Worker(workers.size()));
+        }
+        if (!workers.get(slot).execute(task, name)) {
+            Worker worker = new Worker(slot);
+            workers.set(slot, worker);
+            worker.execute(task, name);
+        }
+    }
+
+    synchronized void interrupt(int slot, Runnable task) {
+        if (slot < workers.size()) {
+            workers.get(slot).interrupt(task);
+        }
+    }
+
+    // returns once no worker is running a task
+    void awaitIdle() throws InterruptedException {
+        List<Worker> current;
+        synchronized (this) {
+            current = new ArrayList<>(workers);
+        }
+        for (Worker worker : current) {
+            worker.awaitIdle();
+        }
+    }
+
+    // ends every worker thread once its task is done
+    synchronized void shutdown() {
+        for (Worker worker : workers) {
+            worker.shutdown();
+        }
+        workers.clear();
+    }
+
+    ExecutionMode getExecutionMode() {
+        return executionMode;
+    }
+
+    private final class Worker implements Runnable {
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Condition assigned = lock.newCondition();
+        private final Condition idle = lock.newCondition();
+        private final Thread thread;
+        private Runnable task;
+        private boolean shutdown = false;
+        private boolean retired = false; // ended after idling, takes no more tasks
+
+        Worker(int slot) {
+            thread = executionMode.newThread(this, "worker-" + slot);
+            thread.setDaemon(true);
+            thread.start();
+        }
+
+        // false when the worker has already retired
+        boolean execute(Runnable next, String name) {
+            lock.lock();
+            try {
+                if (retired) return false;
+                if (task != null) {
+                    throw new IllegalStateException(thread.getName() + " is still running a task");
+                }
+                task = next;
+                thread.setName(name);
+                assigned.signal();
+                return true;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void interrupt(Runnable target) {
+            lock.lock();
+            try {
+                if (task == target) thread.interrupt();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void awaitIdle() throws InterruptedException {
+            lock.lock();
+            try {
+                while (task != null) {
+                    idle.await();
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void shutdown() {
+            lock.lock();
+            try {
+                shutdown = true;
+                assigned.signal();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        @Override
+        public void run() {
+            while (true) {
+                Runnable next;
+                lock.lock();
+                try {
+                    long retireAt = System.nanoTime() + keepAliveNanos;
+                    long idleNanos = keepAliveNanos;
+                    while (task == null && !shutdown && idleNanos > 0) {
+                        try {
+                            idleNanos = assigned.awaitNanos(idleNanos);
+                        } catch (InterruptedException e) {
+                            // aimed at a finished task, dropped; it must not restart the keep-alive
+                            idleNanos = retireAt - System.nanoTime();
+                        }
+                    }
+                    if (task == null) {
+                        retired = true;
+                        return;
+                    }
+                    next = task;
+                } finally {
+                    lock.unlock();
+                }
+
+                try {
+                    next.run();
+                } catch (RuntimeException | Error e) {
+                    // report it like an uncaught exception, but keep the worker
+                    Thread current = Thread.currentThread();
+                    current.getUncaughtExceptionHandler().uncaughtException(current, e);
+                } finally {
+                    lock.lock();
+                    try {
+                        Thread.interrupted();
+                        task = null;
+                        idle.signalAll();
+                    } finally {
+                        lock.unlock();
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package simulator.cws.monitoring;
+
+import simulator.cws.metrics.Histogram;
+import simulator.cws.metrics.StationMetrics;
+import simulator.cws.models.ServiceStation;
+import simulator.cws.models.WaitingArea;
+
+// Writes the state of a live station in the Prometheus text format (0.0.4).
+// Everything is read from atomics, volatiles and LongAdders, so an export
+// never takes a station, waiting area or pump lock and cannot hold up cars
+// or pumps; values read moments apart may be off from each other by the cars
+// that moved in between. Histograms are re-bucketed to fixed second bounds
+// at the resolution of Histogram (~3%), counting the bucket a bound falls in.
+public class PrometheusExporter {
+    public static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+    // seconds
+    private static final double[] BOUNDS = {0.01, 0.05, 0.1, 0.25, 0.5, 1, 2.5, 5, 10, 30, 60, 120, 300, 600, 1800, 3600};
+    private static final String[] BOUND_LABELS = new String[BOUNDS.length];
+    private static final long[] BOUND_NANOS = new long[BOUNDS.length];
+
+    static {
+        for (int i = 0; i < BOUNDS.length; i++) {
+            BOUND_LABELS[i] = Double.toString(BOUNDS[i]);
+            BOUND_NANOS[i] = Math.round(BOUNDS[i] * 1e9);
+        }
+    }
+
+    private PrometheusExporter() {
+    }
+
+    // a null station only reports cws_up 0
+    public static void write(ServiceStation station, StringBuilder out) {
+        header(out, "cws_up", "gauge", "1 while the station is running");
+        sample(out, "cws_up", station != null && station.isRunning() ? 1 : 0);
+        if (station == null) return;
+
+        StationMetrics metrics = station.getMetrics();
+        WaitingArea area = station.getWaitingArea();
+
+        header(out, "cws_queue_depth", "gauge", "Cars in the waiting area");
+        sample(out, "cws_queue_depth", metrics.getQueueDepth());
+        header(out, "cws_waiting_area_capacity", "gauge", "Spaces in the waiting area");
+        sample(out, "cws_waiting_area_capacity", station.getWaitingAreaSize());
+        header(out, "cws_cars_outside", "gauge", "Cars waiting outside a full waiting area");
+        sample(out, "cws_cars_outside", station.getCarsOutside());
+
+        header(out, "cws_arrivals_total", "counter", "Cars that arrived");
+        sample(out, "cws_arrivals_total", metrics.getArrivals());
+        header(out, "cws_balks_total", "counter", "Cars that left without service");
+        sample(out, "cws_balks_total", metrics.getBalks());
+        header(out, "cws_completions_total", "counter", "Cars that finished service");
+        sample(out, "cws_completions_total", metrics.getCompletions());
+
+        int numPumps = station.getNumPumps();
+        header(out, "cws_pumps", "gauge", "Pumps of the station");
+        sample(out, "cws_pumps", numPumps);
+        header(out, "cws_pumps_active", "gauge", "Pumps on duty");
+        sample(out, "cws_pumps_active", station.getActivePumps());
+        header(out, "cws_pump_busy", "gauge", "1 while the pump is serving a car");
+        for (int i = 1; i <= numPumps; i++) {
+            pumpSample(out, "cws_pump_busy", i, metrics.isBusy(i) ? 1 : 0);
+        }
+        header(out, "cws_pump_utilization", "gauge", "Fraction of the run the pump spent serving");
+        for (int i = 1; i <= numPumps; i++) {
+            pumpSample(out, "cws_pump_utilization", i, metrics.getUtilization(i));
+        }
+        header(out, "cws_pump_served_total", "counter", "Cars the pump finished");
+        for (int i = 1; i <= numPumps; i++) {
+            pumpSample(out, "cws_pump_served_total", i, metrics.getServed(i));
+        }
+
+        histogram(out, "cws_wait_seconds", "Time from arrival to the start of service", metrics.getWaitTimes());
+        histogram(out, "cws_service_seconds", "Time at the pump", metrics.getServiceTimes());
+        histogram(out, "cws_sojourn_seconds", "Time from arrival to the end of service", metrics.getSojournTimes());
+
+        header(out, "cws_semaphore_contentions_total", "counter", "Acquires that had to wait for a permit");
+        semaphoreSample(out, "pumps", station.getPumpContentions());
+        semaphoreSample(out, "empty", area.getReserveContentions());
+        semaphoreSample(out, "full", area.getTakeContentions());
+        header(out, "cws_waiting_area_lock_acquisitions_total", "counter", "Waiting area lock acquisitions");
+        sample(out, "cws_waiting_area_lock_acquisitions_total", area.getLockAcquisitions());
+        header(out, "cws_waiting_area_lock_contentions_total", "counter", "Waiting area lock acquisitions that had to wait");
+        sample(out, "cws_waiting_area_lock_contentions_total", area.getLockContentions());
+    }
+
+    private static void histogram(StringBuilder out, String name, String help, Histogram histogram) {
+        header(out, name, "histogram", help);
+
+        // one walk up the buckets; a bound is emitted at the first bucket reaching it
+        long cumulative = 0;
+        int bound = 0;
+        int buckets = Histogram.bucketCount();
+        for (int i = 0; i < buckets && bound < BOUNDS.length; i++) {
+            cumulative += histogram.bucketCountAt(i);
+            while (bound < BOUNDS.length && Histogram.bucketUpperEdge(i) >= BOUND_NANOS[bound]) {
+                bucket(out, name, BOUND_LABELS[bound++], cumulative);
+            }
+        }
+        // buckets are counted before the total, so a racing record may show in them first
+        long count = Math.max(histogram.getCount(), cumulative);
+        bucket(out, name, "+Inf", count);
+        sample(out, name + "_sum", histogram.getSum() / 1e9);
+        sample(out, name + "_count", count);
+    }
+
+    private static void header(StringBuilder out, String name, String type, String help) {
+        out.append("# HELP ").append(name).append(' ').append(help).append('\n');
+        out.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+    }
+
+    private static void sample(StringBuilder out, String name, long value) {
+        out.append(name).append(' ').append(value).append('\n');
+    }
+
+    private static void sample(StringBuilder out, String name, double value) {
+        out.append(name).append(' ').append(value).append('\n');
+    }
+
+    private static void pumpSample(StringBuilder out, String name, int pumpId, double value) {
+        out.append(name).append("{pump=\"").append(pumpId).append("\"} ").append(value).append('\n');
+    }
+
+    private static void pumpSample(StringBuilder out, String name, int pumpId, long value) {
+        out.append(name).append("{pump=\"").append(pumpId).append("\"} ").append(value).append('\n');
+    }
+
+    private static void semaphoreSample(StringBuilder out, String semaphore, long value) {
+        out.append("cws_semaphore_contentions_total{semaphore=\"").append(semaphore).append("\"} ")
+                .append(value).append('\n');
+    }
+
+    private static void bucket(StringBuilder out, String name, String le, long value) {
+        out.append(name).append("_bucket{le=\"").append(le).append("\"} ").append(value).append('\n');
+    }
+}
@@ -0,0 +1,45 @@
+package simulator.cws.network;
+
+import simulator.cws.engine.VirtualStation;
+
+// What a RoutingPolicy knows about the stations of a network. The arriving
+// car's own station is read live; every other station as it was at the
+// start of the current window, which is at most one lookahead old. The
+// snapshot is published while all shards wait at the window barrier, so
+// routing never reads a station another shard is running.
+public final class LoadBoard {
+    private final double[] loads;
+    private final boolean[] full;
+
+    private int home = -1;
+    private VirtualStation homeStation;
+
+    LoadBoard(double[] loads, boolean[] full) {
+        this.loads = loads;
+        this.full = full;
+    }
+
+    void setHome(int home, VirtualStation station) {
+        this.home = home;
+        this.homeStation = station;
+    }
+
+    // cars waiting, outside or in service per pump
+    public double getLoad(int station) {
+        return station == home ? load(homeStation) : loads[station];
+    }
+
+    // no space left in the waiting area
+    public boolean isFull(int station) {
+        return station == home ? isFull(homeStation) : full[station];
+    }
+
+    static double load(VirtualStation station) {
+        return (double) (station.getWaitingCars() + station.getCarsOutside() + station.getServicedCars())
+                / station.getNumPumps();
+    }
+
+    static boolean isFull(VirtualStation station) {
+        return station.getWaitingCars() >= station.getWaitingAreaSize();
+    }
+}
@@ -0,0 +1,40 @@
+package simulator.cws.network;
+
+import java.util.Arrays;
+
+// The cars one shard's stations diverted during a window to the stations
+// of one shard, in the order they sent them. Written only by the sending
+// shard while the window runs, and read only by the receiving shard at the
+// start of the next one, after the barrier, so it needs no synchronization
+// of its own. Grows as needed: no car is ever
+// turned away for lack of room.
+class Outbox {
+    private int[] targets = new int[16];
+    private long[] arrivals = new long[16];
+    private int size;
+
+    void add(int station, long arrivalNanos) {
+        if (size == targets.length) {
+            targets = Arrays.copyOf(targets, size * 2);
+            arrivals = Arrays.copyOf(arrivals, size * 2);
+        }
+        targets[size] = station;
+        arrivals[size++] = arrivalNanos;
+    }
+
+    int size() {
+        return size;
+    }
+
+    int target(int i) {
+        return targets[i];
+    }
+
+    long arrival(int i) {
+        return arrivals[i];
+    }
+
+    void clear() {
+        size = 0;
+    }
+}
@@ -0,0 +1,48 @@
+package simulator.cws.network;
+
+import java.util.random.RandomGenerator;
+
+// Decides where a car that turns up at its home station of a StationNetwork
+// is served. neighbours are the stations it may divert to, nearest first;
+// returning home keeps the car where it arrived.
+public interface RoutingPolicy {
+    int route(int home, int[] neighbours, LoadBoard loads, RandomGenerator random);
+
+    // every car stays at the station it arrived at
+    static RoutingPolicy nearest() {
+        return (home, neighbours, loads, random) -> home;
+    }
+
+    // when every pump at home is busy, the least loaded of home and its
+    // neighbours, preferring the nearer on ties
+    static RoutingPolicy leastLoaded() {
+        return (home, neighbours, loads, random) -> {
+            int best = home;
+            double bestLoad = loads.getLoad(home);
+            if (bestLoad < 1) return home;
+            for (int neighbour : neighbours) {
+                double load = loads.getLoad(neighbour);
+                if (load < bestLoad) {
+                    best = neighbour;
+                    bestLoad = load;
+                }
+            }
+            return best;
+        };
+    }
+
+    // when home's waiting area is full, the driver diverts with probability
+    // divertProbability to the nearest neighbour with space, otherwise stays
+    static RoutingPolicy overflow(double divertProbability) {
+        if (divertProbability < 0 || divertProbability > 1) {
+            throw new IllegalArgumentException("divertProbability must be in [0, 1]");
+        }
+        return (home, neighbours, loads, random) -> {
+            if (!loads.isFull(home) || random.nextDouble() >= divertProbability) return home;
+            for (int neighbour : neighbours) {
+                if (!loads.isFull(neighbour)) return neighbour;
+            }
+            return home;
+        };
+    }
+}
@@ -0,0 +1,357 @@
+package simulator.cws.network;
+
+import simulator.cws.engine.VirtualStation;
+import simulator.cws.metrics.Histogram;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.BrokenBarrierException;
+import java.util.concurrent.CyclicBarrier;
+
+// A network of sites, each a VirtualStation at a point on a plane, split
+// into shards that run on their own threads. Cars generated by a station's
+// arrival source pass the RoutingPolicy first and may drive on to one of
+// the station's nearest neighbours, arriving there after the travel time.
+//
+// Shards advance in lockstep windows of minTravelNanos: a car diverted
+// during a window cannot arrive before the next one, so within a window
+// every shard runs its stations without looking at any other shard.
+// Every diverted car, whether its target is on the same shard or another,
+// goes into the outbox its home shard keeps for the target's shard and is
+// delivered at the start of the next window. Shards own contiguous blocks
+// of stations and run them in index order, so reading a shard's inbound
+// outboxes in shard order delivers the cars station by station in index
+// order. Each station therefore sees the same arrivals in the same order,
+// and so the same car ids and event tie-breaks, whatever the number of
+// shards or the thread timing.
+public class StationNetwork {
+    private final List<VirtualStation> stations = new ArrayList<>();
+    private final List<double[]> positions = new ArrayList<>();
+
+    private int numShards;
+    private RoutingPolicy routing = RoutingPolicy.nearest();
+    private int numNeighbours = 4;
+    private long minTravelNanos = 60_000_000_000L;
+    private long travelNanosPerUnit = 0;
+    private long seed = 0;
+
+    // built by the first run()
+    private Shard[] shards;
+    private int[] shardOf;
+    private int[][] neighbours;
+    private double[] publishedLoads;
+    private boolean[] publishedFull;
+    private long now = 0;
+
+    // per station, each written only by the shard owning the station
+    private long[] divertedOut;
+    private long[] divertedIn;
+    // [generation][from shard][to shard]: window w writes outboxes[w & 1] while the other is delivered
+    private Outbox[][][] outboxes;
+    private volatile long windows = 0;
+
+    public StationNetwork(int numShards) {
+        if (numShards <= 0) {
+            throw new IllegalArgumentException("numShards must be > 0");
+        }
+        this.numShards = numShards;
+    }
+
+    public StationNetwork() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    // the station must be started; configure its arrivals, service times and seed first
+    public int addStation(VirtualStation station, double x, double y) {
+        checkNotBuilt("add stations to");
+        stations.add(station);
+        positions.add(new double[]{x, y});
+        return stations.size() - 1;
+    }
+
+    public StationNetwork setRouting(RoutingPolicy routing) {
+        checkNotBuilt("change the routing of");
+        this.routing = routing;
+        return this;
+    }
+
+    // how many of its nearest stations a car may divert to
+    public StationNetwork setNeighbours(int numNeighbours) {
+        checkNotBuilt("change the neighbours of");
+        if (numNeighbours < 0) {
+            throw new IllegalArgumentException("numNeighbours must be >= 0");
+        }
+        this.numNeighbours = numNeighbours;
+        return this;
+    }
+
+    // driving to a neighbour takes max(minNanos, distance * nanosPerUnit);
+    // minNanos is also the window the shards advance by
+    public StationNetwork setTravel(long minNanos, long nanosPerUnit) {
+        checkNotBuilt("change the travel times of");
+        if (minNanos <= 0) {
+            throw new IllegalArgumentException("minNanos must be > 0");
+        }
+        if (nanosPerUnit < 0) {
+            throw new IllegalArgumentException("nanosPerUnit must be >= 0");
+        }
+        this.minTravelNanos = minNanos;
+        this.travelNanosPerUnit = nanosPerUnit;
+        return this;
+    }
+
+    // seeds the routing decisions, one generator per station
+    public StationNetwork setSeed(long seed) {
+        checkNotBuilt("change the seed of");
+        this.seed = seed;
+        return this;
+    }
+
+    // Runs every station up to and including endNanos of virtual time.
+    // Can be called again with a later time to continue.
+    public void run(long endNanos) throws InterruptedException {
+        if (shards == null) build();
+        if (endNanos <= now) return;
+
+        long start = now;
+        Throwable[] failure = new Throwable[1];
+        long[] windowEnd = {Math.min(endNanos, start + minTravelNanos)};
+        CyclicBarrier barrier = new CyclicBarrier(shards.length, () -> {
+            publishLoads();
+            windows++;
+            windowEnd[0] = windowEnd[0] >= endNanos ? Long.MAX_VALUE : Math.min(endNanos, windowEnd[0] + minTravelNanos);
+        });
+
+        Thread[] threads = new Thread[shards.length];
+        for (int i = 0; i < shards.length; i++) {
+            Shard shard = shards[i];
+            threads[i] = new Thread(() -> {
+                try {
+                    // windowEnd only changes in the barrier action, while every shard waits
+                    for (long end = windowEnd[0]; end != Long.MAX_VALUE; end = windowEnd[0]) {
+                        shard.runWindow(end);
+                        barrier.await();
+                    }
+                } catch (InterruptedException | BrokenBarrierException | RuntimeException | Error e) {
+                    // the first failure wins; resetting the barrier releases the other shards
+                    synchronized (failure) {
+                        if (failure[0] == null) failure[0] = e;
+                    }
+                    barrier.reset();
+                }
+            }, "network-shard-" + i);
+            threads[i].setDaemon(true);
+            threads[i].start();
+        }
+
+        try {
+            for (Thread thread : threads) {
+                thread.join();
+            }
+        } catch (InterruptedException e) {
+            for (Thread thread : threads) thread.interrupt();
+            throw e;
+        }
+        if (failure[0] instanceof InterruptedException e) {
+            throw e;
+        }
+        if (failure[0] != null) {
+            throw new IllegalStateException("network shard failed", failure[0]);
+        }
+        now = endNanos;
+    }
+
+    private void build() {
+        int n = stations.size();
+        if (n == 0) {
+            throw new IllegalStateException("network has no stations");
+        }
+        for (int i = 0; i < n; i++) {
+            if (!stations.get(i).isRunning()) {
+                throw new IllegalStateException("station " + i + " is not running");
+            }
+        }
+
+        neighbours = new int[n][];
+        for (int i = 0; i < n; i++) {
+            neighbours[i] = nearestNeighbours(i);
+        }
+
+        publishedLoads = new double[n];
+        publishedFull = new boolean[n];
+        divertedOut = new long[n];
+        divertedIn = new long[n];
+        publishLoads();
+
+        // contiguous blocks, so stations added next to each other share a shard
+        int count = Math.min(numShards, n);
+        shardOf = new int[n];
+        shards = new Shard[count];
+        for (int s = 0; s < count; s++) {
+            shards[s] = new Shard(s);
+        }
+        for (int i = 0; i < n; i++) {
+            shardOf[i] = (int) ((long) i * count / n);
+            shards[shardOf[i]].own(i);
+        }
+        outboxes = new Outbox[2][count][count];
+        for (Outbox[][] generation : outboxes) {
+            for (Outbox[] from : generation) {
+                for (int s = 0; s < count; s++) {
+                    from[s] = new Outbox();
+                }
+            }
+        }
+        for (int i = 0; i < n; i++) {
+            int station = i;
+            SplittableRandom random = new SplittableRandom(seed * 31 + i);
+            LoadBoard board = shards[shardOf[i]].board;
+            stations.get(i).setArrivalRouter((s, arrivalNanos) -> {
+                board.setHome(station, s);
+                int target = routing.route(station, neighbours[station], board, random);
+                if (target == station) return true;
+                divert(station, target, arrivalNanos);
+                return false;
+            });
+        }
+    }
+
+    private int[] nearestNeighbours(int station) {
+        int n = stations.size();
+        Integer[] others = new Integer[n - 1];
+        for (int i = 0, k = 0; i < n; i++) {
+            if (i != station) others[k++] = i;
+        }
+        Arrays.sort(others, (a, b) -> Double.compare(distance(station, a), distance(station, b)));
+        int[] nearest = new int[Math.min(numNeighbours, others.length)];
+        for (int i = 0; i < nearest.length; i++) {
+            nearest[i] = others[i];
+        }
+        return nearest;
+    }
+
+    // called on the shard owning from; the car arrives after this window, so it can wait for the next
+    private void divert(int from, int to, long departNanos) {
+        outboxes[(int) (windows & 1)][shardOf[from]][shardOf[to]].add(to, departNanos + travelNanos(from, to));
+        divertedOut[from]++;
+    }
+
+    private long travelNanos(int from, int to) {
+        return Math.max(minTravelNanos, Math.round(distance(from, to) * travelNanosPerUnit));
+    }
+
+    private double distance(int a, int b) {
+        double[] p = positions.get(a);
+        double[] q = positions.get(b);
+        return Math.hypot(p[0] - q[0], p[1] - q[1]);
+    }
+
+    private void publishLoads() {
+        for (int i = 0; i < stations.size(); i++) {
+            publishedLoads[i] = LoadBoard.load(stations.get(i));
+            publishedFull[i] = LoadBoard.isFull(stations.get(i));
+        }
+    }
+
+    private void checkNotBuilt(String what) {
+        if (shards != null) {
+            throw new IllegalStateException("cannot " + what + " a network that has run");
+        }
+    }
+
+    private class Shard {
+        private final int index;
+        private final List<Integer> owned = new ArrayList<>();
+        private final LoadBoard board = new LoadBoard(publishedLoads, publishedFull);
+
+        Shard(int index) {
+            this.index = index;
+        }
+
+        void own(int station) {
+            owned.add(station);
+        }
+
+        void runWindow(long endNanos) {
+            int current = (int) (windows & 1);
+            // the last window's cars for this shard, from every shard in index order
+            for (Outbox[] from : outboxes[current ^ 1]) {
+                Outbox outbox = from[index];
+                for (int i = 0; i < outbox.size(); i++) {
+                    int to = outbox.target(i);
+                    stations.get(to).addCarAt(outbox.arrival(i));
+                    divertedIn[to]++;
+                }
+            }
+            // delivered a window ago by every shard, free to reuse
+            for (Outbox outbox : outboxes[current][index]) {
+                outbox.clear();
+            }
+            for (int station : owned) {
+                stations.get(station).runUntil(endNanos);
+            }
+        }
+    }
+
+    public int getNumStations() {
+        return stations.size();
+    }
+
+    public VirtualStation getStation(int station) {
+        return stations.get(station);
+    }
+
+    public int getNumShards() {
+        return shards != null ? shards.length : Math.min(numShards, Math.max(1, stations.size()));
+    }
+
+    public long now() {
+        return now;
+    }
+
+    // lockstep windows completed so far
+    public long getWindows() {
+        return windows;
+    }
+
+    public long getFinishedCars() {
+        long total = 0;
+        for (VirtualStation station : stations) total += station.getFinishedCars();
+        return total;
+    }
+
+    // waits at every station combined
+    public Histogram getWaitTimes() {
+        Histogram waits = new Histogram();
+        for (VirtualStation station : stations) waits.add(station.getMetrics().getWaitTimes());
+        return waits;
+    }
+
+    // cars generated at station that drove on to a neighbour
+    public long getDivertedOut(int station) {
+        return divertedOut != null ? divertedOut[station] : 0;
+    }
+
+    // diverted cars that arrived at station
+    public long getDivertedIn(int station) {
+        return divertedIn != null ? divertedIn[station] : 0;
+    }
+
+    public long getDivertedCars() {
+        return divertedOut != null ? Arrays.stream(divertedOut).sum() : 0;
+    }
+
+    // diverted cars that will be delivered at the start of the next window
+    public int getCarsInTransit() {
+        int total = 0;
+        if (outboxes == null) return total;
+        for (Outbox[] from : outboxes[(int) ((windows - 1) & 1)]) {
+            for (Outbox outbox : from) {
+                total += outbox.size();
+            }
+        }
+        return total;
+    }
+}
@@ -0,0 +1,28 @@
+package simulator.cws.planning;
+
+import simulator.cws.replication.Estimate;
+
+// One configuration the planner looked at. The analytic fields are always
+// set; simulatedWait and simulatedBalkRate are null unless it was
+// simulated. Waits are in seconds.
+public record Candidate(int numPumps, int waitingAreaSize, double cost,
+                        double analyticWait, double analyticBalkRate, boolean analyticMeets,
+                        Estimate simulatedWait, Estimate simulatedBalkRate, boolean confirmed) {
+
+    public boolean isSimulated() {
+        return simulatedWait != null;
+    }
+
+    // The simulated wait is further from the closed form than its confidence
+    // interval plus tolerance (relative) allows. Only meaningful for
+    // exponential service without cooldown, where the closed form is exact.
+    public boolean drifts(double tolerance) {
+        if (!isSimulated()) return false;
+        return Math.abs(simulatedWait.mean() - analyticWait) > simulatedWait.halfWidth() + tolerance * analyticWait;
+    }
+
+    Candidate simulated(Estimate wait, Estimate balkRate, boolean meets) {
+        return new Candidate(numPumps, waitingAreaSize, cost, analyticWait, analyticBalkRate, analyticMeets,
+                wait, balkRate, meets);
+    }
+}
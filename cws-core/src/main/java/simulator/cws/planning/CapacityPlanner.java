@@ -0,0 +1,176 @@
+package simulator.cws.planning;
+
+import simulator.cws.load.ArrivalProcess;
+import simulator.cws.models.ServiceTime;
+import simulator.cws.replication.Estimate;
+import simulator.cws.replication.ReplicationReport;
+import simulator.cws.replication.ReplicationRunner;
+import simulator.cws.replication.ReplicationSpec;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+// Finds the cheapest station that meets an Sla in two passes. First every
+// (pumps, waiting area) in the bounds is scored with the QueueModel closed
+// forms, which takes microseconds each, and configurations the model says
+// miss the SLA by more than the slack are dropped. The rest are simulated
+// in order of cost with replications until one meets the SLA with
+// confidence: the upper end of its confidence interval is within the limit.
+//
+// The closed forms assume exponential service; the pump cooldown is added
+// to the mean service time. With other service distributions the slack
+// keeps configurations the model is pessimistic about, and simulation
+// decides. Without balking cars wait outside a full area, so the waiting
+// area does not change the wait and only the smallest one is considered.
+public class CapacityPlanner {
+    private ServiceTime serviceTime = ServiceTime.exponential(120_000_000_000L);
+    private long cooldownNanos = 0;
+    private boolean balking = false;
+
+    private int maxPumps = 50;
+    private int maxWaitingArea = 50;
+    private double pumpCost = 1;
+    private double spaceCost = 0.1;
+    private double slack = 0.25;
+
+    private long warmupNanos = 3_600_000_000_000L;
+    private long durationNanos = 24 * 3_600_000_000_000L;
+    private int replications = 10;
+    private long seed = 42;
+    private int parallelism = Runtime.getRuntime().availableProcessors();
+
+    public CapacityPlanner setServiceTime(ServiceTime serviceTime) {
+        this.serviceTime = serviceTime;
+        return this;
+    }
+
+    public CapacityPlanner setCooldownNanos(long cooldownNanos) {
+        if (cooldownNanos < 0) throw new IllegalArgumentException("cooldownNanos must be >= 0");
+        this.cooldownNanos = cooldownNanos;
+        return this;
+    }
+
+    public CapacityPlanner setBalking(boolean balking) {
+        this.balking = balking;
+        return this;
+    }
+
+    public CapacityPlanner setBounds(int maxPumps, int maxWaitingArea) {
+        if (maxPumps <= 0) throw new IllegalArgumentException("maxPumps must be > 0");
+        if (maxWaitingArea <= 0) throw new IllegalArgumentException("maxWaitingArea must be > 0");
+        this.maxPumps = maxPumps;
+        this.maxWaitingArea = maxWaitingArea;
+        return this;
+    }
+
+    // cost of a configuration is numPumps * pumpCost + waitingAreaSize * spaceCost
+    public CapacityPlanner setCosts(double pumpCost, double spaceCost) {
+        if (pumpCost < 0 || spaceCost < 0) throw new IllegalArgumentException("costs must be >= 0");
+        this.pumpCost = pumpCost;
+        this.spaceCost = spaceCost;
+        return this;
+    }
+
+    // how far, relative to the limits, the model may miss the SLA and the configuration still be simulated
+    public CapacityPlanner setSlack(double slack) {
+        if (slack < 0) throw new IllegalArgumentException("slack must be >= 0");
+        this.slack = slack;
+        return this;
+    }
+
+    public CapacityPlanner setSimulation(long warmupNanos, long durationNanos, int replications, long seed) {
+        if (warmupNanos < 0) throw new IllegalArgumentException("warmupNanos must be >= 0");
+        if (durationNanos <= 0) throw new IllegalArgumentException("durationNanos must be > 0");
+        if (replications < 2) throw new IllegalArgumentException("replications must be >= 2");
+        this.warmupNanos = warmupNanos;
+        this.durationNanos = durationNanos;
+        this.replications = replications;
+        this.seed = seed;
+        return this;
+    }
+
+    public CapacityPlanner setParallelism(int parallelism) {
+        if (parallelism <= 0) throw new IllegalArgumentException("parallelism must be > 0");
+        this.parallelism = parallelism;
+        return this;
+    }
+
+    public Plan plan(Sla sla) throws InterruptedException {
+        long start = System.nanoTime();
+        List<Candidate> candidates = new ArrayList<>();
+        int minArea = 1;
+        int maxArea = balking ? maxWaitingArea : 1;
+        for (int pumps = 1; pumps <= maxPumps; pumps++) {
+            for (int area = minArea; area <= maxArea; area++) {
+                candidates.add(analytic(sla, pumps, area));
+            }
+        }
+        int analyticEvaluations = candidates.size();
+        long analyticNanos = System.nanoTime() - start;
+
+        List<Candidate> promising = new ArrayList<>();
+        for (Candidate candidate : candidates) {
+            if (candidate.analyticWait() <= sla.maxWaitNanos() / 1e9 * (1 + slack)
+                    && candidate.analyticBalkRate() <= sla.maxBalkRate() * (1 + slack)) {
+                promising.add(candidate);
+            }
+        }
+        promising.sort(Comparator.comparingDouble(Candidate::cost).thenComparingInt(Candidate::numPumps));
+
+        start = System.nanoTime();
+        List<Candidate> simulated = new ArrayList<>();
+        Candidate chosen = null;
+        for (Candidate candidate : promising) {
+            Candidate result = simulate(sla, candidate);
+            simulated.add(result);
+            if (result.confirmed()) {
+                chosen = result;
+                break;
+            }
+        }
+        return new Plan(sla, chosen, simulated, analyticEvaluations, promising.size(), analyticNanos,
+                System.nanoTime() - start);
+    }
+
+    // scores one configuration with the closed forms only
+    public Candidate analytic(Sla sla, int numPumps, int waitingAreaSize) {
+        QueueModel model = model(sla, numPumps, waitingAreaSize);
+        double wait = model.getWaitPercentile(sla.percentile() / 100);
+        double balkRate = model.getBlockingProbability();
+        boolean meets = wait <= sla.maxWaitNanos() / 1e9 && balkRate <= sla.maxBalkRate();
+        return new Candidate(numPumps, waitingAreaSize, numPumps * pumpCost + waitingAreaSize * spaceCost,
+                wait, balkRate, meets, null, null, false);
+    }
+
+    // Scores one configuration both ways, e.g. to check that the simulator
+    // still agrees with theory; see Candidate.drifts().
+    public Candidate validate(Sla sla, int numPumps, int waitingAreaSize) throws InterruptedException {
+        return simulate(sla, analytic(sla, numPumps, waitingAreaSize));
+    }
+
+    public QueueModel model(Sla sla, int numPumps, int waitingAreaSize) {
+        double serviceSeconds = (serviceTime.getMeanNanos() + cooldownNanos) / 1e9;
+        return new QueueModel(sla.arrivalRate(), 1 / serviceSeconds, numPumps, balking ? waitingAreaSize : -1);
+    }
+
+    private Candidate simulate(Sla sla, Candidate candidate) throws InterruptedException {
+        ReplicationSpec spec = new ReplicationSpec()
+                .setNumPumps(candidate.numPumps())
+                .setWaitingAreaSize(candidate.waitingAreaSize())
+                .setServiceTime(serviceTime)
+                .setArrivals(ArrivalProcess.poisson(sla.arrivalRate()))
+                .setCooldownNanos(cooldownNanos)
+                .setBalking(balking)
+                .setWarmupNanos(warmupNanos)
+                .setDurationNanos(durationNanos)
+                .setReplications(replications)
+                .setSeed(seed)
+                .setWaitPercentile(sla.percentile());
+        ReplicationReport report = new ReplicationRunner(spec, parallelism).run();
+        Estimate wait = report.getWaitPercentile();
+        Estimate balkRate = report.getBalkRate();
+        boolean meets = wait.upper() <= sla.maxWaitNanos() / 1e9 && balkRate.upper() <= sla.maxBalkRate();
+        return candidate.simulated(wait, balkRate, meets);
+    }
+}
@@ -0,0 +1,18 @@
+package simulator.cws.planning;
+
+import java.util.List;
+
+// What CapacityPlanner.plan() found: the cheapest configuration that met
+// the SLA in simulation, or null when none within the bounds did, and
+// every configuration it simulated on the way, cheapest first.
+public record Plan(Sla sla, Candidate chosen, List<Candidate> simulated,
+                   int analyticEvaluations, int promising, long analyticNanos, long simulationNanos) {
+
+    public Plan {
+        simulated = List.copyOf(simulated);
+    }
+
+    public boolean isFeasible() {
+        return chosen != null;
+    }
+}
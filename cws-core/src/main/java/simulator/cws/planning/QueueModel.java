@@ -0,0 +1,157 @@
+package simulator.cws.planning;
+
+// Closed forms for a station with exponential arrivals and services:
+// M/M/c (Erlang C) when cars wait outside a full waiting area, M/M/c/K
+// with K = c + waitingAreaSize when they balk. Waits are FCFS waits in
+// the queue of the cars that get in. Everything is computed in log space,
+// so hundreds of pumps and spaces take microseconds without overflowing.
+public class QueueModel {
+    private final double lambda;
+    private final double mu;
+    private final int c;
+    private final int capacity; // K, or -1 without a limit
+
+    // probabilities that an arriving car finds n cars, for n < capacity (finite) or n <= c (infinite)
+    private final double[] arrivalSees;
+    private final double blocking;
+    private final double waitProbability;
+
+    // arrivals and services per second; waitingAreaSize < 0 means cars never balk
+    public QueueModel(double arrivalRate, double serviceRate, int numPumps, int waitingAreaSize) {
+        if (arrivalRate <= 0 || serviceRate <= 0) {
+            throw new IllegalArgumentException("rates must be > 0");
+        }
+        if (numPumps <= 0) {
+            throw new IllegalArgumentException("numPumps must be > 0");
+        }
+        this.lambda = arrivalRate;
+        this.mu = serviceRate;
+        this.c = numPumps;
+        this.capacity = waitingAreaSize < 0 ? -1 : numPumps + waitingAreaSize;
+
+        double a = lambda / mu;
+        if (capacity < 0) {
+            if (a >= c) {
+                // unstable: the queue grows without bound
+                arrivalSees = null;
+                blocking = 0;
+                waitProbability = 1;
+                return;
+            }
+            // log of a^n / n! for n <= c, plus the geometric tail beyond c
+            double[] logTerms = new double[c + 1];
+            for (int n = 1; n <= c; n++) logTerms[n] = logTerms[n - 1] + Math.log(a / n);
+            double max = max(logTerms);
+            double sum = 0;
+            for (int n = 0; n < c; n++) sum += Math.exp(logTerms[n] - max);
+            double tail = Math.exp(logTerms[c] - max) / (1 - a / c);
+            double norm = sum + tail;
+
+            arrivalSees = new double[c + 1];
+            for (int n = 0; n < c; n++) arrivalSees[n] = Math.exp(logTerms[n] - max) / norm;
+            arrivalSees[c] = tail / norm; // c or more: the car waits
+            blocking = 0;
+            waitProbability = arrivalSees[c];
+        } else {
+            double[] logTerms = new double[capacity + 1];
+            for (int n = 1; n <= capacity; n++) logTerms[n] = logTerms[n - 1] + Math.log(a / Math.min(n, c));
+            double max = max(logTerms);
+            double norm = 0;
+            for (double term : logTerms) norm += Math.exp(term - max);
+
+            blocking = Math.exp(logTerms[capacity] - max) / norm;
+            arrivalSees = new double[capacity];
+            double waiting = 0;
+            for (int n = 0; n < capacity; n++) {
+                // PASTA, conditioned on getting in
+                arrivalSees[n] = Math.exp(logTerms[n] - max) / norm / (1 - blocking);
+                if (n >= c) waiting += arrivalSees[n];
+            }
+            waitProbability = waiting;
+        }
+    }
+
+    public boolean isStable() {
+        return capacity >= 0 || lambda < c * mu;
+    }
+
+    // share of arriving cars that find the station full and balk
+    public double getBlockingProbability() {
+        return blocking;
+    }
+
+    // share of admitted cars that wait at all
+    public double getWaitProbability() {
+        return waitProbability;
+    }
+
+    // cars per second that get served
+    public double getThroughput() {
+        return lambda * (1 - blocking);
+    }
+
+    public double getUtilization() {
+        return getThroughput() / (c * mu);
+    }
+
+    // mean wait of admitted cars in seconds
+    public double getMeanWait() {
+        if (!isStable()) return Double.POSITIVE_INFINITY;
+        double rate = c * mu;
+        if (capacity < 0) return waitProbability / (rate - lambda);
+        // a car finding n >= c cars waits for n - c + 1 service completions
+        double mean = 0;
+        for (int n = c; n < capacity; n++) mean += arrivalSees[n] * (n - c + 1) / rate;
+        return mean;
+    }
+
+    // P(wait > t) for an admitted car, t in seconds
+    public double waitExceeds(double t) {
+        if (!isStable()) return 1;
+        if (t < 0) return 1;
+        double rate = c * mu;
+        if (capacity < 0) return waitProbability * Math.exp(-(rate - lambda) * t);
+        if (t == 0) return waitProbability;
+
+        // a car finding n >= c cars waits for n - c + 1 completions at rate c*mu,
+        // i.e. longer than t when fewer than n - c + 1 happen by then
+        double x = rate * t;
+        double logX = Math.log(x);
+        double logPoisson = -x; // log P(i completions by t), starting at i = 0
+        double fewer = 0;       // P(fewer than j completions)
+        double p = 0;
+        for (int j = 1; c + j - 1 < capacity; j++) {
+            if (j > 1) logPoisson += logX - Math.log(j - 1);
+            fewer += Math.exp(logPoisson);
+            p += arrivalSees[c + j - 1] * Math.min(1, fewer);
+        }
+        return Math.min(1, p);
+    }
+
+    // wait in seconds that the given share of admitted cars does not exceed, e.g. 0.95
+    public double getWaitPercentile(double quantile) {
+        if (quantile <= 0 || quantile >= 1) {
+            throw new IllegalArgumentException("quantile must be in (0, 1)");
+        }
+        if (!isStable()) return Double.POSITIVE_INFINITY;
+        double tail = 1 - quantile;
+        if (waitProbability <= tail) return 0;
+        if (capacity < 0) return Math.log(waitProbability / tail) / (c * mu - lambda);
+
+        double low = 0;
+        double high = 1 / (c * mu);
+        while (waitExceeds(high) > tail) high *= 2;
+        for (int i = 0; i < 60; i++) {
+            double mid = (low + high) / 2;
+            if (waitExceeds(mid) > tail) low = mid;
+            else high = mid;
+        }
+        return high;
+    }
+
+    private static double max(double[] values) {
+        double max = Double.NEGATIVE_INFINITY;
+        for (double value : values) max = Math.max(max, value);
+        return max;
+    }
+}
@@ -0,0 +1,23 @@
+package simulator.cws.planning;
+
+// Service level a configuration must meet: the given percentile of the
+// wait below maxWaitNanos at arrivalRate cars per second, and with balking
+// at most maxBalkRate of the arriving cars turned away.
+public record Sla(double arrivalRate, double percentile, long maxWaitNanos, double maxBalkRate) {
+
+    public Sla {
+        if (arrivalRate <= 0) throw new IllegalArgumentException("arrivalRate must be > 0");
+        if (percentile <= 0 || percentile >= 100) throw new IllegalArgumentException("percentile must be in (0, 100)");
+        if (maxWaitNanos < 0) throw new IllegalArgumentException("maxWaitNanos must be >= 0");
+        if (maxBalkRate < 0 || maxBalkRate > 1) throw new IllegalArgumentException("maxBalkRate must be in [0, 1]");
+    }
+
+    // e.g. perHour(120, 95, 3 * 60) for "p95 wait < 3 min at 120 cars/hour"
+    public static Sla perHour(double carsPerHour, double percentile, double maxWaitSeconds) {
+        return new Sla(carsPerHour / 3600, percentile, Math.round(maxWaitSeconds * 1e9), 1);
+    }
+
+    public Sla withMaxBalkRate(double maxBalkRate) {
+        return new Sla(arrivalRate, percentile, maxWaitNanos, maxBalkRate);
+    }
+}
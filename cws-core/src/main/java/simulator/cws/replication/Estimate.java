@@ -0,0 +1,43 @@
+package simulator.cws.replication;
+
+import java.util.Locale;
+
+// Mean of one output over independent replications with a Student-t
+// confidence interval: the true mean lies in [lower, upper] with the
+// given confidence, as long as the replications are independent.
+public record Estimate(double mean, double stdDev, double halfWidth, int replications, double confidence) {
+
+    static Estimate of(double[] values, double confidence) {
+        int n = values.length;
+        if (n < 2) {
+            throw new IllegalArgumentException("an estimate needs at least 2 replications");
+        }
+        double mean = 0;
+        for (double value : values) mean += value;
+        mean /= n;
+        double squares = 0;
+        for (double value : values) squares += (value - mean) * (value - mean);
+        double stdDev = Math.sqrt(squares / (n - 1));
+        double t = StudentT.quantile(1 - (1 - confidence) / 2, n - 1);
+        return new Estimate(mean, stdDev, t * stdDev / Math.sqrt(n), n, confidence);
+    }
+
+    public double lower() {
+        return mean - halfWidth;
+    }
+
+    public double upper() {
+        return mean + halfWidth;
+    }
+
+    // half-width relative to the mean, e.g. 0.02 for +-2%
+    public double relativeHalfWidth() {
+        return mean == 0 ? 0 : halfWidth / Math.abs(mean);
+    }
+
+    @Override
+    public String toString() {
+        return String.format(Locale.ROOT, "%.4f +- %.4f (%.0f%% CI [%.4f, %.4f], n=%d)",
+                mean, halfWidth, confidence * 100, lower(), upper(), replications);
+    }
+}
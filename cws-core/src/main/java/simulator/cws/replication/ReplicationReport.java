@@ -0,0 +1,56 @@
+package simulator.cws.replication;
+
+import java.util.List;
+import java.util.function.ToDoubleFunction;
+
+// Every replication of a ReplicationSpec, in replication order, with the
+// confidence intervals of the outputs across them.
+public class ReplicationReport {
+    private final List<ReplicationResult> results;
+    private final double confidence;
+
+    ReplicationReport(List<ReplicationResult> results, double confidence) {
+        this.results = List.copyOf(results);
+        this.confidence = confidence;
+    }
+
+    public List<ReplicationResult> getResults() {
+        return results;
+    }
+
+    // cars per second finishing service
+    public Estimate getThroughput() {
+        return estimate(ReplicationResult::throughput);
+    }
+
+    // seconds from arrival to the start of service
+    public Estimate getMeanWait() {
+        return estimate(ReplicationResult::meanWait);
+    }
+
+    // wait at the spec's percentile, p95 by default
+    public Estimate getWaitPercentile() {
+        return estimate(ReplicationResult::waitPercentile);
+    }
+
+    public Estimate getUtilization() {
+        return estimate(ReplicationResult::utilization);
+    }
+
+    public Estimate getBalkRate() {
+        return estimate(r -> r.arrivals() == 0 ? 0 : (double) r.balked() / r.arrivals());
+    }
+
+    // share of the measured arrivals still waiting at the end, left out of the waits
+    public Estimate getCensoredRate() {
+        return estimate(r -> r.arrivals() == 0 ? 0 : (double) r.censored() / r.arrivals());
+    }
+
+    public Estimate estimate(ToDoubleFunction<ReplicationResult> output) {
+        double[] values = new double[results.size()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = output.applyAsDouble(results.get(i));
+        }
+        return Estimate.of(values, confidence);
+    }
+}
@@ -0,0 +1,25 @@
+package simulator.cws.replication;
+
+import java.util.Locale;
+
+// Outcome of one replication over its measured period. Times are in
+// seconds, throughput in cars per second; waitPercentile is the wait at the
+// spec's percentile, over the measured cars that began service. censored
+// counts the measured cars still waiting when the period ends, whose waits
+// are not known and are left out; many of them mean the waits understate an
+// overloaded station. fingerprint hashes every event of the run, warm-up
+// included; two runs with the same fingerprint took the same course.
+public record ReplicationResult(int replication, long arrivals, long completions, long balked, long censored,
+                                double throughput, double meanWait, double waitPercentile, double utilization,
+                                long fingerprint, long elapsedNanos) {
+
+    public static String csvHeader() {
+        return "replication,arrivals,completions,balked,censored,throughput,meanWait,waitPercentile,utilization,fingerprint,runMillis";
+    }
+
+    public String toCsv() {
+        return String.format(Locale.ROOT, "%d,%d,%d,%d,%d,%.6f,%.3f,%.3f,%.4f,%016x,%d",
+                replication, arrivals, completions, balked, censored, throughput, meanWait, waitPercentile, utilization,
+                fingerprint, elapsedNanos / 1_000_000);
+    }
+}
@@ -0,0 +1,190 @@
+package simulator.cws.replication;
+
+import simulator.cws.engine.VirtualStation;
+import simulator.cws.metrics.Histogram;
+import simulator.cws.metrics.StationMetrics;
+import simulator.cws.models.SplitMix64;
+import simulator.cws.utlils.CarObserver;
+import simulator.cws.utlils.PumpObserver;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+// Runs the replications of a ReplicationSpec on a fixed pool of worker
+// threads, one independent VirtualStation each. A replication depends only
+// on the spec and its index, never on which thread ran it or when, so the
+// report is the same for any parallelism.
+public class ReplicationRunner {
+    private static final long STREAM_GAMMA = 0x632be59bd9b4e019L;
+
+    private final ReplicationSpec spec;
+    private final int parallelism;
+
+    public ReplicationRunner(ReplicationSpec spec) {
+        this(spec, Runtime.getRuntime().availableProcessors());
+    }
+
+    public ReplicationRunner(ReplicationSpec spec, int parallelism) {
+        if (parallelism <= 0) {
+            throw new IllegalArgumentException("parallelism must be > 0");
+        }
+        this.spec = spec;
+        this.parallelism = parallelism;
+    }
+
+    public ReplicationReport run() throws InterruptedException {
+        int count = spec.getReplications();
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(parallelism, count), r -> {
+            Thread thread = new Thread(r, "replication-worker");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        try {
+            List<Future<ReplicationResult>> futures = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                int replication = i;
+                futures.add(executor.submit(() -> runReplication(spec, replication)));
+            }
+            List<ReplicationResult> results = new ArrayList<>(count);
+            for (Future<ReplicationResult> future : futures) {
+                try {
+                    results.add(future.get());
+                } catch (ExecutionException e) {
+                    throw new IllegalStateException("replication failed", e.getCause());
+                }
+            }
+            return new ReplicationReport(results, spec.getConfidence());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    // runs replication i of spec on the calling thread; the same (spec, i) always gives the same result
+    public static ReplicationResult runReplication(ReplicationSpec spec, int replication) {
+        long start = System.nanoTime();
+
+        // one seed per replication, split into independent arrival and service streams
+        SplitMix64 seeds = new SplitMix64(spec.getSeed() + replication * STREAM_GAMMA);
+        long arrivalSeed = seeds.nextLong();
+        long serviceSeed = seeds.nextLong();
+
+        VirtualStation station = new VirtualStation(spec.getWaitingAreaSize(), spec.getNumPumps());
+        station.setCooldownNanos(spec.getCooldownNanos());
+        station.setBalking(spec.isBalking());
+        station.getMetrics().setRecordSeries(false);
+        station.setArrivalSource(spec.getArrivals().asSource(new SplittableRandom(arrivalSeed), Long.MAX_VALUE));
+        station.startSimulation(0, null);
+        station.setServiceTime(spec.getServiceTime());
+        station.setSeed(serviceSeed);
+
+        Recorder recorder = new Recorder(station);
+        station.addCarObserver(recorder);
+        station.addPumpObserver(recorder);
+
+        StationMetrics metrics = station.getMetrics();
+        long warmupEnd = spec.getWarmupNanos();
+        station.runUntil(warmupEnd);
+        long arrivals = metrics.getArrivals();
+        long balked = metrics.getBalks();
+        long busy = metrics.getTotalBusyNanos();
+        recorder.startMeasuring();
+
+        station.runUntil(warmupEnd + spec.getDurationNanos());
+        double seconds = spec.getDurationNanos() / 1e9;
+        arrivals = metrics.getArrivals() - arrivals;
+        balked = metrics.getBalks() - balked;
+        busy = metrics.getTotalBusyNanos() - busy;
+        station.stopSimulation();
+
+        Histogram waits = recorder.waits;
+        return new ReplicationResult(replication, arrivals, recorder.completions, balked, recorder.stillWaiting(),
+                recorder.completions / seconds, waits.getMean() / 1e9, waits.getPercentile(spec.getWaitPercentile()) / 1e9,
+                busy / (spec.getNumPumps() * (double) spec.getDurationNanos()),
+                recorder.fingerprint, System.nanoTime() - start);
+    }
+
+    // Waits of the cars that arrived while measuring, services finished
+    // while measuring and a running hash of every event. A car still waiting
+    // when measuring ends has no wait yet; it is counted as censored instead
+    // of entering the histogram with a partial wait that would pull the
+    // percentiles down.
+    private static class Recorder implements CarObserver, PumpObserver {
+        private final VirtualStation station;
+        private final Histogram waits = new Histogram();
+        private long completions = 0;
+        private long fingerprint = 0;
+        private boolean measuring = false;
+        // cars are numbered on arrival, so this and later ids arrived while measuring
+        private int firstMeasuredCar = Integer.MAX_VALUE;
+        // measured cars that arrived and neither balked nor began service, by carId - firstMeasuredCar
+        private final BitSet waiting = new BitSet();
+
+        Recorder(VirtualStation station) {
+            this.station = station;
+        }
+
+        void startMeasuring() {
+            measuring = true;
+            firstMeasuredCar = station.getCarCounter() + 1;
+        }
+
+        // measured cars that have not begun service yet
+        long stillWaiting() {
+            return waiting.cardinality();
+        }
+
+        private void mix(int event, int pumpId, int carId) {
+            long h = fingerprint ^ station.now();
+            h = (h ^ ((long) event << 56 | (long) pumpId << 32 | (carId & 0xFFFFFFFFL))) * 0x9e3779b97f4a7c15L;
+            fingerprint = h ^ (h >>> 29);
+        }
+
+        @Override
+        public void onCarArrives(int carId) {
+            mix(0, 0, carId);
+            if (carId >= firstMeasuredCar) waiting.set(carId - firstMeasuredCar);
+        }
+
+        @Override
+        public void onCarEntersQueue(int carId) {
+            mix(1, 0, carId);
+        }
+
+        @Override
+        public void onCarBalks(int carId) {
+            mix(2, 0, carId);
+            if (carId >= firstMeasuredCar) waiting.clear(carId - firstMeasuredCar);
+        }
+
+        @Override
+        public void onCarLogins(int pumpId, int carId) {
+            mix(3, pumpId, carId);
+        }
+
+        @Override
+        public void onCarBeginsService(int pumpId, int carId) {
+            mix(4, pumpId, carId);
+            if (carId >= firstMeasuredCar) {
+                waits.record(station.now() - station.getMetrics().getArrivalNanos(carId));
+                waiting.clear(carId - firstMeasuredCar);
+            }
+        }
+
+        @Override
+        public void onCarFinishesService(int pumpId, int carId) {
+            mix(5, pumpId, carId);
+            if (measuring) completions++;
+        }
+
+        @Override
+        public void onException(String message) {
+        }
+    }
+}
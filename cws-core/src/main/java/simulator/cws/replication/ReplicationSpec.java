@@ -0,0 +1,146 @@
+package simulator.cws.replication;
+
+import simulator.cws.load.ArrivalProcess;
+import simulator.cws.models.Pump;
+import simulator.cws.models.ServiceTime;
+
+// One station configuration and how to replicate it: every replication
+// simulates warmupNanos that are discarded, then durationNanos that are
+// measured. A single seed fixes the whole experiment; replication i gets
+// its own arrival and service streams derived from it, and ties between
+// events at the same instant are broken in the order they were scheduled,
+// so any replication can be re-run bit for bit from (seed, i).
+public class ReplicationSpec {
+    private int waitingAreaSize = 10;
+    private int numPumps = 3;
+    private ServiceTime serviceTime = ServiceTime.exponential(120_000_000_000L);
+    private ArrivalProcess arrivals = ArrivalProcess.poisson(1 / 60.0);
+    private long cooldownNanos = Pump.DEFAULT_COOLDOWN_NANOS;
+    private boolean balking = false;
+
+    private long warmupNanos = 3_600_000_000_000L;
+    private long durationNanos = 24 * 3_600_000_000_000L;
+    private int replications = 30;
+    private long seed = 42;
+    private double confidence = 0.95;
+    private double waitPercentile = 95;
+
+    public ReplicationSpec setWaitingAreaSize(int waitingAreaSize) {
+        if (waitingAreaSize < 0) throw new IllegalArgumentException("waitingAreaSize must be >= 0");
+        this.waitingAreaSize = waitingAreaSize;
+        return this;
+    }
+
+    public ReplicationSpec setNumPumps(int numPumps) {
+        if (numPumps <= 0) throw new IllegalArgumentException("numPumps must be > 0");
+        this.numPumps = numPumps;
+        return this;
+    }
+
+    public ReplicationSpec setServiceTime(ServiceTime serviceTime) {
+        this.serviceTime = serviceTime;
+        return this;
+    }
+
+    public ReplicationSpec setArrivals(ArrivalProcess arrivals) {
+        this.arrivals = arrivals;
+        return this;
+    }
+
+    public ReplicationSpec setCooldownNanos(long cooldownNanos) {
+        if (cooldownNanos < 0) throw new IllegalArgumentException("cooldownNanos must be >= 0");
+        this.cooldownNanos = cooldownNanos;
+        return this;
+    }
+
+    public ReplicationSpec setBalking(boolean balking) {
+        this.balking = balking;
+        return this;
+    }
+
+    // simulated time before measuring starts, so the empty start does not bias the results
+    public ReplicationSpec setWarmupNanos(long warmupNanos) {
+        if (warmupNanos < 0) throw new IllegalArgumentException("warmupNanos must be >= 0");
+        this.warmupNanos = warmupNanos;
+        return this;
+    }
+
+    public ReplicationSpec setDurationNanos(long durationNanos) {
+        if (durationNanos <= 0) throw new IllegalArgumentException("durationNanos must be > 0");
+        this.durationNanos = durationNanos;
+        return this;
+    }
+
+    public ReplicationSpec setReplications(int replications) {
+        if (replications < 2) throw new IllegalArgumentException("replications must be >= 2");
+        this.replications = replications;
+        return this;
+    }
+
+    public ReplicationSpec setSeed(long seed) {
+        this.seed = seed;
+        return this;
+    }
+
+    // e.g. 0.95 for 95% confidence intervals
+    public ReplicationSpec setConfidence(double confidence) {
+        if (confidence <= 0 || confidence >= 1) throw new IllegalArgumentException("confidence must be in (0, 1)");
+        this.confidence = confidence;
+        return this;
+    }
+
+    // the wait percentile each replication reports, e.g. 95
+    public ReplicationSpec setWaitPercentile(double waitPercentile) {
+        if (waitPercentile <= 0 || waitPercentile >= 100) throw new IllegalArgumentException("waitPercentile must be in (0, 100)");
+        this.waitPercentile = waitPercentile;
+        return this;
+    }
+
+    public int getWaitingAreaSize() {
+        return waitingAreaSize;
+    }
+
+    public int getNumPumps() {
+        return numPumps;
+    }
+
+    public ServiceTime getServiceTime() {
+        return serviceTime;
+    }
+
+    public ArrivalProcess getArrivals() {
+        return arrivals;
+    }
+
+    public long getCooldownNanos() {
+        return cooldownNanos;
+    }
+
+    public boolean isBalking() {
+        return balking;
+    }
+
+    public long getWarmupNanos() {
+        return warmupNanos;
+    }
+
+    public long getDurationNanos() {
+        return durationNanos;
+    }
+
+    public int getReplications() {
+        return replications;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public double getConfidence() {
+        return confidence;
+    }
+
+    public double getWaitPercentile() {
+        return waitPercentile;
+    }
+}
@@ -0,0 +1,99 @@
+package simulator.cws.replication;
+
+// Quantiles of Student's t distribution, for confidence intervals over a
+// handful of replications where the normal approximation is too narrow.
+// The CDF comes from the regularized incomplete beta function and is
+// inverted by bisection, which is plenty fast for a few calls per report.
+final class StudentT {
+    private static final double[] LANCZOS = {
+            0.99999999999980993, 676.5203681218851, -1259.1392167224028, 771.32342877765313,
+            -176.61502916214059, 12.507343278686905, -0.13857109526572012,
+            9.9843695780195716e-6, 1.5056327351493116e-7
+    };
+
+    private StudentT() {
+    }
+
+    // t such that P(T <= t) = p with df degrees of freedom
+    static double quantile(double p, int df) {
+        if (p <= 0 || p >= 1) {
+            throw new IllegalArgumentException("p must be in (0, 1)");
+        }
+        if (df < 1) {
+            throw new IllegalArgumentException("df must be >= 1");
+        }
+        if (p < 0.5) return -quantile(1 - p, df);
+
+        double low = 0;
+        double high = 1;
+        while (cdf(high, df) < p) high *= 2;
+        for (int i = 0; i < 100 && high - low > 1e-12 * high; i++) {
+            double mid = (low + high) / 2;
+            if (cdf(mid, df) < p) low = mid;
+            else high = mid;
+        }
+        return (low + high) / 2;
+    }
+
+    static double cdf(double t, int df) {
+        double tail = 0.5 * incompleteBeta(df / (df + t * t), df / 2.0, 0.5);
+        return t >= 0 ? 1 - tail : tail;
+    }
+
+    // regularized incomplete beta I_x(a, b)
+    private static double incompleteBeta(double x, double a, double b) {
+        if (x <= 0) return 0;
+        if (x >= 1) return 1;
+        double front = Math.exp(logGamma(a + b) - logGamma(a) - logGamma(b) + a * Math.log(x) + b * Math.log(1 - x));
+        // the continued fraction converges fast on this side of the mean
+        if (x < (a + 1) / (a + b + 2)) {
+            return front * continuedFraction(x, a, b) / a;
+        }
+        return 1 - front * continuedFraction(1 - x, b, a) / b;
+    }
+
+    // modified Lentz evaluation of the incomplete beta continued fraction
+    private static double continuedFraction(double x, double a, double b) {
+        double tiny = 1e-300;
+        double c = 1;
+        double d = 1 - (a + b) * x / (a + 1);
+        if (Math.abs(d) < tiny) d = tiny;
+        d = 1 / d;
+        double h = d;
+        for (int m = 1; m <= 300; m++) {
+            int m2 = 2 * m;
+            double aa = m * (b - m) * x / ((a + m2 - 1) * (a + m2));
+            d = 1 + aa * d;
+            if (Math.abs(d) < tiny) d = tiny;
+            c = 1 + aa / c;
+            if (Math.abs(c) < tiny) c = tiny;
+            d = 1 / d;
+            h *= d * c;
+
+            aa = -(a + m) * (a + b + m) * x / ((a + m2) * (a + m2 + 1));
+            d = 1 + aa * d;
+            if (Math.abs(d) < tiny) d = tiny;
+            c = 1 + aa / c;
+            if (Math.abs(c) < tiny) c = tiny;
+            d = 1 / d;
+            double delta = d * c;
+            h *= delta;
+            if (Math.abs(delta - 1) < 1e-15) break;
+        }
+        return h;
+    }
+
+    // Lanczos approximation, g = 7
+    private static double logGamma(double x) {
+        if (x < 0.5) {
+            return Math.log(Math.PI / Math.abs(Math.sin(Math.PI * x))) - logGamma(1 - x);
+        }
+        x -= 1;
+        double sum = LANCZOS[0];
+        for (int i = 1; i < LANCZOS.length; i++) {
+            sum += LANCZOS[i] / (x + i);
+        }
+        double t = x + 7.5;
+        return 0.5 * Math.log(2 * Math.PI) + (x + 0.5) * Math.log(t) - t + Math.log(sum);
+    }
+}
@@ -0,0 +1,253 @@
+package simulator.cws.scaling;
+
+import simulator.cws.models.ServiceStation;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.LockSupport;
+
+// Control loop that staffs a running ServiceStation with as few pumps as it
+// can while cars wait less than a target. Every interval it looks at the
+// cars waiting (inside and outside the waiting area), how long the oldest of
+// them has waited and the utilization of the pumps on duty since the last
+// tick, then:
+//   - scales up when the oldest wait exceeds the target or more than
+//     queuePerPump cars wait per pump, straight to the pumps the queue needs
+//   - scales down one pump when the oldest wait is under a fraction of the
+//     target, the queue fits the smaller staff and utilization is low
+// Either condition must hold for several ticks in a row, and the two bands do
+// not touch, so the staff does not flap. Pumps taken off duty finish their car.
+public class Autoscaler {
+    private static final int DECISION_HISTORY = 1000;
+
+    private final ServiceStation station;
+
+    private int minPumps = 1;
+    private int maxPumps;
+    private long intervalNanos = 1_000_000_000L;
+    private long targetWaitNanos = 10_000_000_000L;
+    private int queuePerPump = 2;
+    private double downWaitFraction = 0.25;
+    private double downUtilization = 0.6;
+    private int upTicks = 2;
+    private int downTicks = 5;
+
+    private volatile boolean running = false;
+    private Thread thread;
+
+    // decision statistics, written by the control thread
+    private final ArrayDeque<ScalingDecision> decisions = new ArrayDeque<>();
+    private volatile long scaleUps = 0;
+    private volatile long scaleDowns = 0;
+    private volatile long ticks = 0;
+    private volatile long ticksOverTarget = 0;
+    private volatile long staffedNanos = 0; // integral of pumps on duty over time
+    private volatile long observedNanos = 0;
+
+    public Autoscaler(ServiceStation station) {
+        this.station = station;
+        this.maxPumps = station.getNumPumps();
+    }
+
+    public Autoscaler setBounds(int minPumps, int maxPumps) {
+        if (minPumps < 1 || maxPumps < minPumps || maxPumps > station.getNumPumps()) {
+            throw new IllegalArgumentException("bounds must satisfy 1 <= min <= max <= " + station.getNumPumps());
+        }
+        this.minPumps = minPumps;
+        this.maxPumps = maxPumps;
+        return this;
+    }
+
+    public Autoscaler setIntervalNanos(long intervalNanos) {
+        if (intervalNanos <= 0) {
+            throw new IllegalArgumentException("intervalNanos must be > 0");
+        }
+        this.intervalNanos = intervalNanos;
+        return this;
+    }
+
+    public Autoscaler setTargetWaitNanos(long targetWaitNanos) {
+        if (targetWaitNanos <= 0) {
+            throw new IllegalArgumentException("targetWaitNanos must be > 0");
+        }
+        this.targetWaitNanos = targetWaitNanos;
+        return this;
+    }
+
+    public Autoscaler setQueuePerPump(int queuePerPump) {
+        if (queuePerPump < 1) {
+            throw new IllegalArgumentException("queuePerPump must be >= 1");
+        }
+        this.queuePerPump = queuePerPump;
+        return this;
+    }
+
+    // scale down only below downWaitFraction of the target wait and downUtilization
+    public Autoscaler setScaleDownBelow(double downWaitFraction, double downUtilization) {
+        if (downWaitFraction < 0 || downWaitFraction >= 1 || downUtilization < 0 || downUtilization > 1) {
+            throw new IllegalArgumentException("scale down thresholds must be in [0, 1)");
+        }
+        this.downWaitFraction = downWaitFraction;
+        this.downUtilization = downUtilization;
+        return this;
+    }
+
+    // consecutive ticks a condition must hold before acting on it
+    public Autoscaler setHysteresis(int upTicks, int downTicks) {
+        if (upTicks < 1 || downTicks < 1) {
+            throw new IllegalArgumentException("ticks must be >= 1");
+        }
+        this.upTicks = upTicks;
+        this.downTicks = downTicks;
+        return this;
+    }
+
+    public synchronized void start() {
+        if (running) {
+            throw new IllegalStateException("autoscaler is already running");
+        }
+        if (!station.isRunning()) {
+            throw new IllegalStateException("station is not running");
+        }
+        synchronized (decisions) {
+            decisions.clear();
+        }
+        scaleUps = 0;
+        scaleDowns = 0;
+        ticks = 0;
+        ticksOverTarget = 0;
+        staffedNanos = 0;
+        observedNanos = 0;
+
+        int start = Math.max(minPumps, Math.min(maxPumps, station.getActivePumps()));
+        station.setActivePumps(start);
+
+        running = true;
+        thread = new Thread(this::control, "autoscaler");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    public synchronized void stop() {
+        running = false;
+        if (thread != null) {
+            thread.interrupt();
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            thread = null;
+        }
+    }
+
+    private void control() {
+        long lastTick = System.nanoTime();
+        long lastBusy = station.getMetrics().getTotalBusyNanos();
+        int upStreak = 0;
+        int downStreak = 0;
+
+        while (running && station.isRunning()) {
+            LockSupport.parkNanos(this, intervalNanos);
+            if (Thread.interrupted() || !running || !station.isRunning()) break;
+
+            long now = System.nanoTime();
+            long busy = station.getMetrics().getTotalBusyNanos();
+            int active = station.getActivePumps();
+            long elapsed = now - lastTick;
+            double utilization = elapsed <= 0 ? 0 : Math.min(1.0, (busy - lastBusy) / ((double) active * elapsed));
+            lastTick = now;
+            lastBusy = busy;
+
+            int waiting = station.getWaitingCars() + station.getCarsOutside();
+            long oldestWait = station.getOldestWaitNanos();
+
+            ticks++;
+            if (oldestWait > targetWaitNanos) ticksOverTarget++;
+            staffedNanos += active * elapsed;
+            observedNanos += elapsed;
+
+            boolean overloaded = oldestWait > targetWaitNanos || waiting > queuePerPump * active;
+            boolean underloaded = oldestWait < targetWaitNanos * downWaitFraction
+                    && waiting <= queuePerPump * (active - 1)
+                    && utilization < downUtilization;
+            upStreak = overloaded ? upStreak + 1 : 0;
+            downStreak = underloaded ? downStreak + 1 : 0;
+
+            if (upStreak >= upTicks && active < maxPumps) {
+                int needed = (waiting + queuePerPump - 1) / queuePerPump;
+                int target = Math.min(maxPumps, Math.max(active + 1, needed));
+                String reason = oldestWait > targetWaitNanos ? "oldest wait over target" : "queue over " + queuePerPump + " per pump";
+                apply(now, active, target, reason, waiting, oldestWait, utilization);
+                upStreak = 0;
+            } else if (downStreak >= downTicks && active > minPumps) {
+                apply(now, active, active - 1, "idle capacity", waiting, oldestWait, utilization);
+                downStreak = 0;
+            }
+        }
+        running = false;
+    }
+
+    private void apply(long now, int from, int to, String reason, int waiting, long oldestWait, double utilization) {
+        station.setActivePumps(to);
+        if (to > from) scaleUps++;
+        else scaleDowns++;
+
+        synchronized (decisions) {
+            if (decisions.size() == DECISION_HISTORY) decisions.removeFirst();
+            decisions.addLast(new ScalingDecision(now, from, to, reason, waiting, oldestWait, utilization));
+        }
+    }
+
+    public boolean isRunning() {
+        return running;
+    }
+
+    // the most recent decisions, oldest first
+    public List<ScalingDecision> getDecisions() {
+        synchronized (decisions) {
+            return new ArrayList<>(decisions);
+        }
+    }
+
+    public long getScaleUps() {
+        return scaleUps;
+    }
+
+    public long getScaleDowns() {
+        return scaleDowns;
+    }
+
+    public long getTicks() {
+        return ticks;
+    }
+
+    // ticks on which the oldest waiting car had waited longer than the target
+    public long getTicksOverTarget() {
+        return ticksOverTarget;
+    }
+
+    // pump-seconds staffed since start()
+    public double getPumpSeconds() {
+        return staffedNanos / 1e9;
+    }
+
+    // time-weighted average of the pumps on duty
+    public double getAveragePumps() {
+        long observed = observedNanos;
+        return observed == 0 ? station.getActivePumps() : (double) staffedNanos / observed;
+    }
+
+    public int getMinPumps() {
+        return minPumps;
+    }
+
+    public int getMaxPumps() {
+        return maxPumps;
+    }
+
+    public long getTargetWaitNanos() {
+        return targetWaitNanos;
+    }
+}
@@ -0,0 +1,11 @@
+package simulator.cws.scaling;
+
+// One change of the number of pumps on duty, with what the autoscaler saw
+// when it made it. timeNanos is System.nanoTime() based.
+public record ScalingDecision(long timeNanos, int fromPumps, int toPumps, String reason,
+                              int carsWaiting, long oldestWaitNanos, double utilization) {
+
+    public boolean isScaleUp() {
+        return toPumps > fromPumps;
+    }
+}
@@ -0,0 +1,5 @@
+package simulator.cws.sweep;
+
+// One station configuration of a sweep; index is its position in the grid.
+public record SweepPoint(int index, int waitingAreaSize, int numPumps, long serviceNanos) {
+}
@@ -0,0 +1,38 @@
+package simulator.cws.sweep;
+
+import java.util.Locale;
+
+// Outcome of one sweep point. Times are in seconds, throughput in cars per second.
+public record SweepResult(SweepPoint point, long arrivals, long completions, long balked,
+                          double simulatedSeconds, double throughput, double balkRate,
+                          double waitP50, double waitP90, double waitP99, double waitMax,
+                          double sojournP50, double sojournP99, double utilization,
+                          long elapsedNanos) {
+
+    public static String csvHeader() {
+        return "index,waitingAreaSize,numPumps,serviceSeconds,arrivals,completions,balked,simulatedSeconds,"
+                + "throughput,balkRate,waitP50,waitP90,waitP99,waitMax,sojournP50,sojournP99,utilization,runMillis";
+    }
+
+    public String toCsv() {
+        return String.format(Locale.ROOT, "%d,%d,%d,%s,%d,%d,%d,%.3f,%.6f,%.6f,%.3f,%.3f,%.3f,%.3f,%.3f,%.3f,%.4f,%d",
+                point.index(), point.waitingAreaSize(), point.numPumps(), seconds(point.serviceNanos()),
+                arrivals, completions, balked, simulatedSeconds, throughput, balkRate,
+                waitP50, waitP90, waitP99, waitMax, sojournP50, sojournP99, utilization, elapsedNanos / 1_000_000);
+    }
+
+    // one JSON object per line
+    public String toJson() {
+        return String.format(Locale.ROOT, "{\"index\":%d,\"waitingAreaSize\":%d,\"numPumps\":%d,\"serviceSeconds\":%s,"
+                        + "\"arrivals\":%d,\"completions\":%d,\"balked\":%d,\"simulatedSeconds\":%.3f,"
+                        + "\"throughput\":%.6f,\"balkRate\":%.6f,\"waitP50\":%.3f,\"waitP90\":%.3f,\"waitP99\":%.3f,"
+                        + "\"waitMax\":%.3f,\"sojournP50\":%.3f,\"sojournP99\":%.3f,\"utilization\":%.4f,\"runMillis\":%d}",
+                point.index(), point.waitingAreaSize(), point.numPumps(), seconds(point.serviceNanos()),
+                arrivals, completions, balked, simulatedSeconds, throughput, balkRate,
+                waitP50, waitP90, waitP99, waitMax, sojournP50, sojournP99, utilization, elapsedNanos / 1_000_000);
+    }
+
+    private static String seconds(long nanos) {
+        return Double.toString(nanos / 1e9);
+    }
+}
@@ -0,0 +1,92 @@
+package simulator.cws.sweep;
+
+import simulator.cws.engine.VirtualStation;
+import simulator.cws.metrics.Histogram;
+import simulator.cws.metrics.StationMetrics;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+
+// Runs every point of a SweepSpec on its own VirtualStation, one point per
+// task on a fixed pool of worker threads. Stations share nothing, so points
+// run fully in parallel; results are handed to the sink on the calling
+// thread as soon as each point finishes, in completion order.
+public class SweepRunner {
+    private final SweepSpec spec;
+    private final int parallelism;
+
+    public SweepRunner(SweepSpec spec) {
+        this(spec, Runtime.getRuntime().availableProcessors());
+    }
+
+    public SweepRunner(SweepSpec spec, int parallelism) {
+        if (parallelism <= 0) {
+            throw new IllegalArgumentException("parallelism must be > 0");
+        }
+        this.spec = spec;
+        this.parallelism = parallelism;
+    }
+
+    public void run(Consumer<SweepResult> sink) throws InterruptedException {
+        List<SweepPoint> points = spec.points();
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(parallelism, Math.max(1, points.size())), r -> {
+            Thread thread = new Thread(r, "sweep-worker");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        try {
+            CompletionService<SweepResult> results = new ExecutorCompletionService<>(executor);
+            for (SweepPoint point : points) {
+                results.submit(() -> runPoint(spec, point));
+            }
+            for (int i = 0; i < points.size(); i++) {
+                try {
+                    sink.accept(results.take().get());
+                } catch (ExecutionException e) {
+                    throw new IllegalStateException("sweep point failed", e.getCause());
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    public static SweepResult runPoint(SweepSpec spec, SweepPoint point) {
+        long start = System.nanoTime();
+
+        VirtualStation station = new VirtualStation(point.waitingAreaSize(), point.numPumps());
+        station.setCooldownNanos(spec.getCooldownNanos());
+        station.setBalking(spec.isBalking());
+        station.getMetrics().setRecordSeries(false);
+        station.setArrivalSource(spec.getArrivals().asSource(new SplittableRandom(spec.getSeed()), spec.getCarsPerRun()));
+        station.startSimulation(0, null);
+        station.setServiceTime(spec.serviceTime(point));
+        station.setSeed(spec.getSeed());
+
+        // no more arrivals after carsPerRun, so this drains the station and ends
+        station.run();
+
+        StationMetrics metrics = station.getMetrics();
+        Histogram wait = metrics.getWaitTimes();
+        Histogram sojourn = metrics.getSojournTimes();
+        double simulatedSeconds = station.now() / 1e9;
+        long arrivals = metrics.getArrivals();
+        long completions = metrics.getCompletions();
+        long balked = metrics.getBalks();
+
+        return new SweepResult(point, arrivals, completions, balked, simulatedSeconds,
+                simulatedSeconds > 0 ? completions / simulatedSeconds : 0,
+                arrivals > 0 ? (double) balked / arrivals : 0,
+                wait.getPercentile(50) / 1e9, wait.getPercentile(90) / 1e9,
+                wait.getPercentile(99) / 1e9, wait.getMax() / 1e9,
+                sojourn.getPercentile(50) / 1e9, sojourn.getPercentile(99) / 1e9,
+                metrics.getAverageUtilization(), System.nanoTime() - start);
+    }
+}
@@ -0,0 +1,184 @@
+package simulator.cws.sweep;
+
+import simulator.cws.load.ArrivalProcess;
+import simulator.cws.models.Pump;
+import simulator.cws.models.ServiceTime;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.LongFunction;
+
+// The grid a sweep covers (every combination of waiting-area size, pump
+// count and service time) and the load each configuration is run under.
+// Ranges are written like "1..20", "30..300:30" or "1,2,5..8".
+public class SweepSpec {
+    private int[] waitingAreaSizes = {10};
+    private int[] pumpCounts = {3};
+    private long[] serviceNanos = {120_000_000_000L};
+    private LongFunction<ServiceTime> serviceDistribution = ServiceTime::deterministic;
+
+    private ArrivalProcess arrivals = ArrivalProcess.poisson(1 / 60.0);
+    private long carsPerRun = 100_000;
+    private long seed = 42;
+    private long cooldownNanos = Pump.DEFAULT_COOLDOWN_NANOS;
+    private boolean balking = true;
+
+    public List<SweepPoint> points() {
+        List<SweepPoint> points = new ArrayList<>(size());
+        for (int waitingAreaSize : waitingAreaSizes) {
+            for (int numPumps : pumpCounts) {
+                for (long service : serviceNanos) {
+                    points.add(new SweepPoint(points.size(), waitingAreaSize, numPumps, service));
+                }
+            }
+        }
+        return points;
+    }
+
+    public int size() {
+        return waitingAreaSizes.length * pumpCounts.length * serviceNanos.length;
+    }
+
+    public SweepSpec setWaitingAreaSizes(int... sizes) {
+        for (int size : sizes) {
+            if (size < 0) throw new IllegalArgumentException("waitingAreaSize must be >= 0");
+        }
+        this.waitingAreaSizes = sizes.clone();
+        return this;
+    }
+
+    public SweepSpec setPumpCounts(int... counts) {
+        for (int count : counts) {
+            if (count <= 0) throw new IllegalArgumentException("numPumps must be > 0");
+        }
+        this.pumpCounts = counts.clone();
+        return this;
+    }
+
+    public SweepSpec setServiceNanos(long... nanos) {
+        for (long n : nanos) {
+            if (n < 0) throw new IllegalArgumentException("serviceNanos must be >= 0");
+        }
+        this.serviceNanos = nanos.clone();
+        return this;
+    }
+
+    // turns each mean service time of the grid into the distribution the pumps draw from
+    public SweepSpec setServiceDistribution(LongFunction<ServiceTime> serviceDistribution) {
+        this.serviceDistribution = serviceDistribution;
+        return this;
+    }
+
+    public SweepSpec setArrivals(ArrivalProcess arrivals) {
+        this.arrivals = arrivals;
+        return this;
+    }
+
+    public SweepSpec setCarsPerRun(long carsPerRun) {
+        if (carsPerRun <= 0) throw new IllegalArgumentException("carsPerRun must be > 0");
+        this.carsPerRun = carsPerRun;
+        return this;
+    }
+
+    // every configuration sees the same arrival stream, so differences between them come from the configuration
+    public SweepSpec setSeed(long seed) {
+        this.seed = seed;
+        return this;
+    }
+
+    public SweepSpec setCooldownNanos(long cooldownNanos) {
+        if (cooldownNanos < 0) throw new IllegalArgumentException("cooldownNanos must be >= 0");
+        this.cooldownNanos = cooldownNanos;
+        return this;
+    }
+
+    public SweepSpec setBalking(boolean balking) {
+        this.balking = balking;
+        return this;
+    }
+
+    public int[] getWaitingAreaSizes() {
+        return waitingAreaSizes.clone();
+    }
+
+    public int[] getPumpCounts() {
+        return pumpCounts.clone();
+    }
+
+    public long[] getServiceNanos() {
+        return serviceNanos.clone();
+    }
+
+    public ServiceTime serviceTime(SweepPoint point) {
+        return serviceDistribution.apply(point.serviceNanos());
+    }
+
+    public ArrivalProcess getArrivals() {
+        return arrivals;
+    }
+
+    public long getCarsPerRun() {
+        return carsPerRun;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public long getCooldownNanos() {
+        return cooldownNanos;
+    }
+
+    public boolean isBalking() {
+        return balking;
+    }
+
+    // "1..20", "1..20:2" or a comma separated list of those
+    public static int[] parseInts(String spec) {
+        double[] values = parseDoubles(spec);
+        int[] ints = new int[values.length];
+        for (int i = 0; i < values.length; i++) {
+            if (values[i] != Math.rint(values[i])) {
+                throw new IllegalArgumentException("not a whole number in range: " + spec);
+            }
+            ints[i] = (int) values[i];
+        }
+        return ints;
+    }
+
+    public static double[] parseDoubles(String spec) {
+        List<Double> values = new ArrayList<>();
+        for (String part : spec.split(",")) {
+            part = part.trim();
+            int dots = part.indexOf("..");
+            if (dots < 0) {
+                values.add(Double.parseDouble(part));
+                continue;
+            }
+
+            String end = part.substring(dots + 2);
+            double step = 1;
+            int colon = end.indexOf(':');
+            if (colon >= 0) {
+                step = Double.parseDouble(end.substring(colon + 1));
+                end = end.substring(0, colon);
+            }
+            if (!(step > 0)) {
+                throw new IllegalArgumentException("range step must be > 0: " + part);
+            }
+            double from = Double.parseDouble(part.substring(0, dots));
+            double to = Double.parseDouble(end);
+            // count steps instead of accumulating, so 0.1 steps do not drift past the end
+            long steps = (long) Math.floor((to - from) / step + 1e-9);
+            for (long i = 0; i <= steps; i++) {
+                values.add(from + i * step);
+            }
+        }
+
+        double[] result = new double[values.size()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = values.get(i);
+        }
+        return result;
+    }
+}
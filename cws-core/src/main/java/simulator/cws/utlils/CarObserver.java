@@ -4,4 +4,8 @@ public interface CarObserver {
     void onCarArrives(int carId);
     void onCarEntersQueue(int carId);
     void onException(String message);
+
+    // the car found the waiting area full and left without service
+    default void onCarBalks(int carId) {
+    }
 }
@@ -0,0 +1,99 @@
+package simulator.cws.journal;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import simulator.cws.engine.VirtualStation;
+import simulator.cws.load.ArrivalProcess;
+import simulator.cws.metrics.Histogram;
+import simulator.cws.metrics.StationMetrics;
+import simulator.cws.models.ServiceTime;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Records a seeded virtual run into a journal and checks that replaying it
+// rebuilds the metrics the station collected while running.
+class JournalTest {
+    private static final long SECOND = 1_000_000_000L;
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void replayedMetricsMatchTheRecordedRun() throws IOException {
+        Path path = dir.resolve("run.cwsj");
+        VirtualStation station = newStation();
+        JournalWriter journal = record(station, path);
+        assertEquals(0, journal.getDropped());
+
+        try (JournalReader reader = new JournalReader(path)) {
+            assertEquals(station.getNumPumps(), reader.getNumPumps());
+            assertEquals(station.getWaitingAreaSize(), reader.getWaitingAreaSize());
+            assertEquals(journal.getWritten(), reader.getRecordCount());
+        }
+
+        StationMetrics recorded = station.getMetrics();
+        StationMetrics replayed = JournalReplayer.toMetrics(path);
+        assertTrue(recorded.getBalks() > 0, "the run should exercise balking");
+        assertEquals(recorded.getArrivals(), replayed.getArrivals());
+        assertEquals(recorded.getCompletions(), replayed.getCompletions());
+        assertEquals(recorded.getBalks(), replayed.getBalks());
+        assertEquals(recorded.getTotalBusyNanos(), replayed.getTotalBusyNanos());
+        for (int pumpId = 1; pumpId <= station.getNumPumps(); pumpId++) {
+            assertEquals(recorded.getServed(pumpId), replayed.getServed(pumpId), "pump " + pumpId);
+        }
+        assertSameHistogram(recorded.getWaitTimes(), replayed.getWaitTimes());
+        assertSameHistogram(recorded.getServiceTimes(), replayed.getServiceTimes());
+        assertSameHistogram(recorded.getSojournTimes(), replayed.getSojournTimes());
+    }
+
+    @Test
+    void replayDeliversEveryRecordedEvent() throws IOException, InterruptedException {
+        Path path = dir.resolve("run.cwsj");
+        VirtualStation station = newStation();
+        JournalWriter journal = record(station, path);
+
+        StationMetrics counted = new StationMetrics(station.getNumPumps(), () -> 0);
+        long events = JournalReplayer.replay(path, JournalReplayer.AS_FAST_AS_POSSIBLE, counted, counted);
+        assertEquals(journal.getWritten(), events);
+        assertEquals(station.getMetrics().getCompletions(), counted.getCompletions());
+    }
+
+    // runs the station to the end with a journal attached and closes the journal
+    private static JournalWriter record(VirtualStation station, Path path) throws IOException {
+        JournalWriter journal = new JournalWriter(path, station.getNumPumps(), station.getWaitingAreaSize(),
+                station::now);
+        try (journal) {
+            station.addCarObserver(journal);
+            station.addPumpObserver(journal);
+            station.run();
+        }
+        return journal;
+    }
+
+    // 2,000 seeded cars at 90% load with a small area, so some of them balk
+    private static VirtualStation newStation() {
+        VirtualStation station = new VirtualStation(3, 2);
+        station.getMetrics().setRecordSeries(false);
+        station.setArrivalSource(ArrivalProcess.poisson(1.8 / 60).asSource(new SplittableRandom(7), 2_000));
+        station.startSimulation(0, null);
+        station.setServiceTime(ServiceTime.exponential(60 * SECOND));
+        station.setCooldownNanos(0);
+        station.setBalking(true);
+        station.setSeed(11);
+        return station;
+    }
+
+    private static void assertSameHistogram(Histogram expected, Histogram actual) {
+        assertEquals(expected.getCount(), actual.getCount());
+        assertEquals(expected.getSum(), actual.getSum());
+        assertEquals(expected.getMax(), actual.getMax());
+        for (double percentile : new double[]{50, 90, 95, 99, 100}) {
+            assertEquals(expected.getPercentile(percentile), actual.getPercentile(percentile), "p" + percentile);
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package simulator.cws.load;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Draws many cycles of a piecewise rate profile from a seeded generator and
+// counts the arrivals that land in each segment: every segment must get its
+// rate times its length, and a segment at rate 0 none at all.
+class ArrivalProcessTest {
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+    private static final int CYCLES = 2_000;
+
+    @Test
+    void timeOfDayFollowsTheRateOfEachSegment() {
+        double[] rates = {2, 0, 0.5, 1};
+        ArrivalProcess process = ArrivalProcess.timeOfDay(rates, 10 * SECOND);
+        assertEquals(0.875, process.getMeanRate(), 1e-12);
+
+        long[] counts = countBySegment(process, new long[]{10 * SECOND, 10 * SECOND, 10 * SECOND, 10 * SECOND});
+        assertEquals(0, counts[1], "no arrivals while the rate is 0");
+        for (int segment : new int[]{0, 2, 3}) {
+            double expected = rates[segment] * 10 * CYCLES;
+            assertEquals(expected, counts[segment], 4 * Math.sqrt(expected), "segment " + segment);
+        }
+    }
+
+    // work left over at the end of an on period is spent in the next one, across the quiet gap
+    @Test
+    void burstyArrivalsOnlyFallInTheOnPeriods() {
+        ArrivalProcess process = ArrivalProcess.bursty(1, 5 * SECOND, 55 * SECOND);
+        assertEquals(5 / 60.0, process.getMeanRate(), 1e-12);
+
+        long[] counts = countBySegment(process, new long[]{5 * SECOND, 55 * SECOND});
+        assertEquals(0, counts[1]);
+        double expected = 5.0 * CYCLES;
+        assertEquals(expected, counts[0], 4 * Math.sqrt(expected));
+    }
+
+    @Test
+    void rateProfilesAreValidated() {
+        assertThrows(IllegalArgumentException.class, () -> new PiecewiseArrivals(new double[0], new long[0]));
+        assertThrows(IllegalArgumentException.class, () -> new PiecewiseArrivals(new double[]{1}, new long[]{1, 1}));
+        assertThrows(IllegalArgumentException.class, () -> new PiecewiseArrivals(new double[]{-1}, new long[]{1}));
+        assertThrows(IllegalArgumentException.class, () -> new PiecewiseArrivals(new double[]{1}, new long[]{0}));
+        assertThrows(IllegalArgumentException.class, () -> ArrivalProcess.timeOfDay(new double[]{0, 0}, SECOND));
+    }
+
+    // arrivals per segment over CYCLES cycles, checking that times only move forward
+    private static long[] countBySegment(ArrivalProcess process, long[] lengths) {
+        long cycle = 0;
+        for (long length : lengths) cycle += length;
+        long end = CYCLES * cycle;
+        long[] counts = new long[lengths.length];
+        SplittableRandom random = new SplittableRandom(42);
+        long time = 0;
+        while (true) {
+            long next = process.nextArrival(time, random);
+            assertTrue(next > time, "arrival times must increase");
+            if (next >= end) return counts;
+            long offset = next % cycle;
+            int segment = 0;
+            while (offset >= lengths[segment]) {
+                offset -= lengths[segment++];
+            }
+            counts[segment]++;
+            time = next;
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package simulator.cws.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Every row is derived from its car id, so a scan can tell a complete row
+// from a torn or missing one.
+class CompletedCarsTest {
+    private static final int CHUNK_SIZE = 1 << 16;
+
+    @Test
+    void forEachWalksAcrossChunkBoundaries() {
+        CompletedCars cars = filled(2 * CHUNK_SIZE + 3);
+        AtomicLong next = new AtomicLong(1);
+        cars.forEach((carId, arrival, enqueue, login, begin, finish) -> {
+            assertEquals(next.getAndIncrement(), carId);
+            assertRow(carId, arrival, enqueue, login, begin, finish);
+        });
+        assertEquals(2 * CHUNK_SIZE + 3, next.get() - 1);
+
+        for (long row : new long[]{0, CHUNK_SIZE - 1, CHUNK_SIZE, 2 * CHUNK_SIZE, 2 * CHUNK_SIZE + 2}) {
+            int carId = (int) row + 1;
+            assertEquals(carId, cars.getCarId(row));
+            assertEquals(10L * carId + 5, cars.getFinish(row));
+        }
+    }
+
+    @Test
+    void writeCsvWritesEveryRowAcrossChunkBoundaries() throws IOException {
+        int rows = CHUNK_SIZE + 2;
+        CompletedCars cars = filled(rows);
+        StringBuilder out = new StringBuilder();
+        cars.writeCsv(out, 1);
+
+        String[] lines = out.toString().split("\n");
+        assertEquals(rows + 1, lines.length);
+        assertEquals("car,arrival,enqueue,login,begin,finish", lines[0]);
+        assertEquals("1,9,10,11,12,14", lines[1]);
+        assertEquals(CHUNK_SIZE + ",655359,655360,655361,655362,655364", lines[CHUNK_SIZE]);
+        assertEquals((CHUNK_SIZE + 1) + ",655369,655370,655371,655372,655374", lines[CHUNK_SIZE + 1]);
+    }
+
+    @Test
+    void outOfRangeRowsAreRejected() {
+        CompletedCars cars = filled(3);
+        assertThrows(IndexOutOfBoundsException.class, () -> cars.getCarId(3));
+        assertThrows(IndexOutOfBoundsException.class, () -> cars.getCarId(-1));
+    }
+
+    // readers scan without the lock while writers append: every row below size must be complete
+    @Test
+    void scansWhileAppendingOnlySeeCompleteRows() throws InterruptedException {
+        CompletedCars cars = new CompletedCars();
+        int writers = 4, perWriter = 3 * CHUNK_SIZE / 4;
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        Thread[] threads = new Thread[writers];
+        for (int w = 0; w < writers; w++) {
+            int first = w * perWriter + 1;
+            threads[w] = new Thread(() -> {
+                for (int carId = first; carId < first + perWriter; carId++) {
+                    add(cars, carId);
+                }
+            }, "writer-" + w);
+            threads[w].start();
+        }
+
+        Thread reader = new Thread(() -> {
+            try {
+                long seen;
+                do {
+                    long before = cars.size();
+                    AtomicLong count = new AtomicLong();
+                    cars.forEach((carId, arrival, enqueue, login, begin, finish) -> {
+                        assertTrue(carId > 0, "row " + count.get() + " not yet written");
+                        assertRow(carId, arrival, enqueue, login, begin, finish);
+                        count.incrementAndGet();
+                    });
+                    seen = count.get();
+                    assertTrue(seen >= before, seen + " rows seen, " + before + " published");
+                } while (seen < (long) writers * perWriter);
+            } catch (Throwable e) {
+                failure.set(e);
+            }
+        }, "reader");
+        reader.start();
+
+        for (Thread thread : threads) thread.join();
+        reader.join();
+        assertNull(failure.get());
+        assertEquals((long) writers * perWriter, cars.size());
+    }
+
+    private static CompletedCars filled(int rows) {
+        CompletedCars cars = new CompletedCars();
+        for (int carId = 1; carId <= rows; carId++) {
+            add(cars, carId);
+        }
+        return cars;
+    }
+
+    private static void add(CompletedCars cars, int carId) {
+        long t = 10L * carId;
+        cars.add(carId, t, t + 1, t + 2, t + 3, t + 5);
+    }
+
+    private static void assertRow(int carId, long arrival, long enqueue, long login, long begin, long finish) {
+        long t = 10L * carId;
+        assertEquals(t, arrival, "car " + carId);
+        assertEquals(t + 1, enqueue, "car " + carId);
+        assertEquals(t + 2, login, "car " + carId);
+        assertEquals(t + 3, begin, "car " + carId);
+        assertEquals(t + 5, finish, "car " + carId);
+    }
+}
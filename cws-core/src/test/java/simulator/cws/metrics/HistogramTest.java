@@ -0,0 +1,100 @@
+package simulator.cws.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Percentiles are reported as the upper edge of a bucket, so they may
+// overstate the exact value by at most one sub-bucket (1/32 of it) and
+// never understate it.
+class HistogramTest {
+    private static final double[] PERCENTILES = {0.1, 1, 10, 50, 90, 95, 99, 99.9, 100};
+
+    @Test
+    void percentilesStayWithinOneSubBucketAboveTheExactValue() {
+        SplittableRandom random = new SplittableRandom(42);
+        long[] values = new long[100_000];
+        Histogram histogram = new Histogram();
+        for (int i = 0; i < values.length; i++) {
+            // spread over nanoseconds to hours
+            values[i] = (long) Math.exp(random.nextDouble(0, Math.log(4e12)));
+            histogram.record(values[i]);
+        }
+        Arrays.sort(values);
+
+        for (double percentile : PERCENTILES) {
+            long exact = values[(int) Math.max(1, Math.ceil(percentile / 100 * values.length)) - 1];
+            long reported = histogram.getPercentile(percentile);
+            assertTrue(reported >= exact, "p" + percentile + " " + reported + " < " + exact);
+            assertTrue(reported <= exact + exact / 32, "p" + percentile + " " + reported + " too far above " + exact);
+        }
+        assertEquals(values[values.length - 1], histogram.getPercentile(100));
+    }
+
+    @Test
+    void smallValuesAreExact() {
+        Histogram histogram = new Histogram();
+        for (int value = 0; value < 32; value++) {
+            histogram.record(value);
+        }
+        for (int value = 0; value < 32; value++) {
+            assertEquals(value, histogram.getPercentile((value + 1) * 100.0 / 32));
+        }
+    }
+
+    @Test
+    void everyBucketEdgeBoundsTheValuesInIt() {
+        for (long value : new long[]{32, 33, 63, 64, 65, 1_000, 123_456_789, Long.MAX_VALUE / 3, Long.MAX_VALUE}) {
+            int bucket = Histogram.bucketOf(value);
+            long upper = Histogram.upperEdge(bucket);
+            assertTrue(value <= upper, value + " above its bucket edge " + upper);
+            assertTrue(bucket == 0 || value > Histogram.upperEdge(bucket - 1), value + " fits a lower bucket");
+        }
+    }
+
+    @Test
+    void emptyHistogramReportsZero() {
+        Histogram histogram = new Histogram();
+        assertEquals(0, histogram.getPercentile(50));
+        assertEquals(0, histogram.getMean());
+        assertEquals(0, histogram.getCount());
+    }
+
+    @Test
+    void negativeValuesAreRecordedAsZero() {
+        Histogram histogram = new Histogram();
+        histogram.record(-5);
+        assertEquals(1, histogram.getCount());
+        assertEquals(0, histogram.getPercentile(100));
+    }
+
+    @Test
+    void writeAndReadKeepEveryPercentile() throws IOException {
+        SplittableRandom random = new SplittableRandom(7);
+        Histogram histogram = new Histogram();
+        for (int i = 0; i < 10_000; i++) {
+            histogram.record(random.nextLong(1, 10_000_000_000L));
+        }
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        histogram.writeTo(new DataOutputStream(bytes));
+        Histogram copy = new Histogram();
+        copy.record(1);
+        copy.readFrom(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+
+        assertEquals(histogram.getCount(), copy.getCount());
+        assertEquals(histogram.getSum(), copy.getSum());
+        assertEquals(histogram.getMax(), copy.getMax());
+        for (double percentile : PERCENTILES) {
+            assertEquals(histogram.getPercentile(percentile), copy.getPercentile(percentile), "p" + percentile);
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package simulator.cws.models;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.fail;
+
+// Lanes per pump: where the dispatch policies send arriving cars, and pumps
+// stealing from other lanes when their own is empty.
+class LanedWaitingAreaTest {
+    private static final long TIMEOUT_NANOS = TimeUnit.SECONDS.toNanos(10);
+
+    @Test
+    void roundRobinSpreadsCarsOverTheLanesInTurn() throws InterruptedException {
+        LanedWaitingArea area = new LanedWaitingArea(8, 3, false, new RoundRobinPolicy());
+        for (int id = 1; id <= 7; id++) {
+            put(area, id);
+        }
+        assertEquals(3, area.laneSize(0));
+        assertEquals(2, area.laneSize(1));
+        assertEquals(2, area.laneSize(2));
+        assertEquals(7, area.size());
+    }
+
+    @Test
+    void shortestQueueFillsTheLanesEvenly() throws InterruptedException {
+        LanedWaitingArea area = new LanedWaitingArea(12, 4, false, new ShortestQueuePolicy());
+        for (int id = 1; id <= 8; id++) {
+            put(area, id);
+        }
+        for (int lane = 0; lane < 4; lane++) {
+            assertEquals(2, area.laneSize(lane), "lane " + lane);
+        }
+    }
+
+    @Test
+    void pumpsServeTheirOwnLaneFirstAndStealWhenItIsEmpty() throws InterruptedException {
+        LanedWaitingArea area = new LanedWaitingArea(8, 3, false, laned -> 0);
+        Car first = put(area, 1);
+        Car second = put(area, 2);
+        Car third = put(area, 3);
+
+        // pump 1 owns lane 0, pumps 2 and 3 find their lanes empty
+        assertSame(first, area.take(1));
+        assertEquals(0, area.getSteals());
+        assertSame(second, area.take(2));
+        assertSame(third, area.take(3));
+        assertEquals(2, area.getSteals());
+        assertEquals(0, area.size());
+    }
+
+    // a pump that lists itself idle and then steals must leave the idle list,
+    // or the next car is sent to a lane whose pump is busy
+    @Test
+    void idlePumpThatStealsLeavesTheIdleList() throws InterruptedException {
+        LanedWaitingArea area = new LanedWaitingArea(8, 2, false, new IdleQueuePolicy(2));
+        Car waiting = put(area, 1);
+        int lane = area.laneSize(0) == 1 ? 0 : 1;
+        int other = 1 - lane;
+
+        // the other lane's pump finds its lane empty, goes idle and steals the car
+        assertSame(waiting, area.take(other + 1));
+        assertEquals(1, area.getSteals());
+
+        // now the car's lane pump runs dry and waits: the next car must go to it
+        AtomicReference<Car> taken = new AtomicReference<>();
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        Thread pump = new Thread(() -> {
+            try {
+                taken.set(area.take(lane + 1));
+            } catch (Throwable e) {
+                failure.set(e);
+            }
+        }, "pump-" + (lane + 1));
+        pump.start();
+        await(() -> pump.getState() == Thread.State.WAITING);
+
+        Car next = put(area, 2);
+        pump.join(TimeUnit.NANOSECONDS.toMillis(TIMEOUT_NANOS));
+        assertNull(failure.get());
+        assertSame(next, taken.get());
+        assertEquals(1, area.getSteals(), "the second car went to the busy pump's lane");
+    }
+
+    private static Car put(LanedWaitingArea area, int id) throws InterruptedException {
+        Car car = new Car(id, area);
+        area.reserve();
+        area.put(car);
+        return car;
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TIMEOUT_NANOS;
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() > deadline) fail("timed out");
+            Thread.sleep(1);
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package simulator.cws.models;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Fills a priority waiting area by hand and checks the order the pumps take
+// cars in. Aged waits are set on the cars before they are put, so the aging
+// tests do not depend on how long the test itself takes.
+class PriorityWaitingAreaTest {
+    private static final long AGING_NANOS = TimeUnit.HOURS.toNanos(1);
+
+    // fleet, premium and regular with weights 6, 3 and 1
+    @Test
+    void weightedSelectionGivesEachClassItsWeightsShare() throws InterruptedException {
+        PriorityWaitingArea area = area(CustomerClasses.Selection.WEIGHTED, 0);
+        int id = 1;
+        for (int i = 0; i < 100; i++) {
+            for (int customerClass = 0; customerClass < 3; customerClass++) {
+                put(area, id++, customerClass, Car.NOT_ENQUEUED);
+            }
+        }
+
+        int[] taken = new int[3];
+        int[] lastId = new int[3];
+        for (int i = 0; i < 100; i++) {
+            Car car = area.take();
+            assertTrue(car.getCarId() > lastId[car.getCustomerClass()], "FIFO within a class");
+            lastId[car.getCustomerClass()] = car.getCarId();
+            taken[car.getCustomerClass()]++;
+            // smooth round-robin: within every ten takes each class is at most one car off its share
+            if ((i + 1) % 10 == 0) {
+                assertEquals(6 * (i + 1) / 10, taken[0]);
+                assertEquals(3 * (i + 1) / 10, taken[1]);
+                assertEquals((i + 1) / 10, taken[2]);
+            }
+        }
+        assertEquals(60, area.getTaken(0));
+        assertEquals(30, area.getTaken(1));
+        assertEquals(10, area.getTaken(2));
+        assertEquals(200, area.size());
+    }
+
+    // an empty class drops out and the others share the pumps by their own weights
+    @Test
+    void weightedSelectionSkipsEmptyClasses() throws InterruptedException {
+        PriorityWaitingArea area = area(CustomerClasses.Selection.WEIGHTED, 0);
+        for (int id = 1; id <= 40; id++) {
+            put(area, id, 1 + id % 2, Car.NOT_ENQUEUED);
+        }
+        int[] taken = new int[3];
+        for (int i = 0; i < 20; i++) {
+            taken[area.take().getCustomerClass()]++;
+        }
+        assertEquals(0, taken[0]);
+        assertEquals(15, taken[1]);
+        assertEquals(5, taken[2]);
+    }
+
+    @Test
+    void strictSelectionWithoutAgingServesTheFirstClass() throws InterruptedException {
+        PriorityWaitingArea area = area(CustomerClasses.Selection.STRICT, 0);
+        long now = System.nanoTime();
+        put(area, 1, 2, now - 10 * AGING_NANOS);
+        put(area, 2, 1, now);
+        put(area, 3, 0, now);
+
+        assertEquals(3, area.take().getCarId());
+        assertEquals(2, area.take().getCarId());
+        assertEquals(1, area.take().getCarId());
+        assertEquals(0, area.getAged(2));
+    }
+
+    // a regular car lifted two classes ties with a fresh fleet car and wins as the older head
+    @Test
+    void agingLiftsALongWaitingCarOneClassPerAgingPeriod() throws InterruptedException {
+        PriorityWaitingArea area = area(CustomerClasses.Selection.STRICT, AGING_NANOS);
+        long now = System.nanoTime();
+        put(area, 1, 2, now - AGING_NANOS * 5 / 2);
+        put(area, 2, 0, now);
+
+        assertEquals(1, area.take().getCarId());
+        assertEquals(1, area.getAged(2));
+        assertEquals(2, area.take().getCarId());
+        assertEquals(0, area.getAged(0));
+
+        // lifted only one class, a regular car still waits behind a fleet car
+        put(area, 3, 2, now - AGING_NANOS * 3 / 2);
+        put(area, 4, 0, now);
+        assertEquals(4, area.take().getCarId());
+        assertEquals(3, area.take().getCarId());
+    }
+
+    private static PriorityWaitingArea area(CustomerClasses.Selection selection, long agingNanos) {
+        return new PriorityWaitingArea(300, false, CustomerClasses.standard(selection, agingNanos));
+    }
+
+    private static void put(PriorityWaitingArea area, int id, int customerClass, long enqueuedAt)
+            throws InterruptedException {
+        Car car = new Car(id, area, customerClass);
+        car.setEnqueuedAt(enqueuedAt);
+        area.reserve();
+        area.put(car);
+    }
+}
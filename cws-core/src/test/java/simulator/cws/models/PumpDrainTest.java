@@ -0,0 +1,193 @@
+package simulator.cws.models;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+// Drains and re-enables pumps over and over while cars keep arriving. A drain
+// interrupts pumps blocked in take(), which must never strand a car: once
+// every pump is back on duty, every car has to be served.
+class PumpDrainTest {
+    private static final long TIMEOUT_NANOS = TimeUnit.SECONDS.toNanos(30);
+    private static final int AREA = 8, PUMPS = 4, CARS = 600;
+
+    private ServiceStation station;
+
+    @AfterEach
+    void shutdown() {
+        if (station != null) station.shutdown();
+    }
+
+    @Test
+    void noCarIsLostOnAnyWaitingAreaType() throws InterruptedException {
+        for (WaitingAreaType type : WaitingAreaType.values()) {
+            station = new ServiceStation(AREA, PUMPS);
+            station.setWaitingAreaType(type);
+            drainUnderLoad(type.name());
+            station.shutdown();
+        }
+    }
+
+    @Test
+    void noCarIsLostWithLanesPerPump() throws InterruptedException {
+        for (DispatchPolicyType policy : DispatchPolicyType.values()) {
+            if (policy == DispatchPolicyType.SHARED_FIFO) continue;
+            station = new ServiceStation(AREA, PUMPS);
+            station.setDispatchPolicy(policy);
+            drainUnderLoad(policy.name());
+            station.shutdown();
+        }
+    }
+
+    @Test
+    void noCarIsLostWithCustomerClasses() throws InterruptedException {
+        station = new ServiceStation(AREA, PUMPS);
+        station.setCustomerClasses(CustomerClasses.standard(CustomerClasses.Selection.WEIGHTED, 0));
+        drainUnderLoad("classes");
+    }
+
+    @Test
+    void drainedPumpsTakeNoCarsUntilEnabled() throws InterruptedException {
+        station = new ServiceStation(AREA, PUMPS);
+        station.setCooldownNanos(0);
+        station.startSimulation(ServiceTime.deterministic(TimeUnit.MILLISECONDS.toNanos(1)), null);
+        station.setActivePumps(1);
+        assertEquals(1, station.getActivePumps());
+
+        for (int i = 0; i < 50; i++) {
+            station.addCar(null);
+        }
+        await(() -> station.getMetrics().getCompletions() == 50, "one pump");
+        assertEquals(50, station.getMetrics().getServed(1));
+        for (int pumpId = 2; pumpId <= PUMPS; pumpId++) {
+            assertEquals(0, station.getMetrics().getServed(pumpId), "pump " + pumpId);
+        }
+
+        station.setActivePumps(PUMPS);
+        for (int i = 0; i < 200; i++) {
+            station.addCar(null);
+        }
+        await(() -> station.getMetrics().getCompletions() == 250, "all pumps");
+        assertTrue(station.getMetrics().getServed(1) < 250, "the enabled pumps took some of the cars");
+    }
+
+    @Test
+    void setActivePumpsRejectsCountsOutsideTheStation() {
+        station = new ServiceStation(AREA, PUMPS);
+        assertThrows(IllegalArgumentException.class, () -> station.setActivePumps(0));
+        assertThrows(IllegalArgumentException.class, () -> station.setActivePumps(PUMPS + 1));
+    }
+
+    // one pump in a long service, two cars queued and one outside
+    @Test
+    void oldestWaitIsMeasuredFromTheLongestWaitingCar() throws InterruptedException {
+        station = new ServiceStation(2, 1);
+        station.startSimulation(ServiceTime.deterministic(TimeUnit.SECONDS.toNanos(10)), null);
+        assertEquals(0, station.getOldestWaitNanos());
+
+        station.addCar(null);
+        await(() -> station.getServicedCars() == 1, "first car served");
+        long firstWaiting = System.nanoTime();
+        for (int i = 0; i < 3; i++) {
+            station.addCar(null);
+        }
+        await(() -> station.getWaitingCars() == 2 && station.getCarsOutside() == 1, "cars waiting");
+        Thread.sleep(50);
+        long oldest = station.getOldestWaitNanos();
+        assertTrue(oldest >= TimeUnit.MILLISECONDS.toNanos(50), "oldest wait " + oldest);
+        assertTrue(oldest <= System.nanoTime() - firstWaiting, "oldest wait " + oldest);
+    }
+
+    // pumps interrupted at random, as a drain does, keep retrying; every car must still come out
+    @Test
+    void interruptedTakesNeverStrandACar() throws InterruptedException {
+        for (WaitingAreaType type : WaitingAreaType.values()) {
+            WaitingArea area = type.create(4, false);
+            int cars = 200_000;
+            AtomicInteger taken = new AtomicInteger();
+            Thread[] pumps = new Thread[6];
+            for (int p = 0; p < pumps.length; p++) {
+                pumps[p] = new Thread(() -> {
+                    while (taken.get() < cars) {
+                        try {
+                            area.take();
+                            area.vacate();
+                            taken.incrementAndGet();
+                        } catch (InterruptedException ignored) {
+                            // drained and put back on duty at once
+                        }
+                    }
+                }, "pump-" + p);
+                pumps[p].start();
+            }
+            Thread interrupter = new Thread(() -> {
+                while (taken.get() < cars) {
+                    for (Thread pump : pumps) pump.interrupt();
+                    Thread.yield();
+                }
+            }, "drains");
+            interrupter.start();
+
+            for (int id = 1; id <= cars; id++) {
+                area.reserve();
+                area.put(new Car(id, area));
+            }
+            long deadline = System.nanoTime() + TIMEOUT_NANOS;
+            while (taken.get() < cars && System.nanoTime() < deadline) {
+                Thread.sleep(1);
+            }
+            interrupter.interrupt();
+            for (Thread pump : pumps) pump.interrupt();
+            assertEquals(cars, taken.get(), type + ": cars stranded");
+            assertEquals(0, area.size(), type.name());
+        }
+    }
+
+    private void drainUnderLoad(String name) throws InterruptedException {
+        station.setCooldownNanos(0);
+        station.startSimulation(ServiceTime.deterministic(TimeUnit.MICROSECONDS.toNanos(200)), null);
+
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        Thread arrivals = new Thread(() -> {
+            try {
+                for (int i = 0; i < CARS; i++) {
+                    station.addCar(null);
+                    if (i % 20 == 0) Thread.sleep(1);
+                }
+            } catch (Throwable e) {
+                failure.set(e);
+            }
+        }, "arrivals");
+        arrivals.start();
+
+        for (int i = 0; arrivals.isAlive(); i++) {
+            station.setActivePumps(1 + i % PUMPS);
+            Thread.sleep(1);
+        }
+        arrivals.join();
+        assertNull(failure.get());
+
+        station.setActivePumps(PUMPS);
+        await(() -> station.getMetrics().getCompletions() == CARS, name);
+        assertEquals(CARS, station.getMetrics().getArrivals(), name);
+        assertEquals(0, station.getWaitingCars(), name);
+    }
+
+    private static void await(BooleanSupplier condition, String name) throws InterruptedException {
+        long deadline = System.nanoTime() + TIMEOUT_NANOS;
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() > deadline) fail(name + ": timed out");
+            Thread.sleep(1);
+        }
+    }
+}
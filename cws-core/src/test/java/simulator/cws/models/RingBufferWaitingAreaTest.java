@@ -0,0 +1,118 @@
+package simulator.cws.models;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Several cars and pumps hammer a small ring buffer so that every slot is
+// reused many times; every car put in must come out exactly once.
+class RingBufferWaitingAreaTest {
+
+    @Test
+    void manyProducersAndConsumersNeitherLoseNorDuplicateCars() throws InterruptedException {
+        int producers = 4, consumers = 4, carsPerProducer = 25_000;
+        int cars = producers * carsPerProducer;
+        RingBufferWaitingArea area = new RingBufferWaitingArea(5, false);
+        AtomicIntegerArray taken = new AtomicIntegerArray(cars + 1);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        CountDownLatch start = new CountDownLatch(1);
+
+        List<Thread> threads = new ArrayList<>();
+        for (int p = 0; p < producers; p++) {
+            int first = p * carsPerProducer + 1;
+            threads.add(new Thread(() -> {
+                try {
+                    start.await();
+                    for (int id = first; id < first + carsPerProducer; id++) {
+                        area.reserve();
+                        area.put(new Car(id, area));
+                    }
+                } catch (Throwable e) {
+                    failure.compareAndSet(null, e);
+                }
+            }, "car-" + p));
+        }
+        for (int c = 0; c < consumers; c++) {
+            int share = cars / consumers;
+            threads.add(new Thread(() -> {
+                try {
+                    start.await();
+                    for (int i = 0; i < share; i++) {
+                        Car car = area.take();
+                        taken.incrementAndGet(car.getCarId());
+                        area.vacate();
+                    }
+                } catch (Throwable e) {
+                    failure.compareAndSet(null, e);
+                }
+            }, "pump-" + c));
+        }
+
+        threads.forEach(Thread::start);
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join(TimeUnit.SECONDS.toMillis(30));
+            assertFalse(thread.isAlive(), thread.getName() + " is stuck");
+        }
+
+        assertNull(failure.get());
+        for (int id = 1; id <= cars; id++) {
+            assertEquals(1, taken.get(id), "car " + id);
+        }
+        assertEquals(0, area.size());
+    }
+
+    @Test
+    void carsLeaveInTheOrderTheyWerePut() throws InterruptedException {
+        RingBufferWaitingArea area = new RingBufferWaitingArea(3, false);
+        for (int lap = 0; lap < 4; lap++) {
+            Car[] cars = new Car[3];
+            for (int i = 0; i < cars.length; i++) {
+                cars[i] = new Car(lap * 3 + i + 1, area);
+                area.reserve();
+                area.put(cars[i]);
+            }
+            assertEquals(3, area.size());
+            for (Car car : cars) {
+                assertSame(car, area.take());
+                area.vacate();
+            }
+        }
+    }
+
+    @Test
+    void capacityIsNotRoundedUpToTheRingSize() throws InterruptedException {
+        RingBufferWaitingArea area = new RingBufferWaitingArea(5, false);
+        for (int i = 1; i <= 5; i++) {
+            area.reserve();
+            area.put(new Car(i, area));
+        }
+
+        CountDownLatch reserved = new CountDownLatch(1);
+        Thread sixth = new Thread(() -> {
+            try {
+                area.reserve();
+                reserved.countDown();
+            } catch (InterruptedException ignored) {
+            }
+        });
+        sixth.start();
+        assertFalse(reserved.await(100, TimeUnit.MILLISECONDS), "a sixth car got a space");
+
+        area.take();
+        area.vacate();
+        assertTrue(reserved.await(10, TimeUnit.SECONDS));
+        sixth.join();
+    }
+}
@@ -0,0 +1,143 @@
+package simulator.cws.models;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+// Fairness, setPermits() waking waiters and argument checks of the AQS
+// based Semaphore. Waiters are started one at a time and each is seen
+// parked before the next starts, so their arrival order is known.
+class SemaphoreTest {
+    private static final long TIMEOUT_NANOS = TimeUnit.SECONDS.toNanos(10);
+
+    private final List<Thread> threads = new ArrayList<>();
+
+    @AfterEach
+    void stopThreads() throws InterruptedException {
+        for (Thread thread : threads) {
+            thread.interrupt();
+            thread.join(TimeUnit.SECONDS.toMillis(5));
+        }
+    }
+
+    @Test
+    void fairSemaphoreGrantsPermitsInArrivalOrder() throws InterruptedException {
+        Semaphore semaphore = new Semaphore(0, true);
+        ConcurrentLinkedQueue<Integer> order = new ConcurrentLinkedQueue<>();
+        int waiters = 8;
+        startWaiters(semaphore, waiters, order);
+
+        for (int i = 1; i <= waiters; i++) {
+            semaphore.release();
+            int acquired = i;
+            await(() -> order.size() == acquired);
+        }
+        assertEquals(List.of(0, 1, 2, 3, 4, 5, 6, 7), new ArrayList<>(order));
+    }
+
+    @Test
+    void fairSemaphoreDoesNotLetNewcomersBargeAheadOfWaiters() throws InterruptedException {
+        Semaphore semaphore = new Semaphore(0, true);
+        startWaiters(semaphore, 1, new ConcurrentLinkedQueue<>());
+
+        // the released permit is handed to the parked waiter, not to the caller
+        semaphore.release();
+        assertFalse(semaphore.tryAcquire());
+    }
+
+    @Test
+    void raisingPermitsWakesEveryWaiterItCanServe() throws InterruptedException {
+        Semaphore semaphore = new Semaphore(0);
+        ConcurrentLinkedQueue<Integer> acquired = new ConcurrentLinkedQueue<>();
+        startWaiters(semaphore, 4, acquired);
+
+        semaphore.setPermits(4);
+        await(() -> acquired.size() == 4);
+        assertEquals(0, semaphore.availablePermits());
+        assertEquals(0, semaphore.getQueueLength());
+    }
+
+    @Test
+    void raisingPermitsWakesNoMoreWaitersThanPermits() throws InterruptedException {
+        Semaphore semaphore = new Semaphore(0);
+        ConcurrentLinkedQueue<Integer> acquired = new ConcurrentLinkedQueue<>();
+        startWaiters(semaphore, 4, acquired);
+
+        semaphore.setPermits(2);
+        await(() -> acquired.size() == 2);
+        Thread.sleep(50);
+        assertEquals(2, acquired.size());
+        assertEquals(2, semaphore.getQueueLength());
+
+        semaphore.release();
+        semaphore.release();
+        await(() -> acquired.size() == 4);
+    }
+
+    @Test
+    void loweringPermitsHoldsBackLaterAcquires() {
+        Semaphore semaphore = new Semaphore(3);
+        semaphore.setPermits(1);
+        assertTrue(semaphore.tryAcquire());
+        assertFalse(semaphore.tryAcquire());
+    }
+
+    @Test
+    void acquiresThatParkAreCountedAsContentions() throws InterruptedException {
+        Semaphore semaphore = new Semaphore(1);
+        semaphore.acquire();
+        assertEquals(0, semaphore.getContentions());
+
+        ConcurrentLinkedQueue<Integer> acquired = new ConcurrentLinkedQueue<>();
+        startWaiters(semaphore, 1, acquired);
+        semaphore.release();
+        await(() -> acquired.size() == 1);
+        assertEquals(1, semaphore.getContentions());
+    }
+
+    @Test
+    void rejectsNegativePermits() {
+        assertThrows(IllegalArgumentException.class, () -> new Semaphore(-1));
+        Semaphore semaphore = new Semaphore(1);
+        assertThrows(IllegalArgumentException.class, () -> semaphore.setPermits(-1));
+        assertEquals(1, semaphore.availablePermits());
+    }
+
+    // starts count threads that each acquire once and then add their index to acquired
+    private void startWaiters(Semaphore semaphore, int count, ConcurrentLinkedQueue<Integer> acquired)
+            throws InterruptedException {
+        for (int i = 0; i < count; i++) {
+            int index = i;
+            Thread thread = new Thread(() -> {
+                try {
+                    semaphore.acquire();
+                    acquired.add(index);
+                } catch (InterruptedException ignored) {
+                }
+            }, "waiter-" + i);
+            threads.add(thread);
+            int queued = semaphore.getQueueLength();
+            thread.start();
+            await(() -> semaphore.getQueueLength() == queued + 1);
+        }
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TIMEOUT_NANOS;
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() > deadline) fail("timed out");
+            Thread.sleep(1);
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package simulator.cws.models;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+// Fills a live station so that both pumps are busy, the waiting area is
+// full and cars wait outside, snapshots it, and checks that the snapshot
+// survives writeTo/readFrom unchanged and that a new station resumed from it
+// serves every car.
+class StationSnapshotTest {
+    private static final long TIMEOUT_NANOS = TimeUnit.SECONDS.toNanos(20);
+    private static final int AREA = 4, PUMPS = 2, CARS = 9;
+
+    private ServiceStation station, resumed;
+
+    @AfterEach
+    void shutdown() {
+        if (station != null) station.shutdown();
+        if (resumed != null) resumed.shutdown();
+    }
+
+    @Test
+    void snapshotSurvivesWriteAndRead() throws Exception {
+        StationSnapshot snapshot = fullStationSnapshot();
+        byte[] bytes = write(snapshot);
+        StationSnapshot copy = StationSnapshot.readFrom(new ByteArrayInputStream(bytes));
+
+        assertEquals(snapshot.getWaitingAreaSize(), copy.getWaitingAreaSize());
+        assertEquals(snapshot.getNumPumps(), copy.getNumPumps());
+        assertEquals(snapshot.getCarCounter(), copy.getCarCounter());
+        assertEquals(snapshot.getCapturedAtMillis(), copy.getCapturedAtMillis());
+        assertEquals(snapshot.getClassRandomState(), copy.getClassRandomState());
+        assertArrayEquals(snapshot.getQueuedCars(), copy.getQueuedCars());
+        assertArrayEquals(snapshot.getQueuedClasses(), copy.getQueuedClasses());
+        assertArrayEquals(snapshot.getOutsideCars(), copy.getOutsideCars());
+        assertArrayEquals(snapshot.getOutsideClasses(), copy.getOutsideClasses());
+        for (int pumpId = 1; pumpId <= PUMPS; pumpId++) {
+            assertEquals(snapshot.getServingCar(pumpId), copy.getServingCar(pumpId));
+            assertEquals(snapshot.getRemainingServiceNanos(pumpId), copy.getRemainingServiceNanos(pumpId));
+            assertEquals(snapshot.getRemainingCooldownNanos(pumpId), copy.getRemainingCooldownNanos(pumpId));
+            assertEquals(snapshot.getRandomState(pumpId), copy.getRandomState(pumpId));
+        }
+        assertArrayEquals(bytes, write(copy));
+    }
+
+    @Test
+    void snapshotHoldsEveryCarExactlyOnce() throws Exception {
+        StationSnapshot snapshot = fullStationSnapshot();
+        assertEquals(CARS, snapshot.getCarCounter());
+        assertEquals(AREA, snapshot.getQueuedCars().length);
+        assertEquals(CARS - AREA - PUMPS, snapshot.getOutsideCars().length);
+
+        int[] all = new int[CARS];
+        int n = 0;
+        for (int carId : snapshot.getQueuedCars()) all[n++] = carId;
+        for (int carId : snapshot.getOutsideCars()) all[n++] = carId;
+        for (int pumpId = 1; pumpId <= PUMPS; pumpId++) {
+            all[n++] = snapshot.getServingCar(pumpId);
+            assertTrue(snapshot.getRemainingServiceNanos(pumpId) > 0, "pump " + pumpId + " is serving");
+        }
+        Arrays.sort(all);
+        assertArrayEquals(new int[]{1, 2, 3, 4, 5, 6, 7, 8, 9}, all);
+    }
+
+    @Test
+    void resumedStationServesEveryCarAndKeepsNumbering() throws Exception {
+        StationSnapshot snapshot = StationSnapshot.readFrom(new ByteArrayInputStream(write(fullStationSnapshot())));
+        station.shutdown();
+
+        resumed = new ServiceStation(AREA, PUMPS);
+        resumed.resumeSimulation(snapshot, ServiceTime.deterministic(1_000_000L), null, null);
+        assertEquals(CARS, resumed.getMetrics().getArrivals());
+        assertEquals(0, resumed.getMetrics().getCompletions());
+
+        await(() -> resumed.getMetrics().getCompletions() == CARS);
+        assertEquals(CARS, resumed.getMetrics().getWaitTimes().getCount());
+        assertEquals(CARS + 1, resumed.addCar(null));
+        await(() -> resumed.getMetrics().getCompletions() == CARS + 1);
+    }
+
+    // before the restored pump threads have run, the pumps must already count as serving
+    @Test
+    void snapshotRightAfterResumeSeesTheRestoredServices() throws Exception {
+        StationSnapshot snapshot = fullStationSnapshot();
+        station.shutdown();
+
+        resumed = new ServiceStation(AREA, PUMPS);
+        resumed.resumeSimulation(snapshot, ServiceTime.deterministic(1_000_000L), null, null);
+        StationSnapshot again = resumed.snapshot();
+
+        assertEquals(CARS, again.getCarCounter());
+        assertArrayEquals(snapshot.getQueuedCars(), again.getQueuedCars());
+        assertArrayEquals(snapshot.getOutsideCars(), again.getOutsideCars());
+        for (int pumpId = 1; pumpId <= PUMPS; pumpId++) {
+            assertEquals(snapshot.getServingCar(pumpId), again.getServingCar(pumpId), "pump " + pumpId);
+            long remaining = again.getRemainingServiceNanos(pumpId);
+            assertTrue(remaining > 0 && remaining <= snapshot.getRemainingServiceNanos(pumpId),
+                    "pump " + pumpId + " remaining " + remaining);
+        }
+
+        // the serving cars were live in the metrics too, so a second resume still serves all of them
+        resumed.shutdown();
+        resumed = new ServiceStation(AREA, PUMPS);
+        resumed.resumeSimulation(again, ServiceTime.deterministic(1_000_000L), null, null);
+        await(() -> resumed.getMetrics().getCompletions() == CARS);
+        assertEquals(CARS, resumed.getMetrics().getWaitTimes().getCount());
+    }
+
+    @Test
+    void resumeRejectsAStationTooSmallForTheSnapshot() throws Exception {
+        StationSnapshot snapshot = fullStationSnapshot();
+        resumed = new ServiceStation(AREA - 1, PUMPS);
+        assertThrows(IllegalArgumentException.class,
+                () -> resumed.resumeSimulation(snapshot, ServiceTime.deterministic(1_000_000L), null, null));
+    }
+
+    // a running station with both pumps in a 2 s service, a full area and the rest outside
+    private StationSnapshot fullStationSnapshot() throws InterruptedException {
+        station = new ServiceStation(AREA, PUMPS);
+        station.startSimulation(ServiceTime.deterministic(TimeUnit.SECONDS.toNanos(2)), null);
+        for (int i = 0; i < CARS; i++) {
+            station.addCar(null);
+        }
+        await(() -> station.getServicedCars() == PUMPS && station.getWaitingCars() == AREA
+                && station.getCarsOutside() == CARS - AREA - PUMPS);
+        return station.snapshot();
+    }
+
+    private static byte[] write(StationSnapshot snapshot) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        snapshot.writeTo(out);
+        return out.toByteArray();
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TIMEOUT_NANOS;
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() > deadline) fail("timed out");
+            Thread.sleep(1);
+        }
+    }
+}
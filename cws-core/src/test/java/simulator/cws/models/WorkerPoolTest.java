@@ -0,0 +1,125 @@
+package simulator.cws.models;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import simulator.cws.utlils.PumpObserver;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+// Pump threads are kept across reset() and the next start, and an idle
+// worker ends once its keep-alive runs out, however often it is interrupted
+// in the meantime. Threads are told apart by capturing them from inside the
+// tasks they run.
+class WorkerPoolTest {
+    private static final long TIMEOUT_NANOS = TimeUnit.SECONDS.toNanos(20);
+    private static final long KEEP_ALIVE_NANOS = TimeUnit.MILLISECONDS.toNanos(200);
+    private static final int PUMPS = 3;
+
+    private ServiceStation station;
+    private WorkerPool pool;
+
+    @AfterEach
+    void shutdown() {
+        if (station != null) station.shutdown();
+        if (pool != null) pool.shutdown();
+    }
+
+    @Test
+    void pumpsRunOnTheSameThreadsAfterReset() throws InterruptedException {
+        station = new ServiceStation(PUMPS, PUMPS);
+        station.setCooldownNanos(0);
+        PumpThreads first = run(station);
+        station.reset();
+        PumpThreads second = run(station);
+
+        for (int pumpId = 1; pumpId <= PUMPS; pumpId++) {
+            assertSame(first.get(pumpId), second.get(pumpId), "pump " + pumpId);
+        }
+    }
+
+    @Test
+    void idleWorkerEndsAfterTheKeepAliveAndItsSlotStartsANewOne() throws InterruptedException {
+        pool = new WorkerPool(ExecutionMode.PLATFORM, KEEP_ALIVE_NANOS);
+        Thread first = runOn(pool, 0);
+        assertSame(first, runOn(pool, 0), "reused while within the keep-alive");
+
+        await(() -> !first.isAlive());
+        Thread second = runOn(pool, 0);
+        assertNotSame(first, second);
+        assertTrue(second.isAlive());
+    }
+
+    // each interrupt ends one awaitNanos early; the worker must still retire on time
+    @Test
+    void interruptsWhileIdleDoNotExtendTheKeepAlive() throws InterruptedException {
+        pool = new WorkerPool(ExecutionMode.PLATFORM, KEEP_ALIVE_NANOS);
+        Thread worker = runOn(pool, 0);
+        long started = System.nanoTime();
+        while (worker.isAlive()) {
+            if (System.nanoTime() - started > 10 * KEEP_ALIVE_NANOS) fail("still idling after 10 keep-alives");
+            worker.interrupt();
+            Thread.sleep(10);
+        }
+    }
+
+    private static Thread runOn(WorkerPool pool, int slot) throws InterruptedException {
+        AtomicReference<Thread> thread = new AtomicReference<>();
+        CountDownLatch done = new CountDownLatch(1);
+        pool.execute(slot, () -> {
+            thread.set(Thread.currentThread());
+            done.countDown();
+        }, "task");
+        assertTrue(done.await(20, TimeUnit.SECONDS));
+        pool.awaitIdle();
+        return thread.get();
+    }
+
+    // thread of each pump, seen from its first login
+    private static PumpThreads run(ServiceStation station) throws InterruptedException {
+        PumpThreads threads = new PumpThreads();
+        station.startSimulation(ServiceTime.deterministic(TimeUnit.MILLISECONDS.toNanos(20)), threads);
+        for (int i = 0; i < 10 * PUMPS; i++) {
+            station.addCar(null);
+        }
+        await(() -> threads.size() == PUMPS);
+        assertEquals(PUMPS, threads.size());
+        return threads;
+    }
+
+    private static final class PumpThreads extends ConcurrentHashMap<Integer, Thread> implements PumpObserver {
+        @Override
+        public void onCarLogins(int pumpId, int carId) {
+            putIfAbsent(pumpId, Thread.currentThread());
+        }
+
+        @Override
+        public void onCarBeginsService(int pumpId, int carId) {
+        }
+
+        @Override
+        public void onCarFinishesService(int pumpId, int carId) {
+        }
+
+        @Override
+        public void onException(String message) {
+        }
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TIMEOUT_NANOS;
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() > deadline) fail("timed out");
+            Thread.sleep(1);
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package simulator.cws.network;
+
+import org.junit.jupiter.api.Test;
+import simulator.cws.engine.VirtualStation;
+import simulator.cws.load.ArrivalProcess;
+import simulator.cws.metrics.StationMetrics;
+import simulator.cws.models.ServiceTime;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// The same seeded network run on 1, 2 and as many shards as stations must
+// give every station the same arrivals, completions, diversions and waits.
+class StationNetworkTest {
+    private static final long MINUTE = 60_000_000_000L;
+    private static final int STATIONS = 16;
+    private static final int[] SHARDS = {1, 2, 3, STATIONS};
+
+    @Test
+    void leastLoadedRoutingIsTheSameOnAnyNumberOfShards() throws InterruptedException {
+        assertSameOnEveryShardCount(RoutingPolicy.leastLoaded());
+    }
+
+    @Test
+    void overflowRoutingIsTheSameOnAnyNumberOfShards() throws InterruptedException {
+        assertSameOnEveryShardCount(RoutingPolicy.overflow(0.7));
+    }
+
+    // stopping and continuing between windows must not change the course either
+    @Test
+    void runningInStepsMatchesOneRun() throws InterruptedException {
+        StationNetwork whole = network(3, RoutingPolicy.leastLoaded());
+        whole.run(12 * 60 * MINUTE);
+        StationNetwork steps = network(3, RoutingPolicy.leastLoaded());
+        steps.run(5 * 60 * MINUTE + 12_345);
+        steps.run(12 * 60 * MINUTE);
+        assertArrayEquals(counts(whole), counts(steps));
+    }
+
+    @Test
+    void everyDivertedCarArrivesSomewhere() throws InterruptedException {
+        StationNetwork network = network(2, RoutingPolicy.leastLoaded());
+        network.run(12 * 60 * MINUTE);
+        long in = 0;
+        for (int i = 0; i < STATIONS; i++) in += network.getDivertedIn(i);
+        assertTrue(network.getDivertedCars() > 0, "the run should divert cars");
+        assertEquals(network.getDivertedCars(), in + network.getCarsInTransit());
+    }
+
+    private static void assertSameOnEveryShardCount(RoutingPolicy routing) throws InterruptedException {
+        long[] expected = null;
+        for (int shards : SHARDS) {
+            StationNetwork network = network(shards, routing);
+            network.run(12 * 60 * MINUTE);
+            assertEquals(Math.min(shards, STATIONS), network.getNumShards());
+            long[] counts = counts(network);
+            if (expected == null) {
+                expected = counts;
+                assertTrue(network.getDivertedCars() > 0, "the run should divert cars");
+            } else {
+                assertArrayEquals(expected, counts, shards + " shards");
+            }
+        }
+    }
+
+    // per station: arrivals, completions, cars diverted out and in, and the sum of waits
+    private static long[] counts(StationNetwork network) {
+        long[] counts = new long[STATIONS * 5];
+        for (int i = 0; i < STATIONS; i++) {
+            StationMetrics metrics = network.getStation(i).getMetrics();
+            counts[5 * i] = metrics.getArrivals();
+            counts[5 * i + 1] = metrics.getCompletions();
+            counts[5 * i + 2] = network.getDivertedOut(i);
+            counts[5 * i + 3] = network.getDivertedIn(i);
+            counts[5 * i + 4] = metrics.getWaitTimes().getSum();
+        }
+        return counts;
+    }
+
+    // a 4 x 4 grid, every fourth site busier than the rest
+    private static StationNetwork network(int shards, RoutingPolicy routing) {
+        StationNetwork network = new StationNetwork(shards)
+                .setRouting(routing)
+                .setTravel(3 * MINUTE, 4 * MINUTE)
+                .setSeed(1);
+        for (int i = 0; i < STATIONS; i++) {
+            VirtualStation station = new VirtualStation(8, 4);
+            station.getMetrics().setRecordSeries(false);
+            double carsPerHour = i % 4 == 0 ? 60 : 30;
+            station.setArrivalSource(ArrivalProcess.poisson(carsPerHour / 3600)
+                    .asSource(new SplittableRandom(i), Long.MAX_VALUE));
+            station.startSimulation(0, null);
+            station.setServiceTime(ServiceTime.exponential(5 * MINUTE));
+            station.setSeed(i);
+            network.addStation(station, i % 4, i / 4);
+        }
+        return network;
+    }
+}
@@ -0,0 +1,65 @@
+package simulator.cws.planning;
+
+import org.junit.jupiter.api.Test;
+import simulator.cws.models.ServiceTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// 120 cars an hour at 2 minutes of exponential service is a = 4 erlangs.
+// The p95 wait is 289 s with 5 pumps, 104 s with 6 and 40 s with 7, so a
+// 3 minute SLA needs 6 pumps and 5 misses it even with the slack.
+class CapacityPlannerTest {
+    private static final long HOUR = 3_600_000_000_000L;
+
+    @Test
+    void picksTheCheapestConfigurationThatMeetsTheSla() throws InterruptedException {
+        Plan plan = planner().plan(Sla.perHour(120, 95, 180));
+
+        assertTrue(plan.isFeasible());
+        Candidate chosen = plan.chosen();
+        assertEquals(6, chosen.numPumps());
+        assertEquals(1, chosen.waitingAreaSize());
+        assertTrue(chosen.analyticMeets());
+        assertTrue(chosen.confirmed());
+        assertNotNull(chosen.simulatedWait());
+        assertTrue(chosen.simulatedWait().upper() <= 180);
+
+        // every configuration simulated before it was cheaper and failed
+        for (Candidate candidate : plan.simulated()) {
+            if (candidate == chosen) break;
+            assertTrue(candidate.cost() <= chosen.cost());
+            assertFalse(candidate.confirmed());
+        }
+        assertEquals(chosen, plan.simulated().get(plan.simulated().size() - 1));
+        assertEquals(10, plan.analyticEvaluations());
+    }
+
+    @Test
+    void analyticScoresFollowTheQueueModel() {
+        Sla sla = Sla.perHour(120, 95, 180);
+        CapacityPlanner planner = planner();
+        assertFalse(planner.analytic(sla, 5, 1).analyticMeets());
+        Candidate six = planner.analytic(sla, 6, 1);
+        assertTrue(six.analyticMeets());
+        assertEquals(104.3776, six.analyticWait(), 1e-3);
+        assertEquals(6.1, six.cost(), 1e-9);
+    }
+
+    @Test
+    void noConfigurationWithinTheBoundsIsInfeasible() throws InterruptedException {
+        Plan plan = planner().setBounds(4, 1).plan(Sla.perHour(120, 95, 180));
+        assertFalse(plan.isFeasible());
+        assertEquals(0, plan.promising());
+    }
+
+    private static CapacityPlanner planner() {
+        return new CapacityPlanner()
+                .setServiceTime(ServiceTime.exponential(120_000_000_000L))
+                .setBounds(10, 10)
+                .setSimulation(HOUR, 24 * HOUR, 4, 42)
+                .setParallelism(2);
+    }
+}
@@ -0,0 +1,91 @@
+package simulator.cws.planning;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Closed forms against values worked out by hand or found in queueing
+// texts. Rates are per second throughout.
+class QueueModelTest {
+    private static final double EPS = 1e-9;
+
+    // M/M/1: P(wait) = rho, Wq = rho / (mu - lambda), P(W > t) = rho e^-(mu - lambda) t
+    @Test
+    void singlePumpMatchesMM1() {
+        QueueModel model = new QueueModel(0.5, 1, 1, -1);
+        assertTrue(model.isStable());
+        assertEquals(0.5, model.getWaitProbability(), EPS);
+        assertEquals(1.0, model.getMeanWait(), EPS);
+        assertEquals(0.5, model.getUtilization(), EPS);
+        assertEquals(0, model.getBlockingProbability());
+        assertEquals(0.5 * Math.exp(-0.5 * 3), model.waitExceeds(3), EPS);
+        assertEquals(2 * Math.log(10), model.getWaitPercentile(0.95), EPS);
+        assertEquals(0, model.getWaitPercentile(0.4));
+    }
+
+    // Erlang C(2, 1) = 1/3 and C(10, 8) = 0.40918
+    @Test
+    void erlangCMatchesKnownValues() {
+        assertEquals(1.0 / 3, new QueueModel(1, 1, 2, -1).getWaitProbability(), EPS);
+        QueueModel tenPumps = new QueueModel(8, 1, 10, -1);
+        assertEquals(0.4091801508, tenPumps.getWaitProbability(), EPS);
+        assertEquals(0.4091801508 / 2, tenPumps.getMeanWait(), EPS);
+    }
+
+    // hundreds of pumps would overflow a^n / n! in doubles, not in log space
+    @Test
+    void largeStationsStayFinite() {
+        QueueModel model = new QueueModel(480, 1, 500, -1);
+        double p = model.getWaitProbability();
+        assertTrue(p > 0 && p < 1, "P(wait) " + p);
+        assertTrue(Double.isFinite(model.getWaitPercentile(0.99)));
+
+        QueueModel finite = new QueueModel(480, 1, 500, 300);
+        assertTrue(finite.getBlockingProbability() > 0 && finite.getBlockingProbability() < 0.01);
+    }
+
+    @Test
+    void overloadedStationWithoutBalkingIsUnstable() {
+        QueueModel model = new QueueModel(2, 1, 2, -1);
+        assertFalse(model.isStable());
+        assertEquals(1, model.getWaitProbability());
+        assertEquals(Double.POSITIVE_INFINITY, model.getMeanWait());
+        assertEquals(Double.POSITIVE_INFINITY, model.getWaitPercentile(0.5));
+    }
+
+    // M/M/1/K: P(block) = (1 - rho) rho^K / (1 - rho^(K+1)); Erlang B(2, 1) = 1/5
+    @Test
+    void blockingMatchesMMcK() {
+        QueueModel model = new QueueModel(0.5, 1, 1, 2);
+        assertEquals(1.0 / 15, model.getBlockingProbability(), EPS);
+        // P(n) is 8/15, 4/15, 2/15 for n = 0, 1, 2; admitted cars wait when they find 1 or 2
+        assertEquals((4.0 + 2) / 14, model.getWaitProbability(), EPS);
+        assertEquals((4.0 * 1 + 2 * 2) / 14, model.getMeanWait(), EPS);
+        assertEquals(0.5 * (1 - 1.0 / 15), model.getThroughput(), EPS);
+
+        assertEquals(0.2, new QueueModel(1, 1, 2, 0).getBlockingProbability(), EPS);
+        assertTrue(new QueueModel(5, 1, 2, 3).isStable(), "balking keeps an overloaded station stable");
+    }
+
+    // the bisection must invert waitExceeds, and a deep area approach M/M/1 without a limit
+    @Test
+    void waitPercentileInvertsTheTail() {
+        QueueModel model = new QueueModel(2.5, 1, 3, 6);
+        for (double quantile : new double[]{0.8, 0.9, 0.95, 0.99}) {
+            double t = model.getWaitPercentile(quantile);
+            assertEquals(1 - quantile, model.waitExceeds(t), 1e-9, "q " + quantile);
+        }
+        assertEquals(2 * Math.log(10), new QueueModel(0.5, 1, 1, 500).getWaitPercentile(0.95), 1e-6);
+        assertThrows(IllegalArgumentException.class, () -> model.getWaitPercentile(1));
+    }
+
+    @Test
+    void rejectsBadArguments() {
+        assertThrows(IllegalArgumentException.class, () -> new QueueModel(0, 1, 1, -1));
+        assertThrows(IllegalArgumentException.class, () -> new QueueModel(1, 0, 1, -1));
+        assertThrows(IllegalArgumentException.class, () -> new QueueModel(1, 1, 0, -1));
+    }
+}
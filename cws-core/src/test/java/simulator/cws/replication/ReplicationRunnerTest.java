@@ -0,0 +1,86 @@
+package simulator.cws.replication;
+
+import org.junit.jupiter.api.Test;
+import simulator.cws.load.ArrivalProcess;
+import simulator.cws.models.ServiceTime;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// A replication depends only on the spec and its index: the same spec must
+// give the same fingerprints and the same report, whatever the thread count.
+class ReplicationRunnerTest {
+    private static final long MINUTE = 60_000_000_000L;
+
+    @Test
+    void sameSpecGivesTheSameReport() throws InterruptedException {
+        ReplicationReport first = new ReplicationRunner(spec(), 1).run();
+        ReplicationReport second = new ReplicationRunner(spec(), 4).run();
+
+        List<ReplicationResult> a = first.getResults();
+        List<ReplicationResult> b = second.getResults();
+        assertEquals(a.size(), b.size());
+        for (int i = 0; i < a.size(); i++) {
+            assertEquals(i, a.get(i).replication());
+            assertEquals(a.get(i).fingerprint(), b.get(i).fingerprint(), "replication " + i);
+            assertSameOutputs(a.get(i), b.get(i));
+        }
+        assertEquals(first.getMeanWait(), second.getMeanWait());
+        assertEquals(first.getWaitPercentile(), second.getWaitPercentile());
+        assertEquals(first.getThroughput(), second.getThroughput());
+        assertEquals(first.getUtilization(), second.getUtilization());
+        assertEquals(first.getCensoredRate(), second.getCensoredRate());
+
+        ReplicationResult alone = ReplicationRunner.runReplication(spec(), 2);
+        assertEquals(a.get(2).fingerprint(), alone.fingerprint());
+        assertNotEquals(a.get(1).fingerprint(), a.get(2).fingerprint());
+    }
+
+    @Test
+    void differentSeedsGiveDifferentRuns() {
+        long one = ReplicationRunner.runReplication(spec(), 0).fingerprint();
+        long other = ReplicationRunner.runReplication(spec().setSeed(43), 0).fingerprint();
+        assertNotEquals(one, other);
+    }
+
+    // arrivals at twice the service capacity leave a growing queue at the end
+    @Test
+    void carsStillWaitingAtTheEndAreCountedAsCensored() {
+        ReplicationSpec overloaded = spec().setArrivals(ArrivalProcess.poisson(2.0 / 60)).setWaitingAreaSize(1000);
+        ReplicationResult result = ReplicationRunner.runReplication(overloaded, 0);
+        assertTrue(result.censored() > result.arrivals() / 3, result.censored() + " of " + result.arrivals());
+        assertTrue(result.completions() < result.arrivals());
+
+        ReplicationResult light = ReplicationRunner.runReplication(spec(), 0);
+        assertTrue(light.censored() < light.arrivals() / 100, light.censored() + " of " + light.arrivals());
+    }
+
+    // everything but the elapsed time
+    private static void assertSameOutputs(ReplicationResult expected, ReplicationResult actual) {
+        String name = "replication " + expected.replication();
+        assertEquals(expected.arrivals(), actual.arrivals(), name);
+        assertEquals(expected.completions(), actual.completions(), name);
+        assertEquals(expected.balked(), actual.balked(), name);
+        assertEquals(expected.censored(), actual.censored(), name);
+        assertEquals(expected.meanWait(), actual.meanWait(), name);
+        assertEquals(expected.waitPercentile(), actual.waitPercentile(), name);
+        assertEquals(expected.utilization(), actual.utilization(), name);
+    }
+
+    // one pump at 50% load, four replications of eight hours
+    private static ReplicationSpec spec() {
+        return new ReplicationSpec()
+                .setWaitingAreaSize(10)
+                .setNumPumps(1)
+                .setServiceTime(ServiceTime.exponential(MINUTE))
+                .setArrivals(ArrivalProcess.poisson(0.5 / 60))
+                .setCooldownNanos(0)
+                .setWarmupNanos(60 * MINUTE)
+                .setDurationNanos(8 * 60 * MINUTE)
+                .setReplications(4)
+                .setSeed(42);
+    }
+}
@@ -0,0 +1,44 @@
+package simulator.cws.replication;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+// Quantiles against t table values, given here to more decimals than a
+// printed table carries.
+class StudentTTest {
+    private static final double TOLERANCE = 1e-6;
+
+    @Test
+    void quantilesMatchTheTable() {
+        assertEquals(12.7062047, StudentT.quantile(0.975, 1), TOLERANCE);
+        assertEquals(2.5705818, StudentT.quantile(0.975, 5), TOLERANCE);
+        assertEquals(2.2281389, StudentT.quantile(0.975, 10), TOLERANCE);
+        assertEquals(2.0422725, StudentT.quantile(0.975, 30), TOLERANCE);
+        assertEquals(3.3649303, StudentT.quantile(0.99, 5), TOLERANCE);
+    }
+
+    @Test
+    void quantilesAreSymmetricAndApproachTheNormal() {
+        assertEquals(-StudentT.quantile(0.975, 5), StudentT.quantile(0.025, 5), TOLERANCE);
+        assertEquals(0, StudentT.quantile(0.5, 7), TOLERANCE);
+        assertEquals(1.9599640, StudentT.quantile(0.975, 1_000_000), 1e-5);
+    }
+
+    @Test
+    void cdfInvertsTheQuantile() {
+        for (int df : new int[]{1, 2, 5, 30}) {
+            for (double p : new double[]{0.01, 0.3, 0.9, 0.995}) {
+                assertEquals(p, StudentT.cdf(StudentT.quantile(p, df), df), 1e-9, "df " + df + " p " + p);
+            }
+        }
+    }
+
+    @Test
+    void rejectsArgumentsOutsideTheDomain() {
+        assertThrows(IllegalArgumentException.class, () -> StudentT.quantile(0, 5));
+        assertThrows(IllegalArgumentException.class, () -> StudentT.quantile(1, 5));
+        assertThrows(IllegalArgumentException.class, () -> StudentT.quantile(0.5, 0));
+    }
+}
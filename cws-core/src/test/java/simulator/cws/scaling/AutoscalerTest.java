@@ -0,0 +1,99 @@
+package simulator.cws.scaling;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import simulator.cws.models.ServiceStation;
+import simulator.cws.models.ServiceTime;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+// Drives a live station with a fast control loop: a burst of cars has to
+// staff every pump, and once the queue is gone the staff has to shrink back
+// to the lower bound, one pump at a time.
+class AutoscalerTest {
+    private static final long TIMEOUT_NANOS = TimeUnit.SECONDS.toNanos(20);
+    private static final int AREA = 16, PUMPS = 4;
+
+    private ServiceStation station;
+    private Autoscaler autoscaler;
+
+    @AfterEach
+    void shutdown() {
+        if (autoscaler != null) autoscaler.stop();
+        if (station != null) station.shutdown();
+    }
+
+    @Test
+    void scalesUpUnderABurstAndBackDownWhenIdle() throws InterruptedException {
+        station = new ServiceStation(AREA, PUMPS);
+        station.setCooldownNanos(0);
+        station.startSimulation(ServiceTime.deterministic(TimeUnit.MILLISECONDS.toNanos(20)), null);
+        station.setActivePumps(1);
+        autoscaler = new Autoscaler(station)
+                .setIntervalNanos(TimeUnit.MILLISECONDS.toNanos(10))
+                .setTargetWaitNanos(TimeUnit.MILLISECONDS.toNanos(30))
+                .setHysteresis(1, 2);
+        autoscaler.start();
+        assertEquals(1, station.getActivePumps());
+
+        for (int i = 0; i < 200; i++) {
+            station.addCar(null);
+        }
+        await(() -> station.getActivePumps() == PUMPS);
+        await(() -> station.getMetrics().getCompletions() == 200);
+        await(() -> station.getActivePumps() == 1);
+
+        assertTrue(autoscaler.getScaleUps() >= 1);
+        assertTrue(autoscaler.getScaleDowns() >= PUMPS - 1);
+        List<ScalingDecision> decisions = autoscaler.getDecisions();
+        assertTrue(decisions.get(0).isScaleUp());
+        ScalingDecision last = decisions.get(decisions.size() - 1);
+        assertFalse(last.isScaleUp());
+        assertEquals(1, last.toPumps());
+        for (ScalingDecision decision : decisions) {
+            if (!decision.isScaleUp()) {
+                assertEquals(decision.fromPumps() - 1, decision.toPumps(), "scale down by one pump");
+            }
+        }
+        assertTrue(autoscaler.getAveragePumps() > 1 && autoscaler.getAveragePumps() < PUMPS);
+    }
+
+    @Test
+    void startClampsTheStaffToTheBounds() throws InterruptedException {
+        station = new ServiceStation(AREA, PUMPS);
+        station.startSimulation(ServiceTime.deterministic(TimeUnit.MILLISECONDS.toNanos(1)), null);
+        autoscaler = new Autoscaler(station).setBounds(2, 3).setIntervalNanos(TimeUnit.SECONDS.toNanos(10));
+        autoscaler.start();
+        assertEquals(3, station.getActivePumps());
+        assertThrows(IllegalStateException.class, autoscaler::start);
+    }
+
+    @Test
+    void rejectsBadSettingsAndAStoppedStation() {
+        station = new ServiceStation(AREA, PUMPS);
+        Autoscaler scaler = new Autoscaler(station);
+        assertThrows(IllegalArgumentException.class, () -> scaler.setBounds(0, 2));
+        assertThrows(IllegalArgumentException.class, () -> scaler.setBounds(3, 2));
+        assertThrows(IllegalArgumentException.class, () -> scaler.setBounds(1, PUMPS + 1));
+        assertThrows(IllegalArgumentException.class, () -> scaler.setIntervalNanos(0));
+        assertThrows(IllegalArgumentException.class, () -> scaler.setHysteresis(0, 1));
+        assertThrows(IllegalArgumentException.class, () -> scaler.setScaleDownBelow(1, 0.5));
+        assertThrows(IllegalStateException.class, scaler::start);
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TIMEOUT_NANOS;
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() > deadline) fail("timed out");
+            Thread.sleep(1);
+        }
+    }
+}
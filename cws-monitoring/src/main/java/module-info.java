@@ -0,0 +1,8 @@
+// The /metrics endpoint on the JDK's HTTP server, kept out of the core so the
+// core stays on java.base alone.
+module simulator.cws.monitoring {
+    requires transitive simulator.cws.core;
+    requires jdk.httpserver;
+
+    exports simulator.cws.monitoring.http;
+}
@@ -0,0 +1,87 @@
+package simulator.cws.monitoring.http;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import simulator.cws.models.ServiceStation;
+import simulator.cws.monitoring.PrometheusExporter;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+// Optional /metrics endpoint on the JDK HTTP server for scraping a running
+// station with Prometheus. Scrapes are answered one at a time on the
+// server's own daemon thread from PrometheusExporter, so they never take the
+// station's locks or run on the caller's (e.g. the FX) thread. The station
+// can be swapped while serving, e.g. when the GUI starts a new one.
+public class MetricsServer {
+    public static final int DEFAULT_PORT = 9400;
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private volatile ServiceStation station;
+
+    // port 0 picks a free one, see getPort()
+    public MetricsServer(int port) throws IOException {
+        this(new InetSocketAddress(InetAddress.getLoopbackAddress(), port));
+    }
+
+    public MetricsServer(InetSocketAddress address) throws IOException {
+        server = HttpServer.create(address, 0);
+        executor = Executors.newSingleThreadExecutor(task -> {
+            Thread thread = new Thread(task, "metrics-server");
+            thread.setDaemon(true);
+            return thread;
+        });
+        server.setExecutor(executor);
+        server.createContext("/metrics", this::handle);
+    }
+
+    public MetricsServer start() {
+        server.start();
+        return this;
+    }
+
+    public void stop() {
+        server.stop(0);
+        executor.shutdown();
+    }
+
+    // the station to report, null for none
+    public void setStation(ServiceStation station) {
+        this.station = station;
+    }
+
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            String method = exchange.getRequestMethod();
+            if (!method.equals("GET") && !method.equals("HEAD")) {
+                exchange.getResponseHeaders().set("Allow", "GET, HEAD");
+                exchange.sendResponseHeaders(405, -1);
+                return;
+            }
+
+            StringBuilder text = new StringBuilder(8192);
+            PrometheusExporter.write(station, text);
+            byte[] body = text.toString().getBytes(StandardCharsets.UTF_8);
+
+            exchange.getResponseHeaders().set("Content-Type", PrometheusExporter.CONTENT_TYPE);
+            if (method.equals("HEAD")) {
+                exchange.sendResponseHeaders(200, -1);
+                return;
+            }
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        }
+    }
+}
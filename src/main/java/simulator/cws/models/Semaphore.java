@@ -1,28 +0,0 @@
-package simulator.cws.models;
-
-public class Semaphore {
-    private int permits;
-
-    public Semaphore(int permits) {
-        this.permits = permits;
-    }
-
-    public synchronized void acquire() throws InterruptedException {
-        while (permits <= 0) {
-            wait();
-        }
-        permits--;
-    }
-
-    public synchronized void release() {
-        permits++;
-        notifyAll();
-    }
-
-    public synchronized void setPermits(int newPermits) {
-        this.permits = newPermits;
-    }
-    public synchronized int availablePermits() {
-        return permits;
-    }
-}